@@ -0,0 +1,324 @@
+package catalogos;
+
+import dominio.Categoria;
+import dominio.Dinero;
+import dominio.Gasto;
+
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Totales de gastos mantenidos de forma incremental: en general, por categoría y por mes
+ * (año y mes).
+ * <p>
+ * {@link CatalogoGastos} lo actualiza en cada alta, baja o modificación, de modo que las
+ * estadísticas se consultan sin recorrer los gastos. Cada grupo guarda solo contadores
+ * primitivos: sumar, contar y ampliar el mínimo o el máximo cuesta O(1) por cambio. Si se
+ * elimina el gasto que marcaba el mínimo o el máximo, el grupo solo lo anota y el extremo se
+ * recalcula al consultarlo, recorriendo las filas del grupo en las {@link ColumnasGastos} del
+ * catálogo. Las categorías se agrupan con la misma equivalencia de nombres que
+ * {@link Gasto#esDeCategoria}.
+ * </p>
+ * <p>
+ * Los meses se identifican por {@link YearMonth}, así que enero de 2024 y enero de 2025 son
+ * grupos distintos, y cada mes guarda además su desglose por categoría. Las consultas por
+ * intervalo de meses combinan los grupos ya calculados: cuestan O(meses), no O(gastos).
+ * </p>
+ * <p>
+ * Todo se acumula en céntimos ({@link Gasto#getCentimos()}): restar un gasto deshace
+ * exactamente su suma y el total no arrastra errores de redondeo tras muchas altas y bajas.
+ * </p>
+ * <p>
+ * No es seguro entre hilos: lo protege el cerrojo del catálogo que lo contiene.
+ * </p>
+ * @version 1.4
+ * @since 2026-10-17
+ */
+public class AgregadosGastos {
+    private final ColumnasGastos columnas;
+    private final Acumulador general;
+    private final Map<String, Acumulador> porCategoria = new HashMap<>();
+    private final NavigableMap<YearMonth, Mes> porMes = new TreeMap<>();
+
+    /**
+     * @param columnas columnas con los mismos gastos, de donde se recalculan los extremos
+     */
+    AgregadosGastos(ColumnasGastos columnas) {
+        this.columnas = columnas;
+        this.general = new Acumulador(columnas, false, null);
+    }
+
+    void anadir(Gasto gasto) {
+        general.anadir(gasto);
+        String clave = claveCategoria(gasto.getCategoria());
+        if (clave != null) {
+            porCategoria.computeIfAbsent(clave, c -> new Acumulador(columnas, true, null)).anadir(gasto);
+        }
+        if (gasto.getFecha() != null) {
+            YearMonth claveMes = YearMonth.from(gasto.getFecha());
+            Mes mes = porMes.computeIfAbsent(claveMes, m -> new Mes(columnas, m));
+            mes.total.anadir(gasto);
+            if (clave != null) {
+                mes.porCategoria.computeIfAbsent(clave, c -> new Acumulador(columnas, true, claveMes)).anadir(gasto);
+            }
+        }
+    }
+
+    void quitar(Gasto gasto) {
+        general.quitar(gasto);
+        String clave = claveCategoria(gasto.getCategoria());
+        if (clave != null) {
+            quitar(porCategoria, clave, gasto);
+        }
+        YearMonth claveMes = gasto.getFecha() != null ? YearMonth.from(gasto.getFecha()) : null;
+        Mes mes = claveMes != null ? porMes.get(claveMes) : null;
+        if (mes != null) {
+            mes.total.quitar(gasto);
+            if (clave != null) {
+                quitar(mes.porCategoria, clave, gasto);
+            }
+            if (mes.total.numero == 0) {
+                porMes.remove(claveMes);
+            }
+        }
+    }
+
+    private static <K> void quitar(Map<K, Acumulador> acumuladores, K clave, Gasto gasto) {
+        Acumulador acumulador = acumuladores.get(clave);
+        if (acumulador != null) {
+            acumulador.quitar(gasto);
+            if (acumulador.numero == 0) {
+                acumuladores.remove(clave);
+            }
+        }
+    }
+
+    public Resumen general() {
+        return general.resumen();
+    }
+
+    public Resumen categoria(Categoria categoria) {
+        Acumulador acumulador = porCategoria.get(claveCategoria(categoria));
+        return acumulador != null ? acumulador.resumen() : Resumen.VACIO;
+    }
+
+    public Resumen mes(YearMonth mes) {
+        Mes grupo = porMes.get(mes);
+        return grupo != null ? grupo.total.resumen() : Resumen.VACIO;
+    }
+
+    /**
+     * Resumen de cada categoría con gastos; los gastos sin categoría no aparecen.
+     */
+    public Map<Categoria, Resumen> porCategoria() {
+        Map<Categoria, Resumen> resultado = new HashMap<>();
+        porCategoria.values().forEach(acumulador -> resultado.put(acumulador.categoria, acumulador.resumen()));
+        return resultado;
+    }
+
+    /**
+     * Resumen de cada mes con gastos, en orden cronológico.
+     */
+    public Map<YearMonth, Resumen> porMes() {
+        return porMes(null, null);
+    }
+
+    /**
+     * Resumen de cada mes con gastos entre {@code desde} y {@code hasta}, ambos incluidos, en
+     * orden cronológico. Un extremo null deja el intervalo abierto por ese lado.
+     */
+    public Map<YearMonth, Resumen> porMes(YearMonth desde, YearMonth hasta) {
+        Map<YearMonth, Resumen> resultado = new TreeMap<>();
+        meses(desde, hasta).forEach((mes, grupo) -> resultado.put(mes, grupo.total.resumen()));
+        return resultado;
+    }
+
+    /**
+     * Resumen conjunto de los meses entre {@code desde} y {@code hasta}, ambos incluidos.
+     */
+    public Resumen entreMeses(YearMonth desde, YearMonth hasta) {
+        Resumen resultado = Resumen.VACIO;
+        for (Mes grupo : meses(desde, hasta).values()) {
+            resultado = resultado.combinar(grupo.total.resumen());
+        }
+        return resultado;
+    }
+
+    /**
+     * Desglose por categoría de los meses entre {@code desde} y {@code hasta}, ambos incluidos.
+     */
+    public Map<Categoria, Resumen> porCategoria(YearMonth desde, YearMonth hasta) {
+        Map<String, Resumen> porClave = new HashMap<>();
+        Map<String, Categoria> categorias = new HashMap<>();
+        for (Mes grupo : meses(desde, hasta).values()) {
+            grupo.porCategoria.forEach((clave, acumulador) -> {
+                porClave.merge(clave, acumulador.resumen(), Resumen::combinar);
+                categorias.putIfAbsent(clave, acumulador.categoria);
+            });
+        }
+        Map<Categoria, Resumen> resultado = new HashMap<>();
+        porClave.forEach((clave, resumen) -> resultado.put(categorias.get(clave), resumen));
+        return resultado;
+    }
+
+    private NavigableMap<YearMonth, Mes> meses(YearMonth desde, YearMonth hasta) {
+        if (desde != null && hasta != null && desde.isAfter(hasta)) {
+            return new TreeMap<>();
+        }
+        NavigableMap<YearMonth, Mes> rango = porMes;
+        if (desde != null) {
+            rango = rango.tailMap(desde, true);
+        }
+        if (hasta != null) {
+            rango = rango.headMap(hasta, true);
+        }
+        return rango;
+    }
+
+    private static String claveCategoria(Categoria categoria) {
+        return categoria != null ? categoria.getClave() : null;
+    }
+
+    /**
+     * Número de gastos, importe total, mínimo y máximo de un grupo en un momento dado.
+     */
+    public static final class Resumen {
+        static final Resumen VACIO = new Resumen(0, 0, 0, 0);
+
+        private final int numero;
+        private final long total;
+        private final long minimo;
+        private final long maximo;
+
+        Resumen(int numero, long total, long minimo, long maximo) {
+            this.numero = numero;
+            this.total = total;
+            this.minimo = minimo;
+            this.maximo = maximo;
+        }
+
+        public int getNumero() {
+            return numero;
+        }
+
+        public double getTotal() {
+            return Dinero.aEuros(total);
+        }
+
+        public long getTotalCentimos() {
+            return total;
+        }
+
+        /** Importe mínimo; 0 si no hay gastos. */
+        public double getMinimo() {
+            return Dinero.aEuros(minimo);
+        }
+
+        /** Importe máximo; 0 si no hay gastos. */
+        public double getMaximo() {
+            return Dinero.aEuros(maximo);
+        }
+
+        /** Importe medio; 0 si no hay gastos. */
+        public double getPromedio() {
+            return numero > 0 ? getTotal() / numero : 0.0;
+        }
+
+        Resumen combinar(Resumen otro) {
+            if (otro.numero == 0) {
+                return this;
+            }
+            if (numero == 0) {
+                return otro;
+            }
+            return new Resumen(numero + otro.numero, total + otro.total,
+                Math.min(minimo, otro.minimo), Math.max(maximo, otro.maximo));
+        }
+    }
+
+    private static final class Mes {
+        private final Acumulador total;
+        private final Map<String, Acumulador> porCategoria = new HashMap<>();
+
+        Mes(ColumnasGastos columnas, YearMonth mes) {
+            this.total = new Acumulador(columnas, false, mes);
+        }
+    }
+
+    /**
+     * Contadores de un grupo. El grupo se define por su categoría (la de {@link #categoria})
+     * si {@code filtraCategoria}, y por su mes si {@code mes} no es null; con eso se vuelven a
+     * localizar sus filas en las columnas cuando hay que recalcular los extremos.
+     */
+    private static final class Acumulador {
+        private final ColumnasGastos columnas;
+        private final boolean filtraCategoria;
+        private final YearMonth mes;
+        private int numero;
+        private long total;
+        private long minimo;
+        private long maximo;
+        private boolean extremosAlDia = true; // false tras quitar el gasto que marcaba alguno
+        private Categoria categoria; // una de las instancias agrupadas, para mostrarla
+
+        Acumulador(ColumnasGastos columnas, boolean filtraCategoria, YearMonth mes) {
+            this.columnas = columnas;
+            this.filtraCategoria = filtraCategoria;
+            this.mes = mes;
+        }
+
+        void anadir(Gasto gasto) {
+            long importe = gasto.getCentimos();
+            if (numero == 0) {
+                minimo = importe;
+                maximo = importe;
+                extremosAlDia = true;
+            } else {
+                minimo = Math.min(minimo, importe);
+                maximo = Math.max(maximo, importe);
+            }
+            numero++;
+            total += importe;
+            if (categoria == null) {
+                categoria = gasto.getCategoria();
+            }
+        }
+
+        void quitar(Gasto gasto) {
+            if (numero == 0) {
+                return;
+            }
+            long importe = gasto.getCentimos();
+            numero--;
+            total -= importe;
+            if (numero > 0 && (importe == minimo || importe == maximo)) {
+                extremosAlDia = false;
+            }
+        }
+
+        Resumen resumen() {
+            if (numero == 0) {
+                return Resumen.VACIO;
+            }
+            if (!extremosAlDia) {
+                recalcularExtremos();
+            }
+            return new Resumen(numero, total, minimo, maximo);
+        }
+
+        private void recalcularExtremos() {
+            int ordinal = filtraCategoria ? columnas.ordinal(categoria, false) : ColumnasGastos.CUALQUIER_CATEGORIA;
+            int desde = mes != null ? (int) mes.atDay(1).toEpochDay() : Integer.MIN_VALUE;
+            int hasta = mes != null ? (int) mes.atEndOfMonth().toEpochDay() : Integer.MAX_VALUE;
+            long[] extremos = columnas.extremos(ordinal, desde, hasta);
+            if (extremos != null) {
+                minimo = extremos[0];
+                maximo = extremos[1];
+            }
+            extremosAlDia = true;
+        }
+    }
+}
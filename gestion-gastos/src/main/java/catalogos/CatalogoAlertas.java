@@ -1,7 +1,10 @@
 package catalogos;
 
-import java.util.ArrayList;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import dominio.Alerta;
 import dominio.Gasto;
@@ -12,46 +15,85 @@ import dominio.Gasto;
  * <p>
  * Permite agregar, eliminar, buscar y verificar alertas sobre una lista de gastos. 
  * </p>
- * @version 1.0
+ * <p>
+ * Sincronizado: el repositorio vinculado lee las alertas al volcar los cambios, así que las
+ * alertas del catálogo se modifican con {@link #modificarAlerta(Alerta, Consumer)}, bajo el
+ * mismo cerrojo. Las alertas se indexan por id en orden de inserción. La lista de {@link #obtenerTodas()} es inmutable
+ * y se reutiliza hasta que se añade o elimina una alerta.
+ * </p>
+ * @version 1.5
  * @since 2025-11-14
  */
 
 
 public class CatalogoAlertas {
-    private List<Alerta> alertas;
+    private Map<String, Alerta> alertas;
+    private List<Alerta> instantanea;
     
     public CatalogoAlertas() {
-        this.alertas = new ArrayList<>();
+        this.alertas = new LinkedHashMap<>();
     }
     
-    public void agregarAlerta(Alerta alerta) {
+    public synchronized void agregarAlerta(Alerta alerta) {
         if (alerta != null) {
 
             alerta.getEstrategia(); // Esto fuerza la recreación si es null
-            alertas.add(alerta);
+            alertas.put(alerta.getId(), alerta);
+            instantanea = null;
         }
     }
     
-    public void eliminarAlerta(Alerta alerta) {
-        alertas.remove(alerta);
+    public synchronized void eliminarAlerta(Alerta alerta) {
+        if (alertas.remove(alerta.getId()) != null) {
+            instantanea = null;
+        }
     }
     
-    public Alerta buscarPorId(String id) {
-        return alertas.stream()
-                .filter(a -> a.getId().equals(id))
-                .findFirst()
-                .orElse(null);
+    /**
+     * Aplica {@code cambios} a una alerta sin que el repositorio la lea a medias. Los cambios
+     * no deben usar otros catálogos ni el repositorio.
+     */
+    public synchronized void modificarAlerta(Alerta alerta, Consumer<Alerta> cambios) {
+        cambios.accept(alerta);
     }
     
-    public List<Alerta> obtenerTodas() {
-        return new ArrayList<>(alertas);
+    public synchronized Alerta buscarPorId(String id) {
+        return id != null ? alertas.get(id) : null;
     }
     
+    public synchronized List<Alerta> obtenerTodas() {
+        if (instantanea == null) {
+            instantanea = List.copyOf(alertas.values());
+        }
+        return instantanea;
+    }
+    
+    
+    /**
+     * Fecha más antigua que necesita alguna alerta activa para verificarse a fecha {@code hoy};
+     * null si alguna no tiene límite inferior.
+     */
+    public synchronized LocalDate inicioPeriodoAlertasActivas(LocalDate hoy) {
+        LocalDate inicio = hoy;
+        for (Alerta alerta : alertas.values()) {
+            if (!alerta.isActiva() || alerta.getEstrategia() == null) {
+                continue;
+            }
+            LocalDate inicioAlerta = alerta.getEstrategia().inicioPeriodo(hoy);
+            if (inicioAlerta == null) {
+                return null;
+            }
+            if (inicioAlerta.isBefore(inicio)) {
+                inicio = inicioAlerta;
+            }
+        }
+        return inicio;
+    }
     
-    public void verificarTodasLasAlertas(List<Gasto> gastos) {
+    public synchronized void verificarTodasLasAlertas(List<Gasto> gastos) {
         if (gastos == null) return;
         
-        alertas.stream()
+        alertas.values().stream()
                 .filter(Alerta::isActiva)
                 .forEach(alerta -> {
 
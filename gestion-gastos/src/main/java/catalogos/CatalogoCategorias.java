@@ -1,10 +1,14 @@
 package catalogos;
 
-import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import dominio.Categoria;
+import dominio.NormalizadorTexto;
 
 /**
  * Catálogo responsable de la gestión centralizada de todas las categorías del sistema.
@@ -12,16 +16,36 @@ import dominio.Categoria;
  * Permite agregar nuevas categorías evitando duplicados, buscar categorías por nombre o id, eliminarlas,
  * obtener todas las categorías y conocer la cantidad existente. Al inicializarse, crea algunas categorías por defecto típicas de uso personal.
  * </p>
+ * <p>
+ * Sus métodos están sincronizados porque el repositorio vinculado lee de aquí las categorías.
+ * Se indexan por id, en orden de inserción, y por la clave de su nombre según el
+ * {@link NormalizadorTexto} del catálogo, de modo que buscar por nombre y comprobar que no se
+ * repite cuesta O(1). Por defecto se ignoran las mayúsculas, como hasta ahora; con
+ * {@link NormalizadorTexto#SIN_MAYUSCULAS_NI_ACENTOS} también los acentos.
+ * </p>
+ * <p>
+ * {@link #obtenerTodas()} no copia en cada llamada: devuelve la misma lista de solo lectura
+ * hasta que cambian las categorías.
+ * </p>
  *
- * @version 1.0
+ * @version 1.4
  * @since 2025-11-14
  */
 
 public class CatalogoCategorias {
-    private List<Categoria> categorias;
+    private Map<String, Categoria> categorias;
+    private final Map<String, Categoria> porNombre;
+    private final NormalizadorTexto normalizador;
+    private List<Categoria> instantanea;
     
     public CatalogoCategorias() {
-        this.categorias = new ArrayList<>();
+        this(NormalizadorTexto.SIN_MAYUSCULAS);
+    }
+
+    public CatalogoCategorias(NormalizadorTexto normalizador) {
+        this.categorias = new LinkedHashMap<>();
+        this.porNombre = new HashMap<>();
+        this.normalizador = normalizador;
         inicializarCategoriasDefault();
     }
 
@@ -33,42 +57,64 @@ public class CatalogoCategorias {
         agregarCategoria(new Categoria("Educación", "Libros, cursos"));
     }
     
-    public void agregarCategoria(Categoria categoria) {
-        validarNombreUnico(categoria.getNombre());
-        categorias.add(categoria);
+    public synchronized void agregarCategoria(Categoria categoria) {
+        String clave = normalizador.clave(categoria.getNombre());
+        validarNombreUnico(clave);
+        categorias.put(categoria.getId(), categoria);
+        instantanea = null;
+        porNombre.put(clave, categoria);
     }
 
-    private void validarNombreUnico(String nombre) {
-        boolean existe = categorias.stream()
-                .anyMatch(c -> c.getNombre().equalsIgnoreCase(nombre));
-        
-        if (existe) {
+    private void validarNombreUnico(String clave) {
+        if (porNombre.containsKey(clave)) {
             throw new IllegalArgumentException("Ya existe una categoría con ese nombre");
         }
     }
     
-    public Optional<Categoria> buscarPorNombre(String nombre) {
-        return categorias.stream()
-                .filter(c -> c.getNombre().equalsIgnoreCase(nombre))
-                .findFirst();
+    public synchronized Optional<Categoria> buscarPorNombre(String nombre) {
+        return Optional.ofNullable(porNombre.get(normalizador.clave(nombre)));
+    }
+
+    /**
+     * Devuelve la categoría con ese nombre o, si no existe, añade la que cree {@code crear}.
+     * Resuelve la búsqueda y el alta con una sola consulta al índice.
+     */
+    public synchronized Categoria buscarOCrear(String nombre, Supplier<Categoria> crear) {
+        Categoria existente = porNombre.get(normalizador.clave(nombre));
+        if (existente != null) {
+            return existente;
+        }
+        Categoria nueva = crear.get();
+        agregarCategoria(nueva);
+        return nueva;
     }
     
-    public Categoria buscarPorId(String id) {
-        return categorias.stream()
-                .filter(c -> c.getId().equals(id))
-                .findFirst()
-                .orElse(null);
+    public synchronized Categoria buscarPorId(String id) {
+        return id != null ? categorias.get(id) : null;
     }
     
-    public void eliminarCategoria(Categoria categoria) {
-        categorias.remove(categoria);
+    public synchronized void eliminarCategoria(Categoria categoria) {
+        Categoria eliminada = categorias.remove(categoria.getId());
+        if (eliminada == null) {
+            // Categoria se compara por nombre: otra instancia con el mismo nombre también vale
+            eliminada = porNombre.get(normalizador.clave(categoria.getNombre()));
+            if (eliminada == null || !eliminada.equals(categoria)) {
+                return;
+            }
+            categorias.remove(eliminada.getId());
+        }
+        porNombre.remove(normalizador.clave(eliminada.getNombre()));
+        instantanea = null;
     }
     
-    public List<Categoria> obtenerTodas() {
-        return new ArrayList<>(categorias);
+    public synchronized List<Categoria> obtenerTodas() {
+        if (instantanea == null) {
+            instantanea = List.copyOf(categorias.values());
+        }
+        return instantanea;
     }
     
-    public int cantidadCategorias() {
+    public synchronized int cantidadCategorias() {
         return categorias.size();
     }
 }
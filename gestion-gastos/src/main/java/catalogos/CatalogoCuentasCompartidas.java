@@ -1,7 +1,9 @@
 package catalogos;
 
-import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import dominio.CuentaCompartida;
 
@@ -10,34 +12,52 @@ import dominio.CuentaCompartida;
  * <p>
  * Permite añadir, buscar y eliminar cuentas y recuperar la colección completa. Aplica GRASP Information Expert para centralizar la gestión del ciclo de vida de cuentas compartidas.
  * </p>
- * @version 1.0
+ * <p>
+ * Sincronizado: el repositorio vinculado lee las cuentas al volcar los cambios, así que sus
+ * gastos y saldos se modifican con {@link #modificarCuenta(CuentaCompartida, Consumer)}, bajo
+ * el mismo cerrojo. Las cuentas se indexan por id en orden de inserción y
+ * {@link #obtenerTodas()} reutiliza una lista inmutable mientras no se añadan ni eliminen cuentas.
+ * </p>
+ * @version 1.4
  * @since 2025-11-14
  */
 
 
 public class CatalogoCuentasCompartidas {
-    private List<CuentaCompartida> cuentas;
+    private Map<String, CuentaCompartida> cuentas;
+    private List<CuentaCompartida> instantanea;
     
     public CatalogoCuentasCompartidas() {
-        this.cuentas = new ArrayList<>();
+        this.cuentas = new LinkedHashMap<>();
+    }
+    
+    public synchronized void agregarCuenta(CuentaCompartida cuenta) {
+        cuentas.put(cuenta.getId(), cuenta);
+        instantanea = null;
     }
     
-    public void agregarCuenta(CuentaCompartida cuenta) {
-        cuentas.add(cuenta);
+    public synchronized void eliminarCuenta(CuentaCompartida cuenta) {
+        if (cuentas.remove(cuenta.getId()) != null) {
+            instantanea = null;
+        }
     }
     
-    public void eliminarCuenta(CuentaCompartida cuenta) {
-        cuentas.remove(cuenta);
+    /**
+     * Aplica {@code cambios} a una cuenta sin que el repositorio la lea a medias. Los cambios
+     * no deben usar otros catálogos ni el repositorio.
+     */
+    public synchronized void modificarCuenta(CuentaCompartida cuenta, Consumer<CuentaCompartida> cambios) {
+        cambios.accept(cuenta);
     }
     
-    public CuentaCompartida buscarPorId(String id) {
-        return cuentas.stream()
-                .filter(c -> c.getId().equals(id))
-                .findFirst()
-                .orElse(null);
+    public synchronized CuentaCompartida buscarPorId(String id) {
+        return id != null ? cuentas.get(id) : null;
     }
     
-    public List<CuentaCompartida> obtenerTodas() {
-        return new ArrayList<>(cuentas);
+    public synchronized List<CuentaCompartida> obtenerTodas() {
+        if (instantanea == null) {
+            instantanea = List.copyOf(cuentas.values());
+        }
+        return instantanea;
     }
 }
@@ -1,80 +1,467 @@
 package catalogos;
 
 import dominio.Categoria;
+import dominio.Dinero;
 import dominio.Gasto;
 import dominio.filtros.Filtro;
+import dominio.filtros.Restricciones;
+import java.time.LocalDate;
 import java.time.Month;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Catálogo responsable de la gestión de todos los gastos individuales del sistema.
  * <p>
  * Permite añadir, eliminar, buscar y agrupar gastos, así como aplicar filtrados avanzados, agrupamiento por mes y categoría, y operaciones de resumen. 
  * </p>
- * @version 1.0
+ * <p>
+ * Es la copia de trabajo de los gastos que lee el repositorio vinculado
+ * ({@code Repositorio.vincular}), también desde su hilo de escritura, así que sus métodos
+ * están sincronizados.
+ * </p>
+ * <p>
+ * Los gastos se guardan en un {@link LinkedHashMap} por id: buscar o eliminar un gasto cuesta
+ * O(1) y el recorrido mantiene el orden en que se añadieron. Además se indexan por fecha en un
+ * {@link TreeMap}, de modo que {@link #rangoFechas(LocalDate, LocalDate)} cuesta O(log n + k),
+ * y por categoría, con la misma equivalencia de nombres que {@link Gasto#esDeCategoria}
+ * (sin distinguir mayúsculas): obtener los gastos de una categoría cuesta O(k) y contarlos O(1).
+ * Los totales se mantienen al día en un {@link AgregadosGastos}, y las sumas por intervalo de
+ * fechas arbitrario se calculan sobre la copia en columnas primitivas de {@link ColumnasGastos}.
+ * Como los índices dependen de los atributos del gasto, los gastos del catálogo se modifican
+ * con {@link #modificarGasto(Gasto, Consumer)}.
+ * </p>
+ * <p>
+ * {@link #obtenerTodos()} devuelve una instantánea inmutable que se guarda y se reutiliza
+ * hasta el siguiente alta o baja: las lecturas repetidas no copian nada, y quien conserve una
+ * instantánea antigua la sigue viendo igual aunque el catálogo cambie después.
+ * </p>
+ * <p>
+ * {@link #filtrar(Filtro)} usa las {@link Filtro#restricciones()} del filtro para elegir el
+ * índice que deja menos candidatos y solo evalúa el filtro sobre ellos. A partir de
+ * {@link #PROPIEDAD_UMBRAL_PARALELO} candidatos los copia bajo el cerrojo y los evalúa en
+ * paralelo, en el {@link java.util.concurrent.ForkJoinPool} común, tras soltarlo. En
+ * cualquier caso los gastos salen en el orden de inserción.
+ * </p>
+ * @version 1.15
  * @since 2025-11-14
  */
 
 
 public class CatalogoGastos {
-    private List<Gasto> gastos;
+    /** Propiedad del sistema con el número de candidatos desde el que se filtra en paralelo. */
+    public static final String PROPIEDAD_UMBRAL_PARALELO = "gestiongastos.filtros.umbralParalelo";
+    private static final int UMBRAL_PARALELO_DEFECTO = 200_000;
+
+    private Map<String, Gasto> gastos;
+    private NavigableMap<LocalDate, List<Gasto>> porFecha;
+    private Map<String, Map<String, Gasto>> porCategoria; // clave del nombre -> gastos por id
+    private AgregadosGastos agregados;
+    private ColumnasGastos columnas;
+    private List<Gasto> instantanea; // null si ha cambiado desde la última lectura
+    private long siguientePosicion; // posición de inserción del próximo gasto nuevo
+    private int umbralParalelo = Integer.getInteger(PROPIEDAD_UMBRAL_PARALELO, UMBRAL_PARALELO_DEFECTO);
     
     public CatalogoGastos() {
-        this.gastos = new ArrayList<>();
+        this.gastos = new LinkedHashMap<>();
+        this.porFecha = new TreeMap<>();
+        this.porCategoria = new HashMap<>();
+        this.columnas = new ColumnasGastos();
+        this.agregados = new AgregadosGastos(columnas);
     }
     
-    public void agregarGasto(Gasto gasto) {
+    public synchronized void agregarGasto(Gasto gasto) {
         if (gasto == null) {
             throw new IllegalArgumentException("El gasto no puede ser null");
         }
-        gastos.add(gasto);
+        Gasto anterior = gastos.put(gasto.getId(), gasto);
+        instantanea = null;
+        // Reemplazar un gasto con el mismo id conserva su sitio, como en el mapa
+        long posicion = anterior != null ? desindexar(anterior) : -1;
+        indexar(gasto, posicion >= 0 ? posicion : siguientePosicion++);
     }
     
-    public void eliminarGasto(Gasto gasto) {
-        gastos.remove(gasto);
+    public synchronized void eliminarGasto(Gasto gasto) {
+        Gasto eliminado = gastos.remove(gasto.getId());
+        if (eliminado != null) {
+            instantanea = null;
+            desindexar(eliminado);
+        }
     }
     
-    public Gasto buscarPorId(String id) {
-        return gastos.stream()
-                .filter(g -> g.getId().equals(id))
-                .findFirst()
-                .orElse(null);
+    public synchronized void eliminarGastos(Collection<Gasto> eliminados) {
+        eliminados.forEach(this::eliminarGasto);
+    }
+
+    /**
+     * Aplica {@code cambios} a un gasto del catálogo manteniendo los índices al día.
+     */
+    public synchronized void modificarGasto(Gasto gasto, Consumer<Gasto> cambios) {
+        boolean indexado = gastos.get(gasto.getId()) == gasto;
+        long posicion = indexado ? desindexar(gasto) : -1;
+        try {
+            cambios.accept(gasto);
+        } finally {
+            if (indexado) {
+                indexar(gasto, posicion);
+            }
+        }
+    }
+
+    /**
+     * Gastos con fecha entre {@code inicio} y {@code fin}, ambos incluidos, ordenados por fecha.
+     * Un extremo null deja el intervalo abierto por ese lado.
+     */
+    public synchronized List<Gasto> rangoFechas(LocalDate inicio, LocalDate fin) {
+        if (inicio != null && fin != null && inicio.isAfter(fin)) {
+            return new ArrayList<>();
+        }
+        NavigableMap<LocalDate, List<Gasto>> rango = porFecha;
+        if (inicio != null) {
+            rango = rango.tailMap(inicio, true);
+        }
+        if (fin != null) {
+            rango = rango.headMap(fin, true);
+        }
+        List<Gasto> resultado = new ArrayList<>();
+        rango.values().forEach(resultado::addAll);
+        return resultado;
+    }
+
+    private void indexar(Gasto gasto, long posicion) {
+        if (gasto.getFecha() != null) {
+            porFecha.computeIfAbsent(gasto.getFecha(), fecha -> new ArrayList<>(1)).add(gasto);
+        }
+        String clave = claveCategoria(gasto.getCategoria());
+        if (clave != null) {
+            porCategoria.computeIfAbsent(clave, c -> new LinkedHashMap<>()).put(gasto.getId(), gasto);
+        }
+        agregados.anadir(gasto);
+        columnas.anadir(gasto, posicion);
+    }
+
+    /** Quita el gasto de los índices y devuelve su posición de inserción. */
+    private long desindexar(Gasto gasto) {
+        List<Gasto> delDia = gasto.getFecha() != null ? porFecha.get(gasto.getFecha()) : null;
+        if (delDia != null) {
+            delDia.remove(gasto);
+            if (delDia.isEmpty()) {
+                porFecha.remove(gasto.getFecha());
+            }
+        }
+        String clave = claveCategoria(gasto.getCategoria());
+        Map<String, Gasto> deCategoria = clave != null ? porCategoria.get(clave) : null;
+        if (deCategoria != null) {
+            deCategoria.remove(gasto.getId());
+            if (deCategoria.isEmpty()) {
+                porCategoria.remove(clave);
+            }
+        }
+        agregados.quitar(gasto);
+        return columnas.quitar(gasto);
+    }
+
+    private static String claveCategoria(Categoria categoria) {
+        return categoria != null ? categoria.getClave() : null;
     }
     
-    public List<Gasto> obtenerTodos() {
-        return new ArrayList<>(gastos);
+    public synchronized Gasto buscarPorId(String id) {
+        return id != null ? gastos.get(id) : null;
+    }
+    
+    /**
+     * Todos los gastos en orden de inserción, en una lista inmutable compartida entre
+     * llamadas mientras el catálogo no cambie.
+     */
+    public synchronized List<Gasto> obtenerTodos() {
+        if (instantanea == null) {
+            instantanea = List.copyOf(gastos.values());
+        }
+        return instantanea;
+    }
+
+    public synchronized double calcularTotal() {
+        return agregados.general().getTotal();
     }
 
-    public double calcularTotal() {
-        return gastos.stream()
-                .mapToDouble(Gasto::getCantidad)
-                .sum();
+    /**
+     * Importe total de los gastos con fecha entre ambas, incluidas; null no limita.
+     */
+    public synchronized double calcularTotalEntre(LocalDate inicio, LocalDate fin) {
+        return Dinero.aEuros(columnas.totalEntre(inicio, fin));
     }
 
+    public synchronized double calcularTotalCategoriaEntre(Categoria categoria, LocalDate inicio, LocalDate fin) {
+        return Dinero.aEuros(columnas.totalCategoriaEntre(categoria, inicio, fin));
+    }
+
+    /**
+     * Importe total por categoría de los gastos con fecha entre ambas, en una sola pasada.
+     */
+    public synchronized Map<Categoria, Double> calcularTotalesPorCategoriaEntre(LocalDate inicio, LocalDate fin) {
+        long[] sumas = columnas.totalesPorCategoriaEntre(inicio, fin);
+        Map<Categoria, Double> totales = new HashMap<>();
+        for (int ordinal = 0; ordinal < sumas.length; ordinal++) {
+            if (sumas[ordinal] != 0) {
+                totales.put(columnas.categoria(ordinal), Dinero.aEuros(sumas[ordinal]));
+            }
+        }
+        return totales;
+    }
+
+    /** Número, total, mínimo y máximo de todos los gastos, sin recorrerlos. */
+    public synchronized AgregadosGastos.Resumen resumen() {
+        return agregados.general();
+    }
+
+    public synchronized Map<Categoria, AgregadosGastos.Resumen> resumenPorCategoria() {
+        return agregados.porCategoria();
+    }
+
+    /**
+     * Resumen de cada mes (año y mes) entre ambos, incluidos y en orden; null no limita.
+     */
+    public synchronized Map<YearMonth, AgregadosGastos.Resumen> resumenPorMes(YearMonth desde, YearMonth hasta) {
+        return agregados.porMes(desde, hasta);
+    }
+
+    public synchronized AgregadosGastos.Resumen resumenEntreMeses(YearMonth desde, YearMonth hasta) {
+        return agregados.entreMeses(desde, hasta);
+    }
+
+    public synchronized Map<Categoria, AgregadosGastos.Resumen> resumenPorCategoria(YearMonth desde, YearMonth hasta) {
+        return agregados.porCategoria(desde, hasta);
+    }
+
+    /**
+     * Gastos que pasan el filtro.
+     * <p>
+     * Cada restricción del filtro que tiene índice (intervalo de fechas, categorías, meses del
+     * año) da un conjunto de candidatos cuyo tamaño se cuenta sin recorrer gastos: se elige el
+     * menor y el filtro completo se evalúa solo sobre él; el resto de condiciones actúan como
+     * comprobación residual. Si ningún índice descarta nada, se evalúa sobre todos los gastos.
+     * </p>
+     * <p>
+     * Con al menos {@link #getUmbralParalelo()} candidatos, el filtro se evalúa en paralelo
+     * ya sin el cerrojo del catálogo, para que altas, bajas y la escritura del repositorio no
+     * esperen a los hilos del pool común. Bajo el cerrojo solo se copian los candidatos del
+     * índice a un array plano, con su posición de inserción, o se toma la instantánea de
+     * {@link #obtenerTodos()} si no hay índice. El resultado contiene los gastos que había al
+     * copiarlos; un gasto que se modifique mientras tanto puede evaluarse con sus atributos de
+     * antes o de después del cambio.
+     * </p>
+     * <p>
+     * Sea cual sea el acceso elegido, el resultado sale en el orden de inserción, el mismo de
+     * {@link #obtenerTodos()}: los candidatos de un índice se reordenan por la posición que
+     * cada gasto guarda en {@link ColumnasGastos}.
+     * </p>
+     */
     public List<Gasto> filtrar(Filtro filtro) {
-        return filtro.aplicar(gastos);
+        Restricciones restricciones = filtro.restricciones();
+        if (restricciones.esImposible()) {
+            return new ArrayList<>();
+        }
+        List<Gasto> todos = null;
+        Gasto[] copia = null;
+        long[] posiciones = null;
+        synchronized (this) {
+            List<Collection<Gasto>> candidatos = planificar(restricciones);
+            if (candidatos == null) {
+                todos = obtenerTodos();
+                if (todos.size() < umbralParalelo) {
+                    return filtro.aplicar(todos);
+                }
+            } else {
+                int numero = Math.toIntExact(contar(candidatos));
+                if (numero < umbralParalelo) {
+                    return filtrarCandidatos(filtro, candidatos);
+                }
+                copia = new Gasto[numero];
+                posiciones = new long[numero];
+                int i = 0;
+                for (Collection<Gasto> tramo : candidatos) {
+                    for (Gasto gasto : tramo) {
+                        copia[i] = gasto;
+                        posiciones[i++] = columnas.posicion(gasto.getId());
+                    }
+                }
+            }
+        }
+        if (todos != null) {
+            return filtro.aplicarEnParalelo(todos);
+        }
+        Gasto[] enParalelo = copia;
+        long[] posicionDe = posiciones;
+        return IntStream.range(0, enParalelo.length).parallel()
+            .filter(i -> filtro.cumple(enParalelo[i]))
+            .boxed()
+            .sorted(Comparator.comparingLong(i -> posicionDe[i]))
+            .map(i -> enParalelo[i])
+            .collect(Collectors.toList());
+    }
+
+    private List<Gasto> filtrarCandidatos(Filtro filtro, List<Collection<Gasto>> candidatos) {
+        List<Gasto> resultado = new ArrayList<>();
+        for (Collection<Gasto> tramo : candidatos) {
+            for (Gasto gasto : tramo) {
+                if (filtro.cumple(gasto)) {
+                    resultado.add(gasto);
+                }
+            }
+        }
+        // Los tramos del índice van por fecha o por categoría
+        resultado.sort(Comparator.comparingLong(gasto -> columnas.posicion(gasto.getId())));
+        return resultado;
+    }
+
+
+    /**
+     * Tramos disjuntos de candidatos del acceso por índice con menos gastos; null si ninguno
+     * deja menos que el catálogo entero.
+     */
+    private List<Collection<Gasto>> planificar(Restricciones restricciones) {
+        List<Collection<Gasto>> mejor = null;
+        long candidatosMejor = gastos.size();
+
+        List<List<Collection<Gasto>>> accesos = new ArrayList<>();
+        if (restricciones.getMeses() != null) {
+            accesos.add(tramosMeses(restricciones.getMeses(), restricciones.getDesde(), restricciones.getHasta()));
+        } else if (restricciones.limitaFechas()) {
+            accesos.add(tramosFechas(restricciones.getDesde(), restricciones.getHasta()));
+        }
+        if (restricciones.getCategorias() != null) {
+            accesos.add(tramosCategorias(restricciones.getCategorias()));
+        }
+        for (List<Collection<Gasto>> acceso : accesos) {
+            long candidatos = contar(acceso);
+            if (candidatos < candidatosMejor) {
+                mejor = acceso;
+                candidatosMejor = candidatos;
+            }
+        }
+        return mejor;
+    }
+
+    private static long contar(List<Collection<Gasto>> tramos) {
+        long candidatos = 0;
+        for (Collection<Gasto> tramo : tramos) {
+            candidatos += tramo.size();
+        }
+        return candidatos;
     }
 
-    public Map<Categoria, List<Gasto>> agruparPorCategoria() {
-        return gastos.stream()
-                .collect(Collectors.groupingBy(Gasto::getCategoria));
+    /** Número de candidatos desde el que {@link #filtrar(Filtro)} evalúa en paralelo. */
+    public synchronized int getUmbralParalelo() {
+        return umbralParalelo;
     }
 
-    public Map<Month, List<Gasto>> agruparPorMes() {
-        return gastos.stream()
+    public synchronized void setUmbralParalelo(int umbralParalelo) {
+        if (umbralParalelo < 1) {
+            throw new IllegalArgumentException("El umbral debe ser al menos 1");
+        }
+        this.umbralParalelo = umbralParalelo;
+    }
+
+    private List<Collection<Gasto>> tramosFechas(LocalDate inicio, LocalDate fin) {
+        NavigableMap<LocalDate, List<Gasto>> rango = porFecha;
+        if (inicio != null) {
+            rango = rango.tailMap(inicio, true);
+        }
+        if (fin != null) {
+            rango = rango.headMap(fin, true);
+        }
+        return new ArrayList<>(rango.values());
+    }
+
+    /**
+     * Días de los meses indicados de cada año con gastos, dentro del intervalo de fechas.
+     */
+    private List<Collection<Gasto>> tramosMeses(Set<Month> meses, LocalDate inicio, LocalDate fin) {
+        List<Collection<Gasto>> tramos = new ArrayList<>();
+        if (porFecha.isEmpty()) {
+            return tramos;
+        }
+        LocalDate primero = inicio != null && inicio.isAfter(porFecha.firstKey()) ? inicio : porFecha.firstKey();
+        LocalDate ultimo = fin != null && fin.isBefore(porFecha.lastKey()) ? fin : porFecha.lastKey();
+        for (YearMonth mes = YearMonth.from(primero); !mes.isAfter(YearMonth.from(ultimo)); mes = mes.plusMonths(1)) {
+            if (meses.contains(mes.getMonth())) {
+                LocalDate desde = mes.atDay(1).isBefore(primero) ? primero : mes.atDay(1);
+                LocalDate hasta = mes.atEndOfMonth().isAfter(ultimo) ? ultimo : mes.atEndOfMonth();
+                tramos.addAll(tramosFechas(desde, hasta));
+            }
+        }
+        return tramos;
+    }
+
+    private List<Collection<Gasto>> tramosCategorias(Set<Categoria> categorias) {
+        List<Collection<Gasto>> tramos = new ArrayList<>();
+        for (Categoria categoria : categorias) {
+            Map<String, Gasto> deCategoria = porCategoria.get(claveCategoria(categoria));
+            if (deCategoria != null) {
+                tramos.add(deCategoria.values());
+            }
+        }
+        return tramos;
+    }
+
+    /**
+     * Gastos agrupados por categoría a partir del índice; los gastos sin categoría no aparecen.
+     */
+    public synchronized Map<Categoria, List<Gasto>> agruparPorCategoria() {
+        Map<Categoria, List<Gasto>> grupos = new HashMap<>();
+        for (Map<String, Gasto> deCategoria : porCategoria.values()) {
+            List<Gasto> lista = new ArrayList<>(deCategoria.values());
+            grupos.put(lista.get(0).getCategoria(), lista);
+        }
+        return grupos;
+    }
+
+    /**
+     * Agrupa por mes del año, juntando el mismo mes de años distintos. Para cifras por año y
+     * mes sin recorrer los gastos, {@link #resumenPorMes(YearMonth, YearMonth)}.
+     */
+    public synchronized Map<Month, List<Gasto>> agruparPorMes() {
+        return gastos.values().stream()
                 .collect(Collectors.groupingBy(g -> g.getFecha().getMonth()));
     }
     
-    public List<Gasto> obtenerPorCategoria(Categoria categoria) {
-        return gastos.stream()
-                .filter(g -> g.esDeCategoria(categoria))
-                .collect(Collectors.toList());
+    public synchronized List<Gasto> obtenerPorCategoria(Categoria categoria) {
+        Map<String, Gasto> deCategoria = porCategoria.get(claveCategoria(categoria));
+        return deCategoria != null ? new ArrayList<>(deCategoria.values()) : new ArrayList<>();
+    }
+
+    /**
+     * Gastos de cualquiera de las categorías indicadas, agrupados por categoría.
+     */
+    public synchronized List<Gasto> obtenerPorCategorias(Collection<Categoria> categorias) {
+        List<Gasto> resultado = new ArrayList<>();
+        categorias.stream()
+                .map(CatalogoGastos::claveCategoria)
+                .distinct()
+                .map(porCategoria::get)
+                .filter(deCategoria -> deCategoria != null)
+                .forEach(deCategoria -> resultado.addAll(deCategoria.values()));
+        return resultado;
+    }
+
+    public synchronized int contarPorCategoria(Categoria categoria) {
+        Map<String, Gasto> deCategoria = porCategoria.get(claveCategoria(categoria));
+        return deCategoria != null ? deCategoria.size() : 0;
     }
     
-    public int cantidadGastos() {
+    public synchronized int cantidadGastos() {
         return gastos.size();
     }
 }
@@ -0,0 +1,197 @@
+package catalogos;
+
+import dominio.Categoria;
+import dominio.Gasto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copia en columnas de tipos primitivos de los datos numéricos de los gastos de un
+ * {@link CatalogoGastos}: día (epoch day), importe en céntimos y ordinal de categoría.
+ * <p>
+ * Sumar importes por intervalo de días o por categoría recorre arrays contiguos de
+ * {@code int} y {@code long} en lugar de seguir un puntero a cada {@link Gasto} y a su
+ * {@link LocalDate}. Las filas no guardan ningún orden: al eliminar, la última fila ocupa el
+ * hueco, así que altas y bajas cuestan O(1). Los importes se copian tal cual de
+ * {@link Gasto#getCentimos()}, así que las sumas son exactas.
+ * </p>
+ * <p>
+ * Cada fila guarda también la posición de inserción que le asigna el catálogo, para que este
+ * pueda devolver en orden de inserción gastos obtenidos de un índice.
+ * </p>
+ * <p>
+ * No es seguro entre hilos: lo protege el cerrojo del catálogo que lo contiene.
+ * </p>
+ * @version 1.4
+ * @since 2026-10-17
+ */
+class ColumnasGastos {
+    static final int SIN_CATEGORIA = -1;
+    /** Ordinal comodín para {@link #extremos}: filas de cualquier categoría o sin ella. */
+    static final int CUALQUIER_CATEGORIA = -2;
+    private static final int SIN_FECHA = Integer.MIN_VALUE;
+
+    private int[] dias = new int[16];
+    private long[] centimos = new long[16];
+    private int[] categorias = new int[16];
+    private long[] posiciones = new long[16];
+    private String[] ids = new String[16];
+    private int filas;
+
+    private final Map<String, Integer> filaPorId = new HashMap<>();
+    private final Map<String, Integer> ordinalPorCategoria = new HashMap<>();
+    private final List<Categoria> categoriaPorOrdinal = new ArrayList<>();
+
+    void anadir(Gasto gasto, long posicion) {
+        if (filas == dias.length) {
+            int capacidad = filas * 2;
+            dias = Arrays.copyOf(dias, capacidad);
+            centimos = Arrays.copyOf(centimos, capacidad);
+            categorias = Arrays.copyOf(categorias, capacidad);
+            posiciones = Arrays.copyOf(posiciones, capacidad);
+            ids = Arrays.copyOf(ids, capacidad);
+        }
+        dias[filas] = gasto.getFecha() != null ? (int) gasto.getFecha().toEpochDay() : SIN_FECHA;
+        centimos[filas] = gasto.getCentimos();
+        categorias[filas] = ordinal(gasto.getCategoria(), true);
+        posiciones[filas] = posicion;
+        ids[filas] = gasto.getId();
+        filaPorId.put(gasto.getId(), filas);
+        filas++;
+    }
+
+    /**
+     * Quita la fila del gasto y devuelve su posición de inserción, o -1 si no estaba.
+     */
+    long quitar(Gasto gasto) {
+        Integer fila = filaPorId.remove(gasto.getId());
+        if (fila == null) {
+            return -1;
+        }
+        long posicion = posiciones[fila];
+        int ultima = --filas;
+        if (fila != ultima) {
+            dias[fila] = dias[ultima];
+            centimos[fila] = centimos[ultima];
+            categorias[fila] = categorias[ultima];
+            posiciones[fila] = posiciones[ultima];
+            ids[fila] = ids[ultima];
+            filaPorId.put(ids[fila], fila);
+        }
+        ids[ultima] = null;
+        return posicion;
+    }
+
+    /** Posición de inserción del gasto con ese id, o -1 si no tiene fila. */
+    long posicion(String id) {
+        Integer fila = filaPorId.get(id);
+        return fila != null ? posiciones[fila] : -1;
+    }
+
+    /**
+     * Suma en céntimos de los importes con fecha entre ambas, incluidas; null no limita.
+     */
+    long totalEntre(LocalDate inicio, LocalDate fin) {
+        int desde = inicio != null ? (int) inicio.toEpochDay() : SIN_FECHA + 1;
+        int hasta = fin != null ? (int) fin.toEpochDay() : Integer.MAX_VALUE;
+        long suma = 0;
+        for (int i = 0; i < filas; i++) {
+            // Sin saltos: fuera del intervalo alguna diferencia es negativa y la máscara vale 0
+            long fuera = ((long) dias[i] - desde) | ((long) hasta - dias[i]);
+            suma += centimos[i] & ~(fuera >> 63);
+        }
+        return suma;
+    }
+
+    /**
+     * Suma en céntimos de los importes de la categoría con fecha entre ambas, incluidas.
+     */
+    long totalCategoriaEntre(Categoria categoria, LocalDate inicio, LocalDate fin) {
+        int ordinal = ordinal(categoria, false);
+        if (ordinal == SIN_CATEGORIA) {
+            return 0;
+        }
+        int desde = inicio != null ? (int) inicio.toEpochDay() : SIN_FECHA + 1;
+        int hasta = fin != null ? (int) fin.toEpochDay() : Integer.MAX_VALUE;
+        long suma = 0;
+        for (int i = 0; i < filas; i++) {
+            int dia = dias[i];
+            if (categorias[i] == ordinal && dia >= desde && dia <= hasta) {
+                suma += centimos[i];
+            }
+        }
+        return suma;
+    }
+
+    /**
+     * Sumas en céntimos por ordinal de categoría de los gastos entre ambas fechas, en una
+     * sola pasada. El índice del array es el ordinal.
+     */
+    long[] totalesPorCategoriaEntre(LocalDate inicio, LocalDate fin) {
+        int desde = inicio != null ? (int) inicio.toEpochDay() : SIN_FECHA + 1;
+        int hasta = fin != null ? (int) fin.toEpochDay() : Integer.MAX_VALUE;
+        long[] sumas = new long[ordinalPorCategoria.size()];
+        for (int i = 0; i < filas; i++) {
+            int dia = dias[i];
+            int ordinal = categorias[i];
+            if (ordinal != SIN_CATEGORIA && dia >= desde && dia <= hasta) {
+                sumas[ordinal] += centimos[i];
+            }
+        }
+        return sumas;
+    }
+
+    /**
+     * Importes mínimo y máximo en céntimos, en ese orden, de las filas con el ordinal de
+     * categoría indicado y día (epoch day) entre {@code desde} y {@code hasta}, incluidos; las
+     * filas sin fecha solo entran si {@code desde} es {@link Integer#MIN_VALUE}. Null si no
+     * hay ninguna fila.
+     */
+    long[] extremos(int ordinal, int desde, int hasta) {
+        long minimo = Long.MAX_VALUE;
+        long maximo = Long.MIN_VALUE;
+        boolean hayFilas = false;
+        for (int i = 0; i < filas; i++) {
+            int dia = dias[i];
+            if ((ordinal == CUALQUIER_CATEGORIA || categorias[i] == ordinal) && dia >= desde && dia <= hasta) {
+                long importe = centimos[i];
+                minimo = Math.min(minimo, importe);
+                maximo = Math.max(maximo, importe);
+                hayFilas = true;
+            }
+        }
+        return hayFilas ? new long[] {minimo, maximo} : null;
+    }
+
+    /**
+     * Ordinal de la categoría según la equivalencia de nombres de {@link Gasto#esDeCategoria};
+     * los ordinales no se reutilizan aunque la categoría se quede sin gastos.
+     */
+    int ordinal(Categoria categoria, boolean crear) {
+        if (categoria == null) {
+            return SIN_CATEGORIA;
+        }
+        String clave = categoria.getClave();
+        Integer ordinal = ordinalPorCategoria.get(clave);
+        if (ordinal == null && crear) {
+            ordinal = categoriaPorOrdinal.size();
+            ordinalPorCategoria.put(clave, ordinal);
+            categoriaPorOrdinal.add(categoria);
+        }
+        return ordinal != null ? ordinal : SIN_CATEGORIA;
+    }
+
+    /** Instancia representativa de la categoría con ese ordinal. */
+    Categoria categoria(int ordinal) {
+        return categoriaPorOrdinal.get(ordinal);
+    }
+
+    int filas() {
+        return filas;
+    }
+}
@@ -6,6 +6,7 @@ import dominio.estrategias.AlertaMensual;
 import dominio.estrategias.AlertaSemanal;
 import dominio.estrategias.EstrategiaAlerta;
 import repositorio.Repositorio;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -21,7 +22,7 @@ import catalogos.CatalogoCategorias;
  * de alertas en el repositorio correspondiente.<br>
  * Las estrategias de verificación de alertas utilizan el patrón Strategy.
  * </p>
- * @version 1.1
+ * @version 1.5
  * @since 2025-01-01
  */
 public class ControladorAlertas {
@@ -48,7 +49,7 @@ public class ControladorAlertas {
         Alerta alerta = new Alerta(limite, periodo, categoria, estrategia);
         
         catalogoAlertas.agregarAlerta(alerta);
-        repositorio.guardarAlertas(catalogoAlertas.obtenerTodas());
+        repositorio.insertarAlerta(alerta);
     }
     
     private EstrategiaAlerta crearEstrategia(PeriodoTemporal periodo) {
@@ -65,22 +66,27 @@ public class ControladorAlertas {
                                PeriodoTemporal nuevoPeriodo, String nombreCategoria) {
         Alerta alerta = catalogoAlertas.buscarPorId(idAlerta);
         if (alerta != null) {
-            alerta.setLimiteGasto(nuevoLimite);
-            alerta.setActiva(activa);
+            // La categoría se busca antes: dentro de modificarAlerta no se usan otros catálogos
+            Categoria categoria = nombreCategoria != null
+                ? catalogoCategorias.buscarPorNombre(nombreCategoria).orElse(null)
+                : null;
             
-            // Actualizar periodo si cambió
-            if (nuevoPeriodo != null && nuevoPeriodo != alerta.getPeriodo()) {
-                alerta.setPeriodo(nuevoPeriodo);  // Esto recreará la estrategia automáticamente
-            }
+            catalogoAlertas.modificarAlerta(alerta, a -> {
+                a.setLimiteGasto(nuevoLimite);
+                a.setActiva(activa);
+                
+                // Actualizar periodo si cambió
+                if (nuevoPeriodo != null && nuevoPeriodo != a.getPeriodo()) {
+                    a.setPeriodo(nuevoPeriodo);  // Esto recreará la estrategia automáticamente
+                }
+                
+                // Actualizar categoría
+                if (nombreCategoria != null) {
+                    a.setCategoria(categoria);
+                }
+            });
             
-            // Actualizar categoría
-            if (nombreCategoria != null) {
-                Categoria categoria = catalogoCategorias.buscarPorNombre(nombreCategoria)
-                    .orElse(null);
-                alerta.setCategoria(categoria);
-            }
-            
-            repositorio.guardarAlertas(catalogoAlertas.obtenerTodas());
+            repositorio.actualizarAlerta(alerta);
         }
     }
     
@@ -98,16 +104,24 @@ public class ControladorAlertas {
         Alerta alerta = catalogoAlertas.buscarPorId(idAlerta);
         if (alerta != null) {
             catalogoAlertas.eliminarAlerta(alerta);
-            repositorio.guardarAlertas(catalogoAlertas.obtenerTodas());
+            repositorio.eliminarAlerta(alerta);
         }
     }
     
+    /**
+     * Primera fecha que cubren los periodos de las alertas activas: basta con pasar a
+     * {@link #verificarAlertas(List)} los gastos desde ese día. Null si hacen falta todos.
+     */
+    public LocalDate inicioPeriodoAlertas() {
+        return catalogoAlertas.inicioPeriodoAlertasActivas(LocalDate.now());
+    }
+    
     /**
      * Verifica todas las alertas activas contra los gastos actuales.
      */
     public void verificarAlertas(List<Gasto> gastos) {
         catalogoAlertas.verificarTodasLasAlertas(gastos);
-        repositorio.guardarAlertas(catalogoAlertas.obtenerTodas());
+        repositorio.actualizarAlertas(catalogoAlertas.obtenerTodas());
     }
     
     public List<Notificacion> obtenerNotificacionesNoLeidas() {
@@ -116,8 +130,16 @@ public class ControladorAlertas {
             .collect(Collectors.toList());
     }
     
+    /**
+     * Cuenta las notificaciones pendientes sin reunirlas en una lista; lo consulta la interfaz
+     * cada vez que refresca el indicador.
+     */
     public long contarNotificacionesNoLeidas() {
-        return obtenerNotificacionesNoLeidas().size();
+        long noLeidas = 0;
+        for (Alerta alerta : catalogoAlertas.obtenerTodas()) {
+            noLeidas += alerta.contarNotificacionesNoLeidas();
+        }
+        return noLeidas;
     }
     
     public List<Notificacion> obtenerTodasLasNotificaciones() {
@@ -127,10 +149,9 @@ public class ControladorAlertas {
     }
     
     public void marcarTodasLasNotificacionesComoLeidas() {
-        catalogoAlertas.obtenerTodas().forEach(alerta -> 
-            alerta.getNotificaciones().forEach(Notificacion::marcarComoLeida)
-        );
-        repositorio.guardarAlertas(catalogoAlertas.obtenerTodas());
+        catalogoAlertas.obtenerTodas().forEach(alerta -> catalogoAlertas.modificarAlerta(alerta,
+            a -> a.getNotificaciones().forEach(Notificacion::marcarComoLeida)));
+        repositorio.actualizarAlertas(catalogoAlertas.obtenerTodas());
     }
     
     public List<Alerta> obtenerTodasLasAlertas() {
@@ -16,7 +16,7 @@ import catalogos.CatalogoGastos;
  * a través del catálogo de categorías y asegura la persistencia de los cambios en la base de
  * datos o repositorio de categorías utilizando el patrón GRASP Controller.
  * </p>
- * @version 1.1
+ * @version 1.3
  * @since 2025-01-01
  */
 public class ControladorCategorias {
@@ -41,7 +41,7 @@ public class ControladorCategorias {
     public void crearCategoria(String nombre, String descripcion) {
         Categoria categoria = new Categoria(nombre, descripcion);
         catalogoCategorias.agregarCategoria(categoria);
-        repositorio.guardarCategorias(catalogoCategorias.obtenerTodas());
+        repositorio.insertarCategoria(categoria);
     }
     
     /**
@@ -51,11 +51,8 @@ public class ControladorCategorias {
     public void eliminarCategoria(String nombreCategoria) {
         catalogoCategorias.buscarPorNombre(nombreCategoria)
             .ifPresent(cat -> {
-                // Verificar gastos asociados
-                long gastosConCategoria = catalogoGastos.obtenerTodos().stream()
-                    .filter(g -> g.getCategoria() != null && 
-                                g.getCategoria().getId().equals(cat.getId()))
-                    .count();
+                // Verificar gastos asociados (índice por categoría del catálogo)
+                long gastosConCategoria = catalogoGastos.contarPorCategoria(cat);
                 
                 if (gastosConCategoria > 0) {
                     throw new IllegalStateException(
@@ -79,7 +76,7 @@ public class ControladorCategorias {
                 
                 // Si todo OK, eliminar
                 catalogoCategorias.eliminarCategoria(cat);
-                repositorio.guardarCategorias(catalogoCategorias.obtenerTodas());
+                repositorio.eliminarCategoria(cat);
             });
     }
     
@@ -90,7 +87,7 @@ public class ControladorCategorias {
         catalogoCategorias.buscarPorNombre(nombreCategoria)
             .ifPresent(cat -> {
                 catalogoCategorias.eliminarCategoria(cat);
-                repositorio.guardarCategorias(catalogoCategorias.obtenerTodas());
+                repositorio.eliminarCategoria(cat);
             });
     }
     
@@ -107,10 +104,7 @@ public class ControladorCategorias {
      */
     public long contarGastosPorCategoria(String nombreCategoria) {
         return catalogoCategorias.buscarPorNombre(nombreCategoria)
-            .map(cat -> catalogoGastos.obtenerTodos().stream()
-                .filter(g -> g.getCategoria() != null && 
-                            g.getCategoria().getId().equals(cat.getId()))
-                .count())
+            .map(cat -> (long) catalogoGastos.contarPorCategoria(cat))
             .orElse(0L);
     }
     
@@ -21,7 +21,7 @@ import catalogos.CatalogoGastos;
  * Persona y High Cohesion. Facilita tanto la distribución equitativa de gastos como
  * personalizada en porcentajes, y coordina el almacenamiento de cuentas en el repositorio.
  * </p>
- * @version 1.1
+ * @version 1.5
  * @since 2025-01-01
  */
 public class ControladorCuentasCompartidas {
@@ -51,7 +51,7 @@ public class ControladorCuentasCompartidas {
         
         CuentaCompartida cuenta = new CuentaCompartida(nombreCuenta, TipoDistribucion.EQUITATIVA, personas);
         catalogoCuentas.agregarCuenta(cuenta);
-        repositorio.guardarCuentasCompartidas(catalogoCuentas.obtenerTodas());
+        repositorio.insertarCuenta(cuenta);
     }
     
     public void crearCuentaPorcentual(String nombreCuenta, Map<String, Double> porcentajes) {
@@ -59,13 +59,7 @@ public class ControladorCuentasCompartidas {
             throw new IllegalArgumentException("Debe haber al menos 2 personas");
         }
         
-        double suma = porcentajes.values().stream()
-            .mapToDouble(Double::doubleValue)
-            .sum();
-        
-        if (Math.abs(suma - 100.0) > 0.01) {
-            throw new IllegalArgumentException("La suma de porcentajes debe ser 100%");
-        }
+        CuentaCompartida.validarPorcentajes(porcentajes.values());
         
         List<Persona> personas = porcentajes.entrySet().stream()
             .map(entry -> new Persona(entry.getKey(), entry.getValue()))
@@ -73,7 +67,7 @@ public class ControladorCuentasCompartidas {
         
         CuentaCompartida cuenta = new CuentaCompartida(nombreCuenta, TipoDistribucion.PERSONALIZADA, personas);
         catalogoCuentas.agregarCuenta(cuenta);
-        repositorio.guardarCuentasCompartidas(catalogoCuentas.obtenerTodas());
+        repositorio.insertarCuenta(cuenta);
     }
     
     public void crearCuentaCompartida(String nombre, TipoDistribucion tipo,
@@ -81,7 +75,7 @@ public class ControladorCuentasCompartidas {
         List<Persona> personas = crearPersonas(nombresPersonas, porcentajes, tipo);
         CuentaCompartida cuenta = new CuentaCompartida(nombre, tipo, personas);
         catalogoCuentas.agregarCuenta(cuenta);
-        repositorio.guardarCuentasCompartidas(catalogoCuentas.obtenerTodas());
+        repositorio.insertarCuenta(cuenta);
     }
     
     private List<Persona> crearPersonas(List<String> nombres, List<Double> porcentajes, TipoDistribucion tipo) {
@@ -114,13 +108,13 @@ public class ControladorCuentasCompartidas {
             .orElseThrow(() -> new IllegalArgumentException("Pagador no encontrado: " + nombrePagador));
         
         Gasto gasto = new Gasto(cantidad, fecha, descripcion, categoria);
-        cuenta.agregarGasto(gasto, pagador);
+        catalogoCuentas.modificarCuenta(cuenta, c -> c.agregarGasto(gasto, pagador));
         
         // Sincronizar con catálogo general de gastos
         catalogoGastos.agregarGasto(gasto);
         
-        repositorio.guardarCuentasCompartidas(catalogoCuentas.obtenerTodas());
-        repositorio.guardarGastos(catalogoGastos.obtenerTodos());
+        repositorio.insertarGasto(gasto);
+        repositorio.actualizarCuenta(cuenta);
     }
     
     /**
@@ -138,13 +132,13 @@ public class ControladorCuentasCompartidas {
             .orElseThrow(() -> new IllegalArgumentException("Gasto no encontrado"));
         
         // Eliminar de la cuenta (recalcula saldos automáticamente)
-        cuenta.eliminarGasto(gasto);
+        catalogoCuentas.modificarCuenta(cuenta, c -> c.eliminarGasto(gasto));
         
         // Eliminar del catálogo general
         catalogoGastos.eliminarGasto(gasto);
         
-        repositorio.guardarCuentasCompartidas(catalogoCuentas.obtenerTodas());
-        repositorio.guardarGastos(catalogoGastos.obtenerTodos());
+        repositorio.actualizarCuenta(cuenta);
+        repositorio.eliminarGasto(gasto);
     }
     
     
@@ -169,18 +163,18 @@ public class ControladorCuentasCompartidas {
             .orElseGet(() -> {
                 Categoria nueva = new Categoria("Compartido", "Gastos compartidos");
                 catalogoCategorias.agregarCategoria(nueva);
+                repositorio.insertarCategoria(nueva);
                 return nueva;
             });
         
         Gasto gasto = new Gasto(cantidad, fecha, descripcion, categoriaDefecto);
-        cuenta.agregarGasto(gasto, pagador);
+        catalogoCuentas.modificarCuenta(cuenta, c -> c.agregarGasto(gasto, pagador));
         
         // Sincronizar con catálogo general de gastos
         catalogoGastos.agregarGasto(gasto);
         
-        repositorio.guardarCuentasCompartidas(catalogoCuentas.obtenerTodas());
-        repositorio.guardarGastos(catalogoGastos.obtenerTodos());
-        repositorio.guardarCategorias(catalogoCategorias.obtenerTodas());
+        repositorio.insertarGasto(gasto);
+        repositorio.actualizarCuenta(cuenta);
     }
 
     public List<String> calcularResumenDeudas(String idCuenta) {
@@ -207,13 +201,14 @@ public class ControladorCuentasCompartidas {
         CuentaCompartida cuenta = catalogoCuentas.buscarPorId(idCuenta);
         if (cuenta != null) {
             // Eliminar todos los gastos asociados del catálogo general
-            cuenta.getGastos().forEach(catalogoGastos::eliminarGasto);
+            List<Gasto> gastosCuenta = cuenta.getGastos();
+            gastosCuenta.forEach(catalogoGastos::eliminarGasto);
             
             // Eliminar la cuenta
             catalogoCuentas.eliminarCuenta(cuenta);
             
-            repositorio.guardarCuentasCompartidas(catalogoCuentas.obtenerTodas());
-            repositorio.guardarGastos(catalogoGastos.obtenerTodos());
+            repositorio.eliminarCuenta(cuenta);
+            repositorio.eliminarGastos(gastosCuenta);
         }
     }
     
@@ -2,12 +2,15 @@ package controlador;
 
 import dominio.*;
 import dominio.filtros.*;
+import repositorio.HistoricoGastos;
 import repositorio.Repositorio;
 import java.time.LocalDate;
 import java.time.Month;
+import java.time.YearMonth;
 import java.util.*;
 import java.util.stream.Collectors;
 
+import catalogos.AgregadosGastos;
 import catalogos.CatalogoCategorias;
 import catalogos.CatalogoGastos;
 
@@ -20,7 +23,7 @@ import catalogos.CatalogoGastos;
  * de alertas. Ofrece métodos para consultas estadsticas y filtrados compuestos según las
  * necesidades del usuario.
  * </p>
- * @version 1.1
+ * @version 1.11
  * @since 2025-01-01
  */
 public class ControladorGastos {
@@ -45,14 +48,15 @@ public class ControladorGastos {
             .orElseGet(() -> {
                 Categoria nueva = new Categoria(nombreCategoria, "");
                 catalogoCategorias.agregarCategoria(nueva);
+                repositorio.insertarCategoria(nueva);
                 return nueva;
             });
         
         Gasto gasto = new Gasto(cantidad, fecha, descripcion, categoria);
         catalogoGastos.agregarGasto(gasto);
-        persistir();
+        repositorio.insertarGasto(gasto);
         
-        controladorAlertas.verificarAlertas(catalogoGastos.obtenerTodos());
+        verificarAlertas();
     }
     
     /**
@@ -77,13 +81,23 @@ public class ControladorGastos {
         Categoria categoria = catalogoCategorias.buscarPorNombre(nombreCategoria)
             .orElseThrow(() -> new IllegalArgumentException("Categoría no encontrada: " + nombreCategoria));
         
-        gasto.setCantidad(cantidad);
-        gasto.setFecha(fecha);
-        gasto.setDescripcion(descripcion);
-        gasto.setCategoria(categoria);
+        catalogoGastos.modificarGasto(gasto, g -> {
+            g.setCantidad(cantidad);
+            g.setFecha(fecha);
+            g.setDescripcion(descripcion);
+            g.setCategoria(categoria);
+        });
         
-        persistir();
-        controladorAlertas.verificarAlertas(catalogoGastos.obtenerTodos());
+        repositorio.actualizarGasto(gasto);
+        verificarAlertas();
+    }
+
+    /**
+     * Las alertas solo miran el periodo actual: se les pasan los gastos desde su inicio.
+     */
+    private void verificarAlertas() {
+        controladorAlertas.verificarAlertas(
+            catalogoGastos.rangoFechas(controladorAlertas.inicioPeriodoAlertas(), null));
     }
     
     /**
@@ -102,10 +116,39 @@ public class ControladorGastos {
             }
             
             catalogoGastos.eliminarGasto(gasto);
-            persistir();
+            repositorio.eliminarGasto(gasto);
         }
     }
     
+    /**
+     * Elimina varios gastos de una vez. Si alguno pertenece a una cuenta compartida no se
+     * elimina ninguno.
+     * @return número de gastos eliminados
+     * @throws IllegalStateException si algún gasto pertenece a una cuenta compartida
+     */
+    public int eliminarGastos(List<String> idsGastos) {
+        List<Gasto> gastos = new ArrayList<>();
+        for (String idGasto : idsGastos) {
+            Gasto gasto = catalogoGastos.buscarPorId(idGasto);
+            if (gasto == null) {
+                continue;
+            }
+            if (gasto.getPagador() != null) {
+                throw new IllegalStateException(
+                    "El gasto '" + gasto.getDescripcion() + "' pertenece a una cuenta compartida. " +
+                    "Debe eliminarse desde la gestión de cuentas compartidas para mantener " +
+                    "la coherencia de los saldos.");
+            }
+            gastos.add(gasto);
+        }
+
+        if (!gastos.isEmpty()) {
+            catalogoGastos.eliminarGastos(gastos);
+            repositorio.eliminarGastos(gastos);
+        }
+        return gastos.size();
+    }
+
     /**
      * Elimina un gasto sin validaciones (uso interno).
      */
@@ -113,7 +156,7 @@ public class ControladorGastos {
         Gasto gasto = catalogoGastos.buscarPorId(idGasto);
         if (gasto != null) {
             catalogoGastos.eliminarGasto(gasto);
-            persistir();
+            repositorio.eliminarGasto(gasto);
         }
     }
     
@@ -131,8 +174,8 @@ public class ControladorGastos {
             throw new IllegalArgumentException("No se encontraron las categorías especificadas");
         }
         
-        Filtro filtro = new FiltroCategorias(categorias);
-        return catalogoGastos.filtrar(filtro);
+        // El índice por categoría del catálogo evita recorrer todos los gastos
+        return catalogoGastos.obtenerPorCategorias(categorias);
     }
     
     public List<Gasto> filtrarPorFecha(LocalDate fechaInicio, LocalDate fechaFin) {
@@ -143,8 +186,8 @@ public class ControladorGastos {
             throw new IllegalArgumentException("La fecha de inicio debe ser anterior a la fecha fin");
         }
         
-        Filtro filtro = new FiltroFechas(fechaInicio, fechaFin);
-        return catalogoGastos.filtrar(filtro);
+        // El índice por fecha del catálogo resuelve el rango sin recorrer todos los gastos
+        return conArchivados(catalogoGastos.rangoFechas(fechaInicio, fechaFin), fechaInicio, fechaFin);
     }
     
     public List<Gasto> filtrarPorMeses(List<String> nombresMeses) {
@@ -182,6 +225,15 @@ public class ControladorGastos {
         
         return catalogoGastos.filtrar(filtroCompuesto);
     }
+
+    /**
+     * Gastos que cumplen una expresión de filtro, con la sintaxis de {@link AnalizadorFiltros};
+     * las categorías nombradas deben existir.
+     */
+    public List<Gasto> filtrarPorExpresion(String expresion) {
+        Filtro filtro = AnalizadorFiltros.analizar(expresion, catalogoCategorias::buscarPorNombre);
+        return catalogoGastos.filtrar(filtro);
+    }
     
     private Month convertirNombreMes(String nombreMes) {
         return switch (nombreMes.toLowerCase()) {
@@ -205,10 +257,59 @@ public class ControladorGastos {
         return catalogoGastos.obtenerTodos();
     }
     
+    /**
+     * Gastos entre ambas fechas (incluidas), ordenados por fecha, también los archivados en el
+     * histórico del repositorio. Un extremo null no limita.
+     */
+    public List<Gasto> obtenerGastosEntre(LocalDate fechaInicio, LocalDate fechaFin) {
+        return conArchivados(catalogoGastos.rangoFechas(fechaInicio, fechaFin), fechaInicio, fechaFin);
+    }
+    
     public double calcularTotalGastos() {
-        return catalogoGastos.obtenerTodos().stream()
-            .mapToDouble(Gasto::getCantidad)
-            .sum();
+        return catalogoGastos.calcularTotal();
+    }
+    
+    /**
+     * Total de los gastos entre ambas fechas (incluidas) sin materializar la lista; los
+     * archivados se suman desde los registros del histórico.
+     */
+    public double calcularTotalEntre(LocalDate fechaInicio, LocalDate fechaFin) {
+        return catalogoGastos.calcularTotalEntre(fechaInicio, fechaFin)
+            + repositorio.historico().totalEntre(fechaInicio, fechaFin);
+    }
+    
+    public Map<Categoria, Double> calcularTotalesPorCategoriaEntre(LocalDate fechaInicio, LocalDate fechaFin) {
+        Map<Categoria, Double> totales = new LinkedHashMap<>(
+            catalogoGastos.calcularTotalesPorCategoriaEntre(fechaInicio, fechaFin));
+        repositorio.historico().totalesPorCategoria(fechaInicio, fechaFin)
+            .forEach((categoria, total) -> totales.merge(categoria, total, Double::sum));
+        return totales;
+    }
+    
+    /**
+     * Número de gastos, total, mínimo y máximo, mantenidos por el catálogo sin recorrer los gastos.
+     */
+    public AgregadosGastos.Resumen obtenerResumen() {
+        return catalogoGastos.resumen();
+    }
+    
+    public Map<Categoria, AgregadosGastos.Resumen> obtenerResumenPorCategoria() {
+        return catalogoGastos.resumenPorCategoria();
+    }
+    
+    /**
+     * Resumen de cada mes (año y mes) con gastos entre ambos meses, incluidos. Null no limita.
+     */
+    public Map<YearMonth, AgregadosGastos.Resumen> obtenerResumenPorMes(YearMonth desde, YearMonth hasta) {
+        return catalogoGastos.resumenPorMes(desde, hasta);
+    }
+    
+    public AgregadosGastos.Resumen obtenerResumenEntreMeses(YearMonth desde, YearMonth hasta) {
+        return catalogoGastos.resumenEntreMeses(desde, hasta);
+    }
+    
+    public Map<Categoria, AgregadosGastos.Resumen> obtenerResumenPorCategoria(YearMonth desde, YearMonth hasta) {
+        return catalogoGastos.resumenPorCategoria(desde, hasta);
     }
     
     public Map<Categoria, List<Gasto>> agruparPorCategoria() {
@@ -219,6 +320,42 @@ public class ControladorGastos {
         return catalogoGastos.agruparPorMes();
     }
     
+    /**
+     * Gastos archivados en el histórico del repositorio entre ambas fechas (incluidas).
+     * No están en el catálogo y son de solo lectura.
+     */
+    public List<Gasto> obtenerGastosHistoricos(LocalDate fechaInicio, LocalDate fechaFin) {
+        return repositorio.historico().gastosEntre(fechaInicio, fechaFin);
+    }
+    
+    /**
+     * Total por categoría de los gastos archivados, calculado sin cargarlos en memoria.
+     */
+    public Map<Categoria, Double> totalesHistoricosPorCategoria(LocalDate fechaInicio, LocalDate fechaFin) {
+        return repositorio.historico().totalesPorCategoria(fechaInicio, fechaFin);
+    }
+    
+    /**
+     * Añade a los gastos del catálogo entre ambas fechas los archivados en el mismo intervalo,
+     * manteniendo el orden por fecha. Los archivados son de solo lectura: no están en el
+     * catálogo, así que modificarlos o eliminarlos no tiene efecto.
+     */
+    private List<Gasto> conArchivados(List<Gasto> activos, LocalDate fechaInicio, LocalDate fechaFin) {
+        HistoricoGastos historico = repositorio.historico();
+        if (historico.cantidad() == 0) {
+            return activos;
+        }
+        List<Gasto> archivados = historico.gastosEntre(fechaInicio, fechaFin);
+        if (archivados.isEmpty()) {
+            return activos;
+        }
+        List<Gasto> todos = new ArrayList<>(archivados.size() + activos.size());
+        todos.addAll(archivados);
+        todos.addAll(activos);
+        todos.sort(Comparator.comparing(Gasto::getFecha));
+        return todos;
+    }
+    
     /**
      * Verifica si un gasto es de una cuenta compartida.
      */
@@ -226,9 +363,4 @@ public class ControladorGastos {
         Gasto gasto = catalogoGastos.buscarPorId(idGasto);
         return gasto != null && gasto.getPagador() != null;
     }
-    
-    private void persistir() {
-        repositorio.guardarGastos(catalogoGastos.obtenerTodos());
-        repositorio.guardarCategorias(catalogoCategorias.obtenerTodas());
-    }
 }
\ No newline at end of file
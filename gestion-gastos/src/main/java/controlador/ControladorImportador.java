@@ -1,10 +1,12 @@
 package controlador;
 
+import dominio.Categoria;
 import dominio.Gasto;
 import importador.ImportadorDatos;
 import repositorio.Repositorio;
 import java.nio.file.Path;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import catalogos.CatalogoCategorias;
 import catalogos.CatalogoGastos;
@@ -15,7 +17,7 @@ import catalogos.CatalogoGastos;
  * Coordina la lógica necesaria para importar datos de gastos desde archivos en diferentes formatos (como CSV o TXT) usando el patrón Adapter y delegando la
  * verificación de alertas tras la inserción de los nuevos datos.
  * </p>
- * @version 1.0
+ * @version 1.1
  * @since 2025-01-01
  */
 public class ControladorImportador {
@@ -43,10 +45,18 @@ public class ControladorImportador {
             
             gastosImportados.forEach(catalogoGastos::agregarGasto);
             
-            repositorio.guardarGastos(catalogoGastos.obtenerTodos());
-            repositorio.guardarCategorias(catalogoCategorias.obtenerTodas());
+            // Categorías creadas por el importador, antes que los gastos que las referencian
+            List<Categoria> categoriasImportadas = gastosImportados.stream()
+                .map(Gasto::getCategoria)
+                .filter(categoria -> categoria != null &&
+                                     catalogoCategorias.buscarPorId(categoria.getId()) != null)
+                .distinct()
+                .collect(Collectors.toList());
+            repositorio.insertarCategorias(categoriasImportadas);
+            repositorio.insertarGastos(gastosImportados);
             
-            controladorAlertas.verificarAlertas(catalogoGastos.obtenerTodos());
+            controladorAlertas.verificarAlertas(
+                catalogoGastos.rangoFechas(controladorAlertas.inicioPeriodoAlertas(), null));
             
             return gastosImportados;
             
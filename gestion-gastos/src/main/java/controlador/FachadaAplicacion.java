@@ -6,8 +6,11 @@ import catalogos.CatalogoCuentasCompartidas;
 import catalogos.CatalogoGastos;
 import importador.AdaptadorBancario;
 import importador.FabricaImportadores;
+import repositorio.ConfiguracionPersistencia;
 import repositorio.Repositorio;
+import repositorio.RepositorioBinario;
 import repositorio.RepositorioJSON;
+import repositorio.RepositorioSQL;
 
 /**
  * Fachada principal para el acceso unificado a todos los controladores de la aplicación.
@@ -16,7 +19,11 @@ import repositorio.RepositorioJSON;
  * como gastos, categorías, alertas, cuentas compartidas e importador, así como la inicialización persistente de los catálogos de dominio.<br>
  * Aplica el patrón GRASP Facade.
  * </p>
- * @version 1.0
+ * <p>
+ * Tras cargar los catálogos vincula el repositorio a ellos, de modo que los datos en memoria
+ * no se dupliquen entre ambos.
+ * </p>
+ * @version 1.1
  * @since 2025-01-01
  */
 public class FachadaAplicacion {
@@ -47,7 +54,11 @@ public class FachadaAplicacion {
     private void inicializar() {
         System.out.println("=== Iniciando Aplicación Gestión de Gastos ===");
 
-        repositorio = RepositorioJSON.getInstancia();
+        repositorio = switch (ConfiguracionPersistencia.desdeSistema().formato()) {
+            case JSON -> RepositorioJSON.getInstancia();
+            case BINARIO -> RepositorioBinario.getInstancia();
+            case SQL -> RepositorioSQL.getInstancia();
+        };
 
         CatalogoGastos catalogoGastos = new CatalogoGastos();
         CatalogoCategorias catalogoCategorias = new CatalogoCategorias();
@@ -55,6 +66,8 @@ public class FachadaAplicacion {
         CatalogoCuentasCompartidas catalogoCuentas = new CatalogoCuentasCompartidas();
 
         cargarDatos(catalogoGastos, catalogoCategorias, catalogoAlertas, catalogoCuentas);
+        // Al vincularse, el repositorio suelta sus colecciones: los datos quedan solo en los catálogos
+        repositorio.vincular(new FuenteCatalogos(catalogoGastos, catalogoCategorias, catalogoAlertas, catalogoCuentas));
 
         controladorAlertas = new ControladorAlertas(repositorio, catalogoAlertas, catalogoCategorias);
         controladorGastos = new ControladorGastos(repositorio, catalogoGastos, catalogoCategorias, controladorAlertas);
@@ -88,6 +101,14 @@ public class FachadaAplicacion {
     }
     
     
+    /**
+     * Cierra la aplicación de forma ordenada, escribiendo los datos pendientes de guardar.
+     */
+    public void cerrar() {
+        repositorio.cerrar();
+    }
+    
+    
     private void configurarImportador(CatalogoCategorias catalogoCategorias) {
         FabricaImportadores fabrica = FabricaImportadores.getInstancia();
         fabrica.limpiarAdaptadores();
@@ -0,0 +1,102 @@
+package controlador;
+
+import catalogos.CatalogoAlertas;
+import catalogos.CatalogoCategorias;
+import catalogos.CatalogoCuentasCompartidas;
+import catalogos.CatalogoGastos;
+import dominio.*;
+import repositorio.FuenteDatos;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Expone los catálogos de la aplicación como {@link FuenteDatos} del repositorio.
+ * <p>
+ * Así los datos en memoria solo viven en los catálogos y el repositorio se limita a leerlos
+ * cuando tiene que escribirlos.
+ * </p>
+ * <p>
+ * Las entidades se protegen con el cerrojo del catálogo al que pertenecen: cada catálogo
+ * sincroniza sus métodos y las entidades que contiene solo se modifican a través de ellos
+ * ({@code modificarGasto}, {@code modificarAlerta}, {@code modificarCuenta}). {@link #leer}
+ * toma los cuatro cerrojos, siempre en el mismo orden, mientras el repositorio copia las
+ * entidades a registros; el hilo de escritura serializa luego esas copias sin cerrojos. Ningún
+ * catálogo llama al repositorio ni a otro catálogo mientras tiene su cerrojo, así que el orden
+ * repositorio, gastos, categorías, alertas, cuentas no puede invertirse.
+ * </p>
+ * @version 1.2
+ * @since 2026-10-17
+ */
+class FuenteCatalogos implements FuenteDatos {
+    private final CatalogoGastos catalogoGastos;
+    private final CatalogoCategorias catalogoCategorias;
+    private final CatalogoAlertas catalogoAlertas;
+    private final CatalogoCuentasCompartidas catalogoCuentas;
+
+    FuenteCatalogos(CatalogoGastos catalogoGastos, CatalogoCategorias catalogoCategorias,
+                    CatalogoAlertas catalogoAlertas, CatalogoCuentasCompartidas catalogoCuentas) {
+        this.catalogoGastos = catalogoGastos;
+        this.catalogoCategorias = catalogoCategorias;
+        this.catalogoAlertas = catalogoAlertas;
+        this.catalogoCuentas = catalogoCuentas;
+    }
+
+    @Override
+    public List<Gasto> gastos() {
+        return catalogoGastos.obtenerTodos();
+    }
+
+    @Override
+    public Gasto gasto(String id) {
+        return catalogoGastos.buscarPorId(id);
+    }
+
+    @Override
+    public List<Categoria> categorias() {
+        return catalogoCategorias.obtenerTodas();
+    }
+
+    @Override
+    public Categoria categoria(String id) {
+        return catalogoCategorias.buscarPorId(id);
+    }
+
+    @Override
+    public List<Alerta> alertas() {
+        return catalogoAlertas.obtenerTodas();
+    }
+
+    @Override
+    public Alerta alerta(String id) {
+        return catalogoAlertas.buscarPorId(id);
+    }
+
+    @Override
+    public List<CuentaCompartida> cuentas() {
+        return catalogoCuentas.obtenerTodas();
+    }
+
+    @Override
+    public CuentaCompartida cuenta(String id) {
+        return catalogoCuentas.buscarPorId(id);
+    }
+
+    /**
+     * Toma los cerrojos de los catálogos en este orden: gastos, categorías, alertas y cuentas.
+     * Quien llame al repositorio nunca debe tener el cerrojo de un catálogo, porque el
+     * repositorio llega aquí con el suyo tomado y el orden se invertiría.
+     */
+    @Override
+    public <R> R leer(Supplier<R> lectura) {
+        synchronized (catalogoGastos) {
+            synchronized (catalogoCategorias) {
+                synchronized (catalogoAlertas) {
+                    synchronized (catalogoCuentas) {
+                        return lectura.get();
+                    }
+                }
+            }
+        }
+    }
+}
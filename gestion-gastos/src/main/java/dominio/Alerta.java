@@ -8,7 +8,6 @@ import dominio.estrategias.AlertaSemanal;
 import dominio.estrategias.EstrategiaAlerta;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 import java.util.stream.Collectors;
 
 
@@ -17,8 +16,9 @@ import java.util.stream.Collectors;
  * <p>
  * Utiliza el patrón Strategy para delegar el cálculo del gasto según el periodo (`AlertaSemanal`, `AlertaMensual`). Genera notificaciones cuando se detecta que el límite ha sido superado.
  * Una alerta puede estar activa o inactiva y mantiene el historial de notificaciones generadas por su superación.<br>
+ * El límite se guarda en céntimos y la comparación con el gasto del periodo es exacta.
  * </p>
- * @version 1.0
+ * @version 1.3
  * @since 2025-11-14
  */
 
@@ -26,7 +26,7 @@ import java.util.stream.Collectors;
 @JsonIgnoreProperties(ignoreUnknown = true)
 public class Alerta {
     private String id;
-    private double limiteGasto;
+    private long limiteCentimos;
     private PeriodoTemporal periodo;
     private Categoria categoria;
     private boolean activa;
@@ -36,7 +36,7 @@ public class Alerta {
     private EstrategiaAlerta estrategia;
     
     public Alerta() {
-        this.id = UUID.randomUUID().toString();
+        this.id = GeneradorIds.siguiente();
         this.notificaciones = new ArrayList<>();
         this.activa = true;
     }
@@ -44,8 +44,7 @@ public class Alerta {
     public Alerta(double limiteGasto, PeriodoTemporal periodo, Categoria categoria, 
                   EstrategiaAlerta estrategia) {
         this();
-        validarLimite(limiteGasto);
-        this.limiteGasto = limiteGasto;
+        setLimiteGasto(limiteGasto);
         this.periodo = periodo;
         this.categoria = categoria;
         this.estrategia = estrategia;
@@ -62,7 +61,7 @@ public class Alerta {
         
         double totalGastos = estrategia.calcularGastoEnPeriodo(gastos, categoria);
         
-        if (totalGastos > limiteGasto) {
+        if (Dinero.aCentimos(totalGastos) > limiteCentimos) {
             crearNotificacion(totalGastos);
         }
     }
@@ -95,7 +94,7 @@ public class Alerta {
         
         return String.format(
             "¡Alerta %s! Límite superado: %.2f€ / %.2f€%s",
-            tipoPeriodo, totalGastos, limiteGasto, infoCategoria
+            tipoPeriodo, totalGastos, getLimiteGasto(), infoCategoria
         );
     }
 
@@ -108,7 +107,20 @@ public class Alerta {
                 .collect(Collectors.toList());
     }
     
-    private void validarLimite(double limite) {
+    public int contarNotificacionesNoLeidas() {
+        if (notificaciones == null) {
+            return 0;
+        }
+        int noLeidas = 0;
+        for (Notificacion notificacion : notificaciones) {
+            if (!notificacion.isLeida()) {
+                noLeidas++;
+            }
+        }
+        return noLeidas;
+    }
+    
+    private void validarLimite(long limite) {
         if (limite <= 0) {
             throw new IllegalArgumentException("El límite debe ser mayor que 0");
         }
@@ -123,12 +135,22 @@ public class Alerta {
     }
     
     public double getLimiteGasto() {
-        return limiteGasto;
+        return Dinero.aEuros(limiteCentimos);
     }
     
     public void setLimiteGasto(double limiteGasto) {
-        validarLimite(limiteGasto);
-        this.limiteGasto = limiteGasto;
+        setLimiteCentimos(Dinero.aCentimos(limiteGasto));
+    }
+
+    @JsonIgnore
+    public long getLimiteCentimos() {
+        return limiteCentimos;
+    }
+
+    @JsonIgnore
+    public void setLimiteCentimos(long limiteCentimos) {
+        validarLimite(limiteCentimos);
+        this.limiteCentimos = limiteCentimos;
     }
     
     public PeriodoTemporal getPeriodo() {
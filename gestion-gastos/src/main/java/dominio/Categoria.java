@@ -1,14 +1,18 @@
 package dominio;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.util.Objects;
-import java.util.UUID;
 
 /**
  * Representa una categoría a la que se pueden asociar gastos (por ejemplo, alimentación, transporte).
  * <p>
  * Cada categoría tiene un nombre y una descripción y se identifica mediante un identificador único. Contiene validaciones para evitar nombres no válidos y sobrecarga equals/hashCode basada en el nombre.
  * </p>
- * @version 1.0
+ * <p>
+ * {@link #getClave()} guarda la clave normalizada del nombre, para que filtros e índices
+ * comparen categorías por hash sin volver a plegar mayúsculas en cada gasto.
+ * </p>
+ * @version 1.2
  * @since 2025-11-14
  */
 
@@ -16,9 +20,10 @@ public class Categoria {
     private String id;
     private String nombre;
     private String descripcion;
+    private String clave; // calculada al pedirla; null tras cambiar el nombre
     
     public Categoria() {
-        this.id = UUID.randomUUID().toString();
+        this.id = GeneradorIds.siguiente();
     }
     
     public Categoria(String nombre, String descripcion) {
@@ -49,6 +54,19 @@ public class Categoria {
     public void setNombre(String nombre) {
         validarNombre(nombre);
         this.nombre = nombre;
+        this.clave = null;
+    }
+
+    /**
+     * Nombre normalizado con {@link NormalizadorTexto#SIN_MAYUSCULAS}: dos categorías con la
+     * misma clave son la misma para {@link Gasto#esDeCategoria}.
+     */
+    @JsonIgnore
+    public String getClave() {
+        if (clave == null) {
+            clave = NormalizadorTexto.SIN_MAYUSCULAS.clave(nombre);
+        }
+        return clave;
     }
     
     public String getDescripcion() {
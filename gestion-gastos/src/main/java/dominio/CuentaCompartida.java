@@ -9,8 +9,11 @@ import java.util.stream.Collectors;
  * <p>
  * Gestiona el reparto de gastos según distribución equitativa o porcentual, la adición/eliminación de gastos y el cálculo de los saldos individuales de cada persona según los gastos realizados y la participación en la cuenta.<br>
  * Aplican los patrones GRASP High Cohesion y Creator.
+ * Los saldos se calculan en céntimos: cada gasto se reparte con {@link Dinero#repartir}, así que
+ * las porciones suman el importe exacto y los saldos de la cuenta suman cero.
+ * {@link #getGastos()} devuelve una lista inmutable que se reutiliza hasta que cambian los gastos.
  * </p>
- * @version 1.0
+ * @version 1.5
  * @since 2025-11-14
  */
 
@@ -20,15 +23,16 @@ public class CuentaCompartida {
     private TipoDistribucion tipoDistribucion;
     private List<Persona> personas;
     private List<Gasto> gastos;
+    private List<Gasto> instantaneaGastos;
     
     public CuentaCompartida() {
-        this.id = UUID.randomUUID().toString();
+        this.id = GeneradorIds.siguiente();
         this.personas = new ArrayList<>(); // Solo durante construcción
         this.gastos = new ArrayList<>();
     }
     
     public CuentaCompartida(String nombre, TipoDistribucion tipo, List<Persona> personas) {
-        this.id = UUID.randomUUID().toString();
+        this.id = GeneradorIds.siguiente();
         this.nombre = nombre;
         this.tipoDistribucion = tipo;
         this.gastos = new ArrayList<>();
@@ -68,11 +72,20 @@ public class CuentaCompartida {
     }
 
     private void validarPorcentajes(List<Persona> personas) {
-        double suma = personas.stream()
-                .mapToDouble(Persona::getPorcentajeGasto)
-                .sum();
-        
-        if (Math.abs(suma - 100.0) > 0.01) {
+        validarPorcentajes(personas.stream().map(Persona::getPorcentajeGasto).collect(Collectors.toList()));
+    }
+
+    /**
+     * Comprueba que los porcentajes de un reparto personalizado suman 100%. Es la única
+     * comprobación: controladores y formularios la llaman antes de crear la cuenta.
+     * <p>
+     * Se suman los porcentajes exactos y solo la suma se lleva a centésimas de punto:
+     * 33.333 + 33.333 + 33.334 suma 100, aunque redondeados uno a uno sumarían 99.99.
+     * </p>
+     * @throws IllegalArgumentException si no suman 100%
+     */
+    public static void validarPorcentajes(Collection<Double> porcentajes) {
+        if (Dinero.aCentesimas(Dinero.sumarPorcentajes(porcentajes)) != Dinero.CIEN_POR_CIEN) {
             throw new IllegalArgumentException("Los porcentajes deben sumar 100%");
         }
     }
@@ -86,6 +99,7 @@ public class CuentaCompartida {
         validarPagador(pagador);
         gasto.setPagador(pagador);
         gastos.add(gasto);
+        instantaneaGastos = null;
         recalcularSaldos();
     }
     
@@ -96,36 +110,43 @@ public class CuentaCompartida {
     }
 
     private void recalcularSaldos() {
-
-        personas.forEach(p -> p.setSaldo(0.0));
+        long[] pesos = new long[personas.size()];
+        for (int i = 0; i < pesos.length; i++) {
+            pesos[i] = Dinero.aCentesimas(personas.get(i).getPorcentajeGasto());
+        }
+        long[] saldos = new long[personas.size()];
 
         gastos.forEach(gasto -> {
             Persona pagador = gasto.getPagador();
             if (pagador == null) return;
             
-            double cantidad = gasto.getCantidad();
+            long cantidad = gasto.getCentimos();
+            long[] porciones = Dinero.repartir(cantidad, pesos);
             
-            personas.forEach(persona -> {
-                double porcion = gasto.calcularAporte(persona.getPorcentajeGasto());
-                
-                if (persona.equals(pagador)) {
-                    persona.setSaldo(persona.getSaldo() + cantidad - porcion);
-                } else {
-                    persona.setSaldo(persona.getSaldo() - porcion);
+            for (int i = 0; i < saldos.length; i++) {
+                if (personas.get(i).equals(pagador)) {
+                    saldos[i] += cantidad;
                 }
-            });
+                saldos[i] -= porciones[i];
+            }
         });
+
+        for (int i = 0; i < saldos.length; i++) {
+            personas.get(i).setSaldoCentimos(saldos[i]);
+        }
     }
     
     public void eliminarGasto(Gasto gasto) {
-        gastos.remove(gasto);
+        if (gastos.remove(gasto)) {
+            instantaneaGastos = null;
+        }
         recalcularSaldos();
     }
 
     public double calcularTotalGastos() {
-        return gastos.stream()
-                .mapToDouble(Gasto::getCantidad)
-                .sum();
+        return Dinero.aEuros(gastos.stream()
+                .mapToLong(Gasto::getCentimos)
+                .sum());
     }
 
     public List<Gasto> obtenerGastosDe(Persona persona) {
@@ -163,11 +184,15 @@ public class CuentaCompartida {
     }
     
     public List<Gasto> getGastos() {
-        return new ArrayList<>(gastos);
+        if (instantaneaGastos == null) {
+            instantaneaGastos = List.copyOf(gastos);
+        }
+        return instantaneaGastos;
     }
     
     public void setGastos(List<Gasto> gastos) {
-        this.gastos = gastos;
+        this.gastos = new ArrayList<>(gastos);
+        this.instantaneaGastos = null;
     }
     
     @Override
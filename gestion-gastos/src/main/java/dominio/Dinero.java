@@ -0,0 +1,132 @@
+package dominio;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Conversiones y operaciones sobre importes en céntimos de euro.
+ * <p>
+ * Las entidades guardan los importes como {@code long} de céntimos, de modo que sumas, restas
+ * y repartos son exactos; los {@code double} en euros solo aparecen en los bordes (interfaz,
+ * formularios y formatos de archivo que ya los usaban). Los porcentajes se expresan con dos
+ * decimales, también como enteros: 100% son {@link #CIEN_POR_CIEN} centésimas de punto.
+ * </p>
+ * @version 1.1
+ * @since 2026-10-17
+ */
+public final class Dinero {
+
+    /** 100% en centésimas de punto porcentual. */
+    public static final long CIEN_POR_CIEN = 10_000;
+
+    private Dinero() {
+    }
+
+    /**
+     * Céntimos más cercanos a un importe en euros.
+     */
+    public static long aCentimos(double euros) {
+        if (Double.isNaN(euros) || Double.isInfinite(euros)) {
+            throw new IllegalArgumentException("Importe no válido: " + euros);
+        }
+        return Math.round(euros * 100);
+    }
+
+    /**
+     * Céntimos de un importe decimal exacto, redondeado a dos decimales.
+     */
+    public static long aCentimos(BigDecimal euros) {
+        return euros.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static double aEuros(long centimos) {
+        return centimos / 100.0;
+    }
+
+    /**
+     * Importe como decimal exacto con dos cifras, para escribirlo sin pasar por {@code double}.
+     */
+    public static BigDecimal aDecimal(long centimos) {
+        return BigDecimal.valueOf(centimos, 2);
+    }
+
+    /**
+     * Porcentaje en centésimas de punto: 33.33% son 3333.
+     */
+    public static long aCentesimas(double porcentaje) {
+        if (Double.isNaN(porcentaje) || Double.isInfinite(porcentaje)) {
+            throw new IllegalArgumentException("Porcentaje no válido: " + porcentaje);
+        }
+        return Math.round(porcentaje * 100);
+    }
+
+    /**
+     * Centésimas de punto de un porcentaje decimal exacto, redondeado a dos decimales.
+     */
+    public static long aCentesimas(BigDecimal porcentaje) {
+        return porcentaje.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Suma exacta de porcentajes escritos como {@code double}, sin redondear ninguno: cada
+     * uno entra con su representación decimal más corta.
+     */
+    public static BigDecimal sumarPorcentajes(Collection<Double> porcentajes) {
+        BigDecimal suma = BigDecimal.ZERO;
+        for (double porcentaje : porcentajes) {
+            suma = suma.add(BigDecimal.valueOf(porcentaje));
+        }
+        return suma;
+    }
+
+    /**
+     * Reparte {@code centimos} en partes proporcionales a {@code pesos} sin perder ni crear
+     * ningún céntimo: las partes suman exactamente el total.
+     * <p>
+     * Cada parte recibe el cociente entero de su cuota y los céntimos sobrantes van, de uno
+     * en uno, a las partes con mayor resto (método del resto mayor); a igual resto, a la que
+     * aparece antes. Si todos los pesos son cero, el reparto es a partes iguales.
+     * </p>
+     */
+    public static long[] repartir(long centimos, long[] pesos) {
+        int n = pesos.length;
+        long[] partes = new long[n];
+        if (n == 0) {
+            return partes;
+        }
+        long suma = 0;
+        for (long peso : pesos) {
+            if (peso < 0) {
+                throw new IllegalArgumentException("Los pesos no pueden ser negativos");
+            }
+            suma += peso;
+        }
+        if (suma == 0) {
+            long[] iguales = new long[n];
+            Arrays.fill(iguales, 1);
+            return repartir(centimos, iguales);
+        }
+
+        long[] restos = new long[n];
+        long asignado = 0;
+        for (int i = 0; i < n; i++) {
+            long cuota = Math.multiplyExact(centimos, pesos[i]);
+            partes[i] = Math.floorDiv(cuota, suma);
+            restos[i] = Math.floorMod(cuota, suma);
+            asignado += partes[i];
+        }
+        for (long sobrante = centimos - asignado; sobrante > 0; sobrante--) {
+            int mayor = 0;
+            for (int i = 1; i < n; i++) {
+                if (restos[i] > restos[mayor]) {
+                    mayor = i;
+                }
+            }
+            partes[mayor]++;
+            restos[mayor] = -1;
+        }
+        return partes;
+    }
+}
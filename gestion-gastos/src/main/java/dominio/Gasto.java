@@ -1,16 +1,18 @@
 package dominio;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.time.LocalDate;
 import java.time.Month;
-import java.util.UUID;
 
 /**
  * Representa un gasto individual registrado en el sistema.
  * <p>
  * Un gasto tiene cantidad, fecha, categoría, descripción y puede estar asociado a un pagador si pertenece a una cuenta compartida. Proporciona métodos para validación, cálculo de aportes y pertenencia a categoría/mes/intervalo.<br>
+ * La cantidad se guarda en céntimos ({@link #getCentimos()}); {@link #getCantidad()} la expone en euros.
+ * Los gastos nuevos reciben un id compacto de {@link GeneradorIds}; los leídos conservan el suyo.
  * </p>
- * @version 1.0
+ * @version 1.2
  * @since 2025-11-14
  */
 
@@ -18,7 +20,7 @@ public class Gasto {
 
 
     private String id;
-    private double cantidad;
+    private long centimos;
     
     @JsonFormat(pattern = "yyyy-MM-dd")
     private LocalDate fecha;
@@ -28,13 +30,12 @@ public class Gasto {
     private Persona pagador; // null si es gasto personal
     
     public Gasto() {
-        this.id = UUID.randomUUID().toString();
+        this.id = GeneradorIds.siguiente();
     }
     
     public Gasto(double cantidad, LocalDate fecha, String descripcion, Categoria categoria) {
         this();
-        validarCantidad(cantidad);
-        this.cantidad = cantidad;
+        setCantidad(cantidad);
         this.fecha = fecha;
         this.descripcion = descripcion;
         this.categoria = categoria;
@@ -58,11 +59,11 @@ public class Gasto {
     }
 
     public double calcularAporte(double porcentaje) {
-        return this.cantidad * (porcentaje / 100.0);
+        return getCantidad() * (porcentaje / 100.0);
     }
 
-    private void validarCantidad(double cantidad) {
-        if (cantidad < 0) {
+    private void validarCantidad(long centimos) {
+        if (centimos < 0) {
             throw new IllegalArgumentException("La cantidad no puede ser negativa");
         }
     }
@@ -76,12 +77,25 @@ public class Gasto {
     }
     
     public double getCantidad() {
-        return cantidad;
+        return Dinero.aEuros(centimos);
     }
     
+    /**
+     * Fija la cantidad en euros, redondeada al céntimo.
+     */
     public void setCantidad(double cantidad) {
-        validarCantidad(cantidad);
-        this.cantidad = cantidad;
+        setCentimos(Dinero.aCentimos(cantidad));
+    }
+
+    @JsonIgnore
+    public long getCentimos() {
+        return centimos;
+    }
+
+    @JsonIgnore
+    public void setCentimos(long centimos) {
+        validarCantidad(centimos);
+        this.centimos = centimos;
     }
     
     public LocalDate getFecha() {
@@ -132,6 +146,6 @@ public class Gasto {
     @Override
     public String toString() {
         return String.format("Gasto{cantidad=%.2f, fecha=%s, categoria=%s}",
-                cantidad, fecha, categoria != null ? categoria.getNombre() : "Sin categoría");
+                getCantidad(), fecha, categoria != null ? categoria.getNombre() : "Sin categoría");
     }
 }
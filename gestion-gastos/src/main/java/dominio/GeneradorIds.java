@@ -0,0 +1,101 @@
+package dominio;
+
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generador de identificadores compactos y ordenados por tiempo para las entidades.
+ * <p>
+ * Cada id es un número de 64 bits: 42 bits de milisegundos desde {@link #EPOCA}, 12 bits de
+ * secuencia dentro del milisegundo y 10 bits de nodo, elegidos al azar una vez por proceso
+ * para que dos ejecuciones que escriben en los mismos datos no coincidan. Se escribe como
+ * texto de {@value #LONGITUD} caracteres en base 32 (alfabeto de Crockford, en minúsculas) y
+ * anchura fija, de modo que el orden alfabético de los ids es el de creación.
+ * </p>
+ * <p>
+ * Frente a {@code UUID.randomUUID().toString()} no consulta {@link SecureRandom} por entidad
+ * y el texto ocupa 13 caracteres en lugar de 36, lo que abarata las altas masivas, el hash y
+ * las comparaciones. Los ids siguen siendo {@code String} en el dominio y en los archivos, así
+ * que los UUID de datos guardados antes se leen y conviven con los nuevos sin conversión.
+ * </p>
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public final class GeneradorIds {
+    /** Origen de la marca de tiempo: 2020-01-01T00:00:00Z. */
+    static final long EPOCA = 1_577_836_800_000L;
+    static final int LONGITUD = 13;
+
+    private static final int BITS_SECUENCIA = 12;
+    private static final int BITS_NODO = 10;
+    private static final char[] ALFABETO = "0123456789abcdefghjkmnpqrstvwxyz".toCharArray();
+    private static final long NODO = new SecureRandom().nextInt(1 << BITS_NODO);
+
+    /** Último valor emitido sin el nodo: milisegundos y secuencia. */
+    private static final AtomicLong ultimo = new AtomicLong();
+
+    private GeneradorIds() {
+    }
+
+    /**
+     * Nuevo id, mayor que cualquiera emitido antes por este proceso. Si se agota la secuencia
+     * de un milisegundo, o el reloj retrocede, se toma prestado el siguiente.
+     */
+    public static String siguiente() {
+        long ahora = (System.currentTimeMillis() - EPOCA) << BITS_SECUENCIA;
+        long valor = ultimo.accumulateAndGet(ahora, (anterior, minimo) -> Math.max(anterior + 1, minimo));
+        return aTexto(valor << BITS_NODO | NODO);
+    }
+
+    /**
+     * Indica si {@code id} tiene el formato de este generador; los UUID de datos antiguos no.
+     */
+    public static boolean esCompacto(String id) {
+        if (id == null || id.length() != LONGITUD || valorDe(id.charAt(0)) > 0xF) {
+            return false;
+        }
+        for (int i = 0; i < LONGITUD; i++) {
+            if (valorDe(id.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Número de 64 bits de un id compacto.
+     *
+     * @throws IllegalArgumentException si el id no es compacto
+     */
+    public static long aNumero(String id) {
+        if (!esCompacto(id)) {
+            throw new IllegalArgumentException("No es un id compacto: " + id);
+        }
+        long valor = 0;
+        for (int i = 0; i < LONGITUD; i++) {
+            valor = valor << 5 | valorDe(id.charAt(i));
+        }
+        return valor;
+    }
+
+    static String aTexto(long valor) {
+        char[] texto = new char[LONGITUD];
+        for (int i = LONGITUD - 1; i >= 0; i--) {
+            texto[i] = ALFABETO[(int) (valor & 0x1F)];
+            valor >>>= 5;
+        }
+        return new String(texto);
+    }
+
+    private static int valorDe(char caracter) {
+        if (caracter >= '0' && caracter <= '9') {
+            return caracter - '0';
+        }
+        for (int i = 10; i < ALFABETO.length; i++) {
+            if (ALFABETO[i] == caracter) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
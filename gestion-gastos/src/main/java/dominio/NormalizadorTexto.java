@@ -0,0 +1,78 @@
+package dominio;
+
+import java.text.Normalizer;
+import java.util.regex.Pattern;
+
+/**
+ * Formas de normalizar nombres para compararlos mediante una clave en lugar de con
+ * {@link String#equalsIgnoreCase(String)}.
+ * <p>
+ * Dos textos son equivalentes si tienen la misma clave, lo que permite indexarlos en un
+ * {@code HashMap}. La conversión de mayúsculas se hace carácter a carácter, igual que
+ * {@code equalsIgnoreCase}, y no depende del idioma del sistema (evita, por ejemplo, la
+ * "i" sin punto del turco).
+ * </p>
+ * @version 1.1
+ * @since 2026-10-17
+ */
+public enum NormalizadorTexto {
+
+    /** Ignora mayúsculas y minúsculas: "Salud" y "SALUD" son el mismo nombre. */
+    SIN_MAYUSCULAS {
+        @Override
+        public String clave(String texto) {
+            return texto != null ? plegar(texto) : null;
+        }
+    },
+
+    /** Ignora además los acentos y diacríticos: "Educación" y "educacion" son el mismo nombre. */
+    SIN_MAYUSCULAS_NI_ACENTOS {
+        @Override
+        public String clave(String texto) {
+            if (texto == null) {
+                return null;
+            }
+            if (esAscii(texto)) {
+                return plegar(texto); // sin acentos que quitar: evita descomponer el texto
+            }
+            String descompuesto = Normalizer.normalize(texto, Normalizer.Form.NFD);
+            return plegar(DIACRITICOS.matcher(descompuesto).replaceAll(""));
+        }
+    };
+
+    private static final Pattern DIACRITICOS = Pattern.compile("\\p{M}+");
+
+    /**
+     * Clave de comparación de {@code texto}; null si el texto es null.
+     */
+    public abstract String clave(String texto);
+
+    public boolean equivalentes(String a, String b) {
+        String claveA = clave(a);
+        return claveA != null ? claveA.equals(clave(b)) : b == null;
+    }
+
+    private static boolean esAscii(String texto) {
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String plegar(String texto) {
+        StringBuilder resultado = null;
+        for (int i = 0; i < texto.length(); i++) {
+            char original = texto.charAt(i);
+            char plegado = Character.toLowerCase(Character.toUpperCase(original));
+            if (plegado != original && resultado == null) {
+                resultado = new StringBuilder(texto.length()).append(texto, 0, i);
+            }
+            if (resultado != null) {
+                resultado.append(plegado);
+            }
+        }
+        return resultado != null ? resultado.toString() : texto;
+    }
+}
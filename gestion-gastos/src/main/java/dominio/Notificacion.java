@@ -3,7 +3,6 @@ package dominio;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import java.time.LocalDateTime;
-import java.util.UUID;
 
 /**
  * Representa una notificación generada tras la superación de una alerta de gasto.
@@ -11,7 +10,7 @@ import java.util.UUID;
  * Incluye el mensaje informativo, la fecha de generación, el estado de leído y una referencia a la alerta que la generó. 
  * Es utilizada en el historial de notificaciones del usuario.
  * </p>
- * @version 1.0
+ * @version 1.1
  * @since 2025-11-14
  */
 
@@ -29,7 +28,7 @@ public class Notificacion {
     private Alerta alerta;
     
     public Notificacion() {
-        this.id = UUID.randomUUID().toString();
+        this.id = GeneradorIds.siguiente();
         this.fechaGeneracion = LocalDateTime.now();
         this.leida = false;
     }
@@ -1,13 +1,14 @@
 package dominio;
 
-import java.util.UUID;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 /**
  * Representa una persona participante en una cuenta compartida de gastos.
  * <p>
  * Almacena el nombre, porcentaje asignado de gasto y saldo calculado en la cuenta. Incluye validación de datos y métodos para gestión de saldo.
+ * El saldo se guarda en céntimos para que los saldos de una cuenta sumen exactamente cero.
  * </p>
- * @version 1.0
+ * @version 1.2
  * @since 2025-11-14
  */
 
@@ -15,11 +16,11 @@ public class Persona {
     private String id;
     private String nombre;
     private double porcentajeGasto;
-    private double saldo;
+    private long saldoCentimos;
     
     public Persona() {
-        this.id = UUID.randomUUID().toString();
-        this.saldo = 0.0;
+        this.id = GeneradorIds.siguiente();
+        this.saldoCentimos = 0;
     }
     
     public Persona(String nombre) {
@@ -68,11 +69,21 @@ public class Persona {
     }
     
     public double getSaldo() {
-        return saldo;
+        return Dinero.aEuros(saldoCentimos);
     }
     
     public void setSaldo(double saldo) {
-        this.saldo = saldo;
+        this.saldoCentimos = Dinero.aCentimos(saldo);
+    }
+
+    @JsonIgnore
+    public long getSaldoCentimos() {
+        return saldoCentimos;
+    }
+
+    @JsonIgnore
+    public void setSaldoCentimos(long saldoCentimos) {
+        this.saldoCentimos = saldoCentimos;
     }
     
     @Override
@@ -90,6 +101,6 @@ public class Persona {
     
     @Override
     public String toString() {
-        return String.format("%s (Saldo: %.2f€)", nombre, saldo);
+        return String.format("%s (Saldo: %.2f€)", nombre, getSaldo());
     }
 }
@@ -1,6 +1,7 @@
 package dominio.estrategias;
 
 import dominio.Categoria;
+import dominio.Dinero;
 import dominio.Gasto;
 import java.time.LocalDate;
 import java.util.List;
@@ -11,7 +12,7 @@ import java.util.List;
  * Implementa el patrón Strategy y define cómo sumar los gastos del mes corriente,
  * opcionalmente filtrando por categoría.
  * </p>
- * @version 1.0
+ * @version 1.2
  * @since 2025-11-14
  */
 
@@ -22,13 +23,18 @@ public class AlertaMensual implements EstrategiaAlerta {
     
     @Override
     public double calcularGastoEnPeriodo(List<Gasto> gastos, Categoria categoria) {
-        LocalDate hoy = LocalDate.now();
-        LocalDate inicioMes = hoy.withDayOfMonth(1);
+        LocalDate inicioMes = inicioPeriodo(LocalDate.now());
         
-        return gastos.stream()
+        long centimos = gastos.stream()
                 .filter(g -> !g.getFecha().isBefore(inicioMes))
                 .filter(g -> categoria == null || g.esDeCategoria(categoria))
-                .mapToDouble(Gasto::getCantidad)
+                .mapToLong(Gasto::getCentimos)
                 .sum();
+        return Dinero.aEuros(centimos);
+    }
+
+    @Override
+    public LocalDate inicioPeriodo(LocalDate hoy) {
+        return hoy.withDayOfMonth(1);
     }
 }
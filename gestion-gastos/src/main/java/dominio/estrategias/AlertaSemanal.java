@@ -1,6 +1,7 @@
 package dominio.estrategias;
 
 import dominio.Categoria;
+import dominio.Dinero;
 import dominio.Gasto;
 import java.time.LocalDate;
 import java.time.temporal.WeekFields;
@@ -14,7 +15,7 @@ import java.util.Locale;
  * (de lunes a domingo), opcionalmente filtrando por categoría.
  * </p>
  * 
- * @version 1.1
+ * @version 1.3
  * @since 2025-11-15
  */
 public class AlertaSemanal implements EstrategiaAlerta {
@@ -23,19 +24,25 @@ public class AlertaSemanal implements EstrategiaAlerta {
     
     @Override
     public double calcularGastoEnPeriodo(List<Gasto> gastos, Categoria categoria) {
-        LocalDate hoy = LocalDate.now();
-        
-        // Obtener el primer día de la semana actual (lunes)
-        WeekFields weekFields = WeekFields.of(Locale.getDefault());
-        LocalDate inicioSemana = hoy.with(weekFields.dayOfWeek(), 1);
+        LocalDate inicioSemana = inicioPeriodo(LocalDate.now());
         
         // Obtener el último día de la semana actual (domingo)
         LocalDate finSemana = inicioSemana.plusDays(6);
         
-        return gastos.stream()
+        long centimos = gastos.stream()
             .filter(g -> !g.getFecha().isBefore(inicioSemana) && !g.getFecha().isAfter(finSemana))
             .filter(g -> categoria == null || g.esDeCategoria(categoria))
-            .mapToDouble(Gasto::getCantidad)
+            .mapToLong(Gasto::getCentimos)
             .sum();
+        return Dinero.aEuros(centimos);
+    }
+
+    /**
+     * Primer día de la semana actual (lunes).
+     */
+    @Override
+    public LocalDate inicioPeriodo(LocalDate hoy) {
+        WeekFields weekFields = WeekFields.of(Locale.getDefault());
+        return hoy.with(weekFields.dayOfWeek(), 1);
     }
 }
@@ -2,6 +2,7 @@ package dominio.estrategias;
 
 import dominio.Categoria;
 import dominio.Gasto;
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -10,10 +11,18 @@ import java.util.List;
  * Permite implementar distintas estrategias para determinar el gasto relevante según el contexto (semanal, mensual, personalizada...).
  * Aplica el patrón Strategy.
  * </p>
- * @version 1.0
+ * @version 1.1
  * @since 2025-11-14
  */
 
 public interface EstrategiaAlerta {
     double calcularGastoEnPeriodo(List<Gasto> gastos, Categoria categoria);
+
+    /**
+     * Primer día del periodo que se tiene en cuenta a fecha {@code hoy}; los gastos anteriores
+     * no afectan al cálculo y quien llama puede omitirlos. Null si no hay límite inferior.
+     */
+    default LocalDate inicioPeriodo(LocalDate hoy) {
+        return null;
+    }
 }
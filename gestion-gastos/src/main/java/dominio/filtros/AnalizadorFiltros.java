@@ -0,0 +1,532 @@
+package dominio.filtros;
+
+import dominio.Categoria;
+import dominio.Dinero;
+import dominio.NormalizadorTexto;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Traduce una expresión de texto a un árbol de {@link Filtro}, para consultas guardadas que
+ * combinan varios criterios.
+ * <p>
+ * Sintaxis, de menor a mayor precedencia: {@code o}, {@code y}, {@code no} y paréntesis. Las
+ * condiciones son:
+ * </p>
+ * <ul>
+ *   <li>{@code categoria = Ocio, "Hogar y jardín"}: cualquiera de las categorías</li>
+ *   <li>{@code mes = marzo, abril}</li>
+ *   <li>{@code fecha >= 2025-01-01} (también {@code =, >, <, <=})</li>
+ *   <li>{@code importe > 20.50} (también {@code =, >=, <, <=})</li>
+ *   <li>{@code descripcion contiene "super"}</li>
+ *   <li>{@code pagador = Ana}</li>
+ *   <li>{@code compartido}, {@code personal}, {@code todos}, {@code ninguno}</li>
+ * </ul>
+ * <p>
+ * Las palabras clave no distinguen mayúsculas ni acentos, y los valores con espacios o
+ * comas van entre comillas dobles. Por ejemplo:
+ * {@code (categoria = Ocio o descripcion contiene cine) y fecha >= 2025-01-01 y no compartido}.
+ * </p>
+ * <p>
+ * Al construir el árbol se simplifica: se aplanan las "y" y "o" anidadas, se pliegan las
+ * constantes ({@code x y ninguno} es {@link FiltroConstante#NINGUNO}, {@code no no x} es
+ * {@code x}) y las condiciones del mismo campo se combinan en una sola (dos fechas en "y" dan
+ * la intersección de intervalos, dos categorías en "o" la unión), de modo que un intervalo
+ * vacío se detecta sin recorrer gastos. El orden de evaluación lo deciden después
+ * {@link FiltroCompuesto} y {@link FiltroDisyuncion} según la selectividad de cada rama.
+ * </p>
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public final class AnalizadorFiltros {
+    private static final NormalizadorTexto PALABRAS = NormalizadorTexto.SIN_MAYUSCULAS_NI_ACENTOS;
+    private static final String[] MESES = {"enero", "febrero", "marzo", "abril", "mayo", "junio",
+        "julio", "agosto", "septiembre", "octubre", "noviembre", "diciembre"};
+
+    private final String texto;
+    private final Function<String, Optional<Categoria>> buscarCategoria;
+    private final List<Simbolo> simbolos;
+    private int actual;
+
+    private AnalizadorFiltros(String texto, Function<String, Optional<Categoria>> buscarCategoria) {
+        this.texto = texto;
+        this.buscarCategoria = buscarCategoria;
+        this.simbolos = dividir(texto);
+    }
+
+    /**
+     * Filtro de la expresión; las categorías se comparan solo por nombre.
+     *
+     * @throws IllegalArgumentException si la expresión no es válida
+     */
+    public static Filtro analizar(String expresion) {
+        return analizar(expresion, nombre -> Optional.of(new Categoria(nombre, null)));
+    }
+
+    /**
+     * Filtro de la expresión, resolviendo los nombres de categoría con {@code buscarCategoria}.
+     *
+     * @throws IllegalArgumentException si la expresión no es válida o nombra una categoría
+     *         que {@code buscarCategoria} no encuentra
+     */
+    public static Filtro analizar(String expresion, Function<String, Optional<Categoria>> buscarCategoria) {
+        if (expresion == null || expresion.isBlank()) {
+            throw new IllegalArgumentException("La expresión de filtro no puede estar vacía");
+        }
+        AnalizadorFiltros analizador = new AnalizadorFiltros(expresion, buscarCategoria);
+        Filtro filtro = analizador.disyuncion();
+        if (analizador.siguiente().tipo != Tipo.FIN) {
+            throw analizador.error("se esperaba el final de la expresión");
+        }
+        return filtro;
+    }
+
+    // --- Gramática ---
+
+    private Filtro disyuncion() {
+        List<Filtro> partes = new ArrayList<>();
+        partes.add(conjuncion());
+        while (aceptarPalabra("o")) {
+            partes.add(conjuncion());
+        }
+        return o(partes);
+    }
+
+    private Filtro conjuncion() {
+        List<Filtro> partes = new ArrayList<>();
+        partes.add(negacion());
+        while (aceptarPalabra("y")) {
+            partes.add(negacion());
+        }
+        return y(partes);
+    }
+
+    private Filtro negacion() {
+        if (aceptarPalabra("no")) {
+            return no(negacion());
+        }
+        return primario();
+    }
+
+    private Filtro primario() {
+        if (aceptarSimbolo("(")) {
+            Filtro filtro = disyuncion();
+            esperarSimbolo(")");
+            return filtro;
+        }
+        Simbolo simbolo = siguiente();
+        if (simbolo.tipo != Tipo.PALABRA) {
+            throw error("se esperaba una condición");
+        }
+        actual++;
+        switch (PALABRAS.clave(simbolo.texto)) {
+            case "todos":
+                return FiltroConstante.TODOS;
+            case "ninguno":
+                return FiltroConstante.NINGUNO;
+            case "compartido":
+                return new FiltroCompartido(true);
+            case "personal":
+                return new FiltroCompartido(false);
+            case "categoria":
+                esperarSimbolo("=");
+                return categorias();
+            case "mes":
+                esperarSimbolo("=");
+                return meses();
+            case "fecha":
+                return fecha(operador());
+            case "importe":
+                return importe(operador());
+            case "descripcion":
+                if (!aceptarPalabra("contiene")) {
+                    throw error("se esperaba 'contiene'");
+                }
+                return new FiltroDescripcion(valor());
+            case "pagador":
+                esperarSimbolo("=");
+                return new FiltroPagador(valor());
+            default:
+                actual--;
+                throw error("condición desconocida '" + simbolo.texto + "'");
+        }
+    }
+
+    private Filtro categorias() {
+        Set<Categoria> categorias = new HashSet<>();
+        do {
+            String nombre = valor();
+            categorias.add(buscarCategoria.apply(nombre)
+                .orElseThrow(() -> new IllegalArgumentException("Categoría no encontrada: " + nombre)));
+        } while (aceptarSimbolo(","));
+        return new FiltroCategorias(categorias);
+    }
+
+    private Filtro meses() {
+        Set<Month> meses = EnumSet.noneOf(Month.class);
+        do {
+            String nombre = PALABRAS.clave(valor());
+            int indice = List.of(MESES).indexOf("setiembre".equals(nombre) ? "septiembre" : nombre);
+            if (indice < 0) {
+                actual--;
+                throw error("mes desconocido");
+            }
+            meses.add(Month.of(indice + 1));
+        } while (aceptarSimbolo(","));
+        return new FiltroMeses(meses);
+    }
+
+    private Filtro fecha(String operador) {
+        LocalDate fecha;
+        try {
+            fecha = LocalDate.parse(valor());
+        } catch (DateTimeParseException e) {
+            actual--;
+            throw error("fecha no válida, se espera aaaa-mm-dd");
+        }
+        switch (operador) {
+            case "=": return new FiltroFechas(fecha, fecha);
+            case ">=": return new FiltroFechas(fecha, null);
+            case ">": return new FiltroFechas(fecha.plusDays(1), null);
+            case "<=": return new FiltroFechas(null, fecha);
+            default: return new FiltroFechas(null, fecha.minusDays(1));
+        }
+    }
+
+    private Filtro importe(String operador) {
+        long centimos;
+        try {
+            centimos = Dinero.aCentimos(new BigDecimal(valor()));
+        } catch (NumberFormatException | ArithmeticException e) {
+            actual--;
+            throw error("importe no válido");
+        }
+        switch (operador) {
+            case "=": return new FiltroImportes(centimos, centimos);
+            case ">=": return new FiltroImportes(centimos, Long.MAX_VALUE);
+            case ">": return new FiltroImportes(centimos + 1, Long.MAX_VALUE);
+            case "<=": return new FiltroImportes(Long.MIN_VALUE, centimos);
+            default: return new FiltroImportes(Long.MIN_VALUE, centimos - 1);
+        }
+    }
+
+    private String operador() {
+        Simbolo simbolo = siguiente();
+        if (simbolo.tipo != Tipo.SIGNO || !List.of("=", ">=", "<=", ">", "<").contains(simbolo.texto)) {
+            throw error("se esperaba un operador de comparación");
+        }
+        actual++;
+        return simbolo.texto;
+    }
+
+    private String valor() {
+        Simbolo simbolo = siguiente();
+        if (simbolo.tipo != Tipo.PALABRA && simbolo.tipo != Tipo.TEXTO) {
+            throw error("se esperaba un valor");
+        }
+        actual++;
+        return simbolo.texto;
+    }
+
+    private Simbolo siguiente() {
+        return simbolos.get(actual);
+    }
+
+    private boolean aceptarPalabra(String palabra) {
+        Simbolo simbolo = siguiente();
+        if (simbolo.tipo == Tipo.PALABRA && palabra.equals(PALABRAS.clave(simbolo.texto))) {
+            actual++;
+            return true;
+        }
+        return false;
+    }
+
+    private boolean aceptarSimbolo(String signo) {
+        Simbolo simbolo = siguiente();
+        if (simbolo.tipo == Tipo.SIGNO && signo.equals(simbolo.texto)) {
+            actual++;
+            return true;
+        }
+        return false;
+    }
+
+    private void esperarSimbolo(String signo) {
+        if (!aceptarSimbolo(signo)) {
+            throw error("se esperaba '" + signo + "'");
+        }
+    }
+
+    private IllegalArgumentException error(String detalle) {
+        int posicion = siguiente().posicion;
+        return new IllegalArgumentException(String.format(
+            "Expresión de filtro no válida en la posición %d (%s): %s",
+            posicion + 1, detalle, texto.substring(posicion).trim()));
+    }
+
+    // --- Simplificación ---
+
+    /**
+     * "y" de las partes, aplanada y con las condiciones del mismo campo combinadas.
+     */
+    static Filtro y(List<Filtro> partes) {
+        List<Filtro> planas = new ArrayList<>();
+        for (Filtro parte : partes) {
+            if (parte instanceof FiltroCompuesto) {
+                planas.addAll(((FiltroCompuesto) parte).getFiltros());
+            } else {
+                planas.add(parte);
+            }
+        }
+
+        LocalDate desde = null;
+        LocalDate hasta = null;
+        boolean hayFechas = false;
+        long minimo = Long.MIN_VALUE;
+        long maximo = Long.MAX_VALUE;
+        boolean hayImportes = false;
+        Map<String, Categoria> categorias = null;
+        Set<Month> meses = null;
+        Boolean compartido = null;
+        List<Filtro> resto = new ArrayList<>();
+
+        for (Filtro filtro : planas) {
+            if (filtro == FiltroConstante.NINGUNO) {
+                return FiltroConstante.NINGUNO;
+            } else if (filtro == FiltroConstante.TODOS) {
+                continue;
+            } else if (filtro instanceof FiltroFechas) {
+                FiltroFechas fechas = (FiltroFechas) filtro;
+                hayFechas = true;
+                if (fechas.getFechaInicio() != null && (desde == null || fechas.getFechaInicio().isAfter(desde))) {
+                    desde = fechas.getFechaInicio();
+                }
+                if (fechas.getFechaFin() != null && (hasta == null || fechas.getFechaFin().isBefore(hasta))) {
+                    hasta = fechas.getFechaFin();
+                }
+            } else if (filtro instanceof FiltroImportes) {
+                FiltroImportes importes = (FiltroImportes) filtro;
+                hayImportes = true;
+                minimo = Math.max(minimo, importes.getMinimo());
+                maximo = Math.min(maximo, importes.getMaximo());
+            } else if (filtro instanceof FiltroCategorias) {
+                Map<String, Categoria> estas = porClave(((FiltroCategorias) filtro).getCategorias());
+                if (categorias == null) {
+                    categorias = estas;
+                } else {
+                    categorias.keySet().retainAll(estas.keySet());
+                }
+            } else if (filtro instanceof FiltroMeses) {
+                if (meses == null) {
+                    meses = EnumSet.noneOf(Month.class);
+                    meses.addAll(((FiltroMeses) filtro).getMeses());
+                } else {
+                    meses.retainAll(((FiltroMeses) filtro).getMeses());
+                }
+            } else if (filtro instanceof FiltroCompartido) {
+                boolean este = ((FiltroCompartido) filtro).isCompartido();
+                if (compartido != null && compartido != este) {
+                    return FiltroConstante.NINGUNO;
+                }
+                compartido = este;
+            } else {
+                resto.add(filtro);
+            }
+        }
+
+        List<Filtro> combinadas = new ArrayList<>();
+        if (hayFechas) {
+            if (desde != null && hasta != null && desde.isAfter(hasta)) {
+                return FiltroConstante.NINGUNO;
+            }
+            combinadas.add(new FiltroFechas(desde, hasta));
+        }
+        if (hayImportes) {
+            if (minimo > maximo) {
+                return FiltroConstante.NINGUNO;
+            }
+            combinadas.add(new FiltroImportes(minimo, maximo));
+        }
+        if (categorias != null) {
+            if (categorias.isEmpty()) {
+                return FiltroConstante.NINGUNO;
+            }
+            combinadas.add(new FiltroCategorias(new HashSet<>(categorias.values())));
+        }
+        if (meses != null) {
+            if (meses.isEmpty()) {
+                return FiltroConstante.NINGUNO;
+            }
+            combinadas.add(new FiltroMeses(meses));
+        }
+        if (compartido != null) {
+            combinadas.add(new FiltroCompartido(compartido));
+        }
+        combinadas.addAll(resto);
+
+        if (combinadas.isEmpty()) {
+            return FiltroConstante.TODOS;
+        }
+        if (combinadas.size() == 1) {
+            return combinadas.get(0);
+        }
+        FiltroCompuesto compuesto = new FiltroCompuesto();
+        combinadas.forEach(compuesto::agregarFiltro);
+        return compuesto;
+    }
+
+    /**
+     * "o" de las partes, aplanada y con las categorías y meses unidos en una sola condición.
+     */
+    static Filtro o(List<Filtro> partes) {
+        List<Filtro> planas = new ArrayList<>();
+        for (Filtro parte : partes) {
+            if (parte instanceof FiltroDisyuncion) {
+                planas.addAll(((FiltroDisyuncion) parte).getFiltros());
+            } else {
+                planas.add(parte);
+            }
+        }
+
+        Map<String, Categoria> categorias = null;
+        Set<Month> meses = null;
+        Set<Boolean> compartidos = new HashSet<>();
+        List<Filtro> resto = new ArrayList<>();
+
+        for (Filtro filtro : planas) {
+            if (filtro == FiltroConstante.TODOS) {
+                return FiltroConstante.TODOS;
+            } else if (filtro == FiltroConstante.NINGUNO) {
+                continue;
+            } else if (filtro instanceof FiltroCategorias) {
+                Map<String, Categoria> estas = porClave(((FiltroCategorias) filtro).getCategorias());
+                if (categorias == null) {
+                    categorias = estas;
+                } else {
+                    estas.forEach(categorias::putIfAbsent);
+                }
+            } else if (filtro instanceof FiltroMeses) {
+                if (meses == null) {
+                    meses = EnumSet.noneOf(Month.class);
+                }
+                meses.addAll(((FiltroMeses) filtro).getMeses());
+            } else if (filtro instanceof FiltroCompartido) {
+                compartidos.add(((FiltroCompartido) filtro).isCompartido());
+            } else {
+                resto.add(filtro);
+            }
+        }
+        if (compartidos.size() == 2) {
+            return FiltroConstante.TODOS;
+        }
+
+        List<Filtro> combinadas = new ArrayList<>();
+        if (categorias != null) {
+            combinadas.add(new FiltroCategorias(new HashSet<>(categorias.values())));
+        }
+        if (meses != null) {
+            combinadas.add(new FiltroMeses(meses));
+        }
+        compartidos.forEach(compartido -> combinadas.add(new FiltroCompartido(compartido)));
+        combinadas.addAll(resto);
+
+        if (combinadas.isEmpty()) {
+            return FiltroConstante.NINGUNO;
+        }
+        if (combinadas.size() == 1) {
+            return combinadas.get(0);
+        }
+        FiltroDisyuncion disyuncion = new FiltroDisyuncion();
+        combinadas.forEach(disyuncion::agregarFiltro);
+        return disyuncion;
+    }
+
+    static Filtro no(Filtro filtro) {
+        if (filtro == FiltroConstante.TODOS) {
+            return FiltroConstante.NINGUNO;
+        }
+        if (filtro == FiltroConstante.NINGUNO) {
+            return FiltroConstante.TODOS;
+        }
+        if (filtro instanceof FiltroNegacion) {
+            return ((FiltroNegacion) filtro).getFiltro();
+        }
+        if (filtro instanceof FiltroCompartido) {
+            return new FiltroCompartido(!((FiltroCompartido) filtro).isCompartido());
+        }
+        return new FiltroNegacion(filtro);
+    }
+
+    private static Map<String, Categoria> porClave(Set<Categoria> categorias) {
+        Map<String, Categoria> resultado = new LinkedHashMap<>();
+        categorias.forEach(categoria -> resultado.putIfAbsent(categoria.getClave(), categoria));
+        return resultado;
+    }
+
+    // --- Símbolos ---
+
+    private enum Tipo { PALABRA, TEXTO, SIGNO, FIN }
+
+    private static final class Simbolo {
+        private final Tipo tipo;
+        private final String texto;
+        private final int posicion;
+
+        Simbolo(Tipo tipo, String texto, int posicion) {
+            this.tipo = tipo;
+            this.texto = texto;
+            this.posicion = posicion;
+        }
+    }
+
+    private static List<Simbolo> dividir(String texto) {
+        List<Simbolo> simbolos = new ArrayList<>();
+        int i = 0;
+        while (i < texto.length()) {
+            char c = texto.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '"') {
+                int cierre = texto.indexOf('"', i + 1);
+                if (cierre < 0) {
+                    throw new IllegalArgumentException(String.format(
+                        "Expresión de filtro no válida en la posición %d: comillas sin cerrar", i + 1));
+                }
+                simbolos.add(new Simbolo(Tipo.TEXTO, texto.substring(i + 1, cierre), i));
+                i = cierre + 1;
+            } else if ((c == '>' || c == '<') && i + 1 < texto.length() && texto.charAt(i + 1) == '=') {
+                simbolos.add(new Simbolo(Tipo.SIGNO, texto.substring(i, i + 2), i));
+                i += 2;
+            } else if ("()=,<>".indexOf(c) >= 0) {
+                simbolos.add(new Simbolo(Tipo.SIGNO, String.valueOf(c), i));
+                i++;
+            } else {
+                int inicio = i;
+                while (i < texto.length() && esDePalabra(texto.charAt(i))) {
+                    i++;
+                }
+                if (i == inicio) {
+                    throw new IllegalArgumentException(String.format(
+                        "Expresión de filtro no válida en la posición %d: carácter '%c' inesperado", i + 1, c));
+                }
+                simbolos.add(new Simbolo(Tipo.PALABRA, texto.substring(inicio, i), inicio));
+            }
+        }
+        simbolos.add(new Simbolo(Tipo.FIN, "", texto.length()));
+        return simbolos;
+    }
+
+    private static boolean esDePalabra(char c) {
+        return Character.isLetterOrDigit(c) || c == '-' || c == '.' || c == '_';
+    }
+}
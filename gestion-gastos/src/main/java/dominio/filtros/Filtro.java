@@ -1,7 +1,9 @@
 package dominio.filtros;
 
 import dominio.Gasto;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Interfaz general para aplicar criterios de filtrado a colecciones de gastos.
@@ -9,9 +11,69 @@ import java.util.List;
  * Este contrato permite implementar distintos filtros que extraigan subconjuntos de gastos según diferentes reglas o atributos,
  * como por categoría, por fechas, por meses, o mediante composición de múltiples filtros.
  * </p>
+ * <p>
+ * Cada filtro decide gasto a gasto con {@link #cumple(Gasto)}; {@link #aplicar(List)} recorre la
+ * lista una vez con ese criterio. Al evaluar gasto a gasto, un {@link FiltroCompuesto} combina
+ * sus filtros en una sola pasada sin listas intermedias, y con {@link #selectividad()} decide
+ * cuál comprobar primero.
+ * </p>
+ * <p>
+ * Con {@link #restricciones()} el filtro describe las fechas, categorías y meses que admite,
+ * para que un catálogo indexado recorra solo los gastos que pueden pasarlo.
+ * </p>
+ * <p>
+ * {@link #cumple(Gasto)} puede llamarse desde varios hilos a la vez (ver
+ * {@link #aplicarEnParalelo(List)}), así que las implementaciones no deben guardar estado
+ * mutable o deben publicarlo de forma segura.
+ * </p>
+ * @version 1.3
  * @since 2025-11-14
  */
 
 public interface Filtro {
-    List<Gasto> aplicar(List<Gasto> gastos);
+
+    /**
+     * Indica si el gasto pasa el filtro.
+     */
+    boolean cumple(Gasto gasto);
+
+    /**
+     * Fracción estimada de gastos que pasan el filtro, de 0 a 1. Es orientativa: solo sirve
+     * para ordenar comprobaciones, no cambia el resultado. Por defecto, 1 (no descarta nada).
+     */
+    default double selectividad() {
+        return 1.0;
+    }
+
+    /**
+     * Condiciones que cumple todo gasto que pasa el filtro. Por defecto, ninguna: el filtro
+     * no se puede resolver con índices y se evalúa sobre todos los gastos.
+     */
+    default Restricciones restricciones() {
+        return Restricciones.NINGUNA;
+    }
+
+    /**
+     * Gastos de la lista que pasan el filtro, en el mismo orden, en una lista nueva.
+     */
+    default List<Gasto> aplicar(List<Gasto> gastos) {
+        List<Gasto> resultado = new ArrayList<>();
+        for (Gasto gasto : gastos) {
+            if (cumple(gasto)) {
+                resultado.add(gasto);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Como {@link #aplicar(List)}, repartiendo la lista entre los hilos del
+     * {@link java.util.concurrent.ForkJoinPool} común (o del pool desde el que se llame). El
+     * resultado conserva el orden de la lista. Solo compensa con listas muy grandes.
+     */
+    default List<Gasto> aplicarEnParalelo(List<Gasto> gastos) {
+        return gastos.parallelStream()
+                .filter(this::cumple)
+                .collect(Collectors.toList());
+    }
 }
@@ -2,9 +2,8 @@ package dominio.filtros;
 
 import dominio.Categoria;
 import dominio.Gasto;
-import java.util.List;
+import java.util.HashSet;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Filtro que selecciona gastos que pertenecen a una o más categorías concretas.
@@ -12,20 +11,47 @@ import java.util.stream.Collectors;
  * Implementa la interfaz {@link Filtro} y permite seleccionar todos los gastos cuya categoría coincida con cualquiera de las especificadas.
  * Útil para analizar un subconjunto temático de gastos.
  * </p>
+ * <p>
+ * Las claves normalizadas de los nombres ({@link Categoria#getClave()}) se calculan al crear
+ * el filtro, así que cada gasto se comprueba con una búsqueda en un conjunto hash, sin
+ * comparar su categoría con cada una de las seleccionadas.
+ * </p>
+ * @version 1.4
  * @since 2025-11-14
  */
 
 public class FiltroCategorias implements Filtro {
+    /** Categorías que suele tener un usuario; sin más datos, cada una se supone igual de frecuente. */
+    private static final int CATEGORIAS_HABITUALES = 10;
+
     private final Set<Categoria> categorias;
+    private final Set<String> claves;
     
     public FiltroCategorias(Set<Categoria> categorias) {
         this.categorias = Set.copyOf(categorias);
+        this.claves = new HashSet<>();
+        for (Categoria categoria : this.categorias) {
+            claves.add(categoria.getClave());
+        }
     }
     
+    Set<Categoria> getCategorias() {
+        return categorias;
+    }
+
+    @Override
+    public boolean cumple(Gasto gasto) {
+        Categoria categoria = gasto.getCategoria();
+        return categoria != null && claves.contains(categoria.getClave());
+    }
+
+    @Override
+    public Restricciones restricciones() {
+        return Restricciones.deCategorias(categorias);
+    }
+
     @Override
-    public List<Gasto> aplicar(List<Gasto> gastos) {
-        return gastos.stream()
-                .filter(g -> categorias.stream().anyMatch(g::esDeCategoria))
-                .collect(Collectors.toList());
+    public double selectividad() {
+        return Math.min(1.0, (double) claves.size() / CATEGORIAS_HABITUALES);
     }
 }
@@ -0,0 +1,37 @@
+package dominio.filtros;
+
+import dominio.Gasto;
+
+/**
+ * Filtro que separa los gastos de cuentas compartidas, los que tienen pagador, de los
+ * personales.
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class FiltroCompartido implements Filtro {
+    private final boolean compartido;
+
+    /**
+     * @param compartido true para los gastos con pagador, false para los personales
+     */
+    public FiltroCompartido(boolean compartido) {
+        this.compartido = compartido;
+    }
+
+    boolean isCompartido() {
+        return compartido;
+    }
+
+    @Override
+    public boolean cumple(Gasto gasto) {
+        return (gasto.getPagador() != null) == compartido;
+    }
+
+    /**
+     * La mayoría de los gastos registrados son personales.
+     */
+    @Override
+    public double selectividad() {
+        return compartido ? 0.2 : 0.8;
+    }
+}
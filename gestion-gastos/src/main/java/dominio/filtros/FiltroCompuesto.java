@@ -2,6 +2,7 @@ package dominio.filtros;
 
 import dominio.Gasto;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 
@@ -9,14 +10,23 @@ import java.util.List;
  * Filtro que permite combinar múltiples criterios de filtrado aplicados en "and".
  * <p>
  * Implementa el patrón Composite, permitiendo encadenar varios filtros y aplicar todos en cadena sobre la lista de gastos.
- * El resultado final es la intersección de todos los filtros en el orden dado.
+ * El resultado final es la intersección de todos los filtros.
  * </p>
+ * <p>
+ * La evaluación es de una sola pasada: cada gasto se comprueba contra los filtros hasta el
+ * primero que lo descarta, sin construir listas intermedias. Los filtros se comprueban de
+ * menor a mayor {@link Filtro#selectividad()}, para descartar cuanto antes; a igual
+ * selectividad, en el orden en que se agregaron. El orden no afecta al resultado.
+ * Sus {@link Filtro#restricciones()} son la intersección de las de sus filtros.
+ * </p>
+ * @version 1.4
  * @since 2025-11-14
  * @see Filtro
  */
 
 public class FiltroCompuesto implements Filtro {
     private final List<Filtro> filtros;
+    private volatile Filtro[] ordenados; // null hasta la primera evaluación tras agregar un filtro
     
     public FiltroCompuesto() {
         this.filtros = new ArrayList<>();
@@ -24,13 +34,68 @@ public class FiltroCompuesto implements Filtro {
     
     public void agregarFiltro(Filtro filtro) {
         filtros.add(filtro);
+        ordenados = null;
+    }
+
+    List<Filtro> getFiltros() {
+        return List.copyOf(filtros);
+    }
+
+    @Override
+    public boolean cumple(Gasto gasto) {
+        return cumpleTodos(ordenados(), gasto);
+    }
+
+    @Override
+    public Restricciones restricciones() {
+        Restricciones restricciones = Restricciones.NINGUNA;
+        for (Filtro filtro : filtros) {
+            restricciones = restricciones.y(filtro.restricciones());
+        }
+        return restricciones;
+    }
+
+    /**
+     * Producto de las selectividades, suponiendo criterios independientes.
+     */
+    @Override
+    public double selectividad() {
+        double selectividad = 1.0;
+        for (Filtro filtro : filtros) {
+            selectividad *= filtro.selectividad();
+        }
+        return selectividad;
     }
     
     @Override
     public List<Gasto> aplicar(List<Gasto> gastos) {
-        return filtros.stream()
-                .reduce(gastos,
-                        (gastosActuales, filtro) -> filtro.aplicar(gastosActuales),
-                        (g1, g2) -> g1);
+        Filtro[] orden = ordenados();
+        List<Gasto> resultado = new ArrayList<>();
+        for (Gasto gasto : gastos) {
+            if (cumpleTodos(orden, gasto)) {
+                resultado.add(gasto);
+            }
+        }
+        return resultado;
+    }
+
+    private static boolean cumpleTodos(Filtro[] orden, Gasto gasto) {
+        for (Filtro filtro : orden) {
+            if (!filtro.cumple(gasto)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Filtro[] ordenados() {
+        Filtro[] orden = ordenados;
+        if (orden == null) {
+            List<Filtro> copia = new ArrayList<>(filtros);
+            copia.sort(Comparator.comparingDouble(Filtro::selectividad)); // estable
+            orden = copia.toArray(new Filtro[0]);
+            ordenados = orden;
+        }
+        return orden;
     }
 }
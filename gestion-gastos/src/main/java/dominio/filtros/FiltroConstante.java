@@ -0,0 +1,41 @@
+package dominio.filtros;
+
+import dominio.Gasto;
+import java.util.Set;
+
+/**
+ * Filtros que aceptan todos los gastos o ninguno. Resultan de simplificar expresiones, por
+ * ejemplo un intervalo de fechas vacío o una condición y su negación.
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public enum FiltroConstante implements Filtro {
+    TODOS {
+        @Override
+        public boolean cumple(Gasto gasto) {
+            return true;
+        }
+
+        @Override
+        public double selectividad() {
+            return 1.0;
+        }
+    },
+
+    NINGUNO {
+        @Override
+        public boolean cumple(Gasto gasto) {
+            return false;
+        }
+
+        @Override
+        public double selectividad() {
+            return 0.0;
+        }
+
+        @Override
+        public Restricciones restricciones() {
+            return Restricciones.deMeses(Set.of()); // imposible: el catálogo no recorre nada
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package dominio.filtros;
+
+import dominio.Gasto;
+import dominio.NormalizadorTexto;
+
+/**
+ * Filtro para seleccionar gastos cuya descripción contiene un texto, sin distinguir
+ * mayúsculas ni acentos: "cafe" encuentra "Café con Ana".
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class FiltroDescripcion implements Filtro {
+    private static final NormalizadorTexto NORMALIZADOR = NormalizadorTexto.SIN_MAYUSCULAS_NI_ACENTOS;
+
+    private final String texto;
+
+    public FiltroDescripcion(String texto) {
+        if (texto == null || texto.isBlank()) {
+            throw new IllegalArgumentException("El texto a buscar no puede estar vacío");
+        }
+        this.texto = NORMALIZADOR.clave(texto);
+    }
+
+    @Override
+    public boolean cumple(Gasto gasto) {
+        String descripcion = gasto.getDescripcion();
+        return descripcion != null && NORMALIZADOR.clave(descripcion).contains(texto);
+    }
+
+    @Override
+    public double selectividad() {
+        return 0.1;
+    }
+}
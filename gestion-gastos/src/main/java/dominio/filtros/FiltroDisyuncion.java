@@ -0,0 +1,80 @@
+package dominio.filtros;
+
+import dominio.Gasto;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Filtro que combina varios criterios en "o": un gasto pasa si pasa cualquiera de ellos.
+ * <p>
+ * Es el complemento de {@link FiltroCompuesto} y se evalúa igual, en una sola pasada y gasto a
+ * gasto, pero se detiene en el primer filtro que acepta. Por eso los filtros se comprueban de
+ * mayor a menor {@link Filtro#selectividad()}. Sin filtros no acepta ningún gasto.
+ * </p>
+ * <p>
+ * Sus {@link Filtro#restricciones()} son la envolvente de las de sus filtros: por ejemplo, dos
+ * categorías en "o" dejan buscar por el índice de categorías las dos a la vez.
+ * </p>
+ * @version 1.1
+ * @since 2026-10-17
+ * @see FiltroCompuesto
+ */
+public class FiltroDisyuncion implements Filtro {
+    private final List<Filtro> filtros;
+    private volatile Filtro[] ordenados; // null hasta la primera evaluación tras agregar un filtro
+
+    public FiltroDisyuncion() {
+        this.filtros = new ArrayList<>();
+    }
+
+    public void agregarFiltro(Filtro filtro) {
+        filtros.add(filtro);
+        ordenados = null;
+    }
+
+    List<Filtro> getFiltros() {
+        return List.copyOf(filtros);
+    }
+
+    @Override
+    public boolean cumple(Gasto gasto) {
+        Filtro[] orden = ordenados;
+        if (orden == null) {
+            List<Filtro> copia = new ArrayList<>(filtros);
+            copia.sort(Comparator.comparingDouble(Filtro::selectividad).reversed());
+            orden = copia.toArray(new Filtro[0]);
+            ordenados = orden;
+        }
+        for (Filtro filtro : orden) {
+            if (filtro.cumple(gasto)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Probabilidad de que pase alguno, suponiendo criterios independientes.
+     */
+    @Override
+    public double selectividad() {
+        double ninguno = 1.0;
+        for (Filtro filtro : filtros) {
+            ninguno *= 1.0 - filtro.selectividad();
+        }
+        return 1.0 - ninguno;
+    }
+
+    @Override
+    public Restricciones restricciones() {
+        if (filtros.isEmpty()) {
+            return FiltroConstante.NINGUNO.restricciones();
+        }
+        Restricciones restricciones = filtros.get(0).restricciones();
+        for (int i = 1; i < filtros.size(); i++) {
+            restricciones = restricciones.o(filtros.get(i).restricciones());
+        }
+        return restricciones;
+    }
+}
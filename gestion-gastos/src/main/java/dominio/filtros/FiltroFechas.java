@@ -2,18 +2,22 @@ package dominio.filtros;
 
 import dominio.Gasto;
 import java.time.LocalDate;
-import java.util.List;
-import java.util.stream.Collectors;
+import java.time.temporal.ChronoUnit;
 
 /**
  * Filtro para seleccionar gastos dentro de un rango de fechas dado (inclusive).
  * <p>
  * Filtra aquellos gastos cuya fecha esté dentro del periodo especificado (incluyendo extremos).
- * Útil para análisis temporales personalizados.
+ * Útil para análisis temporales personalizados. Un extremo null deja el intervalo abierto por
+ * ese lado; los gastos sin fecha no pasan.
  * </p>
+ * @version 1.3
  * @since 2025-11-14
  */
 public class FiltroFechas implements Filtro {
+    /** Días de historial que se suponen para estimar la selectividad: un año. */
+    private static final double DIAS_HISTORIAL = 365.0;
+
     private final LocalDate fechaInicio;
     private final LocalDate fechaFin;
     
@@ -22,10 +26,33 @@ public class FiltroFechas implements Filtro {
         this.fechaFin = fechaFin;
     }
     
+    LocalDate getFechaInicio() {
+        return fechaInicio;
+    }
+
+    LocalDate getFechaFin() {
+        return fechaFin;
+    }
+
+    @Override
+    public boolean cumple(Gasto gasto) {
+        LocalDate fecha = gasto.getFecha();
+        return fecha != null
+            && (fechaInicio == null || !fecha.isBefore(fechaInicio))
+            && (fechaFin == null || !fecha.isAfter(fechaFin));
+    }
+
+    @Override
+    public Restricciones restricciones() {
+        return Restricciones.entreFechas(fechaInicio, fechaFin);
+    }
+
     @Override
-    public List<Gasto> aplicar(List<Gasto> gastos) {
-        return gastos.stream()
-                .filter(g -> g.estaEnRango(fechaInicio, fechaFin))
-                .collect(Collectors.toList());
+    public double selectividad() {
+        if (fechaInicio == null || fechaFin == null) {
+            return 1.0;
+        }
+        long dias = ChronoUnit.DAYS.between(fechaInicio, fechaFin) + 1;
+        return Math.max(0.0, Math.min(1.0, dias / DIAS_HISTORIAL));
     }
 }
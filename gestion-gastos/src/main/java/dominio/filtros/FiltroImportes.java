@@ -0,0 +1,60 @@
+package dominio.filtros;
+
+import dominio.Dinero;
+import dominio.Gasto;
+
+/**
+ * Filtro para seleccionar gastos con importe dentro de un intervalo (inclusive).
+ * <p>
+ * Los límites se guardan en céntimos y se comparan con {@link Gasto#getCentimos()}, sin
+ * redondeos de {@code double}. Un límite null deja el intervalo abierto por ese lado.
+ * </p>
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class FiltroImportes implements Filtro {
+    private final long minimo;
+    private final long maximo;
+
+    public FiltroImportes(Double minimo, Double maximo) {
+        this(minimo != null ? Dinero.aCentimos(minimo) : Long.MIN_VALUE,
+             maximo != null ? Dinero.aCentimos(maximo) : Long.MAX_VALUE);
+    }
+
+    FiltroImportes(long minimoCentimos, long maximoCentimos) {
+        this.minimo = minimoCentimos;
+        this.maximo = maximoCentimos;
+    }
+
+    long getMinimo() {
+        return minimo;
+    }
+
+    long getMaximo() {
+        return maximo;
+    }
+
+    @Override
+    public boolean cumple(Gasto gasto) {
+        long centimos = gasto.getCentimos();
+        return centimos >= minimo && centimos <= maximo;
+    }
+
+    /**
+     * Sin histograma de importes, cada límite se supone que descarta la mitad.
+     */
+    @Override
+    public double selectividad() {
+        if (minimo > maximo) {
+            return 0.0;
+        }
+        double selectividad = 1.0;
+        if (minimo != Long.MIN_VALUE) {
+            selectividad *= 0.5;
+        }
+        if (maximo != Long.MAX_VALUE) {
+            selectividad *= 0.5;
+        }
+        return selectividad;
+    }
+}
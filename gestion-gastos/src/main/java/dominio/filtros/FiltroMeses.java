@@ -2,15 +2,14 @@ package dominio.filtros;
 
 import dominio.Gasto;
 import java.time.Month;
-import java.util.List;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * Filtro para seleccionar gastos realizados en uno o varios meses concretos del año, sin importar el año.
  * <p>
  * Filtra los gastos cuya fecha caiga en uno de los meses especificados.
  * </p>
+ * @version 1.3
  * @since 2025-11-14
  */
 
@@ -21,10 +20,22 @@ public class FiltroMeses implements Filtro {
         this.meses = Set.copyOf(meses);
     }
     
+    Set<Month> getMeses() {
+        return meses;
+    }
+
+    @Override
+    public boolean cumple(Gasto gasto) {
+        return gasto.getFecha() != null && meses.contains(gasto.getFecha().getMonth());
+    }
+
+    @Override
+    public Restricciones restricciones() {
+        return Restricciones.deMeses(meses);
+    }
+
     @Override
-    public List<Gasto> aplicar(List<Gasto> gastos) {
-        return gastos.stream()
-                .filter(g -> meses.contains(g.getFecha().getMonth()))
-                .collect(Collectors.toList());
+    public double selectividad() {
+        return meses.size() / 12.0;
     }
 }
@@ -0,0 +1,37 @@
+package dominio.filtros;
+
+import dominio.Gasto;
+
+/**
+ * Filtro que acepta los gastos que otro filtro rechaza.
+ * <p>
+ * No aporta {@link Filtro#restricciones()}: lo contrario de un índice no se puede recorrer
+ * por el índice, así que se evalúa sobre todos los gastos o como condición residual.
+ * </p>
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class FiltroNegacion implements Filtro {
+    private final Filtro filtro;
+
+    public FiltroNegacion(Filtro filtro) {
+        if (filtro == null) {
+            throw new IllegalArgumentException("El filtro a negar no puede ser null");
+        }
+        this.filtro = filtro;
+    }
+
+    Filtro getFiltro() {
+        return filtro;
+    }
+
+    @Override
+    public boolean cumple(Gasto gasto) {
+        return !filtro.cumple(gasto);
+    }
+
+    @Override
+    public double selectividad() {
+        return 1.0 - filtro.selectividad();
+    }
+}
@@ -0,0 +1,32 @@
+package dominio.filtros;
+
+import dominio.Gasto;
+import dominio.NormalizadorTexto;
+
+/**
+ * Filtro para seleccionar los gastos de cuentas compartidas que pagó una persona, por nombre
+ * y sin distinguir mayúsculas. Los gastos personales no tienen pagador y nunca pasan.
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public class FiltroPagador implements Filtro {
+    private final String clave;
+
+    public FiltroPagador(String nombre) {
+        if (nombre == null || nombre.isBlank()) {
+            throw new IllegalArgumentException("El nombre del pagador no puede estar vacío");
+        }
+        this.clave = NormalizadorTexto.SIN_MAYUSCULAS.clave(nombre.trim());
+    }
+
+    @Override
+    public boolean cumple(Gasto gasto) {
+        return gasto.getPagador() != null
+            && clave.equals(NormalizadorTexto.SIN_MAYUSCULAS.clave(gasto.getPagador().getNombre()));
+    }
+
+    @Override
+    public double selectividad() {
+        return 0.1;
+    }
+}
@@ -0,0 +1,155 @@
+package dominio.filtros;
+
+import dominio.Categoria;
+import dominio.Gasto;
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Condiciones necesarias que cumple todo gasto aceptado por un {@link Filtro}: intervalo de
+ * fechas, categorías y meses del año admitidos.
+ * <p>
+ * Sirven para que quien guarda los gastos indexados elija por dónde empezar a buscar (por
+ * ejemplo, recorrer solo los días del intervalo) en lugar de evaluar el filtro sobre todos.
+ * Pueden ser más amplias que el filtro, nunca más estrictas: el filtro se sigue evaluando
+ * sobre cada candidato. Un límite null no restringe nada por ese lado. Las categorías se
+ * comparan por nombre sin distinguir mayúsculas, como {@link Gasto#esDeCategoria}.
+ * </p>
+ * @version 1.2
+ * @since 2026-10-17
+ */
+public final class Restricciones {
+    /** Sin condiciones: cualquier gasto puede pasar. */
+    public static final Restricciones NINGUNA = new Restricciones(null, null, null, null);
+
+    private final LocalDate desde;
+    private final LocalDate hasta;
+    private final Map<String, Categoria> categorias; // clave del nombre -> categoría; null admite todas
+    private final Set<Month> meses; // null admite todos
+
+    private Restricciones(LocalDate desde, LocalDate hasta, Map<String, Categoria> categorias, Set<Month> meses) {
+        this.desde = desde;
+        this.hasta = hasta;
+        this.categorias = categorias;
+        this.meses = meses;
+    }
+
+    public static Restricciones entreFechas(LocalDate desde, LocalDate hasta) {
+        return new Restricciones(desde, hasta, null, null);
+    }
+
+    public static Restricciones deCategorias(Set<Categoria> categorias) {
+        Map<String, Categoria> porClave = new LinkedHashMap<>();
+        for (Categoria categoria : categorias) {
+            String clave = clave(categoria);
+            if (clave != null) {
+                porClave.putIfAbsent(clave, categoria);
+            }
+        }
+        return new Restricciones(null, null, porClave, null);
+    }
+
+    public static Restricciones deMeses(Set<Month> meses) {
+        return new Restricciones(null, null, null, meses.isEmpty() ? EnumSet.noneOf(Month.class) : EnumSet.copyOf(meses));
+    }
+
+    /**
+     * Restricciones que cumple un gasto que cumple a la vez estas y {@code otras}.
+     */
+    public Restricciones y(Restricciones otras) {
+        LocalDate nuevoDesde = desde == null || (otras.desde != null && otras.desde.isAfter(desde)) ? otras.desde : desde;
+        LocalDate nuevoHasta = hasta == null || (otras.hasta != null && otras.hasta.isBefore(hasta)) ? otras.hasta : hasta;
+
+        Map<String, Categoria> nuevasCategorias = categorias;
+        if (categorias == null) {
+            nuevasCategorias = otras.categorias;
+        } else if (otras.categorias != null) {
+            nuevasCategorias = new LinkedHashMap<>(categorias);
+            nuevasCategorias.keySet().retainAll(otras.categorias.keySet());
+        }
+
+        Set<Month> nuevosMeses = meses;
+        if (meses == null) {
+            nuevosMeses = otras.meses;
+        } else if (otras.meses != null) {
+            nuevosMeses = EnumSet.noneOf(Month.class);
+            nuevosMeses.addAll(meses);
+            nuevosMeses.retainAll(otras.meses);
+        }
+        return new Restricciones(nuevoDesde, nuevoHasta, nuevasCategorias, nuevosMeses);
+    }
+
+    /**
+     * Restricciones que cumple un gasto que cumple estas u {@code otras}: la envolvente de
+     * ambas. Una condición solo se mantiene si las dos la imponen; entonces se unen los
+     * intervalos de fechas y los conjuntos de categorías o meses.
+     */
+    public Restricciones o(Restricciones otras) {
+        if (esImposible()) {
+            return otras;
+        }
+        if (otras.esImposible()) {
+            return this;
+        }
+        LocalDate nuevoDesde = desde == null || otras.desde == null ? null
+            : (otras.desde.isBefore(desde) ? otras.desde : desde);
+        LocalDate nuevoHasta = hasta == null || otras.hasta == null ? null
+            : (otras.hasta.isAfter(hasta) ? otras.hasta : hasta);
+
+        Map<String, Categoria> nuevasCategorias = null;
+        if (categorias != null && otras.categorias != null) {
+            nuevasCategorias = new LinkedHashMap<>(categorias);
+            otras.categorias.forEach(nuevasCategorias::putIfAbsent);
+        }
+
+        Set<Month> nuevosMeses = null;
+        if (meses != null && otras.meses != null) {
+            nuevosMeses = EnumSet.noneOf(Month.class);
+            nuevosMeses.addAll(meses);
+            nuevosMeses.addAll(otras.meses);
+        }
+        return new Restricciones(nuevoDesde, nuevoHasta, nuevasCategorias, nuevosMeses);
+    }
+
+    /** Primer día admitido; null si no hay límite inferior. */
+    public LocalDate getDesde() {
+        return desde;
+    }
+
+    /** Último día admitido; null si no hay límite superior. */
+    public LocalDate getHasta() {
+        return hasta;
+    }
+
+    public boolean limitaFechas() {
+        return desde != null || hasta != null;
+    }
+
+    /** Categorías admitidas, una por nombre; null si se admiten todas. */
+    public Set<Categoria> getCategorias() {
+        return categorias != null ? Set.copyOf(categorias.values()) : null;
+    }
+
+    /** Meses del año admitidos; null si se admiten todos. */
+    public Set<Month> getMeses() {
+        return meses != null ? Set.copyOf(meses) : null;
+    }
+
+    /**
+     * Indica si ningún gasto puede cumplirlas: intervalo de fechas vacío, o ninguna categoría
+     * o ningún mes admitido.
+     */
+    public boolean esImposible() {
+        return (desde != null && hasta != null && desde.isAfter(hasta))
+            || (categorias != null && categorias.isEmpty())
+            || (meses != null && meses.isEmpty());
+    }
+
+    private static String clave(Categoria categoria) {
+        return categoria != null ? categoria.getClave() : null;
+    }
+}
@@ -21,7 +21,7 @@ import java.util.stream.Collectors;
  * Utiliza Java Streams para procesamiento funcional del archivo.
  * Patrón Adapter: convierte formato externo (CSV) a objetos del dominio.
  * </p>
- * @version 2.0 - Optimizado con Streams
+ * @version 2.1 - Categorías resueltas por índice de nombre
  * @since 2025-11-22
  */
 public class AdaptadorBancario implements AdaptadorFormato {
@@ -121,16 +121,13 @@ public class AdaptadorBancario implements AdaptadorFormato {
     
     /**
      * Busca categoría existente o crea una nueva si no existe.
-     * Usa Optional para manejo funcional.
+     * El catálogo la resuelve con su índice por nombre, en tiempo constante por línea.
      */
     private Categoria buscarOCrearCategoria(String nombre) {
-        return catalogoCategorias.buscarPorNombre(nombre)
-                .orElseGet(() -> {
-                    logger.debug("Creando nueva categoría automáticamente: {}", nombre);
-                    Categoria nueva = new Categoria(nombre, "Importada automáticamente");
-                    catalogoCategorias.agregarCategoria(nueva);
-                    return nueva;
-                });
+        return catalogoCategorias.buscarOCrear(nombre, () -> {
+            logger.debug("Creando nueva categoría automáticamente: {}", nombre);
+            return new Categoria(nombre, "Importada automáticamente");
+        });
     }
     
     @Override
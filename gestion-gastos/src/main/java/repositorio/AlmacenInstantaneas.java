@@ -0,0 +1,185 @@
+package repositorio;
+
+import java.io.BufferedOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Escritura a prueba de fallos de las instantáneas del archivo de datos.
+ * <p>
+ * Cada instantánea se escribe primero en un archivo temporal hermano mediante un
+ * {@link FileChannel}, se fuerza a disco y solo entonces se renombra atómicamente sobre
+ * el archivo de datos. Antes del renombrado, la instantánea anterior se conserva como
+ * generación {@code .1}, la {@code .1} pasa a {@code .2}, etc., hasta el número de
+ * generaciones configurado. Al cargar se usa la instantánea más reciente que se pueda leer.
+ * </p>
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+class AlmacenInstantaneas {
+
+    /**
+     * Serializa el contenido de la instantánea en el flujo indicado.
+     */
+    @FunctionalInterface
+    interface Escritura {
+        void escribir(OutputStream salida) throws IOException;
+    }
+
+    /**
+     * Lee y valida una instantánea; debe lanzar una excepción si el archivo está dañado.
+     */
+    @FunctionalInterface
+    interface Lectura<T> {
+        T leer(Path archivo) throws IOException;
+    }
+
+    private static final String SUFIJO_TEMPORAL = ".tmp";
+    private static final int TAMANO_BUFFER = 64 * 1024;
+
+    private final Path archivo;
+    private final int generaciones;
+
+    AlmacenInstantaneas(Path archivo, int generaciones) {
+        this.archivo = archivo;
+        this.generaciones = generaciones;
+    }
+
+    /**
+     * Escribe una nueva instantánea de forma atómica y rota las generaciones anteriores.
+     */
+    void escribir(Escritura escritura) throws IOException {
+        Path temporal = hermano(SUFIJO_TEMPORAL);
+        try (FileChannel canal = FileChannel.open(temporal, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream salida = new BufferedOutputStream(
+                new SalidaSinCierre(Channels.newOutputStream(canal)), TAMANO_BUFFER);
+            escritura.escribir(salida);
+            salida.flush();
+            canal.force(true);
+        } catch (IOException e) {
+            Files.deleteIfExists(temporal);
+            throw e;
+        }
+
+        rotarGeneraciones();
+        moverAtomicamente(temporal, archivo);
+        sincronizarDirectorio();
+    }
+
+    /**
+     * Carga la instantánea más reciente que se lea correctamente, probando después las
+     * generaciones anteriores. Devuelve vacío si no existe ninguna.
+     */
+    <T> Optional<T> cargar(Lectura<T> lectura) {
+        for (Path candidato : candidatos()) {
+            if (!Files.exists(candidato)) {
+                continue;
+            }
+            try {
+                T datos = lectura.leer(candidato);
+                if (!candidato.equals(archivo)) {
+                    System.err.println("⚠ Archivo de datos dañado o ausente. Recuperada la copia " +
+                                       candidato.getFileName());
+                }
+                return Optional.of(datos);
+            } catch (IOException | RuntimeException e) {
+                System.err.println("✗ No se pudo leer " + candidato.getFileName() + ": " + e.getMessage());
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Indica si existe alguna instantánea (actual o de generaciones anteriores).
+     */
+    boolean existe() {
+        return candidatos().stream().anyMatch(Files::exists);
+    }
+
+    private List<Path> candidatos() {
+        List<Path> candidatos = new ArrayList<>();
+        candidatos.add(archivo);
+        for (int i = 1; i <= generaciones; i++) {
+            candidatos.add(generacion(i));
+        }
+        return candidatos;
+    }
+
+    private void rotarGeneraciones() throws IOException {
+        if (generaciones <= 0 || !Files.exists(archivo)) {
+            return;
+        }
+        for (int i = generaciones - 1; i >= 1; i--) {
+            Path origen = generacion(i);
+            if (Files.exists(origen)) {
+                Files.move(origen, generacion(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        // Si se interrumpe aquí, la carga recupera la generación .1
+        Files.move(archivo, generacion(1), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void moverAtomicamente(Path origen, Path destino) throws IOException {
+        try {
+            Files.move(origen, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(origen, destino, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Fuerza a disco la entrada de directorio del renombrado. No todos los sistemas
+     * permiten abrir un directorio como canal; en ese caso se ignora.
+     */
+    private void sincronizarDirectorio() {
+        Path directorio = archivo.toAbsolutePath().getParent();
+        if (directorio == null) {
+            return;
+        }
+        try (FileChannel canal = FileChannel.open(directorio, StandardOpenOption.READ)) {
+            canal.force(true);
+        } catch (IOException | UnsupportedOperationException e) {
+            // Sin soporte (p. ej. Windows): el renombrado sigue siendo atómico
+        }
+    }
+
+    private Path generacion(int numero) {
+        return hermano("." + numero);
+    }
+
+    private Path hermano(String sufijo) {
+        return archivo.resolveSibling(archivo.getFileName() + sufijo);
+    }
+
+    /**
+     * Evita que el serializador cierre el canal antes de poder forzarlo a disco.
+     */
+    private static class SalidaSinCierre extends FilterOutputStream {
+        SalidaSinCierre(OutputStream salida) {
+            super(salida);
+        }
+
+        @Override
+        public void write(byte[] datos, int desde, int longitud) throws IOException {
+            out.write(datos, desde, longitud);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package repositorio;
+
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import repositorio.DiarioOperaciones.TipoEntidad;
+
+/**
+ * Ids de las entidades modificadas que aún no se han escrito, por tipo.
+ * <p>
+ * Los repositorios extraen el conjunto antes de escribir y, si la escritura falla, lo
+ * vuelven a incorporar para que el siguiente intento incluya esos cambios.
+ * </p>
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+final class CambiosPendientes {
+    private final Map<TipoEntidad, Set<String>> ids = new EnumMap<>(TipoEntidad.class);
+
+    void marcar(TipoEntidad tipo, String id) {
+        ids.computeIfAbsent(tipo, t -> new LinkedHashSet<>()).add(id);
+    }
+
+    boolean vacio() {
+        return ids.isEmpty();
+    }
+
+    int cantidadIds() {
+        return ids.values().stream().mapToInt(Set::size).sum();
+    }
+
+    Map<TipoEntidad, Set<String>> ids() {
+        return ids;
+    }
+
+    /** Devuelve los cambios acumulados y deja el conjunto vacío. */
+    CambiosPendientes extraer() {
+        CambiosPendientes extraidos = new CambiosPendientes();
+        extraidos.incorporar(this);
+        ids.clear();
+        return extraidos;
+    }
+
+    void incorporar(CambiosPendientes otros) {
+        otros.ids.forEach((tipo, idsTipo) -> idsTipo.forEach(id -> marcar(tipo, id)));
+    }
+}
@@ -0,0 +1,136 @@
+package repositorio;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dominio.*;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Cargador en streaming del archivo de datos construido sobre {@link JsonParser}.
+ * <p>
+ * Recorre el array {@code gastos} token a token y vincula cada gasto por separado, en vez de
+ * materializar todo el documento de una vez. Las referencias por id del formato actual se
+ * resuelven según se leen con un {@link FormatoDatos.Resolutor}; en archivos del formato 1,
+ * donde cada gasto lleva incrustada una copia de su categoría, el mismo resolutor unifica
+ * las copias, de modo que tras la carga hay una única instancia de {@link Categoria} por id,
+ * compartida por gastos, alertas, cuentas y la lista de categorías.
+ * </p>
+ *
+ * @version 1.2
+ * @since 2026-10-17
+ */
+class CargadorStreaming {
+    private final ObjectMapper mapper;
+
+    CargadorStreaming(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    /**
+     * Carga el archivo completo en un {@link DatosAplicacion}, con todos los gastos en una
+     * lista. Lo usan las herramientas de conversión y migración, que necesitan el contenido
+     * entero para escribir un documento o una transacción; el repositorio carga con
+     * {@link #cargar(Path, Consumer)}.
+     */
+    DatosAplicacion cargar(Path archivo) throws IOException {
+        List<Gasto> gastos = new ArrayList<>();
+        DatosAplicacion datos = cargar(archivo, gastos::add);
+        return new DatosAplicacion(gastos, datos.getCategorias(), datos.getAlertas(),
+                                   datos.getCuentasCompartidas(), datos.versionFormato());
+    }
+
+    /**
+     * Carga el archivo entregando cada gasto a {@code destinoGastos} en cuanto se lee.
+     * La lista de gastos del resultado queda vacía.
+     */
+    DatosAplicacion cargar(Path archivo, Consumer<Gasto> destinoGastos) throws IOException {
+        FormatoDatos.Resolutor resolutor = new FormatoDatos.Resolutor();
+        List<Categoria> categorias = new ArrayList<>();
+        List<Alerta> alertas = new ArrayList<>();
+        List<CuentaCompartida> cuentas = new ArrayList<>();
+        int version = FormatoDatos.VERSION_LEGADO;
+
+        try (JsonParser parser = mapper.getFactory().createParser(archivo.toFile())) {
+            esperar(parser.nextToken(), JsonToken.START_OBJECT, parser);
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String campo = parser.getCurrentName();
+                JsonToken valor = parser.nextToken();
+                if (valor == JsonToken.VALUE_NULL) {
+                    continue;
+                }
+
+                if (campo.equals("version")) {
+                    esperar(valor, JsonToken.VALUE_NUMBER_INT, parser);
+                    version = parser.getIntValue();
+                    if (version > FormatoDatos.VERSION_ACTUAL) {
+                        throw new IOException("Versión de formato no soportada: " + version);
+                    }
+                } else if (version >= FormatoDatos.VERSION_ACTUAL) {
+                    leerCampo(parser, campo, resolutor, destinoGastos, categorias, alertas, cuentas);
+                } else {
+                    leerCampoLegado(parser, campo, resolutor, destinoGastos, categorias, alertas, cuentas);
+                }
+            }
+        }
+
+        resolutor.completar();
+        return new DatosAplicacion(new ArrayList<>(), categorias, alertas, cuentas, version);
+    }
+
+    private void leerCampo(JsonParser parser, String campo, FormatoDatos.Resolutor resolutor,
+                           Consumer<Gasto> destinoGastos, List<Categoria> categorias,
+                           List<Alerta> alertas, List<CuentaCompartida> cuentas) throws IOException {
+        switch (campo) {
+            case "categorias" -> leerArray(parser, Categoria.class,
+                categoria -> categorias.add(resolutor.categoria(categoria)));
+            case "categoriasReferenciadas" -> leerArray(parser, Categoria.class, resolutor::categoria);
+            case "cuentasCompartidas" -> {
+                leerArray(parser, FormatoDatos.CuentaRegistro.class,
+                    cuenta -> cuentas.add(resolutor.cuenta(cuenta)));
+                resolutor.cuentasLeidas();
+            }
+            case "gastos" -> leerArray(parser, FormatoDatos.GastoRegistro.class,
+                gasto -> destinoGastos.accept(resolutor.gasto(gasto)));
+            case "gastosCuentas" -> leerArray(parser, FormatoDatos.GastoRegistro.class, resolutor::gastoDeCuenta);
+            case "alertas" -> leerArray(parser, FormatoDatos.AlertaRegistro.class,
+                alerta -> alertas.add(resolutor.alerta(alerta)));
+            default -> parser.skipChildren();
+        }
+    }
+
+    private void leerCampoLegado(JsonParser parser, String campo, FormatoDatos.Resolutor resolutor,
+                                 Consumer<Gasto> destinoGastos, List<Categoria> categorias,
+                                 List<Alerta> alertas, List<CuentaCompartida> cuentas) throws IOException {
+        switch (campo) {
+            case "gastos" -> leerArray(parser, Gasto.class,
+                gasto -> destinoGastos.accept(resolutor.gastoLegado(gasto)));
+            case "categorias" -> leerArray(parser, Categoria.class,
+                categoria -> categorias.add(resolutor.categoria(categoria)));
+            case "alertas" -> leerArray(parser, Alerta.class,
+                alerta -> alertas.add(resolutor.alertaLegado(alerta)));
+            case "cuentasCompartidas" -> leerArray(parser, CuentaCompartida.class,
+                cuenta -> cuentas.add(resolutor.cuentaLegado(cuenta)));
+            default -> parser.skipChildren();
+        }
+    }
+
+    private <T> void leerArray(JsonParser parser, Class<T> clase, Consumer<T> destino) throws IOException {
+        esperar(parser.currentToken(), JsonToken.START_ARRAY, parser);
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            destino.accept(mapper.readValue(parser, clase));
+        }
+    }
+
+    private static void esperar(JsonToken actual, JsonToken esperado, JsonParser parser) throws IOException {
+        if (actual != esperado) {
+            throw new IOException("Formato de datos no válido: se esperaba " + esperado +
+                                  " y se encontró " + actual + " en " + parser.getCurrentLocation());
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package repositorio;
+
+import dominio.*;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import repositorio.DiarioOperaciones.Registro;
+import repositorio.DiarioOperaciones.TipoEntidad;
+import repositorio.FormatoDatos.AlertaRegistro;
+import repositorio.FormatoDatos.CuentaRegistro;
+import repositorio.FormatoDatos.GastoRegistro;
+
+/**
+ * Colecciones en memoria de los repositorios, indexadas por id.
+ * <p>
+ * Cada colección es un {@link LinkedHashMap} por id: insertar, actualizar o eliminar una
+ * entidad cuesta O(1) y el recorrido conserva el orden de inserción, que es el de las listas
+ * que devuelve el repositorio. Además traduce un conjunto de ids modificados a los registros
+ * de {@link DiarioOperaciones} correspondientes sin recorrer las colecciones completas;
+ * solo eliminar una categoría obliga a buscar quién la sigue referenciando.
+ * </p>
+ * <p>
+ * Tras {@link #vincular(FuenteDatos)} las colecciones dejan de tener contenido propio: las
+ * consultas se delegan en la fuente y las modificaciones se ignoran, porque quien llama ya
+ * las ha hecho sobre la fuente.
+ * </p>
+ * <p>
+ * Las listas que devuelve {@code todos()} son inmutables: sin fuente, cada colección guarda la
+ * suya y solo la rehace tras un cambio; con fuente, son las instantáneas de la propia fuente.
+ * </p>
+ *
+ * @version 1.5
+ * @since 2026-10-17
+ */
+class ColeccionesMemoria {
+    final Coleccion<Gasto> gastos = new Coleccion<>(Gasto::getId);
+    final Coleccion<Categoria> categorias = new Coleccion<>(Categoria::getId);
+    final Coleccion<Alerta> alertas = new Coleccion<>(Alerta::getId);
+    final Coleccion<CuentaCompartida> cuentas = new Coleccion<>(CuentaCompartida::getId);
+    private FuenteDatos fuente; // null mientras el contenido sea propio
+
+    /**
+     * Sustituye todas las colecciones por las de {@code datos}.
+     */
+    void cargar(DatosAplicacion datos) {
+        gastos.reemplazar(datos.getGastos());
+        categorias.reemplazar(datos.getCategorias());
+        alertas.reemplazar(datos.getAlertas());
+        cuentas.reemplazar(datos.getCuentasCompartidas());
+    }
+
+    /**
+     * Vacía los gastos y devuelve dónde añadirlos uno a uno, para que un cargador en streaming
+     * los deje directamente en su colección sin reunirlos antes en una lista.
+     */
+    Consumer<Gasto> destinoGastos() {
+        gastos.reemplazar(null);
+        return gastos::poner;
+    }
+
+    /**
+     * Sustituye categorías, alertas y cuentas por las de {@code datos} y conserva los gastos,
+     * que ya se han cargado con {@link #destinoGastos()}.
+     */
+    void cargarSinGastos(DatosAplicacion datos) {
+        categorias.reemplazar(datos.getCategorias());
+        alertas.reemplazar(datos.getAlertas());
+        cuentas.reemplazar(datos.getCuentasCompartidas());
+    }
+
+    /**
+     * Delega todas las colecciones en {@code fuente} y libera el contenido propio: desde aquí
+     * las entidades cargadas solo siguen vivas en la fuente.
+     */
+    void vincular(FuenteDatos fuente) {
+        this.fuente = fuente;
+        gastos.vincular(fuente::gastos, fuente::gasto);
+        categorias.vincular(fuente::categorias, fuente::categoria);
+        alertas.vincular(fuente::alertas, fuente::alerta);
+        cuentas.vincular(fuente::cuentas, fuente::cuenta);
+    }
+
+    /**
+     * Ejecuta {@code lectura} con las entidades a salvo de modificaciones: dentro de
+     * {@link FuenteDatos#leer} si hay fuente y, si no, sin más, porque sin fuente las entidades
+     * solo se modifican antes de entregarlas al repositorio, bajo cuyo cerrojo se llama a esto.
+     */
+    <R> R leer(Supplier<R> lectura) {
+        return fuente != null ? fuente.leer(lectura) : lectura.get();
+    }
+
+    /**
+     * Copia del estado actual; las listas son nuevas, las entidades no.
+     */
+    DatosAplicacion aDatos() {
+        return new DatosAplicacion(gastos.todos(), categorias.todos(), alertas.todos(), cuentas.todos());
+    }
+
+    /**
+     * Registros que llevan lo escrito al estado actual de las entidades indicadas, incluidas
+     * las categorías y gastos que el formato guarda fuera de sus listas principales. Solo se
+     * consultan esas entidades; el resto de las colecciones no se recorre.
+     * <p>
+     * Los gastos que una cuenta deja de referenciar y las categorías que dejan de estar
+     * referenciadas se conservan en lo escrito hasta la siguiente instantánea completa; al
+     * cargar se descartan igualmente, porque nadie los referencia.
+     * </p>
+     */
+    List<Registro> registros(Map<TipoEntidad, Set<String>> idsPorTipo, DetectorCambios detector) {
+        List<Registro> registros = new ArrayList<>();
+        for (Map.Entry<TipoEntidad, Set<String>> entrada : idsPorTipo.entrySet()) {
+            for (String id : entrada.getValue()) {
+                switch (entrada.getKey()) {
+                    case GASTO -> registrosGasto(id, registros, detector);
+                    case CATEGORIA -> registrosCategoria(id, registros, detector);
+                    case ALERTA -> {
+                        Alerta alerta = alertas.buscar(id);
+                        anadir(registros, detector.cambio(TipoEntidad.ALERTA, id,
+                            alerta != null ? AlertaRegistro.de(alerta) : null));
+                        if (alerta != null) {
+                            registroReferencia(alerta.getCategoria(), registros, detector);
+                        }
+                    }
+                    case CUENTA -> {
+                        CuentaCompartida cuenta = cuentas.buscar(id);
+                        anadir(registros, detector.cambio(TipoEntidad.CUENTA, id,
+                            cuenta != null ? CuentaRegistro.de(cuenta) : null));
+                        if (cuenta != null) {
+                            registrosGastosSoloEnCuenta(cuenta, registros, detector);
+                        }
+                    }
+                    default -> { }
+                }
+            }
+        }
+        return registros;
+    }
+
+    /**
+     * Un gasto está en la lista general o, si no, solo en alguna cuenta. El borrado se anota
+     * antes que la inserción en la otra colección para que se puedan aplicar en ese orden.
+     */
+    private void registrosGasto(String id, List<Registro> registros, DetectorCambios detector) {
+        Gasto gasto = gastos.buscar(id);
+        if (gasto != null) {
+            anadir(registros, detector.cambio(TipoEntidad.GASTO, id, GastoRegistro.de(gasto)));
+            anadir(registros, detector.cambio(TipoEntidad.GASTO_CUENTA, id, null));
+            registroReferencia(gasto.getCategoria(), registros, detector);
+            return;
+        }
+
+        Gasto enCuenta = buscarEnCuentas(id);
+        anadir(registros, detector.cambio(TipoEntidad.GASTO, id, null));
+        anadir(registros, detector.cambio(TipoEntidad.GASTO_CUENTA, id,
+            enCuenta != null ? GastoRegistro.de(enCuenta) : null));
+        if (enCuenta != null) {
+            registroReferencia(enCuenta.getCategoria(), registros, detector);
+        }
+    }
+
+    /**
+     * Los gastos de la cuenta que también están en la lista general se escriben cuando se
+     * anotan ellos mismos; aquí solo se escriben los que no tienen otra copia.
+     */
+    private void registrosGastosSoloEnCuenta(CuentaCompartida cuenta, List<Registro> registros,
+                                             DetectorCambios detector) {
+        for (Gasto gasto : cuenta.getGastos()) {
+            if (!gastos.contiene(gasto.getId())) {
+                anadir(registros, detector.cambio(TipoEntidad.GASTO_CUENTA, gasto.getId(), GastoRegistro.de(gasto)));
+                registroReferencia(gasto.getCategoria(), registros, detector);
+            }
+        }
+    }
+
+    private void registrosCategoria(String id, List<Registro> registros, DetectorCambios detector) {
+        Categoria categoria = categorias.buscar(id);
+        if (categoria != null) {
+            anadir(registros, detector.cambio(TipoEntidad.CATEGORIA, id, categoria));
+            anadir(registros, detector.cambio(TipoEntidad.CATEGORIA_REFERENCIADA, id, null));
+        } else {
+            anadir(registros, detector.cambio(TipoEntidad.CATEGORIA, id, null));
+            anadir(registros, detector.cambio(TipoEntidad.CATEGORIA_REFERENCIADA, id, buscarReferencia(id)));
+        }
+    }
+
+    /**
+     * Una categoría fuera de la lista no se puede editar, así que basta con escribirla una vez.
+     */
+    private void registroReferencia(Categoria categoria, List<Registro> registros, DetectorCambios detector) {
+        if (categoria != null && !categorias.contiene(categoria.getId())
+                && !detector.escrito(TipoEntidad.CATEGORIA_REFERENCIADA, categoria.getId())) {
+            anadir(registros, detector.cambio(TipoEntidad.CATEGORIA_REFERENCIADA, categoria.getId(), categoria));
+        }
+    }
+
+    private Gasto buscarEnCuentas(String idGasto) {
+        for (CuentaCompartida cuenta : cuentas.valores()) {
+            for (Gasto gasto : cuenta.getGastos()) {
+                if (gasto.getId().equals(idGasto)) {
+                    return gasto;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Instancia de la categoría {@code id} que aún referencia algún gasto o alerta, o null.
+     */
+    private Categoria buscarReferencia(String id) {
+        List<Gasto> gastosCuentas = new ArrayList<>();
+        cuentas.valores().forEach(cuenta -> gastosCuentas.addAll(cuenta.getGastos()));
+        for (Collection<Gasto> coleccion : List.of(gastos.valores(), gastosCuentas)) {
+            for (Gasto gasto : coleccion) {
+                if (gasto.getCategoria() != null && id.equals(gasto.getCategoria().getId())) {
+                    return gasto.getCategoria();
+                }
+            }
+        }
+        for (Alerta alerta : alertas.valores()) {
+            if (alerta.getCategoria() != null && id.equals(alerta.getCategoria().getId())) {
+                return alerta.getCategoria();
+            }
+        }
+        return null;
+    }
+
+    private static void anadir(List<Registro> registros, Registro registro) {
+        if (registro != null) {
+            registros.add(registro);
+        }
+    }
+
+    /**
+     * Colección de entidades de un tipo indexada por id, en orden de inserción, o vista de
+     * las de una {@link FuenteDatos} si está vinculada.
+     */
+    static final class Coleccion<T> {
+        private final Function<T, String> obtenerId;
+        private Map<String, T> porId = new LinkedHashMap<>();
+        private Supplier<List<T>> fuenteTodos; // null mientras el contenido sea propio
+        private Function<String, T> fuenteBuscar;
+        private List<T> instantanea; // de porId; null tras cada cambio
+
+        Coleccion(Function<T, String> obtenerId) {
+            this.obtenerId = obtenerId;
+        }
+
+        void vincular(Supplier<List<T>> todos, Function<String, T> buscar) {
+            this.fuenteTodos = todos;
+            this.fuenteBuscar = buscar;
+            this.porId = new LinkedHashMap<>();
+            this.instantanea = null;
+        }
+
+        private boolean vinculada() {
+            return fuenteTodos != null;
+        }
+
+        String idDe(T entidad) {
+            return obtenerId.apply(entidad);
+        }
+
+        /** Lista inmutable de las entidades en orden de inserción. */
+        List<T> todos() {
+            if (vinculada()) {
+                return fuenteTodos.get();
+            }
+            if (instantanea == null) {
+                instantanea = List.copyOf(porId.values());
+            }
+            return instantanea;
+        }
+
+        /** Vista de solo lectura, para recorridos bajo el cerrojo del repositorio. */
+        Collection<T> valores() {
+            return vinculada()
+                ? fuenteTodos.get()
+                : Collections.unmodifiableCollection(porId.values());
+        }
+
+        /**
+         * Sustituye el contenido por {@code entidades} y devuelve los ids de las que había y
+         * de las que hay ahora, que son las únicas cuyas filas o registros pueden cambiar.
+         */
+        Set<String> reemplazar(List<T> entidades) {
+            Set<String> afectados = new LinkedHashSet<>(porId.keySet());
+            if (entidades != null) {
+                entidades.forEach(entidad -> afectados.add(obtenerId.apply(entidad)));
+            }
+            if (vinculada()) {
+                return afectados;
+            }
+            Map<String, T> nuevo = new LinkedHashMap<>();
+            if (entidades != null) {
+                entidades.forEach(entidad -> nuevo.put(obtenerId.apply(entidad), entidad));
+            }
+            porId = nuevo;
+            instantanea = null;
+            return afectados;
+        }
+
+        /** Inserta la entidad o sustituye la que tenga su id, conservando su posición. */
+        void poner(T entidad) {
+            if (!vinculada()) {
+                porId.put(obtenerId.apply(entidad), entidad);
+                instantanea = null;
+            }
+        }
+
+        void quitar(String id) {
+            if (!vinculada() && porId.remove(id) != null) {
+                instantanea = null;
+            }
+        }
+
+        T buscar(String id) {
+            return vinculada() ? fuenteBuscar.apply(id) : porId.get(id);
+        }
+
+        boolean contiene(String id) {
+            return buscar(id) != null;
+        }
+
+        int tamano() {
+            return vinculada() ? fuenteTodos.get().size() : porId.size();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package repositorio;
+
+/**
+ * Parámetros de configuración de la capa de persistencia.
+ * <p>
+ * {@link #desdeSistema()} lee los valores de propiedades del sistema (por ejemplo
+ * {@code -Dgestiongastos.persistencia.diario=true}); las propiedades no indicadas toman
+ * valores por defecto. Las instancias son inmutables: los métodos {@code conX} devuelven
+ * una copia con el parámetro cambiado.
+ * </p>
+ *
+ * @version 1.5
+ * @since 2026-10-17
+ */
+public final class ConfiguracionPersistencia {
+
+    /**
+     * Formato del archivo de datos y, con ello, implementación de {@link Repositorio}.
+     * Con {@code SQL} cada guardado se escribe por filas en la base de datos, y el diario,
+     * la ventana de escritura y las generaciones no se aplican.
+     */
+    public enum Formato { JSON, BINARIO, SQL }
+
+    public static final String PROPIEDAD_FORMATO = "gestiongastos.persistencia.formato";
+    public static final String PROPIEDAD_DIARIO = "gestiongastos.persistencia.diario";
+    public static final String PROPIEDAD_COMPACTAR_CADA = "gestiongastos.persistencia.compactarCada";
+    public static final String PROPIEDAD_VENTANA_MS = "gestiongastos.persistencia.ventanaMs";
+    public static final String PROPIEDAD_GENERACIONES = "gestiongastos.persistencia.generaciones";
+    public static final String PROPIEDAD_MESES_ACTIVOS = "gestiongastos.persistencia.mesesActivos";
+
+    private static final int COMPACTAR_CADA_DEFECTO = 1000;
+    private static final long VENTANA_MS_DEFECTO = 200;
+    private static final int GENERACIONES_DEFECTO = 3;
+
+    private final Formato formato;
+    private final boolean usarDiario;
+    private final int compactarCada;
+    private final long ventanaMs;
+    private final int generaciones;
+    private final int mesesActivos;
+
+    private ConfiguracionPersistencia(Formato formato, boolean usarDiario, int compactarCada,
+                                      long ventanaMs, int generaciones, int mesesActivos) {
+        this.formato = formato;
+        this.usarDiario = usarDiario;
+        this.compactarCada = compactarCada;
+        this.ventanaMs = ventanaMs;
+        this.generaciones = generaciones;
+        this.mesesActivos = mesesActivos;
+    }
+
+    /**
+     * Configuración con los valores por defecto, sin consultar propiedades del sistema.
+     */
+    public static ConfiguracionPersistencia porDefecto() {
+        return new ConfiguracionPersistencia(Formato.JSON, false, COMPACTAR_CADA_DEFECTO,
+                                             VENTANA_MS_DEFECTO, GENERACIONES_DEFECTO, 0);
+    }
+
+    public static ConfiguracionPersistencia desdeSistema() {
+        return new ConfiguracionPersistencia(
+            leerFormato(),
+            Boolean.parseBoolean(System.getProperty(PROPIEDAD_DIARIO, "false")),
+            (int) leerNumero(PROPIEDAD_COMPACTAR_CADA, COMPACTAR_CADA_DEFECTO, 1),
+            leerNumero(PROPIEDAD_VENTANA_MS, VENTANA_MS_DEFECTO, 0),
+            (int) leerNumero(PROPIEDAD_GENERACIONES, GENERACIONES_DEFECTO, 0),
+            (int) leerNumero(PROPIEDAD_MESES_ACTIVOS, 0, 0));
+    }
+
+    public Formato formato() {
+        return formato;
+    }
+
+    /**
+     * Indica si los cambios se registran en un diario de operaciones en lugar de
+     * reescribir el archivo de datos completo en cada guardado.
+     */
+    public boolean usarDiario() {
+        return usarDiario;
+    }
+
+    /**
+     * Número de registros del diario a partir del cual se compacta en una nueva instantánea.
+     */
+    public int compactarCada() {
+        return compactarCada;
+    }
+
+    /**
+     * Milisegundos que se agrupan los cambios antes de escribirlos en segundo plano.
+     * Con 0 cada guardado se escribe de forma síncrona.
+     */
+    public long ventanaMs() {
+        return ventanaMs;
+    }
+
+    /**
+     * Número de instantáneas anteriores que se conservan como copia de seguridad
+     * ({@code datos_gastos.json.1}, {@code .2}, ...).
+     */
+    public int generaciones() {
+        return generaciones;
+    }
+
+    /**
+     * Meses completos, además del actual, que se mantienen en memoria. Al abrir el repositorio,
+     * los gastos personales anteriores se archivan en un {@link HistoricoGastos}, y los
+     * archivados que ya no son anteriores vuelven a memoria: con 0 no se archiva nada y se
+     * recupera todo lo archivado. Solo se aplica a los formatos de archivo.
+     */
+    public int mesesActivos() {
+        return mesesActivos;
+    }
+
+    public ConfiguracionPersistencia conFormato(Formato formato) {
+        return new ConfiguracionPersistencia(formato, usarDiario, compactarCada, ventanaMs, generaciones, mesesActivos);
+    }
+
+    public ConfiguracionPersistencia conDiario(boolean usarDiario) {
+        return new ConfiguracionPersistencia(formato, usarDiario, compactarCada, ventanaMs, generaciones, mesesActivos);
+    }
+
+    public ConfiguracionPersistencia conCompactarCada(int compactarCada) {
+        return new ConfiguracionPersistencia(formato, usarDiario, compactarCada, ventanaMs, generaciones, mesesActivos);
+    }
+
+    public ConfiguracionPersistencia conVentanaMs(long ventanaMs) {
+        return new ConfiguracionPersistencia(formato, usarDiario, compactarCada, ventanaMs, generaciones, mesesActivos);
+    }
+
+    public ConfiguracionPersistencia conGeneraciones(int generaciones) {
+        return new ConfiguracionPersistencia(formato, usarDiario, compactarCada, ventanaMs, generaciones, mesesActivos);
+    }
+
+    public ConfiguracionPersistencia conMesesActivos(int mesesActivos) {
+        return new ConfiguracionPersistencia(formato, usarDiario, compactarCada, ventanaMs, generaciones, mesesActivos);
+    }
+
+    private static Formato leerFormato() {
+        String valor = System.getProperty(PROPIEDAD_FORMATO);
+        if (valor == null) {
+            return Formato.JSON;
+        }
+        try {
+            return Formato.valueOf(valor.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("⚠ Valor no válido para " + PROPIEDAD_FORMATO + ": " + valor);
+            return Formato.JSON;
+        }
+    }
+
+    private static long leerNumero(String propiedad, long porDefecto, long minimo) {
+        String valor = System.getProperty(propiedad);
+        if (valor == null) {
+            return porDefecto;
+        }
+        try {
+            long numero = Long.parseLong(valor.trim());
+            return numero >= minimo ? numero : porDefecto;
+        } catch (NumberFormatException e) {
+            System.err.println("⚠ Valor no válido para " + propiedad + ": " + valor);
+            return porDefecto;
+        }
+    }
+}
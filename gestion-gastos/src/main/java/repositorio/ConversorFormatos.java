@@ -0,0 +1,61 @@
+package repositorio;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Herramienta de conversión del archivo de datos entre los formatos JSON y Smile.
+ * <p>
+ * El formato de cada archivo se deduce de su extensión: {@code .smile} es binario y
+ * cualquier otra es JSON. El origen puede estar en el esquema antiguo; el destino se
+ * escribe siempre en el esquema actual de {@link FormatoDatos}. Uso:
+ * {@code java -cp gestion-gastos.jar repositorio.ConversorFormatos datos_gastos.json datos_gastos.smile}
+ * </p>
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public final class ConversorFormatos {
+    private static final String EXTENSION_BINARIA = ".smile";
+
+    private ConversorFormatos() {
+    }
+
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Uso: ConversorFormatos <origen> <destino>");
+            System.exit(2);
+        }
+        try {
+            DatosAplicacion datos = convertir(Path.of(args[0]), Path.of(args[1]));
+            System.out.println("✓ Convertidos " + datos.getGastos().size() + " gastos a " + args[1]);
+        } catch (IOException e) {
+            System.err.println("✗ Error en la conversión: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Lee {@code origen} y escribe su contenido en {@code destino} de forma atómica.
+     *
+     * @return los datos convertidos
+     */
+    static DatosAplicacion convertir(Path origen, Path destino) throws IOException {
+        if (!Files.exists(origen)) {
+            throw new IOException("No existe el archivo " + origen);
+        }
+        DatosAplicacion datos = new CargadorStreaming(mapperPara(origen)).cargar(origen);
+        FormatoDatos.Documento documento = FormatoDatos.aDocumento(datos);
+        ObjectMapper mapperDestino = mapperPara(destino);
+        new AlmacenInstantaneas(destino, 0).escribir(salida -> mapperDestino.writeValue(salida, documento));
+        return datos;
+    }
+
+    static ObjectMapper mapperPara(Path archivo) {
+        return archivo.getFileName().toString().endsWith(EXTENSION_BINARIA)
+            ? RepositorioBinario.crearMapper()
+            : RepositorioJSON.crearMapper();
+    }
+}
@@ -0,0 +1,55 @@
+package repositorio;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import dominio.*;
+import java.util.List;
+
+/**
+ * Estado completo de la aplicación.
+ * <p>
+ * Es además el DTO del formato 1 del archivo de datos (entidades incrustadas); el formato
+ * actual se escribe a través de {@link FormatoDatos}. La versión indica el formato del que
+ * se cargaron los datos y no se serializa.
+ * </p>
+ *
+ * @version 1.1
+ * @since 2025-11-14
+ */
+class DatosAplicacion {
+    private List<Gasto> gastos;
+    private List<Categoria> categorias;
+    private List<Alerta> alertas;
+    private List<CuentaCompartida> cuentasCompartidas;
+    private final int version;
+
+    @JsonCreator
+    public DatosAplicacion(
+        @JsonProperty("gastos") List<Gasto> gastos,
+        @JsonProperty("categorias") List<Categoria> categorias,
+        @JsonProperty("alertas") List<Alerta> alertas,
+        @JsonProperty("cuentasCompartidas") List<CuentaCompartida> cuentasCompartidas) {
+        this(gastos, categorias, alertas, cuentasCompartidas, FormatoDatos.VERSION_ACTUAL);
+    }
+
+    DatosAplicacion(List<Gasto> gastos, List<Categoria> categorias, List<Alerta> alertas,
+                    List<CuentaCompartida> cuentasCompartidas, int version) {
+        this.gastos = gastos;
+        this.categorias = categorias;
+        this.alertas = alertas;
+        this.cuentasCompartidas = cuentasCompartidas;
+        this.version = version;
+    }
+
+    // Getters y setters para Jackson
+    public List<Gasto> getGastos() { return gastos; }
+
+    public List<Categoria> getCategorias() { return categorias; }
+
+    public List<Alerta> getAlertas() { return alertas; }
+
+    public List<CuentaCompartida> getCuentasCompartidas() { return cuentasCompartidas; }
+
+    /** Versión del formato de archivo del que proceden los datos. */
+    int versionFormato() { return version; }
+}
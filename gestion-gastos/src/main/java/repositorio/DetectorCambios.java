@@ -0,0 +1,84 @@
+package repositorio;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import dominio.Categoria;
+import repositorio.DiarioOperaciones.Operacion;
+import repositorio.DiarioOperaciones.Registro;
+import repositorio.DiarioOperaciones.TipoEntidad;
+import repositorio.FormatoDatos.Documento;
+import repositorio.FormatoDatos.GastoRegistro;
+
+/**
+ * Convierte las entidades que el repositorio sabe que ha tocado en operaciones de diario.
+ * <p>
+ * No guarda una copia de lo escrito: el coste de cada volcado depende solo de las entidades
+ * modificadas, no del tamaño de las colecciones. Las entidades de las listas principales se
+ * escriben siempre como {@link Operacion#ACTUALIZAR}, porque al reproducir el diario insertar
+ * y actualizar sustituyen igual la entidad por id.
+ * </p>
+ * <p>
+ * De las categorías referenciadas y los gastos que solo están en cuentas sí recuerda los ids
+ * escritos. Son colecciones pequeñas y así no se anota un borrado en ellas cada vez que se
+ * escribe una entidad de la lista principal con el mismo id.
+ * </p>
+ *
+ * @version 1.3
+ * @since 2026-10-17
+ */
+class DetectorCambios {
+    private final ObjectMapper mapper;
+    private final Map<TipoEntidad, Set<String>> escritosSecundarios;
+
+    DetectorCambios(ObjectMapper mapperCompacto) {
+        this.mapper = mapperCompacto;
+        this.escritosSecundarios = new EnumMap<>(TipoEntidad.class);
+        escritosSecundarios.put(TipoEntidad.CATEGORIA_REFERENCIADA, new HashSet<>());
+        escritosSecundarios.put(TipoEntidad.GASTO_CUENTA, new HashSet<>());
+    }
+
+    /**
+     * Toma las colecciones secundarias del documento como lo ya escrito.
+     */
+    void sincronizar(Documento documento) {
+        sincronizar(TipoEntidad.CATEGORIA_REFERENCIADA, documento.getCategoriasReferenciadas(), Categoria::getId);
+        sincronizar(TipoEntidad.GASTO_CUENTA, documento.getGastosCuentas(), GastoRegistro::getId);
+    }
+
+    private <T> void sincronizar(TipoEntidad tipo, List<T> entidades, Function<T, String> obtenerId) {
+        Set<String> escritos = escritosSecundarios.get(tipo);
+        escritos.clear();
+        entidades.forEach(entidad -> escritos.add(obtenerId.apply(entidad)));
+    }
+
+    /**
+     * Indica si la entidad {@code id} de una colección secundaria figura en lo escrito.
+     */
+    boolean escrito(TipoEntidad tipo, String id) {
+        Set<String> escritos = escritosSecundarios.get(tipo);
+        return escritos != null && escritos.contains(id);
+    }
+
+    /**
+     * Registro que lleva la entidad {@code id} a {@code entidad} ({@code null} si ya no existe).
+     * Devuelve {@code null} si se borra de una colección secundaria una entidad que no estaba.
+     */
+    Registro cambio(TipoEntidad tipo, String id, Object entidad) {
+        Set<String> escritos = escritosSecundarios.get(tipo);
+        if (entidad == null) {
+            if (escritos != null && !escritos.remove(id)) {
+                return null;
+            }
+            return new Registro(Operacion.ELIMINAR, tipo, id, null);
+        }
+
+        Operacion operacion = escritos != null && escritos.add(id) ? Operacion.INSERTAR : Operacion.ACTUALIZAR;
+        return new Registro(operacion, tipo, id, mapper.valueToTree(entidad));
+    }
+}
@@ -0,0 +1,145 @@
+package repositorio;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Diario de operaciones (write-ahead log) de solo anexado.
+ * <p>
+ * Cada modificación de una entidad se guarda como una línea JSON compacta con la operación,
+ * el tipo de entidad, su id y, salvo en los borrados, el estado completo de la entidad.
+ * Al arrancar, el repositorio carga la última instantánea y reproduce el diario encima.
+ * Las operaciones son idempotentes (insertar/actualizar sustituyen por id y eliminar borra
+ * por id), por lo que reproducir un registro ya incluido en la instantánea es inocuo.
+ * </p>
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+class DiarioOperaciones {
+
+    enum Operacion { INSERTAR, ACTUALIZAR, ELIMINAR }
+
+    /**
+     * Tipos de entidad del diario. Los dos últimos siguen las entidades que el formato de
+     * archivo guarda fuera de sus listas principales (véase {@link FormatoDatos}).
+     */
+    enum TipoEntidad { GASTO, CATEGORIA, ALERTA, CUENTA, CATEGORIA_REFERENCIADA, GASTO_CUENTA }
+
+    /**
+     * Línea del diario: una operación sobre una entidad concreta.
+     */
+    static class Registro {
+        private final Operacion operacion;
+        private final TipoEntidad tipo;
+        private final String id;
+        private final JsonNode datos;
+
+        @JsonCreator
+        Registro(@JsonProperty("op") Operacion operacion,
+                 @JsonProperty("tipo") TipoEntidad tipo,
+                 @JsonProperty("id") String id,
+                 @JsonProperty("datos") JsonNode datos) {
+            this.operacion = operacion;
+            this.tipo = tipo;
+            this.id = id;
+            this.datos = datos;
+        }
+
+        @JsonProperty("op")
+        public Operacion getOperacion() { return operacion; }
+
+        public TipoEntidad getTipo() { return tipo; }
+
+        public String getId() { return id; }
+
+        public JsonNode getDatos() { return datos; }
+    }
+
+    private final Path archivo;
+    private final ObjectMapper mapper;
+    private int cantidadRegistros;
+
+    DiarioOperaciones(Path archivo, ObjectMapper mapperCompacto) {
+        this.archivo = archivo;
+        this.mapper = mapperCompacto;
+    }
+
+    /**
+     * Anexa los registros al final del diario y fuerza su escritura a disco.
+     */
+    void registrar(List<Registro> registros) throws IOException {
+        if (registros.isEmpty()) {
+            return;
+        }
+
+        StringBuilder lineas = new StringBuilder();
+        for (Registro registro : registros) {
+            lineas.append(mapper.writeValueAsString(registro)).append('\n');
+        }
+
+        try (FileChannel canal = FileChannel.open(archivo,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lineas.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                canal.write(buffer);
+            }
+            canal.force(false);
+        }
+        cantidadRegistros += registros.size();
+    }
+
+    /**
+     * Lee todos los registros válidos del diario. Una última línea incompleta
+     * (por ejemplo tras un cierre abrupto) se descarta.
+     */
+    List<Registro> leer() throws IOException {
+        List<Registro> registros = new ArrayList<>();
+        if (!Files.exists(archivo)) {
+            cantidadRegistros = 0;
+            return registros;
+        }
+
+        try (BufferedReader lector = Files.newBufferedReader(archivo, StandardCharsets.UTF_8)) {
+            String linea;
+            while ((linea = lector.readLine()) != null) {
+                if (linea.isBlank()) {
+                    continue;
+                }
+                try {
+                    registros.add(mapper.readValue(linea, Registro.class));
+                } catch (JsonProcessingException e) {
+                    System.err.println("⚠ Registro del diario descartado (incompleto o corrupto): " + e.getOriginalMessage());
+                    break;
+                }
+            }
+        }
+        cantidadRegistros = registros.size();
+        return registros;
+    }
+
+    /**
+     * Vacía el diario tras haberse consolidado su contenido en una instantánea.
+     */
+    void vaciar() throws IOException {
+        Files.deleteIfExists(archivo);
+        cantidadRegistros = 0;
+    }
+
+    int cantidadRegistros() {
+        return cantidadRegistros;
+    }
+}
@@ -0,0 +1,160 @@
+package repositorio;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escritura diferida (write-behind) con agrupación de cambios.
+ * <p>
+ * Las modificaciones solo marcan el repositorio como pendiente; un único hilo en segundo
+ * plano ejecuta el volcado cuando ha transcurrido la ventana configurada desde el primer
+ * cambio pendiente, de modo que todas las modificaciones de esa ventana se escriben juntas.
+ * Al cerrar (o al terminar la JVM) se vuelca lo que quede pendiente.
+ * </p>
+ * <p>
+ * Un volcado cuenta como encolado hasta que empieza a ejecutarse: lo que se marque mientras
+ * escribe programa el siguiente. Si el volcado avisa con {@link #reintentar()} de que no ha
+ * podido escribir, se vuelve a programar con una espera que se duplica en cada fallo
+ * seguido, hasta {@link #ESPERA_MAXIMA_REINTENTO_MS}.
+ * </p>
+ *
+ * @version 1.1
+ * @since 2026-10-17
+ */
+class EscritorDiferido {
+    static final long ESPERA_MAXIMA_REINTENTO_MS = 60_000;
+
+    private final Runnable volcado;
+    private final long ventanaMs;
+    private final ScheduledExecutorService ejecutor;
+    private final Thread ganchoCierre;
+    private ScheduledFuture<?> programado;
+    private boolean encolado; // hay un volcado programado que aún no ha empezado
+    private boolean reintentoPedido; // el volcado en curso ha llamado a reintentar()
+    private long esperaReintentoMs;
+    private boolean cerrado;
+
+    EscritorDiferido(Runnable volcado, long ventanaMs) {
+        this.volcado = volcado;
+        this.ventanaMs = ventanaMs;
+        this.ejecutor = Executors.newSingleThreadScheduledExecutor(tarea -> {
+            Thread hilo = new Thread(tarea, "escritor-datos");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        this.ganchoCierre = new Thread(this::volcarAlSalir, "escritor-datos-cierre");
+        Runtime.getRuntime().addShutdownHook(ganchoCierre);
+    }
+
+    /**
+     * Programa un volcado al final de la ventana actual, si no hay ya uno programado.
+     */
+    synchronized void programar() {
+        if (cerrado) {
+            volcado.run();
+            return;
+        }
+        if (!encolado) {
+            encolar(ventanaMs);
+        }
+    }
+
+    /**
+     * Lo llama el volcado cuando no ha podido escribir y los cambios siguen pendientes:
+     * programa otro intento, cada vez más espaciado mientras sigan fallando. No debe llamarse
+     * con cerrojos que el volcado necesite.
+     */
+    synchronized void reintentar() {
+        reintentoPedido = true;
+        if (cerrado) {
+            return;
+        }
+        esperaReintentoMs = esperaReintentoMs == 0
+            ? ventanaMs
+            : Math.min(esperaReintentoMs * 2, ESPERA_MAXIMA_REINTENTO_MS);
+        if (!encolado) {
+            encolar(esperaReintentoMs);
+        }
+    }
+
+    private void encolar(long esperaMs) {
+        encolado = true;
+        programado = ejecutor.schedule(this::ejecutar, esperaMs, TimeUnit.MILLISECONDS);
+    }
+
+    private void ejecutar() {
+        synchronized (this) {
+            encolado = false;
+            reintentoPedido = false;
+        }
+        volcado.run();
+        synchronized (this) {
+            if (!reintentoPedido) {
+                esperaReintentoMs = 0;
+            }
+        }
+    }
+
+    /**
+     * Vuelca inmediatamente los cambios pendientes y espera a que termine la escritura.
+     */
+    void volcarAhora() {
+        ScheduledFuture<?> tarea;
+        synchronized (this) {
+            if (cerrado) {
+                volcado.run();
+                return;
+            }
+            if (programado != null) {
+                programado.cancel(false);
+            }
+            encolar(0);
+            tarea = programado;
+        }
+        esperar(tarea);
+    }
+
+    /**
+     * Vuelca lo pendiente y detiene el hilo de escritura. Los guardados posteriores
+     * se escriben de forma síncrona.
+     */
+    void cerrar() {
+        volcarAhora();
+        synchronized (this) {
+            cerrado = true;
+        }
+        ejecutor.shutdown();
+        try {
+            Runtime.getRuntime().removeShutdownHook(ganchoCierre);
+        } catch (IllegalStateException e) {
+            // La JVM ya se está cerrando: el gancho está en ejecución
+        }
+    }
+
+    private void volcarAlSalir() {
+        synchronized (this) {
+            cerrado = true;
+        }
+        // No se interrumpe un volcado en curso: se deja terminar antes del último
+        ejecutor.shutdown();
+        try {
+            ejecutor.awaitTermination(ventanaMs + 5000, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        volcado.run();
+    }
+
+    private static void esperar(ScheduledFuture<?> tarea) {
+        try {
+            tarea.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("✗ Error en el volcado diferido: " + e.getCause().getMessage());
+        }
+    }
+}
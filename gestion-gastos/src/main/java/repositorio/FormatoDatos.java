@@ -0,0 +1,517 @@
+package repositorio;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import dominio.*;
+import dominio.enums.PeriodoTemporal;
+import dominio.enums.TipoDistribucion;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Formato normalizado del archivo de datos (versión 2) y su conversión al dominio.
+ * <p>
+ * En la versión 1 cada gasto incrustaba una copia completa de su categoría y de su pagador,
+ * y cada cuenta compartida repetía enteros los gastos que ya figuraban en la lista general.
+ * En la versión 2 cada entidad se escribe una sola vez: gastos y alertas referencian la
+ * categoría por id, los gastos referencian al pagador por el id de la persona de su cuenta y
+ * las cuentas solo listan los ids de sus gastos. Las categorías y cuentas se escriben antes
+ * que los gastos para que el cargador en streaming resuelva las referencias según lee.
+ * </p>
+ * <p>
+ * Las categorías referenciadas que no están en la lista de categorías (por ejemplo tras un
+ * borrado forzado) y los gastos de cuentas que no están en la lista general se guardan en
+ * {@code categoriasReferenciadas} y {@code gastosCuentas} para no perderlos.
+ * </p>
+ * <p>
+ * Los registros guardan los importes en céntimos, como el dominio. En el archivo siguen
+ * siendo números decimales en euros: un importe con dos decimales se escribe con su
+ * representación más corta (12.34) y al leerlo se redondea al céntimo, así que el paso por
+ * {@code double} no pierde nada y los archivos existentes se leen igual.
+ * </p>
+ *
+ * @version 1.2
+ * @since 2026-10-17
+ */
+final class FormatoDatos {
+    /** Formato original con entidades incrustadas; el archivo no tiene campo {@code version}. */
+    static final int VERSION_LEGADO = 1;
+    static final int VERSION_ACTUAL = 2;
+
+    private FormatoDatos() {
+    }
+
+    /**
+     * Convierte el estado en memoria al documento normalizado que se escribe en disco.
+     * El documento no comparte objetos mutables con el dominio: se puede serializar en otro
+     * hilo mientras la aplicación sigue modificando las entidades.
+     */
+    static Documento aDocumento(DatosAplicacion datos) {
+        Set<String> idsCategorias = new HashSet<>();
+        datos.getCategorias().forEach(categoria -> idsCategorias.add(categoria.getId()));
+        Map<String, Categoria> referenciadas = new LinkedHashMap<>();
+        Consumer<Categoria> anotarReferencia = categoria -> {
+            if (categoria != null && !idsCategorias.contains(categoria.getId())) {
+                referenciadas.putIfAbsent(categoria.getId(), categoria);
+            }
+        };
+
+        Set<String> idsGastos = new HashSet<>();
+        List<GastoRegistro> gastos = new ArrayList<>(datos.getGastos().size());
+        for (Gasto gasto : datos.getGastos()) {
+            idsGastos.add(gasto.getId());
+            anotarReferencia.accept(gasto.getCategoria());
+            gastos.add(GastoRegistro.de(gasto));
+        }
+
+        List<CuentaRegistro> cuentas = new ArrayList<>();
+        List<GastoRegistro> gastosCuentas = new ArrayList<>();
+        for (CuentaCompartida cuenta : datos.getCuentasCompartidas()) {
+            for (Gasto gasto : cuenta.getGastos()) {
+                if (idsGastos.add(gasto.getId())) {
+                    anotarReferencia.accept(gasto.getCategoria());
+                    gastosCuentas.add(GastoRegistro.de(gasto));
+                }
+            }
+            cuentas.add(CuentaRegistro.de(cuenta));
+        }
+
+        List<AlertaRegistro> alertas = new ArrayList<>();
+        for (Alerta alerta : datos.getAlertas()) {
+            anotarReferencia.accept(alerta.getCategoria());
+            alertas.add(AlertaRegistro.de(alerta));
+        }
+
+        List<Categoria> categorias = new ArrayList<>(datos.getCategorias().size());
+        datos.getCategorias().forEach(categoria -> categorias.add(copiar(categoria)));
+        List<Categoria> copiasReferenciadas = new ArrayList<>(referenciadas.size());
+        referenciadas.values().forEach(categoria -> copiasReferenciadas.add(copiar(categoria)));
+        return new Documento(categorias, copiasReferenciadas, cuentas, gastos, gastosCuentas, alertas);
+    }
+
+    /**
+     * Reconstruye el dominio a partir de un documento en memoria, con una única instancia
+     * por categoría, persona y gasto.
+     */
+    static DatosAplicacion reconstruir(Documento documento) {
+        Resolutor resolutor = new Resolutor();
+        List<Categoria> categorias = new ArrayList<>();
+        documento.getCategorias().forEach(categoria -> categorias.add(resolutor.categoria(categoria)));
+        documento.getCategoriasReferenciadas().forEach(resolutor::categoria);
+
+        List<CuentaCompartida> cuentas = new ArrayList<>();
+        documento.getCuentasCompartidas().forEach(cuenta -> cuentas.add(resolutor.cuenta(cuenta)));
+        resolutor.cuentasLeidas();
+
+        List<Gasto> gastos = new ArrayList<>(documento.getGastos().size());
+        documento.getGastos().forEach(gasto -> gastos.add(resolutor.gasto(gasto)));
+        documento.getGastosCuentas().forEach(resolutor::gastoDeCuenta);
+
+        List<Alerta> alertas = new ArrayList<>();
+        documento.getAlertas().forEach(alerta -> alertas.add(resolutor.alerta(alerta)));
+
+        resolutor.completar();
+        return new DatosAplicacion(gastos, categorias, alertas, cuentas);
+    }
+
+    // ========== REGISTROS DEL ARCHIVO ==========
+
+    /**
+     * Contenido completo del archivo en formato versión 2.
+     */
+    @JsonPropertyOrder({"version", "categorias", "categoriasReferenciadas", "cuentasCompartidas",
+                        "gastos", "gastosCuentas", "alertas"})
+    static class Documento {
+        private final List<Categoria> categorias;
+        private final List<Categoria> categoriasReferenciadas;
+        private final List<CuentaRegistro> cuentasCompartidas;
+        private final List<GastoRegistro> gastos;
+        private final List<GastoRegistro> gastosCuentas;
+        private final List<AlertaRegistro> alertas;
+
+        Documento(List<Categoria> categorias, List<Categoria> categoriasReferenciadas,
+                  List<CuentaRegistro> cuentasCompartidas, List<GastoRegistro> gastos,
+                  List<GastoRegistro> gastosCuentas, List<AlertaRegistro> alertas) {
+            this.categorias = categorias;
+            this.categoriasReferenciadas = categoriasReferenciadas;
+            this.cuentasCompartidas = cuentasCompartidas;
+            this.gastos = gastos;
+            this.gastosCuentas = gastosCuentas;
+            this.alertas = alertas;
+        }
+
+        public int getVersion() { return VERSION_ACTUAL; }
+
+        public List<Categoria> getCategorias() { return categorias; }
+
+        @JsonInclude(JsonInclude.Include.NON_EMPTY)
+        public List<Categoria> getCategoriasReferenciadas() { return categoriasReferenciadas; }
+
+        public List<CuentaRegistro> getCuentasCompartidas() { return cuentasCompartidas; }
+
+        public List<GastoRegistro> getGastos() { return gastos; }
+
+        @JsonInclude(JsonInclude.Include.NON_EMPTY)
+        public List<GastoRegistro> getGastosCuentas() { return gastosCuentas; }
+
+        public List<AlertaRegistro> getAlertas() { return alertas; }
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonPropertyOrder({"id", "cantidad", "fecha", "descripcion", "categoriaId", "pagadorId"})
+    static class GastoRegistro {
+        private final String id;
+        private final long centimos;
+        private final LocalDate fecha;
+        private final String descripcion;
+        private final String categoriaId;
+        private final String pagadorId;
+
+        GastoRegistro(String id, long centimos, LocalDate fecha, String descripcion,
+                      String categoriaId, String pagadorId) {
+            this.id = id;
+            this.centimos = centimos;
+            this.fecha = fecha;
+            this.descripcion = descripcion;
+            this.categoriaId = categoriaId;
+            this.pagadorId = pagadorId;
+        }
+
+        @JsonCreator
+        static GastoRegistro leer(@JsonProperty("id") String id,
+                                  @JsonProperty("cantidad") double cantidad,
+                                  @JsonProperty("fecha") LocalDate fecha,
+                                  @JsonProperty("descripcion") String descripcion,
+                                  @JsonProperty("categoriaId") String categoriaId,
+                                  @JsonProperty("pagadorId") String pagadorId) {
+            return new GastoRegistro(id, Dinero.aCentimos(cantidad), fecha, descripcion, categoriaId, pagadorId);
+        }
+
+        static GastoRegistro de(Gasto gasto) {
+            return new GastoRegistro(gasto.getId(), gasto.getCentimos(), gasto.getFecha(),
+                                     gasto.getDescripcion(), idDe(gasto.getCategoria()),
+                                     gasto.getPagador() != null ? gasto.getPagador().getId() : null);
+        }
+
+        public String getId() { return id; }
+
+        public double getCantidad() { return Dinero.aEuros(centimos); }
+
+        @JsonIgnore
+        public long getCentimos() { return centimos; }
+
+        public LocalDate getFecha() { return fecha; }
+
+        public String getDescripcion() { return descripcion; }
+
+        public String getCategoriaId() { return categoriaId; }
+
+        public String getPagadorId() { return pagadorId; }
+    }
+
+    @JsonPropertyOrder({"id", "nombre", "tipoDistribucion", "personas", "gastos"})
+    static class CuentaRegistro {
+        private final String id;
+        private final String nombre;
+        private final TipoDistribucion tipoDistribucion;
+        private final List<Persona> personas;
+        private final List<String> gastos;
+
+        @JsonCreator
+        CuentaRegistro(@JsonProperty("id") String id,
+                       @JsonProperty("nombre") String nombre,
+                       @JsonProperty("tipoDistribucion") TipoDistribucion tipoDistribucion,
+                       @JsonProperty("personas") List<Persona> personas,
+                       @JsonProperty("gastos") List<String> gastos) {
+            this.id = id;
+            this.nombre = nombre;
+            this.tipoDistribucion = tipoDistribucion;
+            this.personas = personas != null ? personas : new ArrayList<>();
+            this.gastos = gastos != null ? gastos : new ArrayList<>();
+        }
+
+        static CuentaRegistro de(CuentaCompartida cuenta) {
+            List<String> idsGastos = new ArrayList<>();
+            cuenta.getGastos().forEach(gasto -> idsGastos.add(gasto.getId()));
+            List<Persona> personas = new ArrayList<>();
+            cuenta.getPersonas().forEach(persona -> personas.add(copiar(persona)));
+            return new CuentaRegistro(cuenta.getId(), cuenta.getNombre(), cuenta.getTipoDistribucion(),
+                                      personas, idsGastos);
+        }
+
+        public String getId() { return id; }
+
+        public String getNombre() { return nombre; }
+
+        public TipoDistribucion getTipoDistribucion() { return tipoDistribucion; }
+
+        public List<Persona> getPersonas() { return personas; }
+
+        /** Ids de los gastos de la cuenta. */
+        public List<String> getGastos() { return gastos; }
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @JsonPropertyOrder({"id", "limiteGasto", "periodo", "categoriaId", "activa", "notificaciones"})
+    static class AlertaRegistro {
+        private final String id;
+        private final long limiteCentimos;
+        private final PeriodoTemporal periodo;
+        private final String categoriaId;
+        private final boolean activa;
+        private final List<Notificacion> notificaciones;
+
+        AlertaRegistro(String id, long limiteCentimos, PeriodoTemporal periodo, String categoriaId,
+                       boolean activa, List<Notificacion> notificaciones) {
+            this.id = id;
+            this.limiteCentimos = limiteCentimos;
+            this.periodo = periodo;
+            this.categoriaId = categoriaId;
+            this.activa = activa;
+            this.notificaciones = notificaciones;
+        }
+
+        @JsonCreator
+        static AlertaRegistro leer(@JsonProperty("id") String id,
+                                   @JsonProperty("limiteGasto") double limiteGasto,
+                                   @JsonProperty("periodo") PeriodoTemporal periodo,
+                                   @JsonProperty("categoriaId") String categoriaId,
+                                   @JsonProperty("activa") boolean activa,
+                                   @JsonProperty("notificaciones") List<Notificacion> notificaciones) {
+            return new AlertaRegistro(id, Dinero.aCentimos(limiteGasto), periodo, categoriaId, activa, notificaciones);
+        }
+
+        /**
+         * Copia la lista de notificaciones y cada notificación: la alerta añade notificaciones
+         * y las marca como leídas en el sitio.
+         */
+        static AlertaRegistro de(Alerta alerta) {
+            List<Notificacion> notificaciones = new ArrayList<>(alerta.getNotificaciones().size());
+            alerta.getNotificaciones().forEach(notificacion -> notificaciones.add(copiar(notificacion)));
+            return new AlertaRegistro(alerta.getId(), alerta.getLimiteCentimos(), alerta.getPeriodo(),
+                                      idDe(alerta.getCategoria()), alerta.isActiva(), notificaciones);
+        }
+
+        public String getId() { return id; }
+
+        public double getLimiteGasto() { return Dinero.aEuros(limiteCentimos); }
+
+        @JsonIgnore
+        public long getLimiteCentimos() { return limiteCentimos; }
+
+        public PeriodoTemporal getPeriodo() { return periodo; }
+
+        public String getCategoriaId() { return categoriaId; }
+
+        public boolean isActiva() { return activa; }
+
+        public List<Notificacion> getNotificaciones() { return notificaciones; }
+    }
+
+    private static String idDe(Categoria categoria) {
+        return categoria != null ? categoria.getId() : null;
+    }
+
+    // Copias de las entidades que los registros incrustan en lugar de referenciar por id
+
+    private static Categoria copiar(Categoria categoria) {
+        Categoria copia = new Categoria();
+        copia.setId(categoria.getId());
+        if (categoria.getNombre() != null) {
+            copia.setNombre(categoria.getNombre());
+        }
+        copia.setDescripcion(categoria.getDescripcion());
+        return copia;
+    }
+
+    private static Persona copiar(Persona persona) {
+        Persona copia = new Persona();
+        copia.setId(persona.getId());
+        if (persona.getNombre() != null) {
+            copia.setNombre(persona.getNombre());
+        }
+        copia.setPorcentajeGasto(persona.getPorcentajeGasto());
+        copia.setSaldoCentimos(persona.getSaldoCentimos());
+        return copia;
+    }
+
+    private static Notificacion copiar(Notificacion notificacion) {
+        Notificacion copia = new Notificacion();
+        copia.setId(notificacion.getId());
+        copia.setMensaje(notificacion.getMensaje());
+        copia.setFechaGeneracion(notificacion.getFechaGeneracion());
+        copia.setLeida(notificacion.isLeida());
+        return copia;
+    }
+
+    // ========== RESOLUCIÓN DE REFERENCIAS ==========
+
+    /**
+     * Convierte registros al dominio según se leen, compartiendo una instancia por id.
+     * <p>
+     * Sirve tanto para el formato 2 como para el formato 1: en éste unifica las copias
+     * incrustadas de categorías, pagadores y gastos de cuentas. Las referencias que aún no
+     * se pueden resolver (porque la entidad aparece más adelante) se completan en
+     * {@link #completar()}. Solo se retienen los gastos que alguna cuenta referencia.
+     * </p>
+     */
+    static class Resolutor {
+        private final Map<String, Categoria> categoriasPorId = new HashMap<>();
+        private final Map<String, Persona> personasPorId = new HashMap<>();
+        private final Map<String, Gasto> gastosRetenidos = new HashMap<>();
+        private final Set<String> gastosDeCuentas = new HashSet<>();
+        private final Map<CuentaCompartida, List<String>> cuentas = new LinkedHashMap<>();
+        private final List<Runnable> pendientes = new ArrayList<>();
+        private boolean cuentasLeidas;
+        private boolean legado;
+
+        Categoria categoria(Categoria leida) {
+            if (leida == null || leida.getId() == null) {
+                return leida;
+            }
+            return categoriasPorId.computeIfAbsent(leida.getId(), id -> leida);
+        }
+
+        CuentaCompartida cuenta(CuentaRegistro registro) {
+            List<Persona> personas = new ArrayList<>();
+            registro.getPersonas().forEach(persona -> personas.add(persona(persona)));
+            CuentaCompartida cuenta = new CuentaCompartida(registro.getId(), registro.getNombre(),
+                                                           registro.getTipoDistribucion(), personas, null);
+            gastosDeCuentas.addAll(registro.getGastos());
+            cuentas.put(cuenta, registro.getGastos());
+            return cuenta;
+        }
+
+        /**
+         * Señala que ya se han leído todas las cuentas: a partir de aquí solo se retienen
+         * los gastos que éstas referencian.
+         */
+        void cuentasLeidas() {
+            cuentasLeidas = true;
+        }
+
+        Gasto gasto(GastoRegistro registro) {
+            Gasto gasto = new Gasto();
+            gasto.setId(registro.getId());
+            gasto.setCentimos(registro.getCentimos());
+            gasto.setFecha(registro.getFecha());
+            gasto.setDescripcion(registro.getDescripcion());
+            gasto.setCategoria(referencia("categoría", registro.getCategoriaId(), categoriasPorId, gasto::setCategoria));
+            gasto.setPagador(referencia("pagador", registro.getPagadorId(), personasPorId, gasto::setPagador));
+            if (!cuentasLeidas || gastosDeCuentas.contains(gasto.getId())) {
+                gastosRetenidos.put(gasto.getId(), gasto);
+            }
+            return gasto;
+        }
+
+        /**
+         * Gasto que solo pertenece a una cuenta y no figura en la lista general.
+         */
+        void gastoDeCuenta(GastoRegistro registro) {
+            Gasto gasto = gasto(registro);
+            gastosRetenidos.put(gasto.getId(), gasto);
+        }
+
+        Alerta alerta(AlertaRegistro registro) {
+            Alerta alerta = new Alerta();
+            alerta.setId(registro.getId());
+            alerta.setLimiteCentimos(registro.getLimiteCentimos());
+            alerta.setPeriodo(registro.getPeriodo());
+            alerta.setCategoria(referencia("categoría", registro.getCategoriaId(), categoriasPorId, alerta::setCategoria));
+            alerta.setActiva(registro.isActiva());
+            alerta.setNotificaciones(registro.getNotificaciones());
+            return alerta;
+        }
+
+        /**
+         * Gasto del formato 1: unifica su categoría y, al completar, su pagador.
+         */
+        Gasto gastoLegado(Gasto gasto) {
+            legado = true;
+            gasto.setCategoria(categoria(gasto.getCategoria()));
+            gastosRetenidos.putIfAbsent(gasto.getId(), gasto);
+            return gasto;
+        }
+
+        /**
+         * Cuenta del formato 1: sus gastos incrustados se sustituyen por los de la lista general.
+         */
+        CuentaCompartida cuentaLegado(CuentaCompartida cuenta) {
+            legado = true;
+            cuenta.getPersonas().forEach(this::persona);
+            List<String> idsGastos = new ArrayList<>();
+            for (Gasto gasto : cuenta.getGastos()) {
+                idsGastos.add(gasto.getId());
+                if (!gastosRetenidos.containsKey(gasto.getId())) {
+                    gastoLegado(gasto);
+                }
+            }
+            cuentas.put(cuenta, idsGastos);
+            return cuenta;
+        }
+
+        Alerta alertaLegado(Alerta alerta) {
+            alerta.setCategoria(categoria(alerta.getCategoria()));
+            return alerta;
+        }
+
+        /**
+         * Resuelve las referencias pendientes y asigna a cada cuenta sus gastos.
+         */
+        void completar() {
+            pendientes.forEach(Runnable::run);
+            pendientes.clear();
+
+            if (legado) {
+                // Los pagadores incrustados pasan a ser las personas de la cuenta
+                gastosRetenidos.values().forEach(gasto -> {
+                    Persona pagador = gasto.getPagador();
+                    if (pagador != null && personasPorId.containsKey(pagador.getId())) {
+                        gasto.setPagador(personasPorId.get(pagador.getId()));
+                    }
+                });
+            }
+
+            cuentas.forEach((cuenta, idsGastos) -> {
+                List<Gasto> gastos = new ArrayList<>(idsGastos.size());
+                for (String id : idsGastos) {
+                    Gasto gasto = gastosRetenidos.get(id);
+                    if (gasto != null) {
+                        gastos.add(gasto);
+                    } else {
+                        System.err.println("⚠ Gasto " + id + " de la cuenta '" + cuenta.getNombre() + "' no encontrado");
+                    }
+                }
+                cuenta.setGastos(gastos);
+            });
+            cuentas.clear();
+            gastosRetenidos.clear();
+        }
+
+        private Persona persona(Persona leida) {
+            return personasPorId.computeIfAbsent(leida.getId(), id -> leida);
+        }
+
+        private <T> T referencia(String tipo, String id, Map<String, T> porId, Consumer<T> asignarMasTarde) {
+            if (id == null) {
+                return null;
+            }
+            T valor = porId.get(id);
+            if (valor == null) {
+                pendientes.add(() -> {
+                    T tardio = porId.get(id);
+                    if (tardio != null) {
+                        asignarMasTarde.accept(tardio);
+                    } else {
+                        System.err.println("⚠ Referencia a " + tipo + " no encontrada: " + id);
+                    }
+                });
+            }
+            return valor;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package repositorio;
+
+import dominio.*;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Origen de las entidades en memoria al que se puede vincular un {@link Repositorio}.
+ * <p>
+ * Permite que la aplicación mantenga una sola copia de los datos: una vez vinculado, el
+ * repositorio deja de guardar sus propias colecciones y lee de aquí lo que tiene que escribir.
+ * Las implementaciones deben poder consultarse desde el hilo de escritura en segundo plano
+ * mientras la aplicación modifica los datos. Las listas devueltas son instantáneas inmutables:
+ * no cambian aunque los datos se modifiquen después, y pueden ser la misma instancia en
+ * llamadas sucesivas si entretanto no ha cambiado nada.
+ * </p>
+ * <p>
+ * Las instantáneas solo protegen las colecciones; las entidades siguen siendo las de la
+ * aplicación. Por eso el repositorio nunca serializa entidades directamente: dentro de
+ * {@link #leer(Supplier)} las copia a registros inmutables y después escribe esas copias.
+ * Una fuente cuyas entidades se modifiquen desde otro hilo debe ejecutar {@code leer}
+ * excluyendo esas modificaciones.
+ * </p>
+ *
+ * @version 1.2
+ * @since 2026-10-17
+ */
+public interface FuenteDatos {
+
+    List<Gasto> gastos();
+    Gasto gasto(String id);
+
+    List<Categoria> categorias();
+    Categoria categoria(String id);
+
+    List<Alerta> alertas();
+    Alerta alerta(String id);
+
+    List<CuentaCompartida> cuentas();
+    CuentaCompartida cuenta(String id);
+
+    /**
+     * Ejecuta {@code lectura} sin que ninguna entidad de la fuente cambie mientras tanto. La
+     * lectura solo debe consultar la fuente y copiar; no debe llamar al repositorio.
+     * <p>
+     * Por defecto la ejecuta sin más, lo que solo vale si las entidades se modifican desde el
+     * mismo hilo que escribe el repositorio.
+     * </p>
+     */
+    default <R> R leer(Supplier<R> lectura) {
+        return lectura.get();
+    }
+}
@@ -0,0 +1,57 @@
+package repositorio;
+
+import dominio.Categoria;
+import dominio.Gasto;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Gastos antiguos archivados fuera de las colecciones en memoria del repositorio.
+ * <p>
+ * Es de solo lectura: los gastos archivados no se modifican ni se eliminan desde la
+ * aplicación. Los totales se calculan sin crear un {@link Gasto} por registro; solo
+ * {@link #gastosEntre} materializa los gastos pedidos. Los intervalos de fechas incluyen
+ * ambos extremos.
+ * </p>
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public interface HistoricoGastos {
+
+    /** Histórico sin gastos, para los repositorios que no archivan. */
+    HistoricoGastos VACIO = new HistoricoGastos() {
+        @Override
+        public int cantidad() { return 0; }
+
+        @Override
+        public List<Gasto> gastosEntre(LocalDate desde, LocalDate hasta) { return List.of(); }
+
+        @Override
+        public double totalEntre(LocalDate desde, LocalDate hasta) { return 0.0; }
+
+        @Override
+        public Map<Categoria, Double> totalesPorCategoria(LocalDate desde, LocalDate hasta) { return Map.of(); }
+
+        @Override
+        public Map<YearMonth, Double> totalesPorMes(LocalDate desde, LocalDate hasta) { return Map.of(); }
+    };
+
+    int cantidad();
+
+    /**
+     * Materializa los gastos archivados del intervalo, ordenados por fecha.
+     */
+    List<Gasto> gastosEntre(LocalDate desde, LocalDate hasta);
+
+    double totalEntre(LocalDate desde, LocalDate hasta);
+
+    Map<Categoria, Double> totalesPorCategoria(LocalDate desde, LocalDate hasta);
+
+    /**
+     * Total de cada mes del intervalo que tenga gastos archivados, en orden cronológico.
+     */
+    Map<YearMonth, Double> totalesPorMes(LocalDate desde, LocalDate hasta);
+}
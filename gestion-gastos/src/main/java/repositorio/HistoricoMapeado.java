@@ -0,0 +1,466 @@
+package repositorio;
+
+import dominio.Categoria;
+import dominio.Dinero;
+import dominio.Gasto;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * {@link HistoricoGastos} sobre un archivo de registros de ancho fijo proyectado en memoria.
+ * <p>
+ * El archivo se proyecta de solo lectura con {@link FileChannel#map}: el sistema operativo
+ * carga sus páginas a medida que se leen, de modo que los años que no se consultan no ocupan
+ * memoria del proceso. Es una sucesión de segmentos; cada archivado anexa uno nuevo al final
+ * sin reescribir los anteriores. Estructura de un segmento (enteros big-endian):
+ * </p>
+ * <ul>
+ *   <li>cabecera: marca, versión, número de registros, número de categorías, posición del
+ *       montón de cadenas y longitud del segmento (0 en la versión 1: llega al final);</li>
+ *   <li>tabla de categorías: posición en el montón del id, nombre y descripción de cada una;</li>
+ *   <li>registros de {@value #TAMANO_REGISTRO} bytes ordenados por fecha: céntimos
+ *       ({@code long}), día desde la época, índice de la categoría y posiciones en el montón
+ *       del id y la descripción ({@code int}, -1 si no hay valor);</li>
+ *   <li>montón: cadenas como longitud ({@code int}, -1 si es nula) y bytes UTF-8.</li>
+ * </ul>
+ * <p>
+ * Un segmento se anexa con la marca a cero y la marca se escribe al final, tras forzar el
+ * resto al disco: si el proceso se interrumpe a medias, el segmento incompleto se descarta
+ * al abrir y se sobrescribe en el siguiente archivado. Como cada segmento está ordenado por
+ * fecha por separado, las consultas recorren todos y combinan sus resultados.
+ * </p>
+ * <p>
+ * Los importes se guardan en céntimos, por lo que se redondean a dos decimales. Solo se
+ * archivan gastos personales: los de cuentas compartidas dependen de su cuenta.
+ * </p>
+ *
+ * @version 1.2
+ * @since 2026-10-17
+ */
+final class HistoricoMapeado implements HistoricoGastos {
+    private static final int MARCA = 0x47474831; // "GGH1"
+    private static final int VERSION_SIN_LONGITUD = 1;
+    private static final int VERSION = 2;
+    private static final int TAMANO_CABECERA = 24;
+    private static final int TAMANO_REGISTRO = 24;
+    private static final int SIN_VALOR = -1;
+
+    // Desplazamientos dentro de la cabecera de un segmento
+    private static final int CABECERA_VERSION = 4;
+    private static final int CABECERA_LONGITUD = 20;
+
+    // Desplazamientos dentro de un registro
+    private static final int CENTIMOS = 0;
+    private static final int DIA = 8;
+    private static final int CATEGORIA = 12;
+    private static final int ID = 16;
+    private static final int DESCRIPCION = 20;
+
+    private final List<Segmento> segmentos;
+    private final int cantidad;
+
+    private HistoricoMapeado(List<Segmento> segmentos) {
+        this.segmentos = segmentos;
+        this.cantidad = segmentos.stream().mapToInt(segmento -> segmento.cantidad).sum();
+    }
+
+    /**
+     * Proyecta el histórico de {@code archivo}. {@code resolverCategoria} devuelve la instancia
+     * en memoria de una categoría por id, o null si ya no existe.
+     */
+    static HistoricoMapeado abrir(Path archivo, Function<String, Categoria> resolverCategoria) throws IOException {
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.READ)) {
+            if (canal.size() > Integer.MAX_VALUE) {
+                throw new IOException("Histórico demasiado grande para proyectarlo: " + archivo);
+            }
+            // La proyección sigue siendo válida después de cerrar el canal
+            MappedByteBuffer buffer = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            // Una marca a cero es un primer segmento que no se llegó a completar
+            if (buffer.capacity() >= 4 && buffer.getInt(0) != MARCA && buffer.getInt(0) != 0) {
+                throw new IOException("El archivo no es un histórico de gastos");
+            }
+            List<Segmento> segmentos = new ArrayList<>();
+            int inicio = 0;
+            for (int longitud; (longitud = longitudSegmento(buffer, inicio, buffer.capacity() - inicio)) > 0; ) {
+                segmentos.add(new Segmento(buffer.slice(inicio, longitud), resolverCategoria));
+                inicio += longitud;
+            }
+            return new HistoricoMapeado(segmentos);
+        }
+    }
+
+    /**
+     * Escribe {@code gastos} ordenados por fecha en un histórico nuevo que sustituye de forma
+     * atómica al que hubiera en {@code archivo}.
+     */
+    static void escribir(Path archivo, List<Gasto> gastos) throws IOException {
+        byte[] segmento = segmento(gastos);
+        new AlmacenInstantaneas(archivo, 0).escribir(salida -> salida.write(segmento));
+    }
+
+    /**
+     * Anexa {@code gastos} como un segmento nuevo al final de {@code archivo}, que se crea si
+     * no existe, sin reescribir los registros que ya contiene.
+     */
+    static void anadir(Path archivo, List<Gasto> gastos) throws IOException {
+        byte[] segmento = segmento(gastos);
+        ByteBuffer marca = ByteBuffer.allocate(4).putInt(0, MARCA);
+        ByteBuffer.wrap(segmento).putInt(0, 0);
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.CREATE,
+                                                  StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long fin = finSegmentosCompletos(canal);
+            canal.truncate(fin);
+            escribirEn(canal, ByteBuffer.wrap(segmento), fin);
+            canal.force(true);
+            escribirEn(canal, marca, fin);
+            canal.force(true);
+        }
+    }
+
+    // ========== CONSULTAS ==========
+
+    @Override
+    public int cantidad() {
+        return cantidad;
+    }
+
+    @Override
+    public List<Gasto> gastosEntre(LocalDate desde, LocalDate hasta) {
+        List<Gasto> gastos = new ArrayList<>();
+        for (Segmento segmento : segmentos) {
+            segmento.gastosEntre(desde, hasta, gastos);
+        }
+        if (segmentos.size() > 1) {
+            // Tramos ya ordenados, uno por segmento: la ordenación solo los intercala
+            gastos.sort(Comparator.comparing(Gasto::getFecha));
+        }
+        return gastos;
+    }
+
+    @Override
+    public double totalEntre(LocalDate desde, LocalDate hasta) {
+        long centimos = 0;
+        for (Segmento segmento : segmentos) {
+            centimos += segmento.sumarCentimos(segmento.indiceDesde(desde), segmento.indiceHasta(hasta));
+        }
+        return Dinero.aEuros(centimos);
+    }
+
+    @Override
+    public Map<Categoria, Double> totalesPorCategoria(LocalDate desde, LocalDate hasta) {
+        Map<Categoria, Long> centimos = new LinkedHashMap<>();
+        for (Segmento segmento : segmentos) {
+            segmento.centimosPorCategoria(desde, hasta, centimos);
+        }
+        Map<Categoria, Double> totales = new LinkedHashMap<>();
+        centimos.forEach((categoria, suma) -> totales.put(categoria, Dinero.aEuros(suma)));
+        return totales;
+    }
+
+    @Override
+    public Map<YearMonth, Double> totalesPorMes(LocalDate desde, LocalDate hasta) {
+        Map<YearMonth, Long> centimos = new TreeMap<>();
+        for (Segmento segmento : segmentos) {
+            segmento.centimosPorMes(desde, hasta, centimos);
+        }
+        Map<YearMonth, Double> totales = new LinkedHashMap<>();
+        centimos.forEach((mes, suma) -> totales.put(mes, Dinero.aEuros(suma)));
+        return totales;
+    }
+
+    /**
+     * Ids de los gastos archivados entre ambas fechas, leídos sin materializar los gastos.
+     */
+    Set<String> idsEntre(LocalDate desde, LocalDate hasta) {
+        Set<String> ids = new HashSet<>();
+        for (Segmento segmento : segmentos) {
+            int fin = segmento.indiceHasta(hasta);
+            for (int i = segmento.indiceDesde(desde); i < fin; i++) {
+                ids.add(segmento.leerCadena(segmento.buffer.getInt(segmento.posicion(i) + ID)));
+            }
+        }
+        return ids;
+    }
+
+    // ========== DETALLES DE IMPLEMENTACIÓN (privados) ==========
+
+    /**
+     * Longitud del segmento cuya cabecera empieza en {@code inicio}, si le quedan al menos
+     * {@code restante} bytes de archivo; 0 si no hay ahí un segmento completo.
+     */
+    private static int longitudSegmento(ByteBuffer cabecera, int inicio, long restante) throws IOException {
+        if (restante < TAMANO_CABECERA || cabecera.getInt(inicio) != MARCA) {
+            return 0;
+        }
+        int version = cabecera.getInt(inicio + CABECERA_VERSION);
+        if (version != VERSION && version != VERSION_SIN_LONGITUD) {
+            throw new IOException("Versión de histórico no soportada: " + version);
+        }
+        int longitud = cabecera.getInt(inicio + CABECERA_LONGITUD);
+        if (longitud == 0 && version == VERSION_SIN_LONGITUD) {
+            return (int) restante;
+        }
+        return longitud >= TAMANO_CABECERA && longitud <= restante ? longitud : 0;
+    }
+
+    /**
+     * Posición tras el último segmento completo; solo lee las cabeceras. Un histórico de la
+     * versión 1 ocupa todo el archivo sin indicar su longitud: se le escribe antes de anexar
+     * nada detrás.
+     */
+    private static long finSegmentosCompletos(FileChannel canal) throws IOException {
+        long tamano = canal.size();
+        long fin = 0;
+        ByteBuffer cabecera = ByteBuffer.allocate(TAMANO_CABECERA);
+        while (tamano - fin >= TAMANO_CABECERA) {
+            cabecera.clear();
+            while (cabecera.hasRemaining() && canal.read(cabecera, fin + cabecera.position()) >= 0) {
+                // read con posición no mueve el canal: el avance lo lleva el buffer
+            }
+            int longitud = longitudSegmento(cabecera, 0, tamano - fin);
+            if (longitud == 0) {
+                break;
+            }
+            if (cabecera.getInt(CABECERA_LONGITUD) == 0) {
+                escribirEn(canal, ByteBuffer.allocate(4).putInt(0, longitud), fin + CABECERA_LONGITUD);
+                canal.force(true);
+            }
+            fin += longitud;
+        }
+        return fin;
+    }
+
+    private static void escribirEn(FileChannel canal, ByteBuffer bytes, long posicion) throws IOException {
+        while (bytes.hasRemaining()) {
+            posicion += canal.write(bytes, posicion);
+        }
+    }
+
+    /**
+     * Segmento completo con {@code gastos} ordenados por fecha.
+     */
+    private static byte[] segmento(List<Gasto> gastos) throws IOException {
+        List<Gasto> ordenados = new ArrayList<>(gastos);
+        ordenados.sort(Comparator.comparing(Gasto::getFecha));
+
+        Monton monton = new Monton();
+        Map<String, Integer> indiceCategorias = new LinkedHashMap<>();
+        List<Integer> posicionesCategorias = new ArrayList<>();
+        ByteArrayOutputStream registros = new ByteArrayOutputStream(ordenados.size() * TAMANO_REGISTRO);
+        DataOutputStream salidaRegistros = new DataOutputStream(registros);
+
+        for (Gasto gasto : ordenados) {
+            int categoria = SIN_VALOR;
+            Categoria deGasto = gasto.getCategoria();
+            if (deGasto != null) {
+                categoria = indiceCategorias.computeIfAbsent(deGasto.getId(), id -> {
+                    // Las tres cadenas van seguidas: se leen a partir de la posición del id
+                    posicionesCategorias.add(monton.escribir(id));
+                    monton.escribir(deGasto.getNombre());
+                    monton.escribir(deGasto.getDescripcion());
+                    return posicionesCategorias.size() - 1;
+                });
+            }
+            salidaRegistros.writeLong(gasto.getCentimos());
+            salidaRegistros.writeInt((int) gasto.getFecha().toEpochDay());
+            salidaRegistros.writeInt(categoria);
+            salidaRegistros.writeInt(monton.anadir(gasto.getId()));
+            salidaRegistros.writeInt(monton.anadir(gasto.getDescripcion()));
+        }
+
+        int inicioCadenas = TAMANO_CABECERA + posicionesCategorias.size() * 4 + registros.size();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(inicioCadenas + monton.bytes.size());
+        DataOutputStream datos = new DataOutputStream(bytes);
+        datos.writeInt(MARCA);
+        datos.writeInt(VERSION);
+        datos.writeInt(ordenados.size());
+        datos.writeInt(posicionesCategorias.size());
+        datos.writeInt(inicioCadenas);
+        datos.writeInt(inicioCadenas + monton.bytes.size());
+        for (int posicion : posicionesCategorias) {
+            datos.writeInt(posicion);
+        }
+        registros.writeTo(datos);
+        monton.bytes.writeTo(datos);
+        datos.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Un segmento proyectado: sus registros están ordenados por fecha y sus posiciones son
+     * relativas al inicio del segmento.
+     */
+    private static final class Segmento {
+        private final ByteBuffer buffer;
+        private final int cantidad;
+        private final int inicioRegistros;
+        private final int inicioCadenas;
+        private final Categoria[] categorias;
+
+        Segmento(ByteBuffer buffer, Function<String, Categoria> resolverCategoria) {
+            this.buffer = buffer;
+            this.cantidad = buffer.getInt(8);
+            int cantidadCategorias = buffer.getInt(12);
+            this.inicioCadenas = buffer.getInt(16);
+            this.inicioRegistros = TAMANO_CABECERA + cantidadCategorias * 4;
+
+            // Las categorías son pocas: se resuelven al abrir, compartiendo la instancia del
+            // repositorio si la categoría sigue existiendo
+            this.categorias = new Categoria[cantidadCategorias];
+            for (int i = 0; i < cantidadCategorias; i++) {
+                int posicion = buffer.getInt(TAMANO_CABECERA + i * 4);
+                String id = leerCadena(posicion);
+                Categoria categoria = resolverCategoria.apply(id);
+                if (categoria == null) {
+                    categoria = new Categoria();
+                    categoria.setId(id);
+                    posicion = siguienteCadena(posicion);
+                    categoria.setNombre(leerCadena(posicion));
+                    categoria.setDescripcion(leerCadena(siguienteCadena(posicion)));
+                }
+                categorias[i] = categoria;
+            }
+        }
+
+        void gastosEntre(LocalDate desde, LocalDate hasta, List<Gasto> gastos) {
+            int fin = indiceHasta(hasta);
+            for (int i = indiceDesde(desde); i < fin; i++) {
+                gastos.add(materializar(i));
+            }
+        }
+
+        void centimosPorCategoria(LocalDate desde, LocalDate hasta, Map<Categoria, Long> totales) {
+            long[] centimos = new long[categorias.length];
+            int fin = indiceHasta(hasta);
+            for (int i = indiceDesde(desde); i < fin; i++) {
+                int categoria = buffer.getInt(posicion(i) + CATEGORIA);
+                if (categoria != SIN_VALOR) {
+                    centimos[categoria] += buffer.getLong(posicion(i) + CENTIMOS);
+                }
+            }
+            for (int i = 0; i < categorias.length; i++) {
+                if (centimos[i] != 0) {
+                    totales.merge(categorias[i], centimos[i], Long::sum);
+                }
+            }
+        }
+
+        void centimosPorMes(LocalDate desde, LocalDate hasta, Map<YearMonth, Long> totales) {
+            int inicio = indiceDesde(desde);
+            int fin = indiceHasta(hasta);
+            // Los registros están ordenados por fecha: cada mes es un tramo contiguo
+            while (inicio < fin) {
+                YearMonth mes = YearMonth.from(LocalDate.ofEpochDay(buffer.getInt(posicion(inicio) + DIA)));
+                int finMes = Math.min(fin, indiceDesde(mes.plusMonths(1).atDay(1)));
+                totales.merge(mes, sumarCentimos(inicio, finMes), Long::sum);
+                inicio = finMes;
+            }
+        }
+
+        private int posicion(int indice) {
+            return inicioRegistros + indice * TAMANO_REGISTRO;
+        }
+
+        private long sumarCentimos(int inicio, int fin) {
+            long centimos = 0;
+            for (int i = inicio; i < fin; i++) {
+                centimos += buffer.getLong(posicion(i) + CENTIMOS);
+            }
+            return centimos;
+        }
+
+        /** Primer registro con fecha igual o posterior a {@code desde}. */
+        private int indiceDesde(LocalDate desde) {
+            return desde == null ? 0 : primerDiaMayorOIgual(desde.toEpochDay());
+        }
+
+        /** Registro siguiente al último con fecha igual o anterior a {@code hasta}. */
+        private int indiceHasta(LocalDate hasta) {
+            return hasta == null ? cantidad : primerDiaMayorOIgual(hasta.toEpochDay() + 1);
+        }
+
+        private int primerDiaMayorOIgual(long dia) {
+            int bajo = 0;
+            int alto = cantidad;
+            while (bajo < alto) {
+                int medio = (bajo + alto) >>> 1;
+                if (buffer.getInt(posicion(medio) + DIA) < dia) {
+                    bajo = medio + 1;
+                } else {
+                    alto = medio;
+                }
+            }
+            return bajo;
+        }
+
+        private Gasto materializar(int indice) {
+            int posicion = posicion(indice);
+            Gasto gasto = new Gasto();
+            gasto.setId(leerCadena(buffer.getInt(posicion + ID)));
+            gasto.setCentimos(buffer.getLong(posicion + CENTIMOS));
+            gasto.setFecha(LocalDate.ofEpochDay(buffer.getInt(posicion + DIA)));
+            gasto.setDescripcion(leerCadena(buffer.getInt(posicion + DESCRIPCION)));
+            int categoria = buffer.getInt(posicion + CATEGORIA);
+            gasto.setCategoria(categoria != SIN_VALOR ? categorias[categoria] : null);
+            return gasto;
+        }
+
+        private String leerCadena(int posicion) {
+            if (posicion == SIN_VALOR) {
+                return null;
+            }
+            int longitud = buffer.getInt(inicioCadenas + posicion);
+            if (longitud < 0) {
+                return null;
+            }
+            byte[] bytes = new byte[longitud];
+            buffer.get(inicioCadenas + posicion + 4, bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        private int siguienteCadena(int posicion) {
+            return posicion + 4 + Math.max(0, buffer.getInt(inicioCadenas + posicion));
+        }
+    }
+
+    /**
+     * Montón de cadenas en construcción.
+     */
+    private static final class Monton {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream salida = new DataOutputStream(bytes);
+
+        /** Añade la cadena y devuelve su posición; una cadena nula no ocupa espacio. */
+        int anadir(String cadena) {
+            return cadena == null ? SIN_VALOR : escribir(cadena);
+        }
+
+        /** Añade siempre una entrada, con longitud -1 si la cadena es nula. */
+        int escribir(String cadena) {
+            int posicion = bytes.size();
+            try {
+                if (cadena == null) {
+                    salida.writeInt(-1);
+                } else {
+                    byte[] utf8 = cadena.getBytes(StandardCharsets.UTF_8);
+                    salida.writeInt(utf8.length);
+                    salida.write(utf8);
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException(e); // ByteArrayOutputStream no falla
+            }
+            return posicion;
+        }
+    }
+}
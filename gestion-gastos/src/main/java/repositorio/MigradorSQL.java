@@ -0,0 +1,58 @@
+package repositorio;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+
+/**
+ * Herramienta que importa un archivo de datos existente en la base de {@link RepositorioSQL}.
+ * <p>
+ * Acepta archivos JSON o Smile, en cualquier versión del esquema. El contenido de la base se
+ * sustituye por el del archivo en una sola transacción, así que se puede repetir sin duplicar
+ * datos. Uso:
+ * {@code java -cp gestion-gastos.jar repositorio.MigradorSQL [datos_gastos.json] [datos_gastos]}
+ * </p>
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+public final class MigradorSQL {
+
+    private MigradorSQL() {
+    }
+
+    public static void main(String[] args) {
+        Path origen = Path.of(args.length > 0 ? args[0] : RepositorioJSON.ARCHIVO_DATOS);
+        Path base = Path.of(args.length > 1 ? args[1] : RepositorioSQL.ARCHIVO_BASE);
+        try {
+            DatosAplicacion datos = migrar(origen, RepositorioSQL.urlArchivo(base));
+            System.out.println("✓ Importados " + datos.getGastos().size() + " gastos, " +
+                               datos.getCategorias().size() + " categorías, " +
+                               datos.getAlertas().size() + " alertas y " +
+                               datos.getCuentasCompartidas().size() + " cuentas en " + base);
+        } catch (IOException | SQLException e) {
+            System.err.println("✗ Error en la migración: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Importa {@code origen} en la base indicada por su URL JDBC.
+     *
+     * @return los datos importados
+     */
+    static DatosAplicacion migrar(Path origen, String urlBase) throws IOException, SQLException {
+        if (!Files.exists(origen)) {
+            throw new IOException("No existe el archivo " + origen);
+        }
+        DatosAplicacion datos = new CargadorStreaming(ConversorFormatos.mapperPara(origen)).cargar(origen);
+        RepositorioSQL repositorio = new RepositorioSQL(urlBase);
+        try {
+            repositorio.importar(datos);
+        } finally {
+            repositorio.cerrar();
+        }
+        return datos;
+    }
+}
@@ -1,16 +1,25 @@
 package repositorio;
 
 import dominio.*;
-import java.util.List;
+import java.util.*;
+import java.util.function.Function;
 
 /**
  * Interfaz que define las operaciones de persistencia para la aplicación.
  * <p>
  * Establece el contrato para guardar y recuperar gastos, categorías, alertas
- * 
+ *
  * y cuentas compartidas. Permite cambiar la implementación sin afectar al resto del sistema.
  * </p>
- * @version 1.0
+ * <p>
+ * Además de sustituir colecciones completas con {@code guardarX(List)}, permite insertar,
+ * actualizar y eliminar entidades sueltas o en lote. Insertar y actualizar sustituyen la
+ * entidad con el mismo id (o la añaden al final); eliminar ignora las que no estén. Las
+ * implementaciones por defecto se apoyan en {@code obtenerX()} y {@code guardarX(List)};
+ * los repositorios que persisten entidad a entidad las sobrescriben para no copiar ni
+ * reescribir las colecciones completas en cada cambio.
+ * </p>
+ * @version 1.3
  * @since 2025-11-14
 */
 public interface Repositorio {
@@ -27,4 +36,109 @@ public interface Repositorio {
     void guardarCuentasCompartidas(List<CuentaCompartida> cuentas);
     List<CuentaCompartida> obtenerTodasLasCuentas();
 
+    // ========== OPERACIONES POR ENTIDAD ==========
+
+    default void insertarGasto(Gasto gasto) { insertarGastos(List.of(gasto)); }
+    default void actualizarGasto(Gasto gasto) { actualizarGastos(List.of(gasto)); }
+    default void eliminarGasto(Gasto gasto) { eliminarGastos(List.of(gasto)); }
+
+    default void insertarGastos(List<Gasto> gastos) {
+        guardarGastos(sustituir(obtenerTodosLosGastos(), gastos, Gasto::getId));
+    }
+
+    default void actualizarGastos(List<Gasto> gastos) {
+        guardarGastos(sustituir(obtenerTodosLosGastos(), gastos, Gasto::getId));
+    }
+
+    default void eliminarGastos(List<Gasto> gastos) {
+        guardarGastos(quitar(obtenerTodosLosGastos(), gastos, Gasto::getId));
+    }
+
+    default void insertarCategoria(Categoria categoria) { insertarCategorias(List.of(categoria)); }
+    default void actualizarCategoria(Categoria categoria) { actualizarCategorias(List.of(categoria)); }
+    default void eliminarCategoria(Categoria categoria) { eliminarCategorias(List.of(categoria)); }
+
+    default void insertarCategorias(List<Categoria> categorias) {
+        guardarCategorias(sustituir(obtenerTodasLasCategorias(), categorias, Categoria::getId));
+    }
+
+    default void actualizarCategorias(List<Categoria> categorias) {
+        guardarCategorias(sustituir(obtenerTodasLasCategorias(), categorias, Categoria::getId));
+    }
+
+    default void eliminarCategorias(List<Categoria> categorias) {
+        guardarCategorias(quitar(obtenerTodasLasCategorias(), categorias, Categoria::getId));
+    }
+
+    default void insertarAlerta(Alerta alerta) { insertarAlertas(List.of(alerta)); }
+    default void actualizarAlerta(Alerta alerta) { actualizarAlertas(List.of(alerta)); }
+    default void eliminarAlerta(Alerta alerta) { eliminarAlertas(List.of(alerta)); }
+
+    default void insertarAlertas(List<Alerta> alertas) {
+        guardarAlertas(sustituir(obtenerTodasLasAlertas(), alertas, Alerta::getId));
+    }
+
+    default void actualizarAlertas(List<Alerta> alertas) {
+        guardarAlertas(sustituir(obtenerTodasLasAlertas(), alertas, Alerta::getId));
+    }
+
+    default void eliminarAlertas(List<Alerta> alertas) {
+        guardarAlertas(quitar(obtenerTodasLasAlertas(), alertas, Alerta::getId));
+    }
+
+    default void insertarCuenta(CuentaCompartida cuenta) { insertarCuentas(List.of(cuenta)); }
+    default void actualizarCuenta(CuentaCompartida cuenta) { actualizarCuentas(List.of(cuenta)); }
+    default void eliminarCuenta(CuentaCompartida cuenta) { eliminarCuentas(List.of(cuenta)); }
+
+    default void insertarCuentas(List<CuentaCompartida> cuentas) {
+        guardarCuentasCompartidas(sustituir(obtenerTodasLasCuentas(), cuentas, CuentaCompartida::getId));
+    }
+
+    default void actualizarCuentas(List<CuentaCompartida> cuentas) {
+        guardarCuentasCompartidas(sustituir(obtenerTodasLasCuentas(), cuentas, CuentaCompartida::getId));
+    }
+
+    default void eliminarCuentas(List<CuentaCompartida> cuentas) {
+        guardarCuentasCompartidas(quitar(obtenerTodasLasCuentas(), cuentas, CuentaCompartida::getId));
+    }
+
+    /**
+     * Hace que el repositorio lea las entidades de {@code fuente} en lugar de mantener sus
+     * propias colecciones, de modo que los datos en memoria existan una sola vez. Después de
+     * vincularlo, las operaciones de guardado solo indican qué ha cambiado en la fuente y
+     * {@code obtenerX()} devuelve copias de sus colecciones. Por defecto no hace nada.
+     */
+    default void vincular(FuenteDatos fuente) {
+    }
+
+    /**
+     * Gastos antiguos archivados fuera de {@link #obtenerTodosLosGastos()}, de solo lectura.
+     * Por defecto el repositorio no archiva y el histórico está vacío.
+     */
+    default HistoricoGastos historico() {
+        return HistoricoGastos.VACIO;
+    }
+
+    /**
+     * Escribe los cambios que estén pendientes y libera los recursos del repositorio.
+     * Las implementaciones que persisten de forma síncrona no necesitan hacer nada.
+     */
+    default void cerrar() {
+    }
+
+    private static <T> List<T> sustituir(List<T> actuales, List<T> entidades, Function<T, String> obtenerId) {
+        Map<String, T> porId = new LinkedHashMap<>();
+        actuales.forEach(entidad -> porId.put(obtenerId.apply(entidad), entidad));
+        entidades.forEach(entidad -> porId.put(obtenerId.apply(entidad), entidad));
+        return new ArrayList<>(porId.values());
+    }
+
+    private static <T> List<T> quitar(List<T> actuales, List<T> entidades, Function<T, String> obtenerId) {
+        Set<String> ids = new HashSet<>();
+        entidades.forEach(entidad -> ids.add(obtenerId.apply(entidad)));
+        List<T> restantes = new ArrayList<>(actuales);
+        restantes.removeIf(entidad -> ids.contains(obtenerId.apply(entidad)));
+        return restantes;
+    }
+
 }
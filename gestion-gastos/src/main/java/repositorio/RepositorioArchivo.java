@@ -0,0 +1,634 @@
+package repositorio;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import dominio.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Function;
+
+import repositorio.DiarioOperaciones.Registro;
+import repositorio.DiarioOperaciones.TipoEntidad;
+import repositorio.FormatoDatos.AlertaRegistro;
+import repositorio.FormatoDatos.CuentaRegistro;
+import repositorio.FormatoDatos.Documento;
+import repositorio.FormatoDatos.GastoRegistro;
+
+/**
+ * Base de los repositorios que guardan el estado completo en un archivo local.
+ * <p>
+ * Mantiene los datos en memoria y los sincroniza con el archivo tras cada operación de
+ * guardado. Las subclases solo eligen el formato de las instantáneas mediante el
+ * {@link ObjectMapper} que pasan al constructor (JSON en {@link RepositorioJSON}, Smile en
+ * {@link RepositorioBinario}); el resto del ciclo de persistencia es común.
+ * </p>
+ * <p>
+ * Los guardados solo marcan las colecciones como pendientes; un {@link EscritorDiferido}
+ * vuelca todos los cambios acumulados en una única escritura al final de la ventana
+ * configurada ({@link ConfiguracionPersistencia#ventanaMs()}), o de inmediato si es 0.
+ * Si se activa el modo diario ({@link ConfiguracionPersistencia#usarDiario()}), el volcado
+ * solo anexa al {@link DiarioOperaciones} las entidades insertadas, modificadas o eliminadas,
+ * y el archivo completo se reescribe únicamente al compactar el diario. El diario es
+ * siempre JSON de una línea por registro, sea cual sea el formato de las instantáneas.
+ * </p>
+ * <p>
+ * Todas las operaciones de escritura solo anotan los ids afectados: las operaciones por
+ * entidad ({@code insertarX}, {@code actualizarX}, {@code eliminarX}) los de las entidades
+ * recibidas, y {@code guardarX(List)} los de la colección anterior y la nueva. En modo diario
+ * el volcado escribe los registros de esas entidades sin serializar el resto ni guardar copia
+ * de lo escrito.
+ * </p>
+ * <p>
+ * Con {@link ConfiguracionPersistencia#mesesActivos()} mayor que 0, al abrir se mueven los
+ * gastos personales anteriores a ese periodo a un {@link HistoricoMapeado} junto al archivo
+ * de datos, y dejan de cargarse en memoria.
+ * </p>
+ * <p>
+ * Vinculado a una {@link FuenteDatos}, el repositorio no guarda colecciones propias y lee
+ * de la fuente lo que tiene que escribir.
+ * </p>
+ * <p>
+ * Las instantáneas siguen el esquema normalizado de {@link FormatoDatos}; un archivo en el
+ * esquema anterior se migra automáticamente al cargarlo.
+ * </p>
+ *
+ * @version 1.8
+ * @since 2026-10-17
+ */
+
+public abstract class RepositorioArchivo implements Repositorio {
+    private static final String SUFIJO_DIARIO = ".diario";
+    private static final String SUFIJO_HISTORICO = ".historico";
+    
+    private final Path archivoDatos;
+    private final AlmacenInstantaneas instantaneas;
+    
+    // Colecciones EN MEMORIA (Patrón Repositorio), indexadas por id. Protegidas por el
+    // cerrojo del repositorio: el volcado copia lo que necesita antes de escribir.
+    private final ColeccionesMemoria memoria = new ColeccionesMemoria();
+    
+    // Dependencia de Jackson (detalle de implementación): formato de las instantáneas
+    private final ObjectMapper objectMapper;
+    private final CargadorStreaming cargador;
+    
+    // Gastos archivados: se proyecta de nuevo tras cada archivado, nunca se modifica
+    private final Path archivoHistorico;
+    private volatile HistoricoGastos historico = HistoricoGastos.VACIO;
+    
+    // Modo diario: null si cada volcado reescribe el archivo completo
+    private final DiarioOperaciones diario;
+    private final DetectorCambios detectorCambios;
+    private final int compactarCada;
+    
+    // Escritura diferida: null si cada guardado se vuelca de forma síncrona
+    private final EscritorDiferido escritor;
+    private final CambiosPendientes pendientes = new CambiosPendientes();
+    private final Object cerrojoVolcado = new Object();
+    private boolean requiereInstantanea;
+    
+    protected RepositorioArchivo(Path archivoDatos, ConfiguracionPersistencia configuracion,
+                                 ObjectMapper mapperInstantaneas) {
+        this.archivoDatos = archivoDatos;
+        this.instantaneas = new AlmacenInstantaneas(archivoDatos, configuracion.generaciones());
+        this.archivoHistorico = archivoDatos.resolveSibling(archivoDatos.getFileName() + SUFIJO_HISTORICO);
+        
+        this.objectMapper = mapperInstantaneas;
+        this.cargador = new CargadorStreaming(objectMapper);
+        this.compactarCada = configuracion.compactarCada();
+        if (configuracion.usarDiario()) {
+            ObjectMapper mapperCompacto = configurarMapper(new ObjectMapper());
+            Path archivoDiario = archivoDatos.resolveSibling(archivoDatos.getFileName() + SUFIJO_DIARIO);
+            this.diario = new DiarioOperaciones(archivoDiario, mapperCompacto);
+            this.detectorCambios = new DetectorCambios(mapperCompacto);
+        } else {
+            this.diario = null;
+            this.detectorCambios = null;
+        }
+        
+        int versionCargada = cargarDatosDesdeArchivo(); // Carga inicial al instanciar
+        if (diario != null) {
+            reproducirDiario(versionCargada < FormatoDatos.VERSION_ACTUAL);
+        }
+        if (versionCargada < FormatoDatos.VERSION_ACTUAL) {
+            migrarFormato(versionCargada);
+        }
+        abrirHistorico(configuracion.mesesActivos());
+        
+        this.escritor = configuracion.ventanaMs() > 0
+            ? new EscritorDiferido(this::volcarCambios, configuracion.ventanaMs())
+            : null;
+    }
+    
+    /**
+     * Aplica la configuración común a los mappers de instantáneas y del diario.
+     */
+    protected static ObjectMapper configurarMapper(ObjectMapper mapper) {
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS);
+        return mapper;
+    }
+    
+    // ========== OPERACIONES CRUD (Interfaz pública) ==========
+    
+    @Override
+    public void guardarGastos(List<Gasto> gastos) {
+        reemplazar(TipoEntidad.GASTO, memoria.gastos, gastos);
+    }
+    
+    @Override
+    public synchronized List<Gasto> obtenerTodosLosGastos() {
+        return memoria.gastos.todos(); // Copia defensiva
+    }
+    
+    @Override
+    public void guardarCategorias(List<Categoria> categorias) {
+        reemplazar(TipoEntidad.CATEGORIA, memoria.categorias, categorias);
+    }
+    
+    @Override
+    public synchronized List<Categoria> obtenerTodasLasCategorias() {
+        return memoria.categorias.todos();
+    }
+    
+    @Override
+    public void guardarAlertas(List<Alerta> alertas) {
+        reemplazar(TipoEntidad.ALERTA, memoria.alertas, alertas);
+    }
+    
+    @Override
+    public synchronized List<Alerta> obtenerTodasLasAlertas() {
+        return memoria.alertas.todos();
+    }
+    
+    @Override
+    public void guardarCuentasCompartidas(List<CuentaCompartida> cuentas) {
+        reemplazar(TipoEntidad.CUENTA, memoria.cuentas, cuentas);
+    }
+    
+    @Override
+    public synchronized List<CuentaCompartida> obtenerTodasLasCuentas() {
+        return memoria.cuentas.todos();
+    }
+    
+    // ========== OPERACIONES POR ENTIDAD ==========
+    
+    @Override
+    public void insertarGastos(List<Gasto> gastos) {
+        poner(TipoEntidad.GASTO, memoria.gastos, gastos);
+    }
+    
+    @Override
+    public void actualizarGastos(List<Gasto> gastos) {
+        poner(TipoEntidad.GASTO, memoria.gastos, gastos);
+    }
+    
+    @Override
+    public void eliminarGastos(List<Gasto> gastos) {
+        quitar(TipoEntidad.GASTO, memoria.gastos, gastos);
+    }
+    
+    @Override
+    public void insertarCategorias(List<Categoria> categorias) {
+        poner(TipoEntidad.CATEGORIA, memoria.categorias, categorias);
+    }
+    
+    @Override
+    public void actualizarCategorias(List<Categoria> categorias) {
+        poner(TipoEntidad.CATEGORIA, memoria.categorias, categorias);
+    }
+    
+    @Override
+    public void eliminarCategorias(List<Categoria> categorias) {
+        quitar(TipoEntidad.CATEGORIA, memoria.categorias, categorias);
+    }
+    
+    @Override
+    public void insertarAlertas(List<Alerta> alertas) {
+        poner(TipoEntidad.ALERTA, memoria.alertas, alertas);
+    }
+    
+    @Override
+    public void actualizarAlertas(List<Alerta> alertas) {
+        poner(TipoEntidad.ALERTA, memoria.alertas, alertas);
+    }
+    
+    @Override
+    public void eliminarAlertas(List<Alerta> alertas) {
+        quitar(TipoEntidad.ALERTA, memoria.alertas, alertas);
+    }
+    
+    @Override
+    public void insertarCuentas(List<CuentaCompartida> cuentas) {
+        poner(TipoEntidad.CUENTA, memoria.cuentas, cuentas);
+    }
+    
+    @Override
+    public void actualizarCuentas(List<CuentaCompartida> cuentas) {
+        poner(TipoEntidad.CUENTA, memoria.cuentas, cuentas);
+    }
+    
+    @Override
+    public void eliminarCuentas(List<CuentaCompartida> cuentas) {
+        quitar(TipoEntidad.CUENTA, memoria.cuentas, cuentas);
+    }
+    
+    /**
+     * Tras vincularse, las categorías de la fuente se escriben una vez, porque la aplicación
+     * puede haber añadido las suyas por defecto al cargar.
+     */
+    @Override
+    public void vincular(FuenteDatos fuente) {
+        synchronized (this) {
+            memoria.vincular(fuente);
+            for (Categoria categoria : memoria.categorias.valores()) {
+                pendientes.marcar(TipoEntidad.CATEGORIA, categoria.getId());
+            }
+        }
+        programarVolcado();
+    }
+    
+    @Override
+    public HistoricoGastos historico() {
+        return historico;
+    }
+    
+    /**
+     * Vuelca los cambios pendientes y detiene la escritura en segundo plano.
+     */
+    @Override
+    public void cerrar() {
+        if (escritor != null) {
+            escritor.cerrar();
+        } else {
+            volcarCambios();
+        }
+    }
+    
+    // ========== DETALLES DE IMPLEMENTACIÓN (privados) ==========
+    
+    /**
+     * Carga datos desde el archivo (solo durante inicialización) con el cargador en streaming,
+     * que deja cada gasto en la colección en memoria según lo lee: el único contenedor de
+     * todos los gastos durante la carga es esa colección. Si una copia falla a medias, la
+     * siguiente empieza con la colección vacía.
+     * PRIVADO: No expuesto en interfaz Repositorio.
+     * 
+     * @return versión del formato del archivo cargado (la actual si no había archivo)
+     */
+    private int cargarDatosDesdeArchivo() {
+        if (!instantaneas.existe()) {
+            System.out.println("⚠ No se encontró archivo de datos. Iniciando con datos vacíos.");
+            return FormatoDatos.VERSION_ACTUAL;
+        }
+        
+        Optional<DatosAplicacion> cargados = instantaneas.cargar(
+            archivo -> cargador.cargar(archivo, memoria.destinoGastos()));
+        if (cargados.isEmpty()) {
+            memoria.gastos.reemplazar(null);
+            System.err.println("✗ Error al cargar datos: ninguna copia del archivo de datos es válida");
+            return FormatoDatos.VERSION_ACTUAL;
+        }
+        
+        DatosAplicacion datos = cargados.get();
+        memoria.cargarSinGastos(datos);
+        
+        // Recrear estrategias de alertas (transitorias, no serializadas)
+        memoria.alertas.valores().forEach(alerta -> alerta.getEstrategia());
+        
+        System.out.println("✓ Datos cargados: " + memoria.gastos.tamano() + " gastos, " + 
+                         memoria.categorias.tamano() + " categorías");
+        return datos.versionFormato();
+    }
+    
+    /**
+     * Reescribe en el formato actual un archivo cargado en un formato anterior. La copia
+     * original se conserva como generación anterior si las generaciones están activas.
+     */
+    private void migrarFormato(int versionCargada) {
+        DatosAplicacion estado = memoria.aDatos();
+        try {
+            if (diario != null) {
+                compactarDiario(FormatoDatos.aDocumento(estado));
+            } else {
+                persistirEnArchivo(FormatoDatos.aDocumento(estado));
+            }
+            System.out.println("✓ Archivo de datos migrado del formato " + versionCargada +
+                               " al formato " + FormatoDatos.VERSION_ACTUAL);
+        } catch (IOException e) {
+            System.err.println("✗ Error al migrar el archivo de datos: " + e.getMessage());
+            requiereInstantanea = diario != null;
+        }
+    }
+    
+    /**
+     * Proyecta el histórico existente, devuelve al periodo activo los gastos archivados que
+     * ya no quedan antes de él (porque {@code mesesActivos} ha bajado o es 0) y, si
+     * {@code mesesActivos} es mayor que 0, archiva los gastos personales anteriores.
+     */
+    private void abrirHistorico(int mesesActivos) {
+        try {
+            LocalDate corte = mesesActivos > 0 ? LocalDate.now().withDayOfMonth(1).minusMonths(mesesActivos) : null;
+            HistoricoMapeado mapeado = Files.exists(archivoHistorico) ? proyectarHistorico() : null;
+            if (mapeado != null) {
+                mapeado = restaurarArchivados(mapeado, corte);
+            }
+            if (corte != null) {
+                mapeado = archivarAnteriores(mapeado, corte);
+            }
+            historico = mapeado != null ? mapeado : HistoricoGastos.VACIO;
+        } catch (IOException e) {
+            System.err.println("✗ Error al abrir el histórico de gastos: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Devuelve a las colecciones en memoria los archivados desde {@code corte} (todos si es
+     * null). Primero se escribe el archivo de datos y después el histórico sin ellos: si el
+     * proceso se interrumpe entre ambas escrituras, la siguiente apertura los encuentra ya
+     * cargados y solo termina de reescribir el histórico.
+     *
+     * @return el histórico que queda, o null si se ha quedado vacío
+     */
+    private HistoricoMapeado restaurarArchivados(HistoricoMapeado mapeado, LocalDate corte) throws IOException {
+        List<Gasto> restaurables = mapeado.gastosEntre(corte, null);
+        if (restaurables.isEmpty()) {
+            return mapeado;
+        }
+        
+        restaurables.stream()
+            .filter(gasto -> !memoria.gastos.contiene(gasto.getId()))
+            .forEach(memoria.gastos::poner);
+        escribirInstantanea();
+        List<Gasto> quedan = corte != null ? mapeado.gastosEntre(null, corte.minusDays(1)) : List.of();
+        if (quedan.isEmpty()) {
+            Files.delete(archivoHistorico);
+        } else {
+            HistoricoMapeado.escribir(archivoHistorico, quedan);
+        }
+        System.out.println("✓ Gastos devueltos del histórico: " + restaurables.size());
+        return quedan.isEmpty() ? null : proyectarHistorico();
+    }
+    
+    /**
+     * Anexa al histórico los gastos personales anteriores a {@code corte} y los quita del
+     * archivo de datos. El histórico se escribe antes: si el proceso se interrumpe entre ambas
+     * escrituras, en la siguiente apertura los que ya estaban archivados no se anexan otra vez.
+     */
+    private HistoricoMapeado archivarAnteriores(HistoricoMapeado mapeado, LocalDate corte) throws IOException {
+        List<Gasto> archivables = memoria.gastos.valores().stream()
+            .filter(gasto -> gasto.getPagador() == null && gasto.getFecha() != null
+                             && gasto.getFecha().isBefore(corte))
+            .toList();
+        if (archivables.isEmpty()) {
+            return mapeado;
+        }
+        
+        LocalDate masAntiguo = archivables.stream().map(Gasto::getFecha).min(LocalDate::compareTo).get();
+        Set<String> yaArchivados = mapeado != null ? mapeado.idsEntre(masAntiguo, corte) : Set.of();
+        List<Gasto> nuevos = archivables.stream()
+            .filter(gasto -> !yaArchivados.contains(gasto.getId()))
+            .toList();
+        if (!nuevos.isEmpty()) {
+            HistoricoMapeado.anadir(archivoHistorico, nuevos);
+        }
+        
+        archivables.forEach(gasto -> memoria.gastos.quitar(gasto.getId()));
+        escribirInstantanea();
+        mapeado = proyectarHistorico();
+        System.out.println("✓ Gastos archivados en el histórico: " + archivables.size() +
+                           " (total " + mapeado.cantidad() + ")");
+        return mapeado;
+    }
+    
+    private HistoricoMapeado proyectarHistorico() throws IOException {
+        return HistoricoMapeado.abrir(archivoHistorico, memoria.categorias::buscar);
+    }
+    
+    /**
+     * Escribe el estado en memoria como instantánea completa, vaciando el diario si lo hay.
+     */
+    private void escribirInstantanea() throws IOException {
+        Documento documento = FormatoDatos.aDocumento(memoria.aDatos());
+        if (diario != null) {
+            compactarDiario(documento);
+        } else {
+            persistirEnArchivo(documento);
+        }
+    }
+    
+    /**
+     * Persiste el documento indicado en el archivo mediante una escritura atómica.
+     * PRIVADO: Invocado desde el volcado de cambios pendientes.
+     */
+    private void persistirEnArchivo(Documento documento) throws IOException {
+        instantaneas.escribir(salida -> objectMapper.writeValue(salida, documento));
+    }
+    
+    /**
+     * Sustituye la colección y anota los ids que había y los que hay: los borrados, los
+     * nuevos y los que pueden haber cambiado en el sitio.
+     */
+    private <T> void reemplazar(TipoEntidad tipo, ColeccionesMemoria.Coleccion<T> coleccion, List<T> entidades) {
+        synchronized (this) {
+            coleccion.reemplazar(entidades).forEach(id -> pendientes.marcar(tipo, id));
+        }
+        programarVolcado();
+    }
+    
+    private <T> void poner(TipoEntidad tipo, ColeccionesMemoria.Coleccion<T> coleccion, List<T> entidades) {
+        synchronized (this) {
+            for (T entidad : entidades) {
+                coleccion.poner(entidad);
+                pendientes.marcar(tipo, coleccion.idDe(entidad));
+            }
+        }
+        programarVolcado();
+    }
+    
+    private <T> void quitar(TipoEntidad tipo, ColeccionesMemoria.Coleccion<T> coleccion, List<T> entidades) {
+        synchronized (this) {
+            for (T entidad : entidades) {
+                String id = coleccion.idDe(entidad);
+                coleccion.quitar(id);
+                pendientes.marcar(tipo, id);
+            }
+        }
+        programarVolcado();
+    }
+    
+    private void programarVolcado() {
+        if (escritor != null) {
+            escritor.programar();
+        } else {
+            volcarCambios();
+        }
+    }
+    
+    /**
+     * Escribe en una sola operación todos los cambios acumulados desde el último volcado:
+     * en modo diario anexa los registros de las entidades anotadas, o escribe directamente
+     * una instantánea si con ellos el diario alcanzaría el umbral de compactación; si no,
+     * reescribe el archivo completo.
+     * <p>
+     * Los registros o el documento se construyen bajo el cerrojo del repositorio, y con fuente
+     * dentro de {@link FuenteDatos#leer}; son copias que ya no comparten nada con el dominio,
+     * así que serializarlos fuera de los cerrojos no ve cambios a medias. Si algo falla, sea
+     * cual sea la excepción, los cambios extraídos vuelven a quedar pendientes y el escritor
+     * diferido programa otro intento.
+     * </p>
+     */
+    private void volcarCambios() {
+        if (!intentarVolcado() && escritor != null) {
+            // Fuera de cerrojoVolcado: el escritor puede estar volcando bajo su propio cerrojo
+            escritor.reintentar();
+        }
+    }
+
+    /**
+     * Hace el volcado; false si ha fallado y los cambios siguen pendientes.
+     */
+    private boolean intentarVolcado() {
+        synchronized (cerrojoVolcado) {
+            CambiosPendientes cambios = null;
+            try {
+                List<Registro> registros = null;
+                Documento documento = null;
+                synchronized (this) {
+                    if (pendientes.vacio()) {
+                        return true;
+                    }
+                    cambios = pendientes.extraer();
+                    boolean parcial = diario != null && !requiereInstantanea
+                        && diario.cantidadRegistros() + cambios.cantidadIds() < compactarCada;
+                    Map<TipoEntidad, Set<String>> ids = cambios.ids();
+                    if (parcial) {
+                        registros = memoria.leer(() -> memoria.registros(ids, detectorCambios));
+                    } else {
+                        documento = memoria.leer(() -> FormatoDatos.aDocumento(memoria.aDatos()));
+                    }
+                }
+                
+                if (registros != null) {
+                    diario.registrar(registros);
+                } else if (diario == null) {
+                    persistirEnArchivo(documento);
+                } else {
+                    compactarDiario(documento);
+                }
+                return true;
+            } catch (Exception e) {
+                System.err.println("✗ Error al guardar datos: " + e.getMessage());
+                e.printStackTrace();
+                // El detector puede haber dado por escrito lo que no llegó al disco:
+                // el siguiente volcado escribe una instantánea completa
+                requiereInstantanea = diario != null;
+                synchronized (this) {
+                    pendientes.incorporar(cambios);
+                }
+                return false;
+            }
+        }
+    }
+    
+    /**
+     * Consolida el estado en una instantánea completa y vacía el diario.
+     */
+    private void compactarDiario(Documento documento) throws IOException {
+        persistirEnArchivo(documento);
+        diario.vaciar();
+        detectorCambios.sincronizar(documento);
+        requiereInstantanea = false;
+    }
+    
+    /**
+     * Aplica sobre la instantánea cargada las operaciones registradas en el diario.
+     * Los registros describen las entidades en el mismo formato que la instantánea: un
+     * diario escrito junto a una instantánea del formato 1 contiene entidades incrustadas.
+     */
+    private void reproducirDiario(boolean formatoLegado) {
+        try {
+            List<Registro> registros = diario.leer();
+            if (!registros.isEmpty()) {
+                DatosAplicacion datos = formatoLegado
+                    ? reproducirRegistrosLegado(registros)
+                    : reproducirRegistros(registros);
+                
+                memoria.cargar(datos);
+                memoria.alertas.valores().forEach(alerta -> alerta.getEstrategia());
+                
+                System.out.println("✓ Diario reproducido: " + registros.size() + " operaciones");
+            }
+        } catch (IOException e) {
+            System.err.println("✗ Error al leer el diario: " + e.getMessage());
+            e.printStackTrace();
+        }
+        
+        detectorCambios.sincronizar(FormatoDatos.aDocumento(memoria.aDatos()));
+    }
+    
+    private DatosAplicacion reproducirRegistros(List<Registro> registros) throws IOException {
+        Documento documento = FormatoDatos.aDocumento(memoria.aDatos());
+        Map<String, GastoRegistro> gastosPorId = indexarPorId(documento.getGastos(), GastoRegistro::getId);
+        Map<String, Categoria> categoriasPorId = indexarPorId(documento.getCategorias(), Categoria::getId);
+        Map<String, AlertaRegistro> alertasPorId = indexarPorId(documento.getAlertas(), AlertaRegistro::getId);
+        Map<String, CuentaRegistro> cuentasPorId = indexarPorId(documento.getCuentasCompartidas(), CuentaRegistro::getId);
+        Map<String, Categoria> referenciadasPorId = indexarPorId(documento.getCategoriasReferenciadas(), Categoria::getId);
+        Map<String, GastoRegistro> gastosCuentasPorId = indexarPorId(documento.getGastosCuentas(), GastoRegistro::getId);
+        
+        for (Registro registro : registros) {
+            switch (registro.getTipo()) {
+                case GASTO -> aplicarRegistro(gastosPorId, registro, GastoRegistro.class);
+                case CATEGORIA -> aplicarRegistro(categoriasPorId, registro, Categoria.class);
+                case ALERTA -> aplicarRegistro(alertasPorId, registro, AlertaRegistro.class);
+                case CUENTA -> aplicarRegistro(cuentasPorId, registro, CuentaRegistro.class);
+                case CATEGORIA_REFERENCIADA -> aplicarRegistro(referenciadasPorId, registro, Categoria.class);
+                case GASTO_CUENTA -> aplicarRegistro(gastosCuentasPorId, registro, GastoRegistro.class);
+            }
+        }
+        
+        return FormatoDatos.reconstruir(new Documento(
+            new ArrayList<>(categoriasPorId.values()), new ArrayList<>(referenciadasPorId.values()),
+            new ArrayList<>(cuentasPorId.values()), new ArrayList<>(gastosPorId.values()),
+            new ArrayList<>(gastosCuentasPorId.values()), new ArrayList<>(alertasPorId.values())));
+    }
+    
+    private DatosAplicacion reproducirRegistrosLegado(List<Registro> registros) throws IOException {
+        Map<String, Gasto> gastosPorId = indexarPorId(memoria.gastos.todos(), Gasto::getId);
+        Map<String, Categoria> categoriasPorId = indexarPorId(memoria.categorias.todos(), Categoria::getId);
+        Map<String, Alerta> alertasPorId = indexarPorId(memoria.alertas.todos(), Alerta::getId);
+        Map<String, CuentaCompartida> cuentasPorId = indexarPorId(memoria.cuentas.todos(), CuentaCompartida::getId);
+        
+        for (Registro registro : registros) {
+            switch (registro.getTipo()) {
+                case GASTO -> aplicarRegistro(gastosPorId, registro, Gasto.class);
+                case CATEGORIA -> aplicarRegistro(categoriasPorId, registro, Categoria.class);
+                case ALERTA -> aplicarRegistro(alertasPorId, registro, Alerta.class);
+                case CUENTA -> aplicarRegistro(cuentasPorId, registro, CuentaCompartida.class);
+                default -> { }
+            }
+        }
+        
+        // Pasar por el formato normalizado unifica las copias incrustadas en los registros
+        return FormatoDatos.reconstruir(FormatoDatos.aDocumento(new DatosAplicacion(
+            new ArrayList<>(gastosPorId.values()), new ArrayList<>(categoriasPorId.values()),
+            new ArrayList<>(alertasPorId.values()), new ArrayList<>(cuentasPorId.values()))));
+    }
+    
+    private static <T> Map<String, T> indexarPorId(List<T> entidades, Function<T, String> obtenerId) {
+        Map<String, T> porId = new LinkedHashMap<>();
+        entidades.forEach(entidad -> porId.put(obtenerId.apply(entidad), entidad));
+        return porId;
+    }
+    
+    private <T> void aplicarRegistro(Map<String, T> porId, Registro registro, Class<T> clase) throws IOException {
+        switch (registro.getOperacion()) {
+            case ELIMINAR -> porId.remove(registro.getId());
+            case INSERTAR, ACTUALIZAR -> porId.put(registro.getId(), objectMapper.treeToValue(registro.getDatos(), clase));
+        }
+    }
+}
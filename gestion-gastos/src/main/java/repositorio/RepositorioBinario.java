@@ -0,0 +1,83 @@
+package repositorio;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+
+/**
+ * Implementación Singleton de repositorio que persiste datos en formato binario Smile.
+ * <p>
+ * Smile es la codificación binaria de JSON de Jackson: el esquema del archivo es el mismo
+ * que en {@link RepositorioJSON}, pero los números se escriben en binario y los nombres de
+ * campo y los valores de texto repetidos (ids de categoría y de pagador, descripciones) se
+ * escriben una vez y después se referencian, lo que reduce el tamaño y el tiempo de carga.
+ * Las fechas se guardan como número de días desde 1970-01-01 en lugar de como texto.
+ * Se puede convertir un archivo de un formato a otro con {@link ConversorFormatos}.
+ * </p>
+ *
+ * @version 1.0
+ * @since 2026-10-17
+ */
+
+public class RepositorioBinario extends RepositorioArchivo {
+    private static RepositorioBinario instancia;
+    static final String ARCHIVO_DATOS = "datos_gastos.smile";
+    
+    private RepositorioBinario() {
+        this(Path.of(ARCHIVO_DATOS), ConfiguracionPersistencia.desdeSistema());
+    }
+    
+    RepositorioBinario(Path archivoDatos, ConfiguracionPersistencia configuracion) {
+        super(archivoDatos, configuracion, crearMapper());
+    }
+    
+    public static synchronized RepositorioBinario getInstancia() {
+        if (instancia == null) {
+            instancia = new RepositorioBinario();
+        }
+        return instancia;
+    }
+    
+    static ObjectMapper crearMapper() {
+        SmileFactory factoria = SmileFactory.builder()
+            .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+            .build();
+        ObjectMapper mapper = configurarMapper(new ObjectMapper(factoria));
+        SimpleModule fechas = new SimpleModule("FechasComoDias");
+        fechas.addSerializer(LocalDate.class, new FechaComoDiasSerializer());
+        fechas.addDeserializer(LocalDate.class, new FechaComoDiasDeserializer());
+        return mapper.registerModule(fechas);
+    }
+    
+    private static class FechaComoDiasSerializer extends JsonSerializer<LocalDate> {
+        @Override
+        public void serialize(LocalDate fecha, JsonGenerator generador, SerializerProvider proveedor)
+                throws IOException {
+            generador.writeNumber(fecha.toEpochDay());
+        }
+    }
+    
+    /**
+     * Acepta también fechas en texto ISO, por si el archivo se generó sin el módulo.
+     */
+    private static class FechaComoDiasDeserializer extends JsonDeserializer<LocalDate> {
+        @Override
+        public LocalDate deserialize(JsonParser parser, DeserializationContext contexto) throws IOException {
+            if (parser.currentToken() == JsonToken.VALUE_NUMBER_INT) {
+                return LocalDate.ofEpochDay(parser.getLongValue());
+            }
+            return LocalDate.parse(parser.getValueAsString());
+        }
+    }
+}
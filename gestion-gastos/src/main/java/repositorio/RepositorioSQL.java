@@ -0,0 +1,637 @@
+package repositorio;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dominio.*;
+import dominio.enums.PeriodoTemporal;
+import dominio.enums.TipoDistribucion;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.*;
+
+import repositorio.DiarioOperaciones.Registro;
+import repositorio.DiarioOperaciones.TipoEntidad;
+import repositorio.FormatoDatos.AlertaRegistro;
+import repositorio.FormatoDatos.CuentaRegistro;
+import repositorio.FormatoDatos.Documento;
+import repositorio.FormatoDatos.GastoRegistro;
+
+/**
+ * Implementación Singleton de repositorio sobre una base de datos H2 embebida en archivo.
+ * <p>
+ * La base se ejecuta dentro del proceso, sin servidor, en {@code datos_gastos.mv.db}. Cada
+ * entidad es una fila y cada guardado escribe solo las filas que han cambiado: el
+ * {@link DetectorCambios} compara con el último estado escrito solo las entidades afectadas y
+ * las diferencias se aplican en una única transacción. Las operaciones por entidad
+ * ({@code insertarX}, {@code actualizarX}, {@code eliminarX}) escriben las filas de las
+ * entidades recibidas; {@code guardarX(List)} escribe las de las entidades que había y las
+ * que hay, sin construir ni comparar el resto del estado. Guardar un gasto nuevo es, por
+ * tanto, una sola inserción. La tabla de gastos tiene índices por fecha y por categoría. Las filas
+ * se leen en orden de inserción, que es el de las listas en memoria.
+ * </p>
+ * <p>
+ * Las tablas siguen el esquema normalizado de {@link FormatoDatos}: gastos y alertas guardan
+ * el id de su categoría y las cuentas enlazan sus gastos por id. Los datos de un
+ * {@code datos_gastos.json} existente se importan con {@link MigradorSQL}.
+ * </p>
+ * <p>
+ * Los importes y saldos son columnas {@code DECIMAL(15, 2)} que se leen y escriben con
+ * {@link java.math.BigDecimal}, sin pasar por {@code double}. Las bases creadas cuando
+ * eran {@code DOUBLE} se convierten al abrirlas.
+ * </p>
+ * <p>
+ * Si una escritura falla, la transacción se deshace pero los cambios en memoria se
+ * conservan: sus ids quedan pendientes, se incluyen en la siguiente escritura y, mientras
+ * tanto, un {@link EscritorDiferido} los reintenta con una espera que crece en cada fallo,
+ * como en {@link RepositorioArchivo}.
+ * </p>
+ *
+ * @version 1.6
+ * @since 2026-10-17
+ */
+
+public class RepositorioSQL implements Repositorio {
+    private static RepositorioSQL instancia;
+    static final String ARCHIVO_BASE = "datos_gastos";
+
+    private static final String IMPORTE = "DECIMAL(15, 2)";
+
+    /** Espera hasta el primer reintento de una escritura fallida. */
+    static final long ESPERA_REINTENTO_MS = 1_000;
+
+    /** Columnas de importes: tabla y columna. */
+    private static final String[][] COLUMNAS_IMPORTE = {
+        {"GASTOS", "CANTIDAD"}, {"ALERTAS", "LIMITE_GASTO"}, {"PERSONAS", "SALDO"}
+    };
+
+    private static final String[] ESQUEMA = {
+        "CREATE TABLE IF NOT EXISTS categorias (" +
+            "id VARCHAR(64) PRIMARY KEY, nombre VARCHAR(255), descripcion VARCHAR(1024), " +
+            "en_lista BOOLEAN NOT NULL)",
+        "CREATE TABLE IF NOT EXISTS gastos (" +
+            "id VARCHAR(64) PRIMARY KEY, cantidad " + IMPORTE + " NOT NULL, fecha DATE, " +
+            "descripcion VARCHAR(1024), categoria_id VARCHAR(64), pagador_id VARCHAR(64), " +
+            "en_lista BOOLEAN NOT NULL)",
+        "CREATE INDEX IF NOT EXISTS idx_gastos_fecha ON gastos(fecha)",
+        "CREATE INDEX IF NOT EXISTS idx_gastos_categoria ON gastos(categoria_id)",
+        "CREATE TABLE IF NOT EXISTS alertas (" +
+            "id VARCHAR(64) PRIMARY KEY, limite_gasto " + IMPORTE + " NOT NULL, periodo VARCHAR(32), " +
+            "categoria_id VARCHAR(64), activa BOOLEAN NOT NULL, notificaciones CLOB)",
+        "CREATE TABLE IF NOT EXISTS cuentas (" +
+            "id VARCHAR(64) PRIMARY KEY, nombre VARCHAR(255), tipo_distribucion VARCHAR(32))",
+        "CREATE TABLE IF NOT EXISTS personas (" +
+            "cuenta_id VARCHAR(64) NOT NULL, id VARCHAR(64) NOT NULL, nombre VARCHAR(255), " +
+            "porcentaje_gasto DOUBLE NOT NULL, saldo " + IMPORTE + " NOT NULL, orden INT NOT NULL, " +
+            "PRIMARY KEY (cuenta_id, id))",
+        "CREATE TABLE IF NOT EXISTS cuenta_gastos (" +
+            "cuenta_id VARCHAR(64) NOT NULL, gasto_id VARCHAR(64) NOT NULL, orden INT NOT NULL, " +
+            "PRIMARY KEY (cuenta_id, orden))"
+    };
+
+    private final Connection conexion;
+    private final Map<String, PreparedStatement> sentencias = new HashMap<>();
+    private final ObjectMapper mapper;
+    private final DetectorCambios detectorCambios;
+
+    // Colecciones EN MEMORIA, como en RepositorioArchivo; la base es la copia persistente
+    private final ColeccionesMemoria memoria = new ColeccionesMemoria();
+
+    // Cambios que no se han podido escribir; el escritor se crea con el primer fallo
+    private final CambiosPendientes pendientes = new CambiosPendientes();
+    private EscritorDiferido reintentos;
+    private boolean releerAntesDeEscribir;
+    private boolean cerrado;
+
+    private RepositorioSQL() throws SQLException {
+        this(urlArchivo(Path.of(ARCHIVO_BASE)));
+    }
+
+    RepositorioSQL(String url) throws SQLException {
+        this.conexion = DriverManager.getConnection(url);
+        this.mapper = RepositorioArchivo.configurarMapper(new ObjectMapper());
+        this.detectorCambios = new DetectorCambios(mapper);
+        crearEsquema();
+        cargarDatos();
+    }
+
+    public static synchronized RepositorioSQL getInstancia() {
+        if (instancia == null) {
+            try {
+                instancia = new RepositorioSQL();
+            } catch (SQLException e) {
+                throw new IllegalStateException("No se pudo abrir la base de datos: " + e.getMessage(), e);
+            }
+        }
+        return instancia;
+    }
+
+    /**
+     * URL JDBC de una base H2 en archivo; H2 añade la extensión {@code .mv.db}.
+     */
+    static String urlArchivo(Path base) {
+        return "jdbc:h2:file:" + base.toAbsolutePath();
+    }
+
+    // ========== OPERACIONES CRUD (Interfaz pública) ==========
+
+    @Override
+    public synchronized void guardarGastos(List<Gasto> gastos) {
+        escribirCambios(TipoEntidad.GASTO, memoria.gastos.reemplazar(gastos));
+    }
+
+    @Override
+    public synchronized List<Gasto> obtenerTodosLosGastos() {
+        return memoria.gastos.todos();
+    }
+
+    @Override
+    public synchronized void guardarCategorias(List<Categoria> categorias) {
+        escribirCambios(TipoEntidad.CATEGORIA, memoria.categorias.reemplazar(categorias));
+    }
+
+    @Override
+    public synchronized List<Categoria> obtenerTodasLasCategorias() {
+        return memoria.categorias.todos();
+    }
+
+    @Override
+    public synchronized void guardarAlertas(List<Alerta> alertas) {
+        escribirCambios(TipoEntidad.ALERTA, memoria.alertas.reemplazar(alertas));
+    }
+
+    @Override
+    public synchronized List<Alerta> obtenerTodasLasAlertas() {
+        return memoria.alertas.todos();
+    }
+
+    @Override
+    public synchronized void guardarCuentasCompartidas(List<CuentaCompartida> cuentas) {
+        escribirCambios(TipoEntidad.CUENTA, memoria.cuentas.reemplazar(cuentas));
+    }
+
+    @Override
+    public synchronized List<CuentaCompartida> obtenerTodasLasCuentas() {
+        return memoria.cuentas.todos();
+    }
+
+    // ========== OPERACIONES POR ENTIDAD ==========
+
+    @Override
+    public void insertarGastos(List<Gasto> gastos) {
+        poner(TipoEntidad.GASTO, memoria.gastos, gastos);
+    }
+
+    @Override
+    public void actualizarGastos(List<Gasto> gastos) {
+        poner(TipoEntidad.GASTO, memoria.gastos, gastos);
+    }
+
+    @Override
+    public void eliminarGastos(List<Gasto> gastos) {
+        quitar(TipoEntidad.GASTO, memoria.gastos, gastos);
+    }
+
+    @Override
+    public void insertarCategorias(List<Categoria> categorias) {
+        poner(TipoEntidad.CATEGORIA, memoria.categorias, categorias);
+    }
+
+    @Override
+    public void actualizarCategorias(List<Categoria> categorias) {
+        poner(TipoEntidad.CATEGORIA, memoria.categorias, categorias);
+    }
+
+    @Override
+    public void eliminarCategorias(List<Categoria> categorias) {
+        quitar(TipoEntidad.CATEGORIA, memoria.categorias, categorias);
+    }
+
+    @Override
+    public void insertarAlertas(List<Alerta> alertas) {
+        poner(TipoEntidad.ALERTA, memoria.alertas, alertas);
+    }
+
+    @Override
+    public void actualizarAlertas(List<Alerta> alertas) {
+        poner(TipoEntidad.ALERTA, memoria.alertas, alertas);
+    }
+
+    @Override
+    public void eliminarAlertas(List<Alerta> alertas) {
+        quitar(TipoEntidad.ALERTA, memoria.alertas, alertas);
+    }
+
+    @Override
+    public void insertarCuentas(List<CuentaCompartida> cuentas) {
+        poner(TipoEntidad.CUENTA, memoria.cuentas, cuentas);
+    }
+
+    @Override
+    public void actualizarCuentas(List<CuentaCompartida> cuentas) {
+        poner(TipoEntidad.CUENTA, memoria.cuentas, cuentas);
+    }
+
+    @Override
+    public void eliminarCuentas(List<CuentaCompartida> cuentas) {
+        quitar(TipoEntidad.CUENTA, memoria.cuentas, cuentas);
+    }
+
+    /**
+     * Como en {@link RepositorioArchivo#vincular}, las categorías se escriben una vez al vincular.
+     */
+    @Override
+    public synchronized void vincular(FuenteDatos fuente) {
+        memoria.vincular(fuente);
+        Set<String> ids = new LinkedHashSet<>();
+        memoria.categorias.valores().forEach(categoria -> ids.add(categoria.getId()));
+        escribirCambios(TipoEntidad.CATEGORIA, ids);
+    }
+
+    /**
+     * Intenta escribir por última vez lo que siga pendiente y cierra la base. El escritor de
+     * reintentos se detiene fuera del cerrojo, porque su volcado lo necesita.
+     */
+    @Override
+    public void cerrar() {
+        EscritorDiferido escritor;
+        synchronized (this) {
+            cerrado = true;
+            escritor = reintentos;
+        }
+        if (escritor != null) {
+            escritor.cerrar();
+        }
+        synchronized (this) {
+            try {
+                if (!conexion.isClosed()) {
+                    if (!escribirPendientes()) {
+                        System.err.println("✗ Cambios sin guardar al cerrar: " + pendientes.cantidadIds());
+                    }
+                    for (PreparedStatement sentencia : sentencias.values()) {
+                        sentencia.close();
+                    }
+                    sentencias.clear();
+                    conexion.close();
+                }
+            } catch (SQLException e) {
+                System.err.println("✗ Error al cerrar la base de datos: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Sustituye todo el contenido por {@code datos} en una sola transacción.
+     * Usado por la herramienta de migración.
+     */
+    synchronized void importar(DatosAplicacion datos) throws SQLException, IOException {
+        Map<TipoEntidad, Set<String>> ids = new EnumMap<>(TipoEntidad.class);
+        ids.put(TipoEntidad.GASTO, memoria.gastos.reemplazar(datos.getGastos()));
+        ids.put(TipoEntidad.CATEGORIA, memoria.categorias.reemplazar(datos.getCategorias()));
+        ids.put(TipoEntidad.ALERTA, memoria.alertas.reemplazar(datos.getAlertas()));
+        ids.put(TipoEntidad.CUENTA, memoria.cuentas.reemplazar(datos.getCuentasCompartidas()));
+        aplicarRegistros(memoria.registros(ids, detectorCambios));
+    }
+
+    // ========== DETALLES DE IMPLEMENTACIÓN (privados) ==========
+
+    private void crearEsquema() throws SQLException {
+        try (Statement sentencia = conexion.createStatement()) {
+            for (String ddl : ESQUEMA) {
+                sentencia.execute(ddl);
+            }
+        }
+        convertirImportesDouble();
+    }
+
+    /**
+     * Pasa a decimal las columnas de importes que aún sean {@code DOUBLE}; H2 redondea cada
+     * valor al céntimo al convertirlo.
+     */
+    private void convertirImportesDouble() throws SQLException {
+        for (String[] columna : COLUMNAS_IMPORTE) {
+            boolean esDouble;
+            try (PreparedStatement consulta = conexion.prepareStatement(
+                    "SELECT DATA_TYPE FROM INFORMATION_SCHEMA.COLUMNS " +
+                    "WHERE TABLE_SCHEMA = SCHEMA() AND TABLE_NAME = ? AND COLUMN_NAME = ?")) {
+                consulta.setString(1, columna[0]);
+                consulta.setString(2, columna[1]);
+                try (ResultSet filas = consulta.executeQuery()) {
+                    esDouble = filas.next() && filas.getString(1).startsWith("DOUBLE");
+                }
+            }
+            if (esDouble) {
+                try (Statement sentencia = conexion.createStatement()) {
+                    sentencia.execute("ALTER TABLE " + columna[0] + " ALTER COLUMN " + columna[1] +
+                                      " SET DATA TYPE " + IMPORTE);
+                }
+            }
+        }
+    }
+
+    private void cargarDatos() throws SQLException {
+        Documento documento = leerDocumento();
+        memoria.cargar(FormatoDatos.reconstruir(documento));
+        memoria.alertas.valores().forEach(alerta -> alerta.getEstrategia());
+        detectorCambios.sincronizar(documento);
+
+        System.out.println("✓ Datos cargados de la base de datos: " + memoria.gastos.tamano() + " gastos, " +
+                           memoria.categorias.tamano() + " categorías");
+    }
+
+    /**
+     * Escribe las filas de las entidades indicadas junto con las que quedaran pendientes de
+     * un fallo anterior. Si falla, los errores se informan por consola, como en
+     * {@link RepositorioArchivo}, y se programa un reintento.
+     */
+    private void escribirCambios(TipoEntidad tipo, Set<String> ids) {
+        ids.forEach(id -> pendientes.marcar(tipo, id));
+        if (!escribirPendientes() && !cerrado) {
+            if (reintentos == null) {
+                reintentos = new EscritorDiferido(this::reintentarPendientes, ESPERA_REINTENTO_MS);
+            }
+            reintentos.programar();
+        }
+    }
+
+    /**
+     * Volcado del escritor de reintentos. Si vuelve a fallar, le pide otro intento fuera del
+     * cerrojo del repositorio.
+     */
+    private void reintentarPendientes() {
+        boolean escrito;
+        synchronized (this) {
+            escrito = cerrado || escribirPendientes();
+        }
+        if (!escrito) {
+            reintentos.reintentar();
+        }
+    }
+
+    /**
+     * Escribe en una transacción las filas de todo lo pendiente; false si ha fallado y los
+     * cambios siguen pendientes. Tras un fallo, el siguiente intento vuelve a leer la base
+     * antes de comparar: si también falló la lectura posterior al rollback, el detector
+     * puede dar por escritas filas que no lo están.
+     */
+    private boolean escribirPendientes() {
+        if (pendientes.vacio()) {
+            return true;
+        }
+        CambiosPendientes cambios = pendientes.extraer();
+        try {
+            if (releerAntesDeEscribir) {
+                detectorCambios.sincronizar(leerDocumento());
+                releerAntesDeEscribir = false;
+            }
+            aplicarRegistros(memoria.leer(() -> memoria.registros(cambios.ids(), detectorCambios)));
+            return true;
+        } catch (Exception e) {
+            System.err.println("✗ Error al guardar datos: " + e.getMessage());
+            e.printStackTrace();
+            releerAntesDeEscribir = true;
+            pendientes.incorporar(cambios);
+            return false;
+        }
+    }
+
+    private synchronized <T> void poner(TipoEntidad tipo, ColeccionesMemoria.Coleccion<T> coleccion,
+                                        List<T> entidades) {
+        Set<String> ids = new LinkedHashSet<>();
+        for (T entidad : entidades) {
+            coleccion.poner(entidad);
+            ids.add(coleccion.idDe(entidad));
+        }
+        escribirCambios(tipo, ids);
+    }
+
+    private synchronized <T> void quitar(TipoEntidad tipo, ColeccionesMemoria.Coleccion<T> coleccion,
+                                         List<T> entidades) {
+        Set<String> ids = new LinkedHashSet<>();
+        for (T entidad : entidades) {
+            String id = coleccion.idDe(entidad);
+            coleccion.quitar(id);
+            ids.add(id);
+        }
+        escribirCambios(tipo, ids);
+    }
+
+    /**
+     * Aplica los registros en una única transacción. Si falla por cualquier motivo, la
+     * deshace antes de volver al modo de confirmación automática, que si no confirmaría
+     * la parte ya aplicada, y vuelve a tomar como referencia lo que realmente hay en la base.
+     */
+    private void aplicarRegistros(List<Registro> registros) throws SQLException, IOException {
+        if (registros.isEmpty()) {
+            return;
+        }
+
+        conexion.setAutoCommit(false);
+        try {
+            for (Registro registro : registros) {
+                aplicar(registro);
+            }
+            conexion.commit();
+        } catch (Exception e) {
+            conexion.rollback();
+            detectorCambios.sincronizar(leerDocumento());
+            throw e;
+        } finally {
+            conexion.setAutoCommit(true);
+        }
+    }
+
+    private void aplicar(Registro registro) throws SQLException, IOException {
+        boolean eliminar = registro.getOperacion() == DiarioOperaciones.Operacion.ELIMINAR;
+        switch (registro.getTipo()) {
+            case CATEGORIA, CATEGORIA_REFERENCIADA -> {
+                boolean enLista = registro.getTipo() == TipoEntidad.CATEGORIA;
+                if (eliminar) {
+                    ejecutar("DELETE FROM categorias WHERE id = ? AND en_lista = ?", registro.getId(), enLista);
+                } else {
+                    escribirCategoria(mapper.treeToValue(registro.getDatos(), Categoria.class), enLista);
+                }
+            }
+            case GASTO, GASTO_CUENTA -> {
+                boolean enLista = registro.getTipo() == TipoEntidad.GASTO;
+                if (eliminar) {
+                    ejecutar("DELETE FROM gastos WHERE id = ? AND en_lista = ?", registro.getId(), enLista);
+                } else {
+                    escribirGasto(mapper.treeToValue(registro.getDatos(), GastoRegistro.class), enLista);
+                }
+            }
+            case ALERTA -> {
+                if (eliminar) {
+                    ejecutar("DELETE FROM alertas WHERE id = ?", registro.getId());
+                } else {
+                    escribirAlerta(mapper.treeToValue(registro.getDatos(), AlertaRegistro.class));
+                }
+            }
+            case CUENTA -> {
+                ejecutar("DELETE FROM personas WHERE cuenta_id = ?", registro.getId());
+                ejecutar("DELETE FROM cuenta_gastos WHERE cuenta_id = ?", registro.getId());
+                if (eliminar) {
+                    ejecutar("DELETE FROM cuentas WHERE id = ?", registro.getId());
+                } else {
+                    escribirCuenta(mapper.treeToValue(registro.getDatos(), CuentaRegistro.class));
+                }
+            }
+        }
+    }
+
+    private void escribirCategoria(Categoria categoria, boolean enLista) throws SQLException {
+        ejecutar("MERGE INTO categorias (id, nombre, descripcion, en_lista) KEY (id) VALUES (?, ?, ?, ?)",
+                 categoria.getId(), categoria.getNombre(), categoria.getDescripcion(), enLista);
+    }
+
+    private void escribirGasto(GastoRegistro gasto, boolean enLista) throws SQLException {
+        ejecutar("MERGE INTO gastos (id, cantidad, fecha, descripcion, categoria_id, pagador_id, en_lista) " +
+                 "KEY (id) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                 gasto.getId(), Dinero.aDecimal(gasto.getCentimos()), gasto.getFecha(), gasto.getDescripcion(),
+                 gasto.getCategoriaId(), gasto.getPagadorId(), enLista);
+    }
+
+    private void escribirAlerta(AlertaRegistro alerta) throws SQLException, IOException {
+        ejecutar("MERGE INTO alertas (id, limite_gasto, periodo, categoria_id, activa, notificaciones) " +
+                 "KEY (id) VALUES (?, ?, ?, ?, ?, ?)",
+                 alerta.getId(), Dinero.aDecimal(alerta.getLimiteCentimos()),
+                 alerta.getPeriodo() != null ? alerta.getPeriodo().name() : null,
+                 alerta.getCategoriaId(), alerta.isActiva(),
+                 mapper.writeValueAsString(alerta.getNotificaciones()));
+    }
+
+    private void escribirCuenta(CuentaRegistro cuenta) throws SQLException {
+        ejecutar("MERGE INTO cuentas (id, nombre, tipo_distribucion) KEY (id) VALUES (?, ?, ?)",
+                 cuenta.getId(), cuenta.getNombre(),
+                 cuenta.getTipoDistribucion() != null ? cuenta.getTipoDistribucion().name() : null);
+
+        int orden = 0;
+        for (Persona persona : cuenta.getPersonas()) {
+            ejecutar("INSERT INTO personas (cuenta_id, id, nombre, porcentaje_gasto, saldo, orden) " +
+                     "VALUES (?, ?, ?, ?, ?, ?)",
+                     cuenta.getId(), persona.getId(), persona.getNombre(), persona.getPorcentajeGasto(),
+                     Dinero.aDecimal(persona.getSaldoCentimos()), orden++);
+        }
+        orden = 0;
+        for (String idGasto : cuenta.getGastos()) {
+            ejecutar("INSERT INTO cuenta_gastos (cuenta_id, gasto_id, orden) VALUES (?, ?, ?)",
+                     cuenta.getId(), idGasto, orden++);
+        }
+    }
+
+    /**
+     * Ejecuta una sentencia de escritura; las sentencias preparadas se reutilizan.
+     */
+    private void ejecutar(String sql, Object... parametros) throws SQLException {
+        PreparedStatement sentencia = sentencias.get(sql);
+        if (sentencia == null) {
+            sentencia = conexion.prepareStatement(sql);
+            sentencias.put(sql, sentencia);
+        }
+        for (int i = 0; i < parametros.length; i++) {
+            sentencia.setObject(i + 1, parametros[i]);
+        }
+        sentencia.executeUpdate();
+    }
+
+    /**
+     * Lee todas las tablas en un documento del esquema normalizado.
+     */
+    private Documento leerDocumento() throws SQLException {
+        List<Categoria> enLista = new ArrayList<>();
+        List<Categoria> referenciadas = new ArrayList<>();
+        try (Statement sentencia = conexion.createStatement();
+             ResultSet filas = sentencia.executeQuery(
+                 "SELECT id, nombre, descripcion, en_lista FROM categorias ORDER BY _ROWID_")) {
+            while (filas.next()) {
+                Categoria categoria = new Categoria();
+                categoria.setId(filas.getString("id"));
+                categoria.setNombre(filas.getString("nombre"));
+                categoria.setDescripcion(filas.getString("descripcion"));
+                (filas.getBoolean("en_lista") ? enLista : referenciadas).add(categoria);
+            }
+        }
+
+        List<GastoRegistro> gastosEnLista = new ArrayList<>();
+        List<GastoRegistro> gastosCuentas = new ArrayList<>();
+        try (Statement sentencia = conexion.createStatement();
+             ResultSet filas = sentencia.executeQuery(
+                 "SELECT id, cantidad, fecha, descripcion, categoria_id, pagador_id, en_lista " +
+                 "FROM gastos ORDER BY _ROWID_")) {
+            while (filas.next()) {
+                GastoRegistro gasto = new GastoRegistro(filas.getString("id"),
+                    Dinero.aCentimos(filas.getBigDecimal("cantidad")),
+                    filas.getObject("fecha", LocalDate.class), filas.getString("descripcion"),
+                    filas.getString("categoria_id"), filas.getString("pagador_id"));
+                (filas.getBoolean("en_lista") ? gastosEnLista : gastosCuentas).add(gasto);
+            }
+        }
+
+        List<AlertaRegistro> alertasLeidas = new ArrayList<>();
+        try (Statement sentencia = conexion.createStatement();
+             ResultSet filas = sentencia.executeQuery(
+                 "SELECT id, limite_gasto, periodo, categoria_id, activa, notificaciones FROM alertas ORDER BY _ROWID_")) {
+            while (filas.next()) {
+                String periodo = filas.getString("periodo");
+                alertasLeidas.add(new AlertaRegistro(filas.getString("id"),
+                    Dinero.aCentimos(filas.getBigDecimal("limite_gasto")),
+                    periodo != null ? PeriodoTemporal.valueOf(periodo) : null,
+                    filas.getString("categoria_id"), filas.getBoolean("activa"),
+                    leerNotificaciones(filas.getString("notificaciones"))));
+            }
+        }
+
+        return new Documento(enLista, referenciadas, leerCuentas(), gastosEnLista, gastosCuentas, alertasLeidas);
+    }
+
+    private List<CuentaRegistro> leerCuentas() throws SQLException {
+        Map<String, List<Persona>> personasPorCuenta = new HashMap<>();
+        try (Statement sentencia = conexion.createStatement();
+             ResultSet filas = sentencia.executeQuery(
+                 "SELECT cuenta_id, id, nombre, porcentaje_gasto, saldo FROM personas ORDER BY cuenta_id, orden")) {
+            while (filas.next()) {
+                Persona persona = new Persona(filas.getString("nombre"), filas.getDouble("porcentaje_gasto"));
+                persona.setId(filas.getString("id"));
+                persona.setSaldoCentimos(Dinero.aCentimos(filas.getBigDecimal("saldo")));
+                personasPorCuenta.computeIfAbsent(filas.getString("cuenta_id"), id -> new ArrayList<>()).add(persona);
+            }
+        }
+
+        Map<String, List<String>> gastosPorCuenta = new HashMap<>();
+        try (Statement sentencia = conexion.createStatement();
+             ResultSet filas = sentencia.executeQuery(
+                 "SELECT cuenta_id, gasto_id FROM cuenta_gastos ORDER BY cuenta_id, orden")) {
+            while (filas.next()) {
+                gastosPorCuenta.computeIfAbsent(filas.getString("cuenta_id"), id -> new ArrayList<>())
+                    .add(filas.getString("gasto_id"));
+            }
+        }
+
+        List<CuentaRegistro> cuentas = new ArrayList<>();
+        try (Statement sentencia = conexion.createStatement();
+             ResultSet filas = sentencia.executeQuery(
+                 "SELECT id, nombre, tipo_distribucion FROM cuentas ORDER BY _ROWID_")) {
+            while (filas.next()) {
+                String id = filas.getString("id");
+                String tipo = filas.getString("tipo_distribucion");
+                cuentas.add(new CuentaRegistro(id, filas.getString("nombre"),
+                    tipo != null ? TipoDistribucion.valueOf(tipo) : null,
+                    personasPorCuenta.getOrDefault(id, new ArrayList<>()),
+                    gastosPorCuenta.getOrDefault(id, new ArrayList<>())));
+            }
+        }
+        return cuentas;
+    }
+
+    private List<Notificacion> leerNotificaciones(String json) throws SQLException {
+        if (json == null) {
+            return new ArrayList<>();
+        }
+        try {
+            return mapper.readValue(json, new TypeReference<List<Notificacion>>() { });
+        } catch (IOException e) {
+            throw new SQLException("Notificaciones no válidas: " + e.getMessage(), e);
+        }
+    }
+}
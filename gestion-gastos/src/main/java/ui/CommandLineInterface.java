@@ -78,6 +78,7 @@ public class CommandLineInterface {
                 case 0 -> {
                     running = false;
                     System.out.println("\nCerrando aplicacion...");
+                    fachada.cerrar();
                 }
                 default -> System.out.println("\nOpcion no valida. Intente de nuevo.");
             }
@@ -1,5 +1,6 @@
 package ui;
 
+import controlador.ControladorAlertas;
 import controlador.FachadaAplicacion;
 import dominio.Notificacion;
 import javafx.application.Application;
@@ -24,7 +25,7 @@ import java.util.Set;
 /**
  * Aplicación principal con iconos PNG reales.
  * 
- * @version 1.6
+ * @version 1.7
  * @since 2025-11-15
  */
 public class MainApp extends Application {
@@ -42,6 +43,15 @@ public class MainApp extends Application {
     private CalendarioGastosView calendarioView;
 
 
+    @Override
+    public void stop() {
+        // Escribe los cambios que aún estén pendientes en el repositorio
+        if (fachada != null) {
+            fachada.cerrar();
+        }
+    }
+
+
     @Override
     public void start(Stage primaryStage) {
         fachada = FachadaAplicacion.getInstancia();
@@ -136,7 +146,10 @@ public class MainApp extends Application {
 
         // Botones sin iconos específicos (usar emojis Unicode)
         Button btnImportar = crearBotonMenu(" Importar Datos", () -> importarDatos());
-        Button btnSalir = crearBotonMenu(" Salir", () -> System.exit(0));
+        Button btnSalir = crearBotonMenu(" Salir", () -> {
+            fachada.cerrar();
+            System.exit(0);
+        });
         Button btnCalendario = crearBotonMenuConIcono(
         	    "Calendario",
         	    "/images/calendario.png",
@@ -283,9 +296,7 @@ public class MainApp extends Application {
     }
 
     private void verificarYMostrarAlertasIniciales() {
-        fachada.getControladorAlertas().verificarAlertas(
-            fachada.getControladorGastos().obtenerTodosLosGastos()
-        );
+        verificarAlertas();
         
         mostrarNotificacionesPendientes();
     }
@@ -293,9 +304,7 @@ public class MainApp extends Application {
     public void verificarNuevasAlertas() {
         long contadorAntes = fachada.getControladorAlertas().contarNotificacionesNoLeidas();
         
-        fachada.getControladorAlertas().verificarAlertas(
-            fachada.getControladorGastos().obtenerTodosLosGastos()
-        );
+        verificarAlertas();
         
         long contadorDespues = fachada.getControladorAlertas().contarNotificacionesNoLeidas();
         
@@ -306,6 +315,13 @@ public class MainApp extends Application {
         actualizarContadorNotificaciones();
     }
 
+    private void verificarAlertas() {
+        ControladorAlertas controladorAlertas = fachada.getControladorAlertas();
+        controladorAlertas.verificarAlertas(
+            fachada.getControladorGastos().obtenerGastosEntre(controladorAlertas.inicioPeriodoAlertas(), null)
+        );
+    }
+
     private void mostrarNotificacionesPendientes() {
         List<Notificacion> noLeidas = fachada.getControladorAlertas().obtenerNotificacionesNoLeidas();
         
@@ -2,6 +2,7 @@ package ui.vistas;
 
 import controlador.FachadaAplicacion;
 import dominio.CuentaCompartida;
+import dominio.Dinero;
 import dominio.Persona;
 import dominio.enums.TipoDistribucion;
 import javafx.collections.FXCollections;
@@ -181,13 +182,11 @@ public class CuentasView {
                     }
 
                     if (cbTipo.getValue().equals("PORCENTUAL")) {
-                        double sumaTotal = porcentajes.values().stream()
-                                .mapToDouble(Double::doubleValue)
-                                .sum();
-                        
-                        if (Math.abs(sumaTotal - 100.0) > 0.01) {
+                        try {
+                            CuentaCompartida.validarPorcentajes(porcentajes.values());
+                        } catch (IllegalArgumentException e) {
                             mostrarError("La suma de porcentajes debe ser 100%. Actual: " + 
-                                       String.format("%.2f%%", sumaTotal));
+                                       String.format("%.2f%%", Dinero.sumarPorcentajes(porcentajes.values())));
                             return null;
                         }
                     }
@@ -23,6 +23,7 @@ public class DialogoFiltros extends Dialog<GastosView.ResultadoFiltro> {
     private DatePicker dpFechaInicio;
     private DatePicker dpFechaFin;
     private VBox vboxCategoriasComp;
+    private TextArea taExpresion;
     
     public DialogoFiltros(FachadaAplicacion fachada) {
         this.fachada = fachada;
@@ -48,7 +49,8 @@ public class DialogoFiltros extends Dialog<GastosView.ResultadoFiltro> {
             "Por categorias",
             "Por fecha",
             "Por meses",
-            "Compuesto (categorias + fecha)"
+            "Compuesto (categorias + fecha)",
+            "Expresion"
         ));
         cbTipoFiltro.setValue("Por categorias");
         cbTipoFiltro.setPrefWidth(250);
@@ -92,6 +94,7 @@ public class DialogoFiltros extends Dialog<GastosView.ResultadoFiltro> {
         dpFechaInicio = null;
         dpFechaFin = null;
         vboxCategoriasComp = null;
+        taExpresion = null;
         
         String tipoSeleccionado = cbTipoFiltro.getValue();
         
@@ -108,6 +111,9 @@ public class DialogoFiltros extends Dialog<GastosView.ResultadoFiltro> {
             case "Compuesto (categorias + fecha)":
                 crearFiltroCompuesto();
                 break;
+            case "Expresion":
+                crearFiltroExpresion();
+                break;
         }
     }
     
@@ -229,6 +235,25 @@ public class DialogoFiltros extends Dialog<GastosView.ResultadoFiltro> {
         panelFiltrosDinamico.getChildren().addAll(lblTitulo, lblCat, scrollCat, lblFechas, gridFechas);
     }
     
+    private void crearFiltroExpresion() {
+        Label lblExpresion = new Label("Escriba la expresion del filtro:");
+        lblExpresion.setStyle("-fx-font-weight: bold; -fx-font-size: 14px;");
+        
+        taExpresion = new TextArea();
+        taExpresion.setPromptText("(categoria = Ocio o descripcion contiene cine) y fecha >= 2025-01-01");
+        taExpresion.setWrapText(true);
+        taExpresion.setPrefRowCount(4);
+        
+        Label lblAyuda = new Label(
+            "Condiciones: categoria = A, B | mes = marzo, abril | fecha >= aaaa-mm-dd | " +
+            "importe < 50 | descripcion contiene \"texto\" | pagador = Ana | compartido | personal\n" +
+            "Se combinan con y, o, no y parentesis. Los valores con espacios van entre comillas.");
+        lblAyuda.setWrapText(true);
+        lblAyuda.setStyle("-fx-font-size: 12px; -fx-text-fill: #636E72;");
+        
+        panelFiltrosDinamico.getChildren().addAll(lblExpresion, taExpresion, lblAyuda);
+    }
+    
     
     private GastosView.ResultadoFiltro aplicarFiltro() {
         String tipoSeleccionado = cbTipoFiltro.getValue();
@@ -246,6 +271,9 @@ public class DialogoFiltros extends Dialog<GastosView.ResultadoFiltro> {
                     
                 case "Compuesto (categorias + fecha)":
                     return aplicarFiltroCompuesto();
+                    
+                case "Expresion":
+                    return aplicarFiltroExpresion();
             }
         } catch (Exception e) {
             mostrarError("Error al aplicar filtro: " + e.getMessage());
@@ -346,6 +374,19 @@ public class DialogoFiltros extends Dialog<GastosView.ResultadoFiltro> {
         return new GastosView.ResultadoFiltro(gastos, descripcion);
     }
     
+    private GastosView.ResultadoFiltro aplicarFiltroExpresion() {
+        String expresion = taExpresion.getText();
+        if (expresion == null || expresion.isBlank()) {
+            mostrarError("Debe escribir una expresion");
+            return null;
+        }
+        
+        List<Gasto> gastos = fachada.getControladorGastos().filtrarPorExpresion(expresion.trim());
+        String descripcion = "Expresion: " + expresion.trim();
+        
+        return new GastosView.ResultadoFiltro(gastos, descripcion);
+    }
+    
     private void mostrarError(String mensaje) {
         Alert alert = new Alert(Alert.AlertType.ERROR);
         alert.setTitle("Error");
@@ -1,18 +1,21 @@
 package ui.vistas;
 
+import catalogos.AgregadosGastos;
 import controlador.FachadaAplicacion;
 import dominio.Categoria;
-import dominio.Gasto;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.chart.*;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import java.time.Month;
+import java.time.YearMonth;
 import java.util.*;
 import java.util.stream.Collectors;
 
 public class EstadisticasView {
+    private static final int MESES_GRAFICO = 12;
+    
     private FachadaAplicacion fachada;
     private ScrollPane scrollPane;
     private VBox view;
@@ -104,35 +107,26 @@ public class EstadisticasView {
     }
     
     private void actualizarResumenNumerico() {
-        List<Gasto> todosGastos = fachada.getControladorGastos().obtenerTodosLosGastos();
-        double total = fachada.getControladorGastos().calcularTotalGastos();
+        // Agregados mantenidos por el catálogo: no hace falta recorrer los gastos
+        AgregadosGastos.Resumen agregados = fachada.getControladorGastos().obtenerResumen();
         
-        if (todosGastos.isEmpty()) {
+        if (agregados.getNumero() == 0) {
             lblResumen.setText("No hay gastos registrados para mostrar estadisticas");
             return;
         }
         
-        double promedio = total / todosGastos.size();
-        double maximo = todosGastos.stream()
-                .mapToDouble(Gasto::getCantidad)
-                .max()
-                .orElse(0.0);
-        double minimo = todosGastos.stream()
-                .mapToDouble(Gasto::getCantidad)
-                .min()
-                .orElse(0.0);
-        
         String resumen = String.format(
             "Total Gastos: %d  |  Importe Total: %.2f EUR  |  Promedio: %.2f EUR  |  Maximo: %.2f EUR  |  Minimo: %.2f EUR",
-            todosGastos.size(), total, promedio, maximo, minimo
+            agregados.getNumero(), agregados.getTotal(), agregados.getPromedio(),
+            agregados.getMaximo(), agregados.getMinimo()
         );
         
         lblResumen.setText(resumen);
     }
     
     private void actualizarGraficoPastel() {
-        Map<Categoria, List<Gasto>> porCategoria = 
-            fachada.getControladorGastos().agruparPorCategoria();
+        Map<Categoria, AgregadosGastos.Resumen> porCategoria = 
+            fachada.getControladorGastos().obtenerResumenPorCategoria();
         
         pieChart.getData().clear();
         
@@ -146,11 +140,7 @@ public class EstadisticasView {
         List<PieChart.Data> datos = porCategoria.entrySet().stream()
             .map(entry -> {
                 Categoria categoria = entry.getKey();
-                List<Gasto> gastos = entry.getValue();
-                
-                double totalCategoria = gastos.stream()
-                    .mapToDouble(Gasto::getCantidad)
-                    .sum();
+                double totalCategoria = entry.getValue().getTotal();
                 
                 double porcentaje = (totalCategoria / totalGeneral) * 100;
                 
@@ -169,8 +159,9 @@ public class EstadisticasView {
 
     
     private void actualizarGraficoBarras() {
-        Map<Month, List<Gasto>> porMes = 
-            fachada.getControladorGastos().agruparPorMes();
+        // Totales por año y mes ya calculados, en orden cronológico
+        Map<YearMonth, AgregadosGastos.Resumen> porMes = 
+            fachada.getControladorGastos().obtenerResumenPorMes(null, null);
         
         barChart.getData().clear();
         
@@ -182,18 +173,12 @@ public class EstadisticasView {
         XYChart.Series<String, Number> series = new XYChart.Series<>();
         series.setName("Gastos");
         
-        List<Month> mesesOrdenados = porMes.keySet().stream()
-            .sorted(Comparator.comparingInt(Month::getValue))
-            .collect(Collectors.toList());
+        List<YearMonth> ultimosMeses = new ArrayList<>(porMes.keySet());
+        ultimosMeses = ultimosMeses.subList(Math.max(0, ultimosMeses.size() - MESES_GRAFICO), ultimosMeses.size());
         
-        for (Month mes : mesesOrdenados) {
-            List<Gasto> gastos = porMes.get(mes);
-            double total = gastos.stream()
-                .mapToDouble(Gasto::getCantidad)
-                .sum();
-            
-            String nombreMes = obtenerNombreMes(mes);
-            series.getData().add(new XYChart.Data<>(nombreMes, total));
+        for (YearMonth mes : ultimosMeses) {
+            String nombreMes = String.format("%s %02d", obtenerNombreMes(mes.getMonth()), mes.getYear() % 100);
+            series.getData().add(new XYChart.Data<>(nombreMes, porMes.get(mes).getTotal()));
         }
         
         barChart.getData().add(series);
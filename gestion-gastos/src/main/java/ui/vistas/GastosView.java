@@ -2,6 +2,7 @@ package ui.vistas;
 
 import controlador.FachadaAplicacion;
 import dominio.Categoria;
+import dominio.Dinero;
 import dominio.Gasto;
 import javafx.collections.FXCollections;
 import javafx.geometry.Insets;
@@ -15,11 +16,12 @@ import ui.MainApp;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * Vista principal para la gestión de gastos usando iconos PNG.
  * 
- * @version 2.0
+ * @version 2.2
  * @since 2025-11-15
  */
 public class GastosView {
@@ -459,9 +461,9 @@ public class GastosView {
                 }
             });
         } else {
-            double totalEliminar = gastosSeleccionados.stream()
-                .mapToDouble(Gasto::getCantidad)
-                .sum();
+            double totalEliminar = Dinero.aEuros(gastosSeleccionados.stream()
+                .mapToLong(Gasto::getCentimos)
+                .sum());
             
             Alert confirmacion = new Alert(Alert.AlertType.CONFIRMATION);
             confirmacion.setTitle("Confirmar eliminación múltiple");
@@ -478,13 +480,11 @@ public class GastosView {
             confirmacion.showAndWait().ifPresent(response -> {
                 if (response == ButtonType.OK) {
                     try {
-                        List<Gasto> copiaGastos = new java.util.ArrayList<>(gastosSeleccionados);
+                        List<String> idsGastos = gastosSeleccionados.stream()
+                            .map(Gasto::getId)
+                            .collect(Collectors.toList());
                         
-                        int eliminados = 0;
-                        for (Gasto gasto : copiaGastos) {
-                            fachada.getControladorGastos().eliminarGasto(gasto.getId());
-                            eliminados++;
-                        }
+                        int eliminados = fachada.getControladorGastos().eliminarGastos(idsGastos);
                         
                         mainApp.getNotificacionManager().mostrarExito(
                             "Gastos Eliminados",
@@ -515,9 +515,9 @@ public class GastosView {
             tablaGastos.setItems(FXCollections.observableArrayList(gastosFiltrados));
             tablaGastos.refresh();
             
-            double total = gastosFiltrados.stream()
-                .mapToDouble(Gasto::getCantidad)
-                .sum();
+            double total = Dinero.aEuros(gastosFiltrados.stream()
+                .mapToLong(Gasto::getCentimos)
+                .sum());
             lblTotal.setText(String.format("%.2f EUR", total));
             
             lblFiltroActivo.setText("Filtro activo: " + descripcionFiltro + 
@@ -2,6 +2,7 @@ package ui.vistas;
 
 import controlador.FachadaAplicacion;
 import dominio.Categoria;
+import dominio.Dinero;
 import dominio.Gasto;
 import javafx.geometry.Insets;
 import javafx.scene.control.*;
@@ -116,16 +117,16 @@ public class TimelineGastosView {
         VBox columnaGastos = new VBox(10);
         HBox.setHgrow(columnaGastos, Priority.ALWAYS);
         
-        double totalDia = 0;
+        long totalDia = 0;
         for (Gasto gasto : gastos) {
-            totalDia += gasto.getCantidad();
+            totalDia += gasto.getCentimos();
             columnaGastos.getChildren().add(crearTarjetaGasto(gasto));
         }
         
         // Total del día
         HBox totalBox = new HBox(10);
         totalBox.setStyle("-fx-alignment: center-right; -fx-padding: 10 0 0 0; -fx-border-color: #ECF0F1; -fx-border-width: 1 0 0 0;");
-        Label lblTotal = new Label(String.format("Total del día: %.2f €", totalDia));
+        Label lblTotal = new Label(String.format("Total del día: %.2f €", Dinero.aEuros(totalDia)));
         lblTotal.setStyle("-fx-font-size: 16px; -fx-font-weight: bold; -fx-text-fill: #E74C3C;");
         totalBox.getChildren().add(lblTotal);
         
@@ -186,10 +187,10 @@ public class TimelineGastosView {
             default -> LocalDate.of(2000, 1, 1);
         };
         
-        return fachada.getControladorGastos().obtenerTodosLosGastos().stream()
-            .filter(g -> !g.getFecha().isBefore(fechaInicio))
-            .sorted(Comparator.comparing(Gasto::getFecha).reversed())
-            .collect(Collectors.toList());
+        // Llegan ordenados por fecha ascendente desde el índice del catálogo
+        List<Gasto> gastos = fachada.getControladorGastos().obtenerGastosEntre(fechaInicio, null);
+        Collections.reverse(gastos);
+        return gastos;
     }
     
     public BorderPane getView() {
@@ -0,0 +1,88 @@
+package catalogos;
+
+import dominio.Categoria;
+import dominio.Gasto;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.function.ToLongFunction;
+
+/**
+ * Mide con Java Flight Recorder la memoria que reservan las lecturas repetidas de
+ * {@link CatalogoGastos#obtenerTodos()}: copiando la lista en cada llamada, como antes, y
+ * reutilizando la instantánea inmutable del catálogo.
+ * <p>
+ * Se suman los eventos {@code jdk.ObjectAllocationInNewTLAB} y
+ * {@code jdk.ObjectAllocationOutsideTLAB} del hilo principal. Cada TLAB nuevo cuenta entero, así
+ * que la medida es aproximada por exceso y depende de la JVM, pero basta para distinguir órdenes
+ * de magnitud. No forma parte de la batería de tests; se lanza igual que
+ * {@link ColumnasGastosBenchmark}:
+ * {@code java -cp target/classes:target/test-classes:$(cat cp.txt) catalogos.AsignacionLecturasBenchmark [gastos] [lecturas]}.
+ * </p>
+ */
+public class AsignacionLecturasBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int gastos = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+        int lecturas = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+
+        CatalogoGastos catalogo = new CatalogoGastos();
+        Categoria comida = new Categoria("Comida", null);
+        LocalDate origen = LocalDate.of(2024, 1, 1);
+        for (int i = 0; i < gastos; i++) {
+            catalogo.agregarGasto(new Gasto(i % 100, origen.plusDays(i % 365), "Gasto " + i, comida));
+        }
+        catalogo.obtenerTodos(); // la primera lectura crea la instantánea
+
+        long copiando = bytesAsignados(() -> leer(catalogo, lecturas, c -> new ArrayList<>(c.obtenerTodos()).size()));
+        long instantanea = bytesAsignados(() -> leer(catalogo, lecturas, c -> c.obtenerTodos().size()));
+
+        System.out.printf("%d lecturas de %d gastos%n", lecturas, gastos);
+        System.out.printf("copiando   : %8.1f MB%n", copiando / 1e6);
+        System.out.printf("instantánea: %8.1f MB%n", instantanea / 1e6);
+    }
+
+    private static void leer(CatalogoGastos catalogo, int lecturas, ToLongFunction<CatalogoGastos> lectura) {
+        long total = 0;
+        for (int i = 0; i < lecturas; i++) {
+            total += lectura.applyAsLong(catalogo);
+        }
+        if (total != (long) lecturas * catalogo.obtenerTodos().size()) {
+            throw new IllegalStateException("Lecturas incompletas: " + total);
+        }
+    }
+
+    private static long bytesAsignados(Runnable accion) throws IOException {
+        Path archivo = Files.createTempFile("asignacion", ".jfr");
+        try {
+            try (Recording grabacion = new Recording()) {
+                grabacion.enable("jdk.ObjectAllocationInNewTLAB").withoutStackTrace();
+                grabacion.enable("jdk.ObjectAllocationOutsideTLAB").withoutStackTrace();
+                grabacion.start();
+                accion.run();
+                grabacion.stop();
+                grabacion.dump(archivo);
+            }
+
+            long hilo = Thread.currentThread().getId();
+            long bytes = 0;
+            for (RecordedEvent evento : RecordingFile.readAllEvents(archivo)) {
+                RecordedThread emisor = evento.getThread();
+                if (emisor == null || emisor.getJavaThreadId() != hilo) {
+                    continue;
+                }
+                bytes += evento.hasField("tlabSize") ? evento.getLong("tlabSize") : evento.getLong("allocationSize");
+            }
+            return bytes;
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package catalogos;
+
+import dominio.Categoria;
+import dominio.Gasto;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Comparativa de sumas sobre {@link CatalogoGastos}: recorrer los objetos {@link Gasto} frente
+ * a las columnas primitivas de {@link ColumnasGastos} y a los agregados incrementales.
+ * <p>
+ * No forma parte de la batería de tests (surefire solo ejecuta {@code *Test}). Se lanza con:
+ * {@code mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt} y
+ * {@code java -cp target/classes:target/test-classes:$(cat cp.txt) catalogos.ColumnasGastosBenchmark [gastos]}.
+ * Mide el mejor tiempo de varias iteraciones.
+ * </p>
+ */
+public class ColumnasGastosBenchmark {
+    private static final int ITERACIONES = 20;
+
+    public static void main(String[] args) {
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        CatalogoGastos catalogo = generarCatalogo(cantidad);
+        List<Gasto> gastos = catalogo.obtenerTodos();
+        LocalDate inicio = LocalDate.of(2022, 3, 1);
+        LocalDate fin = LocalDate.of(2022, 8, 31);
+        Categoria categoria = gastos.get(0).getCategoria();
+        System.out.printf("%d gastos%n", cantidad);
+
+        medir("total, objetos          ", () -> gastos.stream().mapToDouble(Gasto::getCantidad).sum());
+        medir("total, columnas         ", () -> catalogo.calcularTotalEntre(null, null));
+        medir("total, agregados        ", catalogo::calcularTotal);
+
+        medir("rango, objetos          ", () -> gastos.stream()
+            .filter(g -> g.estaEnRango(inicio, fin))
+            .mapToDouble(Gasto::getCantidad).sum());
+        medir("rango, columnas         ", () -> catalogo.calcularTotalEntre(inicio, fin));
+
+        medir("categoría+rango, objetos", () -> gastos.stream()
+            .filter(g -> g.esDeCategoria(categoria) && g.estaEnRango(inicio, fin))
+            .mapToDouble(Gasto::getCantidad).sum());
+        medir("categoría+rango, columnas", () -> catalogo.calcularTotalCategoriaEntre(categoria, inicio, fin));
+    }
+
+    private static void medir(String nombre, DoubleSupplier suma) {
+        double resultado = 0;
+        for (int i = 0; i < 5; i++) {
+            resultado = suma.getAsDouble(); // calentamiento
+        }
+        long mejor = Long.MAX_VALUE;
+        for (int i = 0; i < ITERACIONES; i++) {
+            long inicio = System.nanoTime();
+            resultado = suma.getAsDouble();
+            mejor = Math.min(mejor, System.nanoTime() - inicio);
+        }
+        System.out.printf("%s: %8.3f ms  (%.2f)%n", nombre, mejor / 1e6, resultado);
+    }
+
+    private static CatalogoGastos generarCatalogo(int cantidad) {
+        Random aleatorio = new Random(42);
+        Categoria[] categorias = new Categoria[20];
+        for (int i = 0; i < categorias.length; i++) {
+            categorias[i] = new Categoria("Categoría " + i, null);
+        }
+        CatalogoGastos catalogo = new CatalogoGastos();
+        LocalDate origen = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < cantidad; i++) {
+            catalogo.agregarGasto(new Gasto(
+                aleatorio.nextInt(20_000) / 100.0,
+                origen.plusDays(aleatorio.nextInt(5 * 365)),
+                "Gasto " + i,
+                categorias[aleatorio.nextInt(categorias.length)]));
+        }
+        return catalogo;
+    }
+}
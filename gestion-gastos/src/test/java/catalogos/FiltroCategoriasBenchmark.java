@@ -0,0 +1,76 @@
+package catalogos;
+
+import dominio.Categoria;
+import dominio.Gasto;
+import dominio.filtros.FiltroCategorias;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.IntSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Comparativa de {@link FiltroCategorias} con 50 categorías seleccionadas: comparar cada gasto
+ * con cada categoría por {@link Gasto#esDeCategoria}, buscar su clave en el conjunto hash del
+ * filtro y resolverlo con el índice por categoría de {@link CatalogoGastos#filtrar}.
+ * <p>
+ * No forma parte de la batería de tests. Se lanza igual que {@link ColumnasGastosBenchmark}:
+ * {@code java -cp target/classes:target/test-classes:$(cat cp.txt) catalogos.FiltroCategoriasBenchmark [gastos]}.
+ * Mide el mejor tiempo de varias iteraciones.
+ * </p>
+ */
+public class FiltroCategoriasBenchmark {
+    private static final int ITERACIONES = 10;
+    private static final int CATEGORIAS = 200;
+    private static final int SELECCIONADAS = 50;
+
+    public static void main(String[] args) {
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Random aleatorio = new Random(42);
+        Categoria[] categorias = new Categoria[CATEGORIAS];
+        for (int i = 0; i < categorias.length; i++) {
+            categorias[i] = new Categoria("Categoría " + i, null);
+        }
+        CatalogoGastos catalogo = new CatalogoGastos();
+        LocalDate origen = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < cantidad; i++) {
+            catalogo.agregarGasto(new Gasto(
+                aleatorio.nextInt(20_000) / 100.0,
+                origen.plusDays(aleatorio.nextInt(5 * 365)),
+                "Gasto " + i,
+                categorias[aleatorio.nextInt(categorias.length)]));
+        }
+        List<Gasto> gastos = catalogo.obtenerTodos();
+
+        // Instancias distintas de las de los gastos, con el nombre en mayúsculas, como llegan del formulario
+        Set<Categoria> seleccionadas = new HashSet<>();
+        for (int i = 0; i < SELECCIONADAS; i++) {
+            seleccionadas.add(new Categoria(categorias[i * (CATEGORIAS / SELECCIONADAS)].getNombre().toUpperCase(), null));
+        }
+        FiltroCategorias filtro = new FiltroCategorias(seleccionadas);
+        System.out.printf("%d gastos, %d de %d categorías%n", cantidad, SELECCIONADAS, CATEGORIAS);
+
+        medir("comparar con cada una ", () -> gastos.stream()
+            .filter(g -> seleccionadas.stream().anyMatch(g::esDeCategoria))
+            .collect(Collectors.toList()).size());
+        medir("conjunto de claves    ", () -> filtro.aplicar(gastos).size());
+        medir("índice por categoría  ", () -> catalogo.filtrar(filtro).size());
+    }
+
+    private static void medir(String nombre, IntSupplier filtrado) {
+        int resultado = 0;
+        for (int i = 0; i < 3; i++) {
+            resultado = filtrado.getAsInt(); // calentamiento
+        }
+        long mejor = Long.MAX_VALUE;
+        for (int i = 0; i < ITERACIONES; i++) {
+            long inicio = System.nanoTime();
+            resultado = filtrado.getAsInt();
+            mejor = Math.min(mejor, System.nanoTime() - inicio);
+        }
+        System.out.printf("%s: %9.3f ms  (%d gastos)%n", nombre, mejor / 1e6, resultado);
+    }
+}
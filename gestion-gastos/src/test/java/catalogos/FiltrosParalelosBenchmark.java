@@ -0,0 +1,108 @@
+package catalogos;
+
+import dominio.Categoria;
+import dominio.Gasto;
+import dominio.filtros.Filtro;
+import dominio.filtros.FiltroCategorias;
+import dominio.filtros.FiltroCompuesto;
+import dominio.filtros.FiltroDescripcion;
+import dominio.filtros.FiltroFechas;
+import dominio.filtros.FiltroImportes;
+import dominio.filtros.FiltroMeses;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntSupplier;
+
+/**
+ * Escalado de {@link Filtro#aplicarEnParalelo(List)} con el número de hilos, frente a
+ * {@link Filtro#aplicar(List)}, sobre la instantánea de un {@link CatalogoGastos} grande, para
+ * {@link FiltroFechas}, {@link FiltroMeses} y un {@link FiltroCompuesto}.
+ * <p>
+ * Cada medida en paralelo se lanza dentro de un {@link ForkJoinPool} con el paralelismo
+ * indicado, que es donde se ejecuta entonces el stream paralelo. No forma parte de la batería
+ * de tests. Se lanza igual que {@link ColumnasGastosBenchmark}:
+ * {@code java -Xmx6g -cp target/classes:target/test-classes:$(cat cp.txt) catalogos.FiltrosParalelosBenchmark [gastos]}.
+ * Mide el mejor tiempo de varias iteraciones.
+ * </p>
+ */
+public class FiltrosParalelosBenchmark {
+    private static final int ITERACIONES = 10;
+
+    public static void main(String[] args) throws Exception {
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : 4_000_000;
+        List<Gasto> gastos = generarCatalogo(cantidad).obtenerTodos();
+        int nucleos = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%d gastos, %d núcleos%n", cantidad, nucleos);
+
+        FiltroCompuesto compuesto = new FiltroCompuesto();
+        compuesto.agregarFiltro(new FiltroMeses(Set.of(Month.JUNE, Month.JULY, Month.AUGUST)));
+        compuesto.agregarFiltro(new FiltroImportes(20.0, 150.0));
+        compuesto.agregarFiltro(new FiltroCategorias(Set.of(new Categoria("categoría 3", null), new Categoria("Categoría 7", null))));
+        compuesto.agregarFiltro(new FiltroDescripcion("9"));
+
+        medir("fechas    ", new FiltroFechas(LocalDate.of(2021, 3, 1), LocalDate.of(2023, 8, 31)), gastos, nucleos);
+        medir("meses     ", new FiltroMeses(Set.of(Month.JANUARY, Month.FEBRUARY, Month.DECEMBER)), gastos, nucleos);
+        medir("compuesto ", compuesto, gastos, nucleos);
+    }
+
+    private static void medir(String nombre, Filtro filtro, List<Gasto> gastos, int nucleos) throws Exception {
+        long secuencial = mejorTiempo(() -> filtro.aplicar(gastos).size());
+        System.out.printf("%s secuencial  : %8.2f ms%n", nombre, secuencial / 1e6);
+        for (int hilos = 1; hilos <= nucleos; hilos *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(hilos);
+            try {
+                long paralelo = mejorTiempo(() -> enPool(pool, () -> filtro.aplicarEnParalelo(gastos).size()));
+                System.out.printf("%s %2d hilos    : %8.2f ms  (x%.2f)%n",
+                    nombre, hilos, paralelo / 1e6, (double) secuencial / paralelo);
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    private static int enPool(ForkJoinPool pool, Callable<Integer> tarea) {
+        try {
+            return pool.submit(tarea).get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static long mejorTiempo(IntSupplier filtrado) {
+        for (int i = 0; i < 3; i++) {
+            filtrado.getAsInt(); // calentamiento
+        }
+        long mejor = Long.MAX_VALUE;
+        for (int i = 0; i < ITERACIONES; i++) {
+            long inicio = System.nanoTime();
+            filtrado.getAsInt();
+            mejor = Math.min(mejor, System.nanoTime() - inicio);
+        }
+        return mejor;
+    }
+
+    private static CatalogoGastos generarCatalogo(int cantidad) {
+        Random aleatorio = new Random(42);
+        Categoria[] categorias = new Categoria[20];
+        for (int i = 0; i < categorias.length; i++) {
+            categorias[i] = new Categoria("Categoría " + i, null);
+        }
+        CatalogoGastos catalogo = new CatalogoGastos();
+        LocalDate origen = LocalDate.of(2020, 1, 1);
+        for (int i = 0; i < cantidad; i++) {
+            catalogo.agregarGasto(new Gasto(
+                aleatorio.nextInt(20_000) / 100.0,
+                origen.plusDays(aleatorio.nextInt(5 * 365)),
+                "Gasto " + i,
+                categorias[aleatorio.nextInt(categorias.length)]));
+        }
+        return catalogo;
+    }
+}
@@ -99,7 +99,7 @@ class ControladorAlertasIntegrationTest {
         
         controlador.modificarAlerta(alerta.getId(), 150.0, true);
         
-        verify(repositorio, times(1)).guardarAlertas(anyList());
+        verify(repositorio, times(1)).actualizarAlerta(alerta);
         assertThat(alerta.getLimiteGasto()).isEqualTo(150.0);
     }
     
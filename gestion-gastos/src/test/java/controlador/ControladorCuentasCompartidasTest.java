@@ -0,0 +1,69 @@
+package controlador;
+
+import dominio.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import catalogos.CatalogoCategorias;
+import catalogos.CatalogoCuentasCompartidas;
+import catalogos.CatalogoGastos;
+import repositorio.Repositorio;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests con Mocks para ControladorCuentasCompartidas.
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("Tests con Mocks - ControladorCuentasCompartidas")
+class ControladorCuentasCompartidasTest {
+
+    @Mock
+    private Repositorio repositorio;
+
+    private CatalogoCuentasCompartidas catalogoCuentas;
+    private ControladorCuentasCompartidas controlador;
+
+    @BeforeEach
+    void setUp() {
+        catalogoCuentas = new CatalogoCuentasCompartidas();
+        controlador = new ControladorCuentasCompartidas(repositorio, catalogoCuentas,
+                                                        new CatalogoCategorias(), new CatalogoGastos());
+    }
+
+    @Test
+    @DisplayName("Crear cuenta porcentual acepta un reparto a tercios con tres decimales")
+    void testCrearCuentaPorcentualTercios() {
+        Map<String, Double> porcentajes = new LinkedHashMap<>();
+        porcentajes.put("Ana", 33.333);
+        porcentajes.put("Luis", 33.333);
+        porcentajes.put("Eva", 33.334);
+
+        controlador.crearCuentaPorcentual("Piso", porcentajes);
+
+        assertThat(catalogoCuentas.obtenerTodas()).hasSize(1);
+        verify(repositorio).insertarCuenta(any(CuentaCompartida.class));
+    }
+
+    @Test
+    @DisplayName("Crear cuenta porcentual rechaza porcentajes que no suman 100%")
+    void testCrearCuentaPorcentualNoSuma100() {
+        Map<String, Double> porcentajes = new LinkedHashMap<>();
+        porcentajes.put("Ana", 33.333);
+        porcentajes.put("Luis", 33.333);
+        porcentajes.put("Eva", 33.32);
+
+        assertThatThrownBy(() -> controlador.crearCuentaPorcentual("Piso", porcentajes))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThat(catalogoCuentas.obtenerTodas()).isEmpty();
+        verifyNoInteractions(repositorio);
+    }
+}
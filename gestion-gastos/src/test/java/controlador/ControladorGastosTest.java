@@ -10,6 +10,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import catalogos.CatalogoCategorias;
 import catalogos.CatalogoGastos;
+import repositorio.HistoricoGastos;
 import repositorio.Repositorio;
 
 import java.time.LocalDate;
@@ -44,6 +45,7 @@ class ControladorGastosTest {
         catalogoGastos = new CatalogoGastos();
         catalogoCategorias = new CatalogoCategorias();
         alimentacion = catalogoCategorias.buscarPorNombre("Alimentación").get();
+        lenient().when(repositorio.historico()).thenReturn(HistoricoGastos.VACIO);
         
         controlador = new ControladorGastos(
             repositorio,
@@ -58,8 +60,8 @@ class ControladorGastosTest {
     void testRegistrarGastoInvocaPersistencia() {
         controlador.registrarGasto(50.0, LocalDate.now(), "Test", "Alimentación");
         
-        verify(repositorio, times(1)).guardarGastos(anyList());
-        verify(repositorio, times(1)).guardarCategorias(anyList());
+        verify(repositorio, times(1)).insertarGasto(any(Gasto.class));
+        verify(repositorio, never()).insertarCategoria(any(Categoria.class));
         verify(controladorAlertas, times(1)).verificarAlertas(anyList());
     }
     
@@ -73,6 +75,7 @@ class ControladorGastosTest {
         Optional<Categoria> categoria = catalogoCategorias.buscarPorNombre(categoriaNueva);
         assertThat(categoria).isPresent();
         assertThat(categoria.get().getNombre()).isEqualTo(categoriaNueva);
+        verify(repositorio, times(1)).insertarCategoria(categoria.get());
     }
     
     @Test
@@ -98,7 +101,7 @@ class ControladorGastosTest {
             gasto.getId(), 75.0, LocalDate.now(), "Modificado", "Alimentación"
         );
         
-        verify(repositorio, times(1)).guardarGastos(anyList());
+        verify(repositorio, times(1)).actualizarGasto(gasto);
         verify(controladorAlertas, times(1)).verificarAlertas(anyList());
     }
 
@@ -124,10 +127,28 @@ class ControladorGastosTest {
         
         controlador.eliminarGasto(gasto.getId());
         
-        verify(repositorio, times(1)).guardarGastos(anyList());
+        verify(repositorio, times(1)).eliminarGasto(gasto);
         assertThat(catalogoGastos.cantidadGastos()).isZero();
     }
-    
+
+    @Test
+    @DisplayName("Eliminar varios gastos persiste un solo lote")
+    void testEliminarGastosEnLote() {
+        controlador.registrarGasto(50.0, LocalDate.now(), "Uno", "Alimentación");
+        controlador.registrarGasto(20.0, LocalDate.now(), "Dos", "Alimentación");
+        controlador.registrarGasto(10.0, LocalDate.now(), "Tres", "Alimentación");
+        List<Gasto> gastos = catalogoGastos.obtenerTodos();
+
+        reset(repositorio);
+
+        int eliminados = controlador.eliminarGastos(
+            Arrays.asList(gastos.get(0).getId(), gastos.get(2).getId(), "id-inexistente"));
+
+        assertThat(eliminados).isEqualTo(2);
+        verify(repositorio, times(1)).eliminarGastos(Arrays.asList(gastos.get(0), gastos.get(2)));
+        assertThat(catalogoGastos.obtenerTodos()).containsExactly(gastos.get(1));
+    }
+
     @Test
     @DisplayName("Filtrar por categorías con categorías válidas")
     void testFiltrarPorCategorias() {
@@ -187,4 +208,22 @@ class ControladorGastosTest {
         controlador.modificarGasto(gasto.getId(), 60.0, LocalDate.now(), "Mod", "Alimentación");
         verify(controladorAlertas, times(2)).verificarAlertas(anyList());
     }
+    
+    @Test
+    @DisplayName("Filtrar por fecha y totales del intervalo incluyen los gastos archivados")
+    void testFiltrarPorFechaIncluyeArchivados() {
+        Gasto archivado = new Gasto(30.0, LocalDate.of(2019, 3, 1), "Archivado", alimentacion);
+        HistoricoGastos historico = mock(HistoricoGastos.class);
+        when(historico.cantidad()).thenReturn(1);
+        when(historico.gastosEntre(any(), any())).thenReturn(List.of(archivado));
+        when(historico.totalEntre(any(), any())).thenReturn(30.0);
+        when(repositorio.historico()).thenReturn(historico);
+        controlador.registrarGasto(50.0, LocalDate.of(2024, 1, 10), "Activo", "Alimentación");
+        
+        List<Gasto> filtrados = controlador.filtrarPorFecha(LocalDate.of(2019, 1, 1), LocalDate.of(2024, 12, 31));
+        
+        assertThat(filtrados).extracting(Gasto::getDescripcion).containsExactly("Archivado", "Activo");
+        assertThat(controlador.calcularTotalEntre(LocalDate.of(2019, 1, 1), LocalDate.of(2024, 12, 31)))
+            .isEqualTo(80.0);
+    }
 }
@@ -0,0 +1,43 @@
+package controlador;
+
+import catalogos.CatalogoAlertas;
+import catalogos.CatalogoCategorias;
+import catalogos.CatalogoCuentasCompartidas;
+import catalogos.CatalogoGastos;
+import dominio.Alerta;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests de la fuente de datos que el repositorio lee de los catálogos.
+ */
+@DisplayName("Tests - FuenteCatalogos")
+class FuenteCatalogosTest {
+
+    @Test
+    @DisplayName("Mientras el repositorio lee, las modificaciones de los catálogos esperan")
+    void testLeerExcluyeModificaciones() throws Exception {
+        CatalogoAlertas catalogoAlertas = new CatalogoAlertas();
+        FuenteCatalogos fuente = new FuenteCatalogos(new CatalogoGastos(), new CatalogoCategorias(),
+                                                     catalogoAlertas, new CatalogoCuentasCompartidas());
+        Alerta alerta = new Alerta();
+        catalogoAlertas.agregarAlerta(alerta);
+        Thread modificador = new Thread(() -> catalogoAlertas.modificarAlerta(alerta, a -> a.setActiva(false)));
+
+        boolean activaDuranteLectura = fuente.leer(() -> {
+            modificador.start();
+            try {
+                modificador.join(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return fuente.alerta(alerta.getId()).isActiva();
+        });
+        modificador.join();
+
+        assertThat(activaDuranteLectura).isTrue();
+        assertThat(alerta.isActiva()).isFalse();
+    }
+}
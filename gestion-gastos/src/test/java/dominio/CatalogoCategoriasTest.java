@@ -0,0 +1,56 @@
+package dominio;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import catalogos.CatalogoCategorias;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests de caja negra para el índice por nombre de CatalogoCategorias.
+ */
+@DisplayName("Tests de Caja Negra - CatalogoCategorias")
+class CatalogoCategoriasTest {
+
+    @Test
+    @DisplayName("Buscar por nombre ignora mayúsculas pero no acentos por defecto")
+    void testBuscarPorNombre() {
+        CatalogoCategorias catalogo = new CatalogoCategorias();
+
+        assertThat(catalogo.buscarPorNombre("SALUD")).isPresent();
+        assertThat(catalogo.buscarPorNombre("educación")).isPresent();
+        assertThat(catalogo.buscarPorNombre("Educacion")).isEmpty();
+        assertThatThrownBy(() -> catalogo.agregarCategoria(new Categoria("transporte", null)))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("Ya existe");
+    }
+
+    @Test
+    @DisplayName("Con el normalizador sin acentos, los nombres sin tilde coinciden")
+    void testBuscarSinAcentos() {
+        CatalogoCategorias catalogo = new CatalogoCategorias(NormalizadorTexto.SIN_MAYUSCULAS_NI_ACENTOS);
+
+        assertThat(catalogo.buscarPorNombre("EDUCACION")).get()
+            .extracting(Categoria::getNombre).isEqualTo("Educación");
+        assertThatThrownBy(() -> catalogo.agregarCategoria(new Categoria("Alimentacion", null)))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Buscar o crear añade la categoría una sola vez y eliminar libera el nombre")
+    void testBuscarOCrearYEliminar() {
+        CatalogoCategorias catalogo = new CatalogoCategorias();
+        int iniciales = catalogo.cantidadCategorias();
+
+        Categoria ocio = catalogo.buscarOCrear("Ocio", () -> new Categoria("Ocio", null));
+        assertThat(catalogo.buscarOCrear("ocio", () -> new Categoria("ocio", null))).isSameAs(ocio);
+        assertThat(catalogo.cantidadCategorias()).isEqualTo(iniciales + 1);
+
+        catalogo.eliminarCategoria(new Categoria("Ocio", null));
+        assertThat(catalogo.buscarPorNombre("Ocio")).isEmpty();
+        assertThat(catalogo.buscarPorId(ocio.getId())).isNull();
+        catalogo.agregarCategoria(new Categoria("OCIO", null));
+        assertThat(catalogo.cantidadCategorias()).isEqualTo(iniciales + 1);
+    }
+}
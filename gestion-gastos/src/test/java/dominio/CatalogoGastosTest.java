@@ -7,11 +7,20 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
 import catalogos.CatalogoGastos;
+import dominio.filtros.Filtro;
+import dominio.filtros.FiltroCategorias;
+import dominio.filtros.FiltroCompuesto;
+import dominio.filtros.FiltroFechas;
+import dominio.filtros.FiltroMeses;
+import dominio.filtros.Restricciones;
 
 import java.time.LocalDate;
 import java.time.Month;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.*;
 
@@ -151,4 +160,324 @@ class CatalogoGastosTest {
         assertThat(gastosAlimentacion).hasSize(2);
         assertThat(gastosAlimentacion).allMatch(g -> g.esDeCategoria(alimentacion));
     }
+    
+    @Test
+    @DisplayName("Rango de fechas devuelve los gastos ordenados por fecha, extremos incluidos")
+    void testRangoFechas() {
+        Gasto marzo = new Gasto(10.0, LocalDate.of(2024, 3, 1), "Marzo", alimentacion);
+        Gasto enero = new Gasto(20.0, LocalDate.of(2024, 1, 15), "Enero", transporte);
+        Gasto febrero = new Gasto(30.0, LocalDate.of(2024, 2, 10), "Febrero", alimentacion);
+        catalogo.agregarGasto(marzo);
+        catalogo.agregarGasto(enero);
+        catalogo.agregarGasto(febrero);
+        
+        assertThat(catalogo.rangoFechas(LocalDate.of(2024, 1, 15), LocalDate.of(2024, 2, 10)))
+            .containsExactly(enero, febrero);
+        assertThat(catalogo.rangoFechas(LocalDate.of(2024, 2, 1), null)).containsExactly(febrero, marzo);
+        assertThat(catalogo.rangoFechas(null, null)).containsExactly(enero, febrero, marzo);
+        assertThat(catalogo.rangoFechas(LocalDate.of(2024, 4, 1), LocalDate.of(2024, 3, 1))).isEmpty();
+    }
+    
+    @Test
+    @DisplayName("Modificar la fecha de un gasto lo mueve en el índice por fecha")
+    void testModificarGastoReindexa() {
+        Gasto gasto = new Gasto(10.0, LocalDate.of(2024, 1, 1), "Test", alimentacion);
+        catalogo.agregarGasto(gasto);
+        
+        catalogo.modificarGasto(gasto, g -> g.setFecha(LocalDate.of(2024, 6, 1)));
+        
+        assertThat(catalogo.rangoFechas(null, LocalDate.of(2024, 5, 31))).isEmpty();
+        assertThat(catalogo.rangoFechas(LocalDate.of(2024, 6, 1), null)).containsExactly(gasto);
+        
+        catalogo.eliminarGasto(gasto);
+        assertThat(catalogo.rangoFechas(null, null)).isEmpty();
+    }
+    
+    @Test
+    @DisplayName("El índice por categoría sigue los cambios de categoría y los borrados")
+    void testIndicePorCategoria() {
+        Gasto comida = new Gasto(50.0, LocalDate.now(), "Comida", alimentacion);
+        Gasto bus = new Gasto(30.0, LocalDate.now(), "Bus", transporte);
+        catalogo.agregarGasto(comida);
+        catalogo.agregarGasto(bus);
+        
+        catalogo.modificarGasto(bus, g -> g.setCategoria(new Categoria("ALIMENTACIÓN", null)));
+        
+        assertThat(catalogo.contarPorCategoria(alimentacion)).isEqualTo(2);
+        assertThat(catalogo.contarPorCategoria(transporte)).isZero();
+        assertThat(catalogo.obtenerPorCategorias(List.of(alimentacion, transporte)))
+            .containsExactly(comida, bus);
+        
+        catalogo.eliminarGasto(comida);
+        assertThat(catalogo.obtenerPorCategoria(alimentacion)).containsExactly(bus);
+    }
+    
+    @Test
+    @DisplayName("Los agregados se mantienen al añadir, modificar y eliminar")
+    void testAgregados() {
+        Gasto comida = new Gasto(50.0, LocalDate.of(2024, 1, 10), "Comida", alimentacion);
+        Gasto bus = new Gasto(30.0, LocalDate.of(2024, 2, 5), "Bus", transporte);
+        Gasto cena = new Gasto(20.0, LocalDate.of(2024, 2, 20), "Cena", alimentacion);
+        catalogo.agregarGasto(comida);
+        catalogo.agregarGasto(bus);
+        catalogo.agregarGasto(cena);
+        
+        catalogo.modificarGasto(comida, g -> g.setCantidad(5.0));
+        catalogo.eliminarGasto(bus);
+        
+        catalogos.AgregadosGastos.Resumen resumen = catalogo.resumen();
+        assertThat(resumen.getNumero()).isEqualTo(2);
+        assertThat(resumen.getTotal()).isEqualTo(25.0);
+        assertThat(resumen.getMinimo()).isEqualTo(5.0);
+        assertThat(resumen.getMaximo()).isEqualTo(20.0);
+        assertThat(catalogo.calcularTotal()).isEqualTo(25.0);
+        
+        assertThat(catalogo.resumenPorCategoria()).containsOnlyKeys(alimentacion);
+        assertThat(catalogo.resumenPorMes(null, null).get(java.time.YearMonth.of(2024, 2)).getTotal()).isEqualTo(20.0);
+    }
+    
+    @Test
+    @DisplayName("Quitar el gasto que marcaba el mínimo o el máximo recalcula el extremo de cada grupo")
+    void testExtremosTrasEliminar() {
+        Gasto caro = new Gasto(90.0, LocalDate.of(2024, 1, 10), "Caro", alimentacion);
+        Gasto barato = new Gasto(1.0, LocalDate.of(2024, 1, 11), "Barato", alimentacion);
+        Gasto medio = new Gasto(40.0, LocalDate.of(2024, 1, 12), "Medio", alimentacion);
+        Gasto otroMes = new Gasto(60.0, LocalDate.of(2024, 2, 1), "Otro mes", alimentacion);
+        Gasto bus = new Gasto(70.0, LocalDate.of(2024, 1, 15), "Bus", transporte);
+        List.of(caro, barato, medio, otroMes, bus).forEach(catalogo::agregarGasto);
+
+        catalogo.eliminarGasto(caro);
+        catalogo.modificarGasto(barato, g -> g.setCantidad(50.0));
+
+        java.time.YearMonth enero = java.time.YearMonth.of(2024, 1);
+        assertThat(catalogo.resumen().getMaximo()).isEqualTo(70.0);
+        assertThat(catalogo.resumen().getMinimo()).isEqualTo(40.0);
+        assertThat(catalogo.resumenPorCategoria().get(alimentacion).getMaximo()).isEqualTo(60.0);
+        assertThat(catalogo.resumenPorCategoria().get(alimentacion).getMinimo()).isEqualTo(40.0);
+        assertThat(catalogo.resumenPorMes(enero, enero).get(enero).getMaximo()).isEqualTo(70.0);
+        Map<Categoria, catalogos.AgregadosGastos.Resumen> eneroPorCategoria = catalogo.resumenPorCategoria(enero, enero);
+        assertThat(eneroPorCategoria.get(alimentacion).getMaximo()).isEqualTo(50.0);
+        assertThat(eneroPorCategoria.get(alimentacion).getMinimo()).isEqualTo(40.0);
+        assertThat(eneroPorCategoria.get(alimentacion).getTotal()).isEqualTo(90.0);
+    }
+    
+    @Test
+    @DisplayName("Los resúmenes mensuales distinguen años y se consultan por intervalo")
+    void testResumenPorMesConAnio() {
+        catalogo.agregarGasto(new Gasto(10.0, LocalDate.of(2023, 1, 5), "A", alimentacion));
+        catalogo.agregarGasto(new Gasto(20.0, LocalDate.of(2024, 1, 5), "B", alimentacion));
+        catalogo.agregarGasto(new Gasto(5.0, LocalDate.of(2024, 1, 20), "C", transporte));
+        catalogo.agregarGasto(new Gasto(7.0, LocalDate.of(2024, 3, 1), "D", transporte));
+        
+        java.time.YearMonth enero24 = java.time.YearMonth.of(2024, 1);
+        java.time.YearMonth marzo24 = java.time.YearMonth.of(2024, 3);
+        assertThat(catalogo.resumenPorMes(null, null)).hasSize(3);
+        assertThat(catalogo.resumenPorMes(enero24, marzo24).keySet()).containsExactly(enero24, marzo24);
+        assertThat(catalogo.resumenEntreMeses(enero24, marzo24).getTotal()).isEqualTo(32.0);
+        assertThat(catalogo.resumenEntreMeses(enero24, marzo24).getMinimo()).isEqualTo(5.0);
+        
+        Map<Categoria, catalogos.AgregadosGastos.Resumen> porCategoria =
+            catalogo.resumenPorCategoria(enero24, enero24);
+        assertThat(porCategoria.get(alimentacion).getTotal()).isEqualTo(20.0);
+        assertThat(porCategoria.get(transporte).getNumero()).isEqualTo(1);
+    }
+    
+    @Test
+    @DisplayName("Los totales por rango de fechas se calculan exactos en céntimos")
+    void testTotalesEntreFechas() {
+        Gasto a = new Gasto(0.1, LocalDate.of(2024, 1, 1), "A", alimentacion);
+        Gasto b = new Gasto(0.2, LocalDate.of(2024, 1, 2), "B", alimentacion);
+        Gasto c = new Gasto(5.0, LocalDate.of(2024, 1, 3), "C", transporte);
+        catalogo.agregarGasto(a);
+        catalogo.agregarGasto(b);
+        catalogo.agregarGasto(c);
+        catalogo.eliminarGasto(a);
+        catalogo.agregarGasto(new Gasto(0.1, LocalDate.of(2024, 2, 1), "D", alimentacion));
+        
+        assertThat(catalogo.calcularTotalEntre(null, null)).isEqualTo(5.3);
+        assertThat(catalogo.calcularTotalEntre(LocalDate.of(2024, 1, 2), LocalDate.of(2024, 1, 31))).isEqualTo(5.2);
+        assertThat(catalogo.calcularTotalCategoriaEntre(alimentacion, null, null)).isEqualTo(0.3);
+        assertThat(catalogo.calcularTotalesPorCategoriaEntre(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31)))
+            .containsOnly(entry(alimentacion, 0.2), entry(transporte, 5.0));
+    }
+
+    @Test
+    @DisplayName("obtenerTodos reutiliza una instantánea inmutable hasta el siguiente cambio")
+    void testInstantaneaInmutable() {
+        Gasto pan = new Gasto(1.2, LocalDate.of(2024, 1, 1), "Pan", alimentacion);
+        catalogo.agregarGasto(pan);
+
+        List<Gasto> antes = catalogo.obtenerTodos();
+        assertThat(catalogo.obtenerTodos()).isSameAs(antes);
+        assertThatThrownBy(() -> antes.add(pan)).isInstanceOf(UnsupportedOperationException.class);
+
+        catalogo.modificarGasto(pan, g -> g.setCantidad(1.5));
+        assertThat(catalogo.obtenerTodos()).isSameAs(antes);
+
+        Gasto bus = new Gasto(2.0, LocalDate.of(2024, 1, 2), "Bus", transporte);
+        catalogo.agregarGasto(bus);
+        assertThat(antes).containsExactly(pan);
+        assertThat(catalogo.obtenerTodos()).containsExactly(pan, bus);
+
+        catalogo.eliminarGasto(pan);
+        assertThat(catalogo.obtenerTodos()).containsExactly(bus);
+    }
+
+    @Test
+    @DisplayName("filtrar con índices devuelve lo mismo y en el mismo orden que evaluar el filtro sobre todos")
+    void testFiltrarConIndicesMismoResultado() {
+        LocalDate origen = LocalDate.of(2023, 1, 1);
+        for (int i = 0; i < 400; i++) {
+            catalogo.agregarGasto(new Gasto(i + 1.0, origen.plusDays(i * 2L), "Gasto " + i,
+                i % 4 == 0 ? transporte : alimentacion));
+        }
+        FiltroCompuesto compuesto = new FiltroCompuesto();
+        compuesto.agregarFiltro(new FiltroCategorias(Set.of(new Categoria("TRANSPORTE", null))));
+        compuesto.agregarFiltro(new FiltroFechas(LocalDate.of(2023, 6, 1), LocalDate.of(2024, 3, 31)));
+        FiltroCompuesto conMeses = new FiltroCompuesto();
+        conMeses.agregarFiltro(new FiltroMeses(Set.of(Month.FEBRUARY, Month.DECEMBER)));
+        conMeses.agregarFiltro(new FiltroFechas(LocalDate.of(2023, 2, 10), LocalDate.of(2024, 12, 5)));
+
+        for (Filtro filtro : List.of(compuesto, conMeses,
+                new FiltroCategorias(Set.of(alimentacion)),
+                new FiltroFechas(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31)))) {
+            assertThat(catalogo.filtrar(filtro))
+                .containsExactlyElementsOf(filtro.aplicar(catalogo.obtenerTodos()))
+                .isNotEmpty();
+        }
+    }
+
+    @Test
+    @DisplayName("filtrar devuelve el orden de inserción aunque el índice recorra en otro orden")
+    void testFiltrarEnOrdenDeInsercion() {
+        Gasto marzo = new Gasto(10.0, LocalDate.of(2024, 3, 1), "Marzo", transporte);
+        Gasto enero = new Gasto(20.0, LocalDate.of(2024, 1, 1), "Enero", alimentacion);
+        Gasto febrero = new Gasto(30.0, LocalDate.of(2024, 2, 1), "Febrero", transporte);
+        Gasto otroAnio = new Gasto(40.0, LocalDate.of(2020, 1, 1), "Fuera", transporte);
+        List.of(marzo, enero, febrero, otroAnio).forEach(catalogo::agregarGasto);
+        catalogo.modificarGasto(marzo, g -> g.setCategoria(alimentacion));
+
+        assertThat(catalogo.filtrar(new FiltroFechas(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31))))
+            .containsExactly(marzo, enero, febrero);
+        assertThat(catalogo.filtrar(new FiltroCategorias(Set.of(alimentacion))))
+            .containsExactly(marzo, enero);
+    }
+
+    @Test
+    @DisplayName("filtrar solo evalúa el filtro sobre los candidatos del índice más selectivo")
+    void testFiltrarRecorreSoloCandidatos() {
+        LocalDate hoy = LocalDate.of(2024, 12, 31);
+        for (int i = 0; i < 1000; i++) {
+            catalogo.agregarGasto(new Gasto(1.0, hoy.minusDays(i % 100), "Gasto " + i,
+                i % 10 == 0 ? transporte : alimentacion));
+        }
+        AtomicInteger evaluados = new AtomicInteger();
+        Filtro transporteUltimoMes = new Filtro() {
+            @Override
+            public boolean cumple(Gasto gasto) {
+                evaluados.incrementAndGet();
+                return gasto.esDeCategoria(transporte) && gasto.estaEnRango(hoy.minusDays(29), hoy);
+            }
+
+            @Override
+            public Restricciones restricciones() {
+                return Restricciones.deCategorias(Set.of(transporte))
+                    .y(Restricciones.entreFechas(hoy.minusDays(29), hoy));
+            }
+        };
+
+        List<Gasto> resultado = catalogo.filtrar(transporteUltimoMes);
+
+        assertThat(resultado).hasSize(30);
+        assertThat(evaluados.get()).isEqualTo(100); // los 100 de transporte, no los 300 del mes
+    }
+
+    @Test
+    @DisplayName("filtrar en paralelo también evalúa solo los candidatos del índice")
+    void testFiltrarEnParaleloRecorreSoloCandidatos() {
+        LocalDate hoy = LocalDate.of(2024, 12, 31);
+        for (int i = 0; i < 1000; i++) {
+            catalogo.agregarGasto(new Gasto(1.0, hoy.minusDays(i % 100), "Gasto " + i,
+                i % 10 == 0 ? transporte : alimentacion));
+        }
+        catalogo.setUmbralParalelo(1);
+        AtomicInteger evaluados = new AtomicInteger();
+        Filtro deTransporte = new Filtro() {
+            @Override
+            public boolean cumple(Gasto gasto) {
+                evaluados.incrementAndGet();
+                return gasto.esDeCategoria(transporte);
+            }
+
+            @Override
+            public Restricciones restricciones() {
+                return Restricciones.deCategorias(Set.of(transporte));
+            }
+        };
+
+        List<Gasto> resultado = catalogo.filtrar(deTransporte);
+
+        assertThat(evaluados.get()).isEqualTo(100);
+        assertThat(resultado).containsExactlyElementsOf(
+            catalogo.obtenerTodos().stream().filter(g -> g.esDeCategoria(transporte)).toList());
+    }
+
+    @Test
+    @DisplayName("filtrar en paralelo devuelve lo mismo y en el mismo orden que en secuencia")
+    void testFiltrarEnParalelo() {
+        LocalDate origen = LocalDate.of(2023, 1, 1);
+        for (int i = 0; i < 5000; i++) {
+            catalogo.agregarGasto(new Gasto(i % 300 + 0.5, origen.plusDays(i % 700), "Gasto " + i,
+                i % 3 == 0 ? transporte : alimentacion));
+        }
+        FiltroCompuesto compuesto = new FiltroCompuesto();
+        compuesto.agregarFiltro(new FiltroMeses(Set.of(Month.MARCH, Month.JULY)));
+        compuesto.agregarFiltro(new FiltroCategorias(Set.of(alimentacion)));
+        List<Filtro> filtros = List.of(compuesto,
+            new FiltroFechas(LocalDate.of(2023, 5, 1), LocalDate.of(2024, 2, 29)),
+            new FiltroCategorias(Set.of(transporte)),
+            g -> g.getCantidad() > 100);
+
+        for (Filtro filtro : filtros) {
+            catalogo.setUmbralParalelo(Integer.MAX_VALUE);
+            List<Gasto> secuencial = catalogo.filtrar(filtro);
+            catalogo.setUmbralParalelo(1);
+            assertThat(catalogo.filtrar(filtro)).isNotEmpty().containsExactlyElementsOf(secuencial);
+        }
+    }
+
+    @Test
+    @DisplayName("filtrar en paralelo no bloquea el catálogo mientras evalúa")
+    void testFiltrarEnParaleloSinCerrojo() throws InterruptedException {
+        LocalDate hoy = LocalDate.of(2024, 12, 31);
+        for (int i = 0; i < 100; i++) {
+            catalogo.agregarGasto(new Gasto(1.0, hoy.minusDays(i), "Gasto " + i, transporte));
+        }
+        catalogo.setUmbralParalelo(1);
+        Gasto nuevo = new Gasto(2.0, hoy, "Nuevo", transporte);
+        Thread alta = new Thread(() -> catalogo.agregarGasto(nuevo));
+        AtomicBoolean altaTerminada = new AtomicBoolean();
+        Filtro esperaAlta = new Filtro() {
+            @Override
+            public synchronized boolean cumple(Gasto gasto) {
+                if (alta.getState() == Thread.State.NEW) {
+                    alta.start();
+                    try {
+                        alta.join(2000);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    altaTerminada.set(!alta.isAlive());
+                }
+                return true;
+            }
+        };
+
+        List<Gasto> resultado = catalogo.filtrar(esperaAlta);
+        alta.join();
+
+        assertThat(altaTerminada).isTrue();
+        assertThat(resultado).hasSize(100).doesNotContain(nuevo);
+        assertThat(catalogo.obtenerTodos()).contains(nuevo);
+    }
 }
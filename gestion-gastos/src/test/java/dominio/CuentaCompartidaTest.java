@@ -0,0 +1,62 @@
+package dominio;
+
+import dominio.enums.TipoDistribucion;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests del reparto de gastos y el cálculo de saldos de CuentaCompartida.
+ */
+@DisplayName("Tests - CuentaCompartida")
+class CuentaCompartidaTest {
+
+    @Test
+    @DisplayName("Los saldos se reparten al céntimo y suman cero")
+    void testSaldosExactos() {
+        Persona ana = new Persona("Ana");
+        Persona luis = new Persona("Luis");
+        Persona marta = new Persona("Marta");
+        CuentaCompartida cuenta = new CuentaCompartida("Piso", TipoDistribucion.EQUITATIVA,
+                                                       List.of(ana, luis, marta));
+        for (int i = 0; i < 10; i++) {
+            cuenta.agregarGasto(new Gasto(10.0, LocalDate.of(2025, 3, 1), "Compra " + i, null), ana);
+        }
+        cuenta.agregarGasto(new Gasto(0.1, LocalDate.of(2025, 3, 2), "Chicle", null), luis);
+
+        long suma = cuenta.getPersonas().stream().mapToLong(Persona::getSaldoCentimos).sum();
+        assertThat(suma).isZero();
+        // 10 € se reparten 3,34 + 3,33 + 3,33 y 0,10 € como 0,04 + 0,03 + 0,03
+        assertThat(ana.getSaldoCentimos()).isEqualTo(10 * (1000 - 334) - 4);
+        assertThat(luis.getSaldoCentimos()).isEqualTo(-10 * 333 + 10 - 3);
+        assertThat(marta.getSaldo()).isEqualTo(-33.33);
+        assertThat(cuenta.calcularTotalGastos()).isEqualTo(100.1);
+    }
+
+    @Test
+    @DisplayName("Los porcentajes personalizados deben sumar exactamente 100")
+    void testPorcentajesPersonalizados() {
+        assertThatCode(() -> new CuentaCompartida("Viaje", TipoDistribucion.PERSONALIZADA,
+            List.of(new Persona("Ana", 33.33), new Persona("Luis", 33.33), new Persona("Marta", 33.34))))
+            .doesNotThrowAnyException();
+        assertThatThrownBy(() -> new CuentaCompartida("Viaje", TipoDistribucion.PERSONALIZADA,
+            List.of(new Persona("Ana", 33.33), new Persona("Luis", 33.33), new Persona("Marta", 33.33))))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("sumar 100%");
+    }
+
+    @Test
+    @DisplayName("Los porcentajes con más de dos decimales se suman antes de redondear")
+    void testPorcentajesConMasDecimales() {
+        assertThatCode(() -> new CuentaCompartida("Viaje", TipoDistribucion.PERSONALIZADA,
+            List.of(new Persona("Ana", 33.333), new Persona("Luis", 33.333), new Persona("Marta", 33.334))))
+            .doesNotThrowAnyException();
+        assertThatThrownBy(() -> new CuentaCompartida("Viaje", TipoDistribucion.PERSONALIZADA,
+            List.of(new Persona("Ana", 33.333), new Persona("Luis", 33.333), new Persona("Marta", 33.32))))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
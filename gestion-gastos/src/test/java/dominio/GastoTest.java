@@ -103,6 +103,19 @@ class GastoTest {
         assertThat(gasto.getCantidad()).isEqualTo(75.0);
     }
     
+    @Test
+    @DisplayName("La cantidad se guarda redondeada al céntimo")
+    void testCantidadEnCentimos() {
+        gasto.setCantidad(0.1 + 0.2);
+        assertThat(gasto.getCentimos()).isEqualTo(30L);
+        assertThat(gasto.getCantidad()).isEqualTo(0.3);
+
+        gasto.setCentimos(1999);
+        assertThat(gasto.getCantidad()).isEqualTo(19.99);
+        assertThatThrownBy(() -> gasto.setCentimos(-1))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
     @DisplayName("ID único entre instancias")
     void testIdsUnicos() {
@@ -0,0 +1,62 @@
+package dominio;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests de los identificadores compactos de GeneradorIds.
+ */
+@DisplayName("Tests - GeneradorIds")
+class GeneradorIdsTest {
+
+    @Test
+    @DisplayName("Los ids son compactos y su orden alfabético es el de creación")
+    void testOrdenDeCreacion() {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            ids.add(GeneradorIds.siguiente());
+        }
+
+        assertThat(ids).allSatisfy(id -> assertThat(id).hasSize(GeneradorIds.LONGITUD));
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+        for (int i = 1; i < ids.size(); i++) {
+            assertThat(Long.compareUnsigned(GeneradorIds.aNumero(ids.get(i - 1)),
+                                            GeneradorIds.aNumero(ids.get(i)))).isNegative();
+        }
+    }
+
+    @Test
+    @DisplayName("No se repiten ids generados desde varios hilos")
+    void testUnicosEntreHilos() {
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        IntStream.range(0, 100_000).parallel().forEach(i -> ids.add(GeneradorIds.siguiente()));
+
+        assertThat(ids).hasSize(100_000);
+    }
+
+    @Test
+    @DisplayName("Los UUID de datos antiguos se distinguen y se siguen usando como id")
+    void testUuidAntiguos() {
+        String uuid = UUID.randomUUID().toString();
+        Gasto antiguo = new Gasto();
+        antiguo.setId(uuid);
+        Gasto mismo = new Gasto();
+        mismo.setId(uuid);
+
+        assertThat(GeneradorIds.esCompacto(uuid)).isFalse();
+        assertThat(GeneradorIds.esCompacto(new Gasto().getId())).isTrue();
+        assertThat(antiguo).isEqualTo(mismo);
+        assertThat(new HashSet<>(List.of(antiguo, mismo))).hasSize(1);
+        assertThatThrownBy(() -> GeneradorIds.aNumero(uuid)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,108 @@
+package dominio.filtros;
+
+import dominio.Categoria;
+import dominio.Gasto;
+import dominio.Persona;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests del analizador de expresiones de filtro y de los filtros "o" y "no".
+ */
+@DisplayName("Tests de AnalizadorFiltros")
+class AnalizadorFiltrosTest {
+
+    private Gasto cine;
+    private Gasto supermercado;
+    private Gasto cenaCompartida;
+    private Gasto alquiler;
+    private List<Gasto> gastos;
+
+    @BeforeEach
+    void setUp() {
+        Categoria ocio = new Categoria("Ocio", null);
+        Categoria alimentacion = new Categoria("Alimentación", null);
+        Categoria hogar = new Categoria("Hogar y jardín", null);
+        cine = new Gasto(9.5, LocalDate.of(2025, 3, 14), "Entradas de cine", ocio);
+        supermercado = new Gasto(62.3, LocalDate.of(2025, 3, 20), "Súper semanal", alimentacion);
+        cenaCompartida = new Gasto(48.0, LocalDate.of(2025, 4, 2), "Cena de cumpleaños", ocio);
+        cenaCompartida.setPagador(new Persona("Ana"));
+        alquiler = new Gasto(750.0, LocalDate.of(2024, 12, 1), "Alquiler", hogar);
+        gastos = List.of(cine, supermercado, cenaCompartida, alquiler);
+    }
+
+    private List<Gasto> filtrar(String expresion) {
+        return AnalizadorFiltros.analizar(expresion).aplicar(gastos);
+    }
+
+    @Test
+    @DisplayName("Combina condiciones con y, o, no y paréntesis")
+    void testCombinaciones() {
+        assertThat(filtrar("categoria = ocio y no compartido")).containsExactly(cine);
+        assertThat(filtrar("categoria = Ocio o descripcion contiene super")).containsExactly(cine, supermercado, cenaCompartida);
+        assertThat(filtrar("(categoria = \"Hogar y jardín\" o importe < 10) y fecha >= 2025-01-01")).containsExactly(cine);
+        assertThat(filtrar("mes = marzo, ABRIL y importe >= 48")).containsExactly(supermercado, cenaCompartida);
+        assertThat(filtrar("pagador = ana")).containsExactly(cenaCompartida);
+        assertThat(filtrar("no (fecha < 2025-03-15 o personal)")).containsExactly(cenaCompartida);
+        assertThat(filtrar("importe = 750 o Descripción contiene CUMPLEANOS")).containsExactly(cenaCompartida, alquiler);
+    }
+
+    @Test
+    @DisplayName("Pliega constantes y combina condiciones del mismo campo")
+    void testSimplificacion() {
+        assertThat(AnalizadorFiltros.analizar("fecha >= 2025-05-01 y fecha <= 2025-04-30 y importe > 1"))
+            .isSameAs(FiltroConstante.NINGUNO);
+        assertThat(AnalizadorFiltros.analizar("categoria = Ocio y categoria = Hogar")).isSameAs(FiltroConstante.NINGUNO);
+        assertThat(AnalizadorFiltros.analizar("compartido o personal")).isSameAs(FiltroConstante.TODOS);
+        assertThat(AnalizadorFiltros.analizar("no no todos y importe > 5")).isInstanceOf(FiltroImportes.class);
+
+        Filtro fechas = AnalizadorFiltros.analizar("fecha >= 2025-01-01 y (fecha <= 2025-03-31 y mes = marzo)");
+        assertThat(fechas).isInstanceOf(FiltroCompuesto.class);
+        assertThat(((FiltroCompuesto) fechas).getFiltros()).hasSize(2);
+        assertThat(fechas.restricciones().getDesde()).isEqualTo(LocalDate.of(2025, 1, 1));
+        assertThat(fechas.restricciones().getHasta()).isEqualTo(LocalDate.of(2025, 3, 31));
+
+        Filtro categorias = AnalizadorFiltros.analizar("categoria = Ocio o categoria = Alimentación o categoria = ocio");
+        assertThat(categorias).isInstanceOf(FiltroCategorias.class);
+        assertThat(categorias.restricciones().getCategorias()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("La disyunción aporta la envolvente de las restricciones de sus ramas")
+    void testRestriccionesDisyuncion() {
+        FiltroDisyuncion disyuncion = new FiltroDisyuncion();
+        disyuncion.agregarFiltro(new FiltroMeses(Set.of(Month.MARCH)));
+        disyuncion.agregarFiltro(new FiltroMeses(Set.of(Month.JUNE)));
+        disyuncion.agregarFiltro(new FiltroFechas(null, LocalDate.of(2024, 1, 1)));
+
+        assertThat(disyuncion.restricciones().getMeses()).isNull();
+        assertThat(disyuncion.aplicar(gastos)).containsExactly(cine, supermercado);
+        assertThat(new FiltroNegacion(disyuncion).aplicar(gastos)).containsExactly(cenaCompartida, alquiler);
+        assertThat(new FiltroDisyuncion().aplicar(gastos)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Las expresiones mal formadas indican la posición del error")
+    void testErrores() {
+        assertThatThrownBy(() -> AnalizadorFiltros.analizar("importe > diez"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessageContaining("posición 11");
+        assertThatThrownBy(() -> AnalizadorFiltros.analizar("categoria = Ocio y"))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> AnalizadorFiltros.analizar("(mes = marzo"))
+            .hasMessageContaining("')'");
+        assertThatThrownBy(() -> AnalizadorFiltros.analizar("color = rojo"))
+            .hasMessageContaining("condición desconocida");
+        assertThatThrownBy(() -> AnalizadorFiltros.analizar("categoria = Viajes", nombre -> Optional.empty()))
+            .hasMessageContaining("Categoría no encontrada: Viajes");
+    }
+}
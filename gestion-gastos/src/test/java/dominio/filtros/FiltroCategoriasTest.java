@@ -0,0 +1,47 @@
+package dominio.filtros;
+
+import dominio.Categoria;
+import dominio.Gasto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests de FiltroCategorias con claves de nombre precalculadas.
+ */
+@DisplayName("Tests de FiltroCategorias")
+class FiltroCategoriasTest {
+
+    @Test
+    @DisplayName("Acepta la categoría sin distinguir mayúsculas, igual que esDeCategoria")
+    void testMismoCriterioQueEsDeCategoria() {
+        Categoria salud = new Categoria("Salud", null);
+        Categoria ocio = new Categoria("Ocio", null);
+        FiltroCategorias filtro = new FiltroCategorias(Set.of(new Categoria("SALUD", null)));
+
+        Gasto farmacia = new Gasto(12.0, LocalDate.of(2025, 1, 10), "Farmacia", salud);
+        Gasto cine = new Gasto(8.0, LocalDate.of(2025, 1, 11), "Cine", ocio);
+        Gasto sinCategoria = new Gasto(3.0, LocalDate.of(2025, 1, 12), "Otro", null);
+
+        assertThat(filtro.cumple(farmacia)).isTrue();
+        assertThat(filtro.cumple(cine)).isFalse();
+        assertThat(filtro.cumple(sinCategoria)).isFalse();
+    }
+
+    @Test
+    @DisplayName("La clave de la categoría se actualiza al cambiar el nombre")
+    void testClaveTrasCambiarNombre() {
+        Categoria categoria = new Categoria("Viajes", null);
+        Gasto hotel = new Gasto(90.0, LocalDate.of(2025, 3, 1), "Hotel", categoria);
+        assertThat(categoria.getClave()).isEqualTo("viajes");
+
+        categoria.setNombre("Vacaciones");
+
+        assertThat(new FiltroCategorias(Set.of(new Categoria("vacaciones", null))).cumple(hotel)).isTrue();
+        assertThat(new FiltroCategorias(Set.of(new Categoria("viajes", null))).cumple(hotel)).isFalse();
+    }
+}
@@ -0,0 +1,94 @@
+package dominio.filtros;
+
+import dominio.Categoria;
+import dominio.Gasto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests de FiltroCompuesto: evaluación en una pasada y orden de los filtros.
+ */
+@DisplayName("Tests de FiltroCompuesto")
+class FiltroCompuestoTest {
+
+    private List<Gasto> gastos;
+    private Categoria alimentacion;
+    private Categoria transporte;
+
+    @BeforeEach
+    void setUp() {
+        alimentacion = new Categoria("Alimentación", "Comida");
+        transporte = new Categoria("Transporte", "Movilidad");
+        gastos = new ArrayList<>();
+        LocalDate origen = LocalDate.of(2025, 1, 1);
+        for (int i = 0; i < 60; i++) {
+            gastos.add(new Gasto(i + 1.0, origen.plusDays(i * 6L), "Gasto " + i,
+                i % 3 == 0 ? transporte : alimentacion));
+        }
+    }
+
+    @Test
+    @DisplayName("El resultado coincide con aplicar los filtros uno tras otro")
+    void testMismoResultadoQueEnCadena() {
+        List<Filtro> filtros = List.of(
+            new FiltroMeses(Set.of(Month.MARCH, Month.APRIL, Month.MAY)),
+            new FiltroCategorias(Set.of(alimentacion)),
+            new FiltroFechas(LocalDate.of(2025, 3, 15), LocalDate.of(2025, 12, 31)));
+        FiltroCompuesto compuesto = new FiltroCompuesto();
+        filtros.forEach(compuesto::agregarFiltro);
+
+        List<Gasto> enCadena = gastos;
+        for (Filtro filtro : filtros) {
+            enCadena = filtro.aplicar(enCadena);
+        }
+
+        assertThat(enCadena).isNotEmpty();
+        assertThat(compuesto.aplicar(gastos)).containsExactlyElementsOf(enCadena);
+        assertThat(gastos).filteredOn(compuesto::cumple).containsExactlyElementsOf(enCadena);
+    }
+
+    @Test
+    @DisplayName("Se comprueba primero el filtro más selectivo y se corta al primer descarte")
+    void testOrdenPorSelectividadYCortocircuito() {
+        List<String> llamadas = new ArrayList<>();
+        FiltroCompuesto compuesto = new FiltroCompuesto();
+        compuesto.agregarFiltro(contador("amplio", 0.9, true, llamadas));
+        compuesto.agregarFiltro(contador("estrecho", 0.1, false, llamadas));
+
+        assertThat(compuesto.aplicar(gastos.subList(0, 3))).isEmpty();
+        assertThat(llamadas).containsExactly("estrecho", "estrecho", "estrecho");
+    }
+
+    @Test
+    @DisplayName("Compuesto vacío deja pasar todo y estima selectividad 1")
+    void testCompuestoVacio() {
+        FiltroCompuesto compuesto = new FiltroCompuesto();
+
+        assertThat(compuesto.aplicar(gastos)).containsExactlyElementsOf(gastos);
+        assertThat(compuesto.selectividad()).isEqualTo(1.0);
+    }
+
+    private static Filtro contador(String nombre, double selectividad, boolean resultado, List<String> llamadas) {
+        return new Filtro() {
+            @Override
+            public boolean cumple(Gasto gasto) {
+                llamadas.add(nombre);
+                return resultado;
+            }
+
+            @Override
+            public double selectividad() {
+                return selectividad;
+            }
+        };
+    }
+}
@@ -0,0 +1,86 @@
+package repositorio;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests de la escritura atómica y rotación de instantáneas.
+ */
+@DisplayName("Tests - AlmacenInstantaneas")
+class AlmacenInstantaneasTest {
+
+    @TempDir
+    Path directorio;
+
+    private Path archivo;
+    private AlmacenInstantaneas almacen;
+
+    @BeforeEach
+    void setUp() {
+        archivo = directorio.resolve("datos.json");
+        almacen = new AlmacenInstantaneas(archivo, 2);
+    }
+
+    private void escribir(String contenido) throws IOException {
+        almacen.escribir(salida -> salida.write(contenido.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private Optional<String> cargar() {
+        return almacen.cargar(ruta -> {
+            String contenido = Files.readString(ruta);
+            if (!contenido.endsWith("}")) {
+                throw new IOException("Instantánea truncada");
+            }
+            return contenido;
+        });
+    }
+
+    @Test
+    @DisplayName("Escribir conserva las generaciones anteriores sin dejar temporales")
+    void testRotacionGeneraciones() throws Exception {
+        escribir("{v1}");
+        escribir("{v2}");
+        escribir("{v3}");
+        escribir("{v4}");
+
+        assertThat(Files.readString(archivo)).isEqualTo("{v4}");
+        assertThat(Files.readString(directorio.resolve("datos.json.1"))).isEqualTo("{v3}");
+        assertThat(Files.readString(directorio.resolve("datos.json.2"))).isEqualTo("{v2}");
+        assertThat(directorio.resolve("datos.json.3")).doesNotExist();
+        assertThat(directorio.resolve("datos.json.tmp")).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Si la instantánea actual está dañada se recupera la generación anterior")
+    void testRecuperaGeneracionValida() throws Exception {
+        escribir("{v1}");
+        escribir("{v2}");
+        Files.writeString(archivo, "{v2 trunc");
+
+        assertThat(cargar()).contains("{v1}");
+    }
+
+    @Test
+    @DisplayName("Un fallo al serializar no toca la instantánea existente")
+    void testFalloAlEscribirNoCorrompe() throws Exception {
+        escribir("{v1}");
+
+        assertThatThrownBy(() -> almacen.escribir(salida -> {
+            salida.write("{parcial".getBytes(StandardCharsets.UTF_8));
+            throw new IOException("Disco lleno");
+        })).isInstanceOf(IOException.class);
+
+        assertThat(cargar()).contains("{v1}");
+        assertThat(directorio.resolve("datos.json.tmp")).doesNotExist();
+    }
+}
@@ -0,0 +1,95 @@
+package repositorio;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import dominio.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Comparativa de carga del archivo de datos: databind completo del formato 1 frente a
+ * {@link CargadorStreaming} sobre los formatos 1 y 2 ({@link FormatoDatos}).
+ * <p>
+ * No forma parte de la batería de tests (surefire solo ejecuta {@code *Test}). Se lanza con:
+ * {@code mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=cp.txt} y
+ * {@code java -cp target/classes:target/test-classes:$(cat cp.txt) repositorio.CargaDatosBenchmark [gastos]}.
+ * Mide el mejor tiempo de varias iteraciones y la memoria retenida por el resultado.
+ * </p>
+ */
+public class CargaDatosBenchmark {
+    private static final int ITERACIONES = 5;
+
+    public static void main(String[] args) throws Exception {
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.enable(SerializationFeature.INDENT_OUTPUT);
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        Path legado = Files.createTempFile("benchmark-datos-v1", ".json");
+        Path normalizado = Files.createTempFile("benchmark-datos-v2", ".json");
+        try {
+            DatosAplicacion datos = generarDatos(cantidad);
+            mapper.writeValue(legado.toFile(), datos);
+            mapper.writeValue(normalizado.toFile(), FormatoDatos.aDocumento(datos));
+            System.out.printf("Archivo formato 1: %d gastos, %.1f MB%n", cantidad, Files.size(legado) / 1e6);
+            System.out.printf("Archivo formato 2: %d gastos, %.1f MB%n", cantidad, Files.size(normalizado) / 1e6);
+
+            CargadorStreaming cargador = new CargadorStreaming(mapper);
+            medir("databind v1 ", () -> mapper.readValue(legado.toFile(), DatosAplicacion.class));
+            medir("streaming v1", () -> cargador.cargar(legado));
+            medir("streaming v2", () -> cargador.cargar(normalizado));
+        } finally {
+            Files.deleteIfExists(legado);
+            Files.deleteIfExists(normalizado);
+        }
+    }
+
+    private interface Carga {
+        DatosAplicacion cargar() throws Exception;
+    }
+
+    private static void medir(String nombre, Carga carga) throws Exception {
+        carga.cargar(); // calentamiento
+        long mejor = Long.MAX_VALUE;
+        for (int i = 0; i < ITERACIONES; i++) {
+            long inicio = System.nanoTime();
+            carga.cargar();
+            mejor = Math.min(mejor, System.nanoTime() - inicio);
+        }
+
+        long antes = memoriaUsada();
+        DatosAplicacion retenido = carga.cargar();
+        long retenida = memoriaUsada() - antes;
+
+        System.out.printf("%s: %6.1f ms  memoria retenida %6.1f MB  (%d gastos)%n",
+                          nombre, mejor / 1e6, retenida / 1e6, retenido.getGastos().size());
+    }
+
+    private static long memoriaUsada() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static DatosAplicacion generarDatos(int cantidad) {
+        List<Categoria> categorias = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            categorias.add(new Categoria("Categoría " + i, "Importada automáticamente"));
+        }
+        List<Gasto> gastos = new ArrayList<>(cantidad);
+        LocalDate inicio = LocalDate.of(2015, 1, 1);
+        for (int i = 0; i < cantidad; i++) {
+            gastos.add(new Gasto((i % 5000) / 100.0, inicio.plusDays(i % 3650),
+                                 "Gasto de prueba " + i, categorias.get(i % categorias.size())));
+        }
+        return new DatosAplicacion(gastos, categorias, new ArrayList<>(), new ArrayList<>());
+    }
+}
@@ -0,0 +1,67 @@
+package repositorio;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import dominio.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests de la carga en streaming del archivo de datos.
+ */
+@DisplayName("Tests - CargadorStreaming")
+class CargadorStreamingTest {
+
+    @TempDir
+    Path directorio;
+
+    private ObjectMapper mapper;
+    private Path archivo;
+
+    @BeforeEach
+    void setUp() {
+        mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        archivo = directorio.resolve("datos.json");
+    }
+
+    @Test
+    @DisplayName("Los gastos que comparten categoría reciben una única instancia")
+    void testInternaCategorias() throws Exception {
+        Categoria comida = new Categoria("Comida", "Supermercado");
+        List<Gasto> gastos = List.of(
+            new Gasto(10.0, LocalDate.of(2025, 1, 1), "Pan", comida),
+            new Gasto(20.0, LocalDate.of(2025, 1, 2), "Fruta", comida));
+        mapper.writeValue(archivo.toFile(),
+            new DatosAplicacion(gastos, List.of(comida), new ArrayList<>(), new ArrayList<>()));
+
+        DatosAplicacion datos = new CargadorStreaming(mapper).cargar(archivo);
+
+        assertThat(datos.getGastos()).hasSize(2);
+        Categoria cargada = datos.getCategorias().get(0);
+        assertThat(datos.getGastos()).allSatisfy(gasto -> assertThat(gasto.getCategoria()).isSameAs(cargada));
+    }
+
+    @Test
+    @DisplayName("Un archivo que no es un objeto JSON se rechaza")
+    void testFormatoNoValido() throws Exception {
+        Files.writeString(archivo, "[1, 2, 3]");
+
+        assertThatThrownBy(() -> new CargadorStreaming(mapper).cargar(archivo))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("Formato de datos no válido");
+    }
+}
@@ -0,0 +1,78 @@
+package repositorio;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests de la programación de volcados del escritor diferido.
+ */
+@DisplayName("Tests - EscritorDiferido")
+class EscritorDiferidoTest {
+
+    private EscritorDiferido escritor;
+
+    @AfterEach
+    void tearDown() {
+        if (escritor != null) {
+            escritor.cerrar();
+        }
+    }
+
+    @Test
+    @DisplayName("Un cambio marcado durante un volcado lento programa otro volcado")
+    void testCambioDuranteVolcadoLento() throws InterruptedException {
+        CountDownLatch empezado = new CountDownLatch(1);
+        CountDownLatch continuar = new CountDownLatch(1);
+        CountDownLatch segundo = new CountDownLatch(1);
+        AtomicInteger volcados = new AtomicInteger();
+        escritor = new EscritorDiferido(() -> {
+            if (volcados.incrementAndGet() == 1) {
+                empezado.countDown();
+                esperar(continuar);
+            } else {
+                segundo.countDown();
+            }
+        }, 10);
+
+        escritor.programar();
+        assertThat(empezado.await(5, TimeUnit.SECONDS)).isTrue();
+        escritor.programar(); // el primer volcado sigue escribiendo
+        continuar.countDown();
+
+        assertThat(segundo.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Tras un volcado fallido se reintenta sin esperar a otro cambio")
+    void testReintentoTrasFallo() throws InterruptedException {
+        CountDownLatch escrito = new CountDownLatch(1);
+        AtomicInteger intentos = new AtomicInteger();
+        escritor = new EscritorDiferido(() -> {
+            if (intentos.incrementAndGet() < 3) {
+                escritor.reintentar();
+            } else {
+                escrito.countDown();
+            }
+        }, 10);
+
+        escritor.programar();
+
+        assertThat(escrito.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(intentos.get()).isEqualTo(3);
+    }
+
+    private static void esperar(CountDownLatch senal) {
+        try {
+            senal.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package repositorio;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import dominio.*;
+import dominio.enums.TipoDistribucion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests del formato normalizado del archivo de datos y de la migración desde el formato 1.
+ */
+@DisplayName("Tests - FormatoDatos")
+class FormatoDatosTest {
+
+    @TempDir
+    Path directorio;
+
+    private ObjectMapper mapper;
+    private Path archivo;
+    private Categoria comida;
+    private CuentaCompartida piso;
+    private Gasto compra;
+
+    @BeforeEach
+    void setUp() {
+        mapper = new ObjectMapper();
+        mapper.registerModule(new JavaTimeModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        archivo = directorio.resolve("datos_gastos.json");
+
+        comida = new Categoria("Comida", "Supermercado");
+        Persona ana = new Persona("Ana");
+        piso = new CuentaCompartida("Piso", TipoDistribucion.EQUITATIVA, List.of(ana, new Persona("Luis")));
+        compra = new Gasto(30.0, LocalDate.of(2025, 3, 1), "Compra", comida);
+        piso.agregarGasto(compra, ana);
+    }
+
+    private static ConfiguracionPersistencia sincrono() {
+        return ConfiguracionPersistencia.porDefecto().conVentanaMs(0);
+    }
+
+    @Test
+    @DisplayName("Un archivo del formato 1 se migra al cargarlo y conserva una instancia por entidad")
+    void testMigracionDesdeFormatoLegado() throws Exception {
+        Gasto pan = new Gasto(2.0, LocalDate.of(2025, 3, 2), "Pan", comida);
+        mapper.writeValue(archivo.toFile(), new DatosAplicacion(
+            List.of(compra, pan), List.of(comida), new ArrayList<>(), List.of(piso)));
+
+        RepositorioJSON repositorio = new RepositorioJSON(archivo, sincrono());
+
+        JsonNode migrado = mapper.readTree(archivo.toFile());
+        assertThat(migrado.get("version").asInt()).isEqualTo(FormatoDatos.VERSION_ACTUAL);
+        assertThat(migrado.get("gastos").get(0).get("categoriaId").asText()).isEqualTo(comida.getId());
+        assertThat(migrado.get("gastos").get(0).has("categoria")).isFalse();
+        assertThat(migrado.get("cuentasCompartidas").get(0).get("gastos").get(0).asText()).isEqualTo(compra.getId());
+
+        List<Gasto> gastos = repositorio.obtenerTodosLosGastos();
+        CuentaCompartida cuenta = repositorio.obtenerTodasLasCuentas().get(0);
+        Categoria categoria = repositorio.obtenerTodasLasCategorias().get(0);
+        assertThat(gastos).allSatisfy(gasto -> assertThat(gasto.getCategoria()).isSameAs(categoria));
+        assertThat(cuenta.getGastos().get(0)).isSameAs(gastos.get(0));
+        assertThat(gastos.get(0).getPagador()).isSameAs(cuenta.getPersonas().get(0));
+    }
+
+    @Test
+    @DisplayName("El formato 2 se recarga con las mismas referencias compartidas")
+    void testGuardarYRecargar() {
+        RepositorioJSON repositorio = new RepositorioJSON(archivo, sincrono());
+        repositorio.guardarCategorias(List.of(comida));
+        repositorio.guardarGastos(List.of(compra));
+        repositorio.guardarCuentasCompartidas(List.of(piso));
+
+        RepositorioJSON recargado = new RepositorioJSON(archivo, sincrono());
+
+        Gasto gasto = recargado.obtenerTodosLosGastos().get(0);
+        CuentaCompartida cuenta = recargado.obtenerTodasLasCuentas().get(0);
+        assertThat(gasto.getCantidad()).isEqualTo(30.0);
+        assertThat(gasto.getCategoria()).isSameAs(recargado.obtenerTodasLasCategorias().get(0));
+        assertThat(cuenta.getGastos()).containsExactly(gasto);
+        assertThat(cuenta.getGastos().get(0)).isSameAs(gasto);
+        assertThat(gasto.getPagador()).isSameAs(cuenta.getPersonas().get(0));
+    }
+
+    @Test
+    @DisplayName("Los importes se escriben en euros con decimales y se leen exactos en céntimos")
+    void testImportesDecimales() throws Exception {
+        RepositorioJSON repositorio = new RepositorioJSON(archivo, sincrono());
+        Gasto cafe = new Gasto(0.1, LocalDate.of(2025, 3, 3), "Café", comida);
+        Gasto menu = new Gasto(19.99, LocalDate.of(2025, 3, 3), "Menú", comida);
+        repositorio.guardarCategorias(List.of(comida));
+        repositorio.guardarGastos(List.of(cafe, menu));
+
+        JsonNode escrito = mapper.readTree(archivo.toFile());
+        assertThat(escrito.get("gastos").get(0).get("cantidad").asText()).isEqualTo("0.1");
+        assertThat(escrito.get("gastos").get(1).get("cantidad").asText()).isEqualTo("19.99");
+
+        RepositorioJSON recargado = new RepositorioJSON(archivo, sincrono());
+        assertThat(recargado.obtenerTodosLosGastos()).extracting(Gasto::getCentimos).containsExactly(10L, 1999L);
+    }
+
+    @Test
+    @DisplayName("Una categoría referenciada que no está en la lista no se pierde")
+    void testCategoriaReferenciadaFueraDeLista() {
+        RepositorioJSON repositorio = new RepositorioJSON(archivo, sincrono());
+        repositorio.guardarGastos(List.of(compra));
+
+        RepositorioJSON recargado = new RepositorioJSON(archivo, sincrono());
+
+        assertThat(recargado.obtenerTodasLasCategorias()).isEmpty();
+        assertThat(recargado.obtenerTodosLosGastos().get(0).getCategoria().getNombre()).isEqualTo("Comida");
+    }
+
+    @Test
+    @DisplayName("El documento no comparte objetos mutables con el dominio")
+    void testDocumentoIndependienteDelDominio() {
+        Alerta alerta = new Alerta();
+        alerta.setCategoria(comida);
+        Notificacion aviso = new Notificacion("Límite superado", alerta);
+        alerta.getNotificaciones().add(aviso);
+
+        FormatoDatos.Documento documento = FormatoDatos.aDocumento(new DatosAplicacion(
+            List.of(compra), List.of(comida), List.of(alerta), List.of(piso)));
+
+        aviso.marcarComoLeida();
+        alerta.getNotificaciones().add(new Notificacion("Otra vez", alerta));
+        piso.getPersonas().get(0).setSaldoCentimos(0);
+        comida.setNombre("Supermercado");
+
+        List<Notificacion> escritas = documento.getAlertas().get(0).getNotificaciones();
+        assertThat(escritas).hasSize(1);
+        assertThat(escritas.get(0).isLeida()).isFalse();
+        assertThat(documento.getCuentasCompartidas().get(0).getPersonas().get(0).getSaldoCentimos()).isEqualTo(1500L);
+        assertThat(documento.getCategorias().get(0).getNombre()).isEqualTo("Comida");
+    }
+}
@@ -0,0 +1,80 @@
+package repositorio;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dominio.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Comparativa de tamaño y tiempos de guardado y carga entre {@link RepositorioJSON} y
+ * {@link RepositorioBinario} sobre el mismo conjunto de datos.
+ * <p>
+ * No forma parte de la batería de tests (surefire solo ejecuta {@code *Test}). Se lanza como
+ * {@link CargaDatosBenchmark}, con el número de gastos como argumento (por defecto un millón;
+ * conviene dar memoria suficiente, p. ej. {@code -Xmx4g}).
+ * </p>
+ */
+public class FormatosBenchmark {
+    private static final int ITERACIONES = 3;
+
+    public static void main(String[] args) throws Exception {
+        int cantidad = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        FormatoDatos.Documento documento = FormatoDatos.aDocumento(generarDatos(cantidad));
+        Path directorio = Files.createTempDirectory("benchmark-formatos");
+        try {
+            medir("JSON  ", directorio.resolve("datos.json"), RepositorioJSON.crearMapper(), documento);
+            medir("Smile ", directorio.resolve("datos.smile"), RepositorioBinario.crearMapper(), documento);
+        } finally {
+            try (var archivos = Files.list(directorio)) {
+                for (Path archivo : (Iterable<Path>) archivos::iterator) {
+                    Files.deleteIfExists(archivo);
+                }
+            }
+            Files.deleteIfExists(directorio);
+        }
+    }
+
+    private static void medir(String nombre, Path archivo, ObjectMapper mapper,
+                              FormatoDatos.Documento documento) throws Exception {
+        AlmacenInstantaneas almacen = new AlmacenInstantaneas(archivo, 0);
+        CargadorStreaming cargador = new CargadorStreaming(mapper);
+
+        long mejorGuardado = Long.MAX_VALUE;
+        long mejorCarga = Long.MAX_VALUE;
+        for (int i = 0; i <= ITERACIONES; i++) {
+            long inicio = System.nanoTime();
+            almacen.escribir(salida -> mapper.writeValue(salida, documento));
+            long guardado = System.nanoTime() - inicio;
+
+            inicio = System.nanoTime();
+            cargador.cargar(archivo);
+            long carga = System.nanoTime() - inicio;
+
+            if (i > 0) { // la primera iteración es de calentamiento
+                mejorGuardado = Math.min(mejorGuardado, guardado);
+                mejorCarga = Math.min(mejorCarga, carga);
+            }
+        }
+
+        System.out.printf("%s: %7.1f MB  guardado %7.1f ms  carga %7.1f ms%n",
+                          nombre, Files.size(archivo) / 1e6, mejorGuardado / 1e6, mejorCarga / 1e6);
+    }
+
+    private static DatosAplicacion generarDatos(int cantidad) {
+        List<Categoria> categorias = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            categorias.add(new Categoria("Categoría " + i, "Importada automáticamente"));
+        }
+        List<Gasto> gastos = new ArrayList<>(cantidad);
+        LocalDate inicio = LocalDate.of(2015, 1, 1);
+        for (int i = 0; i < cantidad; i++) {
+            gastos.add(new Gasto((i % 5000) / 100.0, inicio.plusDays(i % 3650),
+                                 "Gasto de prueba " + (i % 500), categorias.get(i % categorias.size())));
+        }
+        return new DatosAplicacion(gastos, categorias, new ArrayList<>(), new ArrayList<>());
+    }
+}
@@ -0,0 +1,184 @@
+package repositorio;
+
+import dominio.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests del histórico de gastos proyectado en memoria y de su uso desde RepositorioJSON.
+ */
+@DisplayName("Tests - HistoricoMapeado")
+class HistoricoMapeadoTest {
+
+    @TempDir
+    Path directorio;
+
+    private Categoria alimentacion;
+    private Categoria transporte;
+
+    @BeforeEach
+    void setUp() {
+        alimentacion = new Categoria("Alimentación", "Comida");
+        transporte = new Categoria("Transporte", null);
+    }
+
+    @Test
+    @DisplayName("Los registros se materializan ordenados por fecha y con sus categorías")
+    void testEscribirYLeer() throws Exception {
+        Path archivo = directorio.resolve("datos_gastos.json.historico");
+        Gasto tren = new Gasto(12.35, LocalDate.of(2016, 3, 2), "Tren", transporte);
+        Gasto pan = new Gasto(1.2, LocalDate.of(2016, 1, 15), "Pan", alimentacion);
+        Gasto sinDescripcion = new Gasto(3.0, LocalDate.of(2016, 2, 1), null, null);
+        HistoricoMapeado.escribir(archivo, List.of(tren, pan, sinDescripcion));
+
+        // La categoría de alimentación ya no existe en memoria: se reconstruye del archivo
+        HistoricoMapeado historico = HistoricoMapeado.abrir(archivo,
+            id -> id.equals(transporte.getId()) ? transporte : null);
+
+        List<Gasto> gastos = historico.gastosEntre(null, null);
+        assertThat(gastos).extracting(Gasto::getId)
+            .containsExactly(pan.getId(), sinDescripcion.getId(), tren.getId());
+        assertThat(gastos.get(0).getCategoria().getId()).isEqualTo(alimentacion.getId());
+        assertThat(gastos.get(0).getCategoria().getDescripcion()).isEqualTo("Comida");
+        assertThat(gastos.get(1).getDescripcion()).isNull();
+        assertThat(gastos.get(1).getCategoria()).isNull();
+        assertThat(gastos.get(2).getCategoria()).isSameAs(transporte);
+        assertThat(gastos.get(2).getCantidad()).isEqualTo(12.35);
+    }
+
+    @Test
+    @DisplayName("Los totales se calculan por intervalo, categoría y mes")
+    void testTotales() throws Exception {
+        Path archivo = directorio.resolve("historico");
+        HistoricoMapeado.escribir(archivo, List.of(
+            new Gasto(10.0, LocalDate.of(2015, 1, 31), "A", alimentacion),
+            new Gasto(2.5, LocalDate.of(2015, 2, 1), "B", alimentacion),
+            new Gasto(4.0, LocalDate.of(2015, 2, 28), "C", transporte),
+            new Gasto(1.0, LocalDate.of(2015, 4, 1), "D", transporte)));
+        HistoricoMapeado historico = HistoricoMapeado.abrir(archivo, id -> null);
+
+        assertThat(historico.totalEntre(LocalDate.of(2015, 2, 1), LocalDate.of(2015, 2, 28))).isEqualTo(6.5);
+        assertThat(historico.totalEntre(null, null)).isEqualTo(17.5);
+
+        Map<Categoria, Double> porCategoria = historico.totalesPorCategoria(null, LocalDate.of(2015, 3, 1));
+        assertThat(porCategoria).containsEntry(alimentacion, 12.5).containsEntry(transporte, 4.0);
+
+        Map<YearMonth, Double> porMes = historico.totalesPorMes(null, null);
+        assertThat(porMes).containsExactly(
+            Map.entry(YearMonth.of(2015, 1), 10.0),
+            Map.entry(YearMonth.of(2015, 2), 6.5),
+            Map.entry(YearMonth.of(2015, 4), 1.0));
+    }
+
+    @Test
+    @DisplayName("Al abrir el repositorio se archivan los gastos anteriores al periodo activo")
+    void testArchivarAlAbrir() {
+        Path archivoDatos = directorio.resolve("datos_gastos.json");
+        ConfiguracionPersistencia configuracion = ConfiguracionPersistencia.porDefecto().conVentanaMs(0);
+        RepositorioJSON repositorio = new RepositorioJSON(archivoDatos, configuracion);
+        Gasto antiguo = new Gasto(30.0, LocalDate.now().minusYears(3), "Antiguo", alimentacion);
+        Gasto reciente = new Gasto(5.0, LocalDate.now(), "Reciente", alimentacion);
+        repositorio.insertarCategoria(alimentacion);
+        repositorio.insertarGastos(List.of(antiguo, reciente));
+
+        RepositorioJSON archivado = new RepositorioJSON(archivoDatos, configuracion.conMesesActivos(12));
+
+        assertThat(archivado.obtenerTodosLosGastos()).containsExactly(reciente);
+        assertThat(archivado.historico().cantidad()).isEqualTo(1);
+        Gasto leido = archivado.historico().gastosEntre(null, null).get(0);
+        assertThat(leido.getId()).isEqualTo(antiguo.getId());
+        assertThat(leido.getCategoria()).isSameAs(archivado.obtenerTodasLasCategorias().get(0));
+
+        // Sin archivar más, el histórico sigue disponible y no se duplica
+        RepositorioJSON reabierto = new RepositorioJSON(archivoDatos, configuracion.conMesesActivos(12));
+        assertThat(reabierto.obtenerTodosLosGastos()).containsExactly(reciente);
+        assertThat(reabierto.historico().totalEntre(null, null)).isEqualTo(30.0);
+    }
+
+    @Test
+    @DisplayName("Archivar otra vez anexa un segmento sin reescribir los registros anteriores")
+    void testArchivarAnexa() throws Exception {
+        Path archivoDatos = directorio.resolve("datos_gastos.json");
+        Path archivoHistorico = directorio.resolve("datos_gastos.json.historico");
+        ConfiguracionPersistencia configuracion = ConfiguracionPersistencia.porDefecto()
+            .conVentanaMs(0).conMesesActivos(12);
+        RepositorioJSON repositorio = new RepositorioJSON(archivoDatos, configuracion);
+        repositorio.insertarCategoria(alimentacion);
+        repositorio.insertarGasto(new Gasto(30.0, LocalDate.now().minusYears(3), "Antiguo", alimentacion));
+        repositorio = new RepositorioJSON(archivoDatos, configuracion);
+        byte[] antes = Files.readAllBytes(archivoHistorico);
+
+        repositorio.insertarGasto(new Gasto(20.0, LocalDate.now().minusYears(5), "Más antiguo", alimentacion));
+        RepositorioJSON archivado = new RepositorioJSON(archivoDatos, configuracion);
+
+        byte[] despues = Files.readAllBytes(archivoHistorico);
+        assertThat(despues.length).isGreaterThan(antes.length);
+        assertThat(Arrays.copyOf(despues, antes.length)).isEqualTo(antes);
+        assertThat(archivado.obtenerTodosLosGastos()).isEmpty();
+        assertThat(archivado.historico().gastosEntre(null, null)).extracting(Gasto::getDescripcion)
+            .containsExactly("Más antiguo", "Antiguo");
+        assertThat(archivado.historico().totalesPorCategoria(null, null)).containsOnlyKeys(alimentacion)
+            .containsValue(50.0);
+    }
+
+    @Test
+    @DisplayName("Con menos meses activos, los gastos archivados vuelven a memoria")
+    void testRestaurarAlBajarMesesActivos() {
+        Path archivoDatos = directorio.resolve("datos_gastos.json");
+        ConfiguracionPersistencia configuracion = ConfiguracionPersistencia.porDefecto().conVentanaMs(0);
+        RepositorioJSON repositorio = new RepositorioJSON(archivoDatos, configuracion);
+        Gasto haceTresAnios = new Gasto(30.0, LocalDate.now().minusYears(3), "Tres años", alimentacion);
+        Gasto haceSeisAnios = new Gasto(10.0, LocalDate.now().minusYears(6), "Seis años", alimentacion);
+        repositorio.insertarCategoria(alimentacion);
+        repositorio.insertarGastos(List.of(haceTresAnios, haceSeisAnios));
+        new RepositorioJSON(archivoDatos, configuracion.conMesesActivos(12));
+
+        RepositorioJSON cincoAnios = new RepositorioJSON(archivoDatos, configuracion.conMesesActivos(60));
+        assertThat(cincoAnios.obtenerTodosLosGastos()).extracting(Gasto::getId).containsExactly(haceTresAnios.getId());
+        assertThat(cincoAnios.historico().cantidad()).isEqualTo(1);
+
+        RepositorioJSON sinArchivar = new RepositorioJSON(archivoDatos, configuracion);
+        assertThat(sinArchivar.obtenerTodosLosGastos()).extracting(Gasto::getId)
+            .containsExactlyInAnyOrder(haceTresAnios.getId(), haceSeisAnios.getId());
+        assertThat(sinArchivar.historico().cantidad()).isZero();
+        assertThat(directorio.resolve("datos_gastos.json.historico")).doesNotExist();
+    }
+
+    @Test
+    @DisplayName("Un segmento anexado a medias se descarta al abrir y se sobrescribe al anexar")
+    void testSegmentoIncompleto() throws Exception {
+        Path archivo = directorio.resolve("historico");
+        HistoricoMapeado.anadir(archivo, List.of(new Gasto(10.0, LocalDate.of(2015, 1, 31), "A", alimentacion)));
+        long completo = Files.size(archivo);
+        HistoricoMapeado.anadir(archivo, List.of(new Gasto(2.5, LocalDate.of(2015, 2, 1), "B", alimentacion)));
+        // Simula una interrupción antes de escribir la marca y de completar el segmento
+        try (FileChannel canal = FileChannel.open(archivo, StandardOpenOption.WRITE)) {
+            canal.write(ByteBuffer.allocate(4), completo);
+            canal.truncate(Files.size(archivo) - 3);
+        }
+
+        assertThat(HistoricoMapeado.abrir(archivo, id -> null).cantidad()).isEqualTo(1);
+
+        HistoricoMapeado.anadir(archivo, List.of(new Gasto(4.0, LocalDate.of(2014, 12, 1), "C", transporte)));
+        HistoricoMapeado historico = HistoricoMapeado.abrir(archivo, id -> null);
+        assertThat(historico.gastosEntre(null, null)).extracting(Gasto::getDescripcion).containsExactly("C", "A");
+        assertThat(historico.totalesPorMes(null, null)).containsExactly(
+            Map.entry(YearMonth.of(2014, 12), 4.0),
+            Map.entry(YearMonth.of(2015, 1), 10.0));
+    }
+}
@@ -0,0 +1,66 @@
+package repositorio;
+
+import dominio.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests del repositorio binario y de la conversión entre formatos.
+ */
+@DisplayName("Tests - RepositorioBinario")
+class RepositorioBinarioTest {
+
+    @TempDir
+    Path directorio;
+
+    private static ConfiguracionPersistencia sincrono() {
+        return ConfiguracionPersistencia.porDefecto().conVentanaMs(0);
+    }
+
+    @Test
+    @DisplayName("Guardar y reabrir conserva los gastos en un archivo binario")
+    void testGuardarYReabrir() throws Exception {
+        Path archivo = directorio.resolve("datos.smile");
+        Categoria ocio = new Categoria("Ocio", "Cine");
+        RepositorioBinario repositorio = new RepositorioBinario(archivo, sincrono());
+        repositorio.guardarCategorias(List.of(ocio));
+        repositorio.guardarGastos(List.of(new Gasto(8.5, LocalDate.of(2025, 5, 3), "Cine", ocio)));
+
+        RepositorioBinario reabierto = new RepositorioBinario(archivo, sincrono());
+
+        assertThat(Files.readAllBytes(archivo)).startsWith((byte) ':', (byte) ')');
+        Gasto gasto = reabierto.obtenerTodosLosGastos().get(0);
+        assertThat(gasto.getCantidad()).isEqualTo(8.5);
+        assertThat(gasto.getFecha()).isEqualTo(LocalDate.of(2025, 5, 3));
+        assertThat(gasto.getCategoria()).isSameAs(reabierto.obtenerTodasLasCategorias().get(0));
+    }
+
+    @Test
+    @DisplayName("Un archivo JSON convertido a binario se abre con RepositorioBinario")
+    void testConvertirJsonABinario() throws Exception {
+        Path json = directorio.resolve("datos.json");
+        Path binario = directorio.resolve("datos.smile");
+        Categoria hogar = new Categoria("Hogar", "Luz y agua");
+        RepositorioJSON repositorioJson = new RepositorioJSON(json, sincrono());
+        repositorioJson.guardarCategorias(List.of(hogar));
+        repositorioJson.guardarGastos(List.of(
+            new Gasto(40.0, LocalDate.of(2025, 1, 10), "Luz", hogar),
+            new Gasto(25.0, LocalDate.of(2025, 1, 12), "Agua", hogar)));
+
+        ConversorFormatos.convertir(json, binario);
+
+        assertThat(Files.size(binario)).isLessThan(Files.size(json));
+        RepositorioBinario repositorio = new RepositorioBinario(binario, sincrono());
+        assertThat(repositorio.obtenerTodosLosGastos())
+            .extracting(Gasto::getDescripcion)
+            .containsExactly("Luz", "Agua");
+    }
+}
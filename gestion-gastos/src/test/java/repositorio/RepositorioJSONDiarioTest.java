@@ -0,0 +1,287 @@
+package repositorio;
+
+import dominio.*;
+import dominio.enums.TipoDistribucion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests del modo diario de RepositorioJSON.
+ * Comprueba que los cambios se anexan al diario y se recuperan al reabrir.
+ */
+@DisplayName("Tests - RepositorioJSON en modo diario")
+class RepositorioJSONDiarioTest {
+
+    @TempDir
+    Path directorio;
+
+    private Path archivoDatos;
+    private Path archivoDiario;
+    private Categoria alimentacion;
+
+    @BeforeEach
+    void setUp() {
+        archivoDatos = directorio.resolve("datos_gastos.json");
+        archivoDiario = directorio.resolve("datos_gastos.json.diario");
+        alimentacion = new Categoria("Alimentación", "Comida");
+    }
+
+    private static ConfiguracionPersistencia diario(int compactarCada) {
+        return ConfiguracionPersistencia.porDefecto()
+            .conDiario(true)
+            .conCompactarCada(compactarCada)
+            .conVentanaMs(0);
+    }
+
+    @Test
+    @DisplayName("Guardar un gasto solo anexa al diario")
+    void testGuardarAnexaAlDiario() throws Exception {
+        RepositorioJSON repositorio = new RepositorioJSON(archivoDatos, diario(1000));
+        repositorio.guardarCategorias(List.of(alimentacion));
+
+        repositorio.guardarGastos(List.of(new Gasto(10.0, LocalDate.now(), "Pan", alimentacion)));
+
+        assertThat(archivoDatos).doesNotExist();
+        // Una línea por la categoría y otra por el gasto, que solo la referencia por id
+        assertThat(Files.readAllLines(archivoDiario)).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Una copia truncada a media lista de gastos no deja gastos sueltos al recuperar la anterior")
+    void testCargaTruncadaNoMezclaGeneraciones() throws Exception {
+        ConfiguracionPersistencia conGeneraciones = ConfiguracionPersistencia.porDefecto()
+            .conDiario(false).conVentanaMs(0).conGeneraciones(2);
+        RepositorioJSON repositorio = new RepositorioJSON(archivoDatos, conGeneraciones);
+        Gasto pan = new Gasto(10.0, LocalDate.now(), "Pan", alimentacion);
+        repositorio.guardarGastos(List.of(pan));
+        repositorio.guardarGastos(List.of(pan, new Gasto(5.0, LocalDate.now(), "Leche", alimentacion),
+                                          new Gasto(2.0, LocalDate.now(), "Huevos", alimentacion)));
+        String actual = Files.readString(archivoDatos);
+        Files.writeString(archivoDatos, actual.substring(0, actual.indexOf("Huevos")));
+
+        RepositorioJSON reabierto = new RepositorioJSON(archivoDatos, conGeneraciones);
+
+        assertThat(reabierto.obtenerTodosLosGastos()).extracting(Gasto::getId).containsExactly(pan.getId());
+    }
+
+    @Test
+    @DisplayName("Tras vincular, el repositorio no conserva los gastos que cargó")
+    void testVincularLiberaColecciones() throws Exception {
+        ConfiguracionPersistencia sincrono = ConfiguracionPersistencia.porDefecto().conDiario(false).conVentanaMs(0);
+        new RepositorioJSON(archivoDatos, sincrono)
+            .guardarGastos(List.of(new Gasto(10.0, LocalDate.now(), "Pan", alimentacion)));
+        RepositorioJSON reabierto = new RepositorioJSON(archivoDatos, sincrono);
+        WeakReference<Gasto> cargado = new WeakReference<>(reabierto.obtenerTodosLosGastos().get(0));
+
+        reabierto.vincular(new FuenteDatos() {
+            @Override public List<Gasto> gastos() { return List.of(); }
+            @Override public Gasto gasto(String id) { return null; }
+            @Override public List<Categoria> categorias() { return List.of(); }
+            @Override public Categoria categoria(String id) { return null; }
+            @Override public List<Alerta> alertas() { return List.of(); }
+            @Override public Alerta alerta(String id) { return null; }
+            @Override public List<CuentaCompartida> cuentas() { return List.of(); }
+            @Override public CuentaCompartida cuenta(String id) { return null; }
+        });
+        for (int i = 0; i < 50 && cargado.get() != null; i++) {
+            System.gc();
+            Thread.sleep(20);
+        }
+
+        assertThat(cargado.get()).isNull();
+    }
+
+    @Test
+    @DisplayName("Reabrir reproduce inserciones, modificaciones y borrados")
+    void testReabrirReproduceDiario() {
+        RepositorioJSON repositorio = new RepositorioJSON(archivoDatos, diario(1000));
+        Gasto pan = new Gasto(10.0, LocalDate.now(), "Pan", alimentacion);
+        Gasto leche = new Gasto(5.0, LocalDate.now(), "Leche", alimentacion);
+        List<Gasto> gastos = new ArrayList<>(List.of(pan, leche));
+        repositorio.guardarGastos(gastos);
+
+        pan.setCantidad(12.5);
+        gastos.remove(leche);
+        repositorio.guardarGastos(gastos);
+
+        RepositorioJSON reabierto = new RepositorioJSON(archivoDatos, diario(1000));
+
+        assertThat(reabierto.obtenerTodosLosGastos()).containsExactly(pan);
+        assertThat(reabierto.obtenerTodosLosGastos().get(0).getCantidad()).isEqualTo(12.5);
+    }
+
+    @Test
+    @DisplayName("Las operaciones por entidad solo anexan los registros de esa entidad")
+    void testOperacionesPorEntidad() throws Exception {
+        RepositorioJSON repositorio = new RepositorioJSON(archivoDatos, diario(1000));
+        Gasto pan = new Gasto(10.0, LocalDate.now(), "Pan", alimentacion);
+        Gasto leche = new Gasto(5.0, LocalDate.now(), "Leche", alimentacion);
+        repositorio.insertarCategoria(alimentacion);
+        repositorio.insertarGastos(List.of(pan, leche));
+
+        pan.setCantidad(12.5);
+        repositorio.actualizarGasto(pan);
+        repositorio.eliminarGasto(leche);
+
+        // Categoría, dos inserciones, una modificación y un borrado
+        assertThat(Files.readAllLines(archivoDiario)).hasSize(5);
+
+        // Borrar la categoría la conserva como referenciada mientras el gasto la use
+        repositorio.eliminarCategoria(alimentacion);
+
+        RepositorioJSON reabierto = new RepositorioJSON(archivoDatos, diario(1000));
+        assertThat(reabierto.obtenerTodosLosGastos()).containsExactly(pan);
+        assertThat(reabierto.obtenerTodosLosGastos().get(0).getCantidad()).isEqualTo(12.5);
+        assertThat(reabierto.obtenerTodosLosGastos().get(0).getCategoria()).isEqualTo(alimentacion);
+        assertThat(reabierto.obtenerTodasLasCategorias()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Vinculado a una fuente, el repositorio lee de ella lo que persiste")
+    void testVincularFuente() {
+        RepositorioJSON repositorio = new RepositorioJSON(archivoDatos, diario(1000));
+        List<Gasto> gastos = new ArrayList<>();
+        repositorio.vincular(fuente(gastos, List.of(alimentacion)));
+
+        Gasto pan = new Gasto(10.0, LocalDate.now(), "Pan", alimentacion);
+        gastos.add(pan);
+        repositorio.insertarGasto(pan);
+        assertThat(repositorio.obtenerTodosLosGastos()).containsExactly(pan);
+
+        pan.setCantidad(12.5);
+        repositorio.actualizarGasto(pan);
+        Gasto leche = new Gasto(5.0, LocalDate.now(), "Leche", alimentacion);
+        gastos.add(leche);
+        repositorio.insertarGasto(leche);
+        gastos.remove(leche);
+        repositorio.eliminarGasto(leche);
+
+        RepositorioJSON reabierto = new RepositorioJSON(archivoDatos, diario(1000));
+        assertThat(reabierto.obtenerTodosLosGastos()).containsExactly(pan);
+        assertThat(reabierto.obtenerTodosLosGastos().get(0).getCantidad()).isEqualTo(12.5);
+        assertThat(reabierto.obtenerTodasLasCategorias()).containsExactly(alimentacion);
+    }
+
+    @Test
+    @DisplayName("Un error inesperado al volcar deja los cambios pendientes para el siguiente volcado")
+    void testErrorInesperadoConservaPendientes() {
+        RepositorioJSON repositorio = new RepositorioJSON(archivoDatos, diario(1000));
+        List<Gasto> gastos = new ArrayList<>();
+        FuenteDatos normal = fuente(gastos, List.of(alimentacion));
+        boolean[] fallar = {true};
+        repositorio.vincular(new FuenteDatos() {
+            public List<Gasto> gastos() { return normal.gastos(); }
+            public Gasto gasto(String id) {
+                if (fallar[0]) {
+                    throw new IllegalStateException("Fallo simulado");
+                }
+                return normal.gasto(id);
+            }
+            public List<Categoria> categorias() { return normal.categorias(); }
+            public Categoria categoria(String id) { return normal.categoria(id); }
+            public List<Alerta> alertas() { return normal.alertas(); }
+            public Alerta alerta(String id) { return normal.alerta(id); }
+            public List<CuentaCompartida> cuentas() { return normal.cuentas(); }
+            public CuentaCompartida cuenta(String id) { return normal.cuenta(id); }
+        });
+
+        Gasto pan = new Gasto(10.0, LocalDate.now(), "Pan", alimentacion);
+        gastos.add(pan);
+        repositorio.insertarGasto(pan);
+        fallar[0] = false;
+        Gasto leche = new Gasto(5.0, LocalDate.now(), "Leche", alimentacion);
+        gastos.add(leche);
+        repositorio.insertarGasto(leche);
+
+        RepositorioJSON reabierto = new RepositorioJSON(archivoDatos, diario(1000));
+        assertThat(reabierto.obtenerTodosLosGastos()).containsExactly(pan, leche);
+    }
+
+    private static FuenteDatos fuente(List<Gasto> gastos, List<Categoria> categorias) {
+        return new FuenteDatos() {
+            public List<Gasto> gastos() { return new ArrayList<>(gastos); }
+            public Gasto gasto(String id) { return buscar(gastos, id, Gasto::getId); }
+            public List<Categoria> categorias() { return new ArrayList<>(categorias); }
+            public Categoria categoria(String id) { return buscar(categorias, id, Categoria::getId); }
+            public List<Alerta> alertas() { return new ArrayList<>(); }
+            public Alerta alerta(String id) { return null; }
+            public List<CuentaCompartida> cuentas() { return new ArrayList<>(); }
+            public CuentaCompartida cuenta(String id) { return null; }
+        };
+    }
+
+    private static <T> T buscar(List<T> entidades, String id, java.util.function.Function<T, String> obtenerId) {
+        return entidades.stream().filter(e -> obtenerId.apply(e).equals(id)).findFirst().orElse(null);
+    }
+
+    @Test
+    @DisplayName("Actualizar una cuenta solo reescribe los gastos que no están en la lista general")
+    void testActualizarCuentaNoReescribeGastosGenerales() throws Exception {
+        RepositorioJSON repositorio = new RepositorioJSON(archivoDatos, diario(1000));
+        Persona ana = new Persona("Ana");
+        CuentaCompartida piso = new CuentaCompartida("Piso", TipoDistribucion.EQUITATIVA,
+                                                     List.of(ana, new Persona("Luis")));
+        Gasto compra = new Gasto(30.0, LocalDate.now(), "Compra", alimentacion);
+        Gasto luz = new Gasto(60.0, LocalDate.now(), "Luz", alimentacion);
+        piso.agregarGasto(compra, ana);
+        piso.agregarGasto(luz, ana);
+        repositorio.insertarCategoria(alimentacion);
+        repositorio.insertarGasto(compra);
+        repositorio.insertarCuenta(piso);
+        int lineas = Files.readAllLines(archivoDiario).size();
+
+        repositorio.actualizarCuenta(piso);
+
+        // La cuenta y el gasto que solo está en ella
+        assertThat(Files.readAllLines(archivoDiario)).hasSize(lineas + 2);
+        RepositorioJSON reabierto = new RepositorioJSON(archivoDatos, diario(1000));
+        assertThat(reabierto.obtenerTodosLosGastos()).containsExactly(compra);
+        assertThat(reabierto.obtenerTodasLasCuentas().get(0).getGastos()).containsExactly(compra, luz);
+    }
+
+    @Test
+    @DisplayName("Alcanzar el umbral compacta el diario en una instantánea")
+    void testCompactacion() {
+        RepositorioJSON repositorio = new RepositorioJSON(archivoDatos, diario(4));
+        repositorio.guardarCategorias(List.of(alimentacion));
+        for (int i = 0; i < 3; i++) {
+            repositorio.insertarGasto(new Gasto(i + 1.0, LocalDate.now(), "Gasto " + i, alimentacion));
+        }
+
+        assertThat(archivoDatos).exists();
+        assertThat(archivoDiario).doesNotExist();
+        assertThat(new RepositorioJSON(archivoDatos, diario(4)).obtenerTodosLosGastos()).hasSize(3);
+    }
+
+    @Test
+    @DisplayName("Con escritura diferida los cambios se agrupan hasta el cierre")
+    void testEscrituraDiferidaAgrupaCambios() throws Exception {
+        RepositorioJSON repositorio = new RepositorioJSON(archivoDatos,
+            diario(1000).conVentanaMs(60_000));
+        List<Gasto> gastos = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            gastos.add(new Gasto(i + 1.0, LocalDate.now(), "Gasto " + i, alimentacion));
+            repositorio.guardarGastos(gastos);
+            repositorio.guardarCategorias(List.of(alimentacion));
+        }
+
+        assertThat(archivoDiario).doesNotExist();
+
+        repositorio.cerrar();
+
+        // Una inserción por gasto y otra por la categoría, en un único volcado
+        assertThat(Files.readAllLines(archivoDiario)).hasSize(6);
+        assertThat(new RepositorioJSON(archivoDatos, diario(1000)).obtenerTodosLosGastos()).hasSize(5);
+    }
+}
@@ -0,0 +1,221 @@
+package repositorio;
+
+import dominio.*;
+import dominio.enums.TipoDistribucion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+/**
+ * Tests del repositorio sobre base de datos embebida y de la migración desde JSON.
+ */
+@DisplayName("Tests - RepositorioSQL")
+class RepositorioSQLTest {
+
+    @TempDir
+    Path directorio;
+
+    private String url;
+    private Categoria transporte;
+    private final List<RepositorioSQL> abiertos = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        url = RepositorioSQL.urlArchivo(directorio.resolve("datos"));
+        transporte = new Categoria("Transporte", "Bus y tren");
+    }
+
+    @AfterEach
+    void tearDown() {
+        abiertos.forEach(RepositorioSQL::cerrar);
+    }
+
+    private RepositorioSQL abrir() throws Exception {
+        RepositorioSQL repositorio = new RepositorioSQL(url);
+        abiertos.add(repositorio);
+        return repositorio;
+    }
+
+    @Test
+    @DisplayName("Los cambios por filas se conservan, en orden, al reabrir")
+    void testGuardarYReabrir() throws Exception {
+        RepositorioSQL repositorio = abrir();
+        Gasto bus = new Gasto(1.5, LocalDate.of(2025, 2, 1), "Bus", transporte);
+        Gasto tren = new Gasto(12.0, LocalDate.of(2025, 2, 2), "Tren", transporte);
+        Gasto taxi = new Gasto(20.0, LocalDate.of(2025, 2, 3), "Taxi", transporte);
+        List<Gasto> gastos = new ArrayList<>(List.of(bus, tren, taxi));
+        repositorio.guardarCategorias(List.of(transporte));
+        repositorio.guardarGastos(gastos);
+
+        gastos.remove(tren);
+        bus.setCantidad(2.0);
+        gastos.add(new Gasto(3.0, LocalDate.of(2025, 2, 4), "Metro", transporte));
+        repositorio.guardarGastos(gastos);
+        repositorio.cerrar();
+
+        RepositorioSQL reabierto = abrir();
+
+        List<Gasto> leidos = reabierto.obtenerTodosLosGastos();
+        assertThat(leidos).extracting(Gasto::getDescripcion).containsExactly("Bus", "Taxi", "Metro");
+        assertThat(leidos.get(0).getCantidad()).isEqualTo(2.0);
+        assertThat(leidos).allSatisfy(gasto ->
+            assertThat(gasto.getCategoria()).isSameAs(reabierto.obtenerTodasLasCategorias().get(0)));
+    }
+
+    @Test
+    @DisplayName("Las cuentas compartidas conservan sus personas y gastos")
+    void testCuentasCompartidas() throws Exception {
+        RepositorioSQL repositorio = abrir();
+        Persona eva = new Persona("Eva");
+        CuentaCompartida viaje = new CuentaCompartida("Viaje", TipoDistribucion.EQUITATIVA,
+                                                      List.of(eva, new Persona("Juan")));
+        Gasto hotel = new Gasto(200.0, LocalDate.of(2025, 7, 1), "Hotel", transporte);
+        viaje.agregarGasto(hotel, eva);
+        repositorio.guardarCategorias(List.of(transporte));
+        repositorio.guardarGastos(List.of(hotel));
+        repositorio.guardarCuentasCompartidas(List.of(viaje));
+        repositorio.cerrar();
+
+        RepositorioSQL reabierto = abrir();
+
+        CuentaCompartida cuenta = reabierto.obtenerTodasLasCuentas().get(0);
+        assertThat(cuenta.getPersonas()).extracting(Persona::getNombre).containsExactly("Eva", "Juan");
+        assertThat(cuenta.getGastos().get(0)).isSameAs(reabierto.obtenerTodosLosGastos().get(0));
+        assertThat(cuenta.getGastos().get(0).getPagador()).isSameAs(cuenta.getPersonas().get(0));
+    }
+
+    @Test
+    @DisplayName("Las operaciones por entidad escriben solo sus filas")
+    void testOperacionesPorEntidad() throws Exception {
+        RepositorioSQL repositorio = abrir();
+        Persona eva = new Persona("Eva");
+        CuentaCompartida viaje = new CuentaCompartida("Viaje", TipoDistribucion.EQUITATIVA,
+                                                      List.of(eva, new Persona("Juan")));
+        Gasto hotel = new Gasto(200.0, LocalDate.of(2025, 7, 1), "Hotel", transporte);
+        Gasto bus = new Gasto(1.5, LocalDate.of(2025, 7, 2), "Bus", transporte);
+        viaje.agregarGasto(hotel, eva);
+        repositorio.insertarCategoria(transporte);
+        repositorio.insertarGastos(List.of(hotel, bus));
+        repositorio.insertarCuenta(viaje);
+
+        // El gasto sale de la lista general pero la cuenta lo sigue referenciando
+        repositorio.eliminarGasto(hotel);
+        bus.setDescripcion("Autobús");
+        repositorio.actualizarGasto(bus);
+        repositorio.cerrar();
+
+        RepositorioSQL reabierto = abrir();
+
+        assertThat(reabierto.obtenerTodosLosGastos()).extracting(Gasto::getDescripcion).containsExactly("Autobús");
+        CuentaCompartida cuenta = reabierto.obtenerTodasLasCuentas().get(0);
+        assertThat(cuenta.getGastos()).extracting(Gasto::getDescripcion).containsExactly("Hotel");
+        assertThat(cuenta.getGastos().get(0).getPagador()).isSameAs(cuenta.getPersonas().get(0));
+    }
+
+    @Test
+    @DisplayName("Un gasto que no se pudo escribir se incluye en la siguiente escritura")
+    void testFalloSeEscribeConElSiguienteCambio() throws Exception {
+        RepositorioSQL repositorio = abrir();
+        repositorio.insertarCategoria(transporte);
+        try (Connection otra = DriverManager.getConnection(url); Statement sentencia = otra.createStatement()) {
+            sentencia.execute("ALTER TABLE gastos RENAME TO gastos_apartados");
+            repositorio.insertarGasto(new Gasto(1.5, LocalDate.of(2025, 2, 1), "Bus", transporte));
+            assertThat(contarGastos(otra, "gastos_apartados")).isZero();
+
+            sentencia.execute("ALTER TABLE gastos_apartados RENAME TO gastos");
+            repositorio.insertarGasto(new Gasto(12.0, LocalDate.of(2025, 2, 2), "Tren", transporte));
+            assertThat(contarGastos(otra, "gastos")).isEqualTo(2);
+        }
+        repositorio.cerrar();
+
+        assertThat(abrir().obtenerTodosLosGastos()).extracting(Gasto::getDescripcion).containsExactly("Bus", "Tren");
+    }
+
+    @Test
+    @DisplayName("Un gasto que no se pudo escribir se reintenta sin esperar a otro cambio")
+    void testFalloSeReintenta() throws Exception {
+        RepositorioSQL repositorio = abrir();
+        repositorio.insertarCategoria(transporte);
+        try (Connection otra = DriverManager.getConnection(url); Statement sentencia = otra.createStatement()) {
+            sentencia.execute("ALTER TABLE gastos RENAME TO gastos_apartados");
+            repositorio.insertarGasto(new Gasto(1.5, LocalDate.of(2025, 2, 1), "Bus", transporte));
+            sentencia.execute("ALTER TABLE gastos_apartados RENAME TO gastos");
+
+            long limite = System.currentTimeMillis() + 10 * RepositorioSQL.ESPERA_REINTENTO_MS;
+            while (contarGastos(otra, "gastos") == 0 && System.currentTimeMillis() < limite) {
+                Thread.sleep(50);
+            }
+            assertThat(contarGastos(otra, "gastos")).isEqualTo(1);
+        }
+    }
+
+    @Test
+    @DisplayName("La migración importa un datos_gastos.json y crea los índices")
+    void testMigrarDesdeJson() throws Exception {
+        Path json = directorio.resolve("datos_gastos.json");
+        RepositorioJSON repositorioJson = new RepositorioJSON(json,
+            ConfiguracionPersistencia.porDefecto().conVentanaMs(0));
+        repositorioJson.guardarCategorias(List.of(transporte));
+        repositorioJson.guardarGastos(List.of(new Gasto(1.5, LocalDate.of(2025, 2, 1), "Bus", transporte)));
+
+        MigradorSQL.migrar(json, url);
+
+        assertThat(abrir().obtenerTodosLosGastos()).extracting(Gasto::getDescripcion).containsExactly("Bus");
+        try (Connection conexion = DriverManager.getConnection(url);
+             ResultSet indices = conexion.createStatement().executeQuery(
+                 "SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES WHERE TABLE_NAME = 'GASTOS'")) {
+            List<String> nombres = new ArrayList<>();
+            while (indices.next()) {
+                nombres.add(indices.getString(1));
+            }
+            assertThat(nombres).contains("IDX_GASTOS_FECHA", "IDX_GASTOS_CATEGORIA");
+        }
+    }
+
+    @Test
+    @DisplayName("Una base con importes DOUBLE se convierte a decimal al abrirla")
+    void testConvertirImportesDouble() throws Exception {
+        try (Connection conexion = DriverManager.getConnection(url)) {
+            conexion.createStatement().execute(
+                "CREATE TABLE gastos (id VARCHAR(64) PRIMARY KEY, cantidad DOUBLE NOT NULL, fecha DATE, " +
+                "descripcion VARCHAR(1024), categoria_id VARCHAR(64), pagador_id VARCHAR(64), " +
+                "en_lista BOOLEAN NOT NULL)");
+            conexion.createStatement().execute(
+                "INSERT INTO gastos VALUES ('g1', 0.1, DATE '2025-02-01', 'Chicle', NULL, NULL, TRUE)");
+            conexion.createStatement().execute(
+                "INSERT INTO gastos VALUES ('g2', 0.2, DATE '2025-02-02', 'Caramelo', NULL, NULL, TRUE)");
+        }
+
+        RepositorioSQL repositorio = abrir();
+
+        assertThat(repositorio.obtenerTodosLosGastos()).extracting(Gasto::getCentimos).containsExactly(10L, 20L);
+        try (Connection conexion = DriverManager.getConnection(url);
+             ResultSet tipo = conexion.createStatement().executeQuery(
+                 "SELECT DATA_TYPE FROM INFORMATION_SCHEMA.COLUMNS " +
+                 "WHERE TABLE_NAME = 'GASTOS' AND COLUMN_NAME = 'CANTIDAD'")) {
+            assertThat(tipo.next()).isTrue();
+            assertThat(tipo.getString(1)).isEqualTo("NUMERIC");
+        }
+    }
+
+    private static int contarGastos(Connection conexion, String tabla) throws Exception {
+        try (Statement sentencia = conexion.createStatement();
+             ResultSet filas = sentencia.executeQuery("SELECT COUNT(*) FROM " + tabla)) {
+            filas.next();
+            return filas.getInt(1);
+        }
+    }
+}